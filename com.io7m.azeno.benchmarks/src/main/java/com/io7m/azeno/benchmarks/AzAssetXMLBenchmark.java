@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.benchmarks;
+
+import com.io7m.azeno.model.AzAsset1NType;
+import com.io7m.azeno.model.AzAssets;
+import com.io7m.azeno.xml.AzAssetParsers;
+import com.io7m.azeno.xml.AzAssetSerializers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the asset XML parsers and serializers.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AzAssetXMLBenchmark
+{
+  private static final URI SOURCE =
+    URI.create("urn:benchmark");
+
+  @Param({"10", "100", "1000"})
+  public int propertyCount;
+
+  @Param({"1", "100"})
+  public int assetCount;
+
+  private AzAssetParsers parsers;
+  private AzAssetSerializers serializers;
+  private AzAssets assets;
+  private byte[] assetsSerialized;
+
+  /**
+   * Benchmarks for the asset XML parsers and serializers.
+   */
+
+  public AzAssetXMLBenchmark()
+  {
+
+  }
+
+  /**
+   * Generate the inputs.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup
+  public void setup()
+    throws Exception
+  {
+    this.parsers =
+      new AzAssetParsers();
+    this.serializers =
+      new AzAssetSerializers();
+    this.assets =
+      AzBenchmarkData.assets(this.assetCount, this.propertyCount);
+    this.assetsSerialized =
+      this.serialize(this.assets);
+  }
+
+  private byte[] serialize(
+    final AzAsset1NType value)
+    throws Exception
+  {
+    final var output = new ByteArrayOutputStream();
+    this.serializers.serialize(SOURCE, output, value);
+    return output.toByteArray();
+  }
+
+  private AzAsset1NType parse(
+    final byte[] data)
+    throws Exception
+  {
+    return this.parsers.parse(SOURCE, new ByteArrayInputStream(data));
+  }
+
+  /**
+   * Serialize assets.
+   *
+   * @return The serialized assets
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public byte[] serialize()
+    throws Exception
+  {
+    return this.serialize(this.assets);
+  }
+
+  /**
+   * Parse assets.
+   *
+   * @return The parsed assets
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public AzAsset1NType parse()
+    throws Exception
+  {
+    return this.parse(this.assetsSerialized);
+  }
+
+  /**
+   * Serialize and then parse assets.
+   *
+   * @return The parsed assets
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public AzAsset1NType roundTrip()
+    throws Exception
+  {
+    return this.parse(this.serialize(this.assets));
+  }
+}
@@ -0,0 +1,244 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.benchmarks;
+
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAssetProperties;
+import com.io7m.azeno.model.AzAssets;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.model.AzHashSHA256;
+import com.io7m.azeno.model.AzSchema;
+import com.io7m.azeno.model.AzSchemaFieldBoolean;
+import com.io7m.azeno.model.AzSchemaFieldFloating;
+import com.io7m.azeno.model.AzSchemaFieldInteger;
+import com.io7m.azeno.model.AzSchemaFieldStringLocal;
+import com.io7m.azeno.model.AzSchemaFieldStringUninterpreted;
+import com.io7m.azeno.model.AzSchemaFieldTimestamp;
+import com.io7m.azeno.model.AzSchemaFieldType;
+import com.io7m.azeno.model.AzSchemaFieldURI;
+import com.io7m.azeno.model.AzSchemaFieldUUID;
+import com.io7m.azeno.model.AzSchemaID;
+import com.io7m.azeno.model.AzValueBoolean;
+import com.io7m.azeno.model.AzValueFloating;
+import com.io7m.azeno.model.AzValueInteger;
+import com.io7m.azeno.model.AzValueString;
+import com.io7m.azeno.model.AzValueTimestamp;
+import com.io7m.azeno.model.AzValueURI;
+import com.io7m.azeno.model.AzValueUUID;
+import com.io7m.lanark.core.RDottedName;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.sessions.JqwikSession;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Deterministic benchmark inputs. Every generator is driven by a fixed seed
+ * so that results are comparable across runs and across releases.
+ */
+
+public final class AzBenchmarkData
+{
+  private static final long SEED = 0x617a656e6fL;
+  private static final int GENERATION_SIZE = 1000;
+
+  private AzBenchmarkData()
+  {
+
+  }
+
+  /**
+   * @return A random number generator with a fixed seed
+   */
+
+  public static Random random()
+  {
+    return new Random(SEED);
+  }
+
+  /**
+   * Draw a fixed number of samples from an arbitrary. The arbitrary
+   * generators are taken from the test suite, and the samples are drawn once
+   * during benchmark setup. The generator is driven by a random number
+   * generator with a fixed seed, and the samples are drawn twice and
+   * compared, so a generator that does not honour the seed is detected
+   * rather than silently producing different inputs on each run.
+   *
+   * @param arbitrary The arbitrary
+   * @param count     The number of samples
+   * @param filter    A filter applied to the samples
+   * @param <T>       The type of values
+   *
+   * @return The samples
+   *
+   * @throws IllegalStateException If the samples are not deterministic
+   */
+
+  public static <T> List<T> samples(
+    final Arbitrary<T> arbitrary,
+    final int count,
+    final Predicate<T> filter)
+  {
+    final var first = samplesOnce(arbitrary, count, filter);
+    final var second = samplesOnce(arbitrary, count, filter);
+    if (!first.equals(second)) {
+      throw new IllegalStateException(
+        "Samples drawn with the same seed differ; the arbitrary is not deterministic."
+      );
+    }
+    return first;
+  }
+
+  private static <T> List<T> samplesOnce(
+    final Arbitrary<T> arbitrary,
+    final int count,
+    final Predicate<T> filter)
+  {
+    JqwikSession.start();
+    try {
+      final var random = random();
+      final var generator = arbitrary.generator(GENERATION_SIZE);
+      return Stream.generate(() -> generator.next(random).value())
+        .filter(filter)
+        .limit(count)
+        .toList();
+    } finally {
+      JqwikSession.finish();
+    }
+  }
+
+  /**
+   * Generate a set of assets, each with the given number of properties.
+   * Properties cycle through all the supported value types.
+   *
+   * @param assetCount    The number of assets
+   * @param propertyCount The number of properties per asset
+   *
+   * @return The assets
+   */
+
+  public static AzAssets assets(
+    final int assetCount,
+    final int propertyCount)
+  {
+    final var random = random();
+    final var collection = new AzCollectionID(new UUID(0L, 1L));
+    final var assets = new ArrayList<AzAsset>(assetCount);
+
+    for (int assetIndex = 0; assetIndex < assetCount; ++assetIndex) {
+      final var properties = AzAssetProperties.builder();
+      for (int index = 0; index < propertyCount; ++index) {
+        final var name = fieldName(index);
+        properties.put(
+          switch (index % 8) {
+            case 0 -> new AzValueBoolean(name, random.nextBoolean());
+            case 1 -> new AzValueFloating(name, random.nextDouble());
+            case 2 -> new AzValueInteger(name, BigInteger.valueOf(random.nextLong()));
+            case 3 -> new AzValueString(name, "Text %d".formatted(random.nextLong()));
+            case 4 -> new AzValueTimestamp(name, timestamp(random));
+            case 5 -> new AzValueURI(name, URI.create("https://www.example.com/%d".formatted(index)));
+            case 6 -> new AzValueUUID(name, new UUID(random.nextLong(), random.nextLong()));
+            default -> new AzValueString(name, "%d".formatted(random.nextLong()));
+          }
+        );
+      }
+
+      assets.add(
+        new AzAsset(
+          new AzAssetID(new UUID(random.nextLong(), random.nextLong())),
+          collection,
+          hash(random),
+          properties.build()
+        )
+      );
+    }
+    return new AzAssets(assets);
+  }
+
+  /**
+   * Generate a schema with the given number of fields. Fields cycle through
+   * all the supported field types.
+   *
+   * @param fieldCount The number of fields
+   *
+   * @return The schema
+   */
+
+  public static AzSchema schema(
+    final int fieldCount)
+  {
+    final var fields = new HashMap<RDottedName, AzSchemaFieldType<?>>();
+    for (int index = 0; index < fieldCount; ++index) {
+      final var name = fieldName(index);
+      final var multi = index % 3 == 0;
+      fields.put(
+        name,
+        switch (index % 8) {
+          case 0 -> new AzSchemaFieldBoolean(name, multi);
+          case 1 -> new AzSchemaFieldFloating(name, multi);
+          case 2 -> new AzSchemaFieldInteger(name, multi);
+          case 3 -> new AzSchemaFieldStringLocal(name, Locale.ENGLISH, multi);
+          case 4 -> new AzSchemaFieldTimestamp(name, multi);
+          case 5 -> new AzSchemaFieldURI(name, multi);
+          case 6 -> new AzSchemaFieldUUID(name, multi);
+          default -> new AzSchemaFieldStringUninterpreted(name, multi);
+        }
+      );
+    }
+
+    return new AzSchema(
+      new AzSchemaID(new RDottedName("com.io7m.azeno.benchmarks"), 1),
+      fields
+    );
+  }
+
+  private static RDottedName fieldName(
+    final int index)
+  {
+    return new RDottedName("com.io7m.field%d".formatted(index));
+  }
+
+  private static OffsetDateTime timestamp(
+    final Random random)
+  {
+    return OffsetDateTime.ofInstant(
+      Instant.ofEpochSecond(random.nextInt(Integer.MAX_VALUE)),
+      ZoneOffset.UTC
+    );
+  }
+
+  private static AzHashSHA256 hash(
+    final Random random)
+  {
+    final var bytes = new byte[32];
+    random.nextBytes(bytes);
+    return new AzHashSHA256(HexFormat.of().formatHex(bytes));
+  }
+}
@@ -0,0 +1,230 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.benchmarks;
+
+import com.io7m.azeno.protocol.api.AzProtocolException;
+import com.io7m.azeno.protocol.asset.AzACommandDebugInvalid;
+import com.io7m.azeno.protocol.asset.AzACommandDebugRandom;
+import com.io7m.azeno.protocol.asset.AzACommandType;
+import com.io7m.azeno.protocol.asset.AzAMessageType;
+import com.io7m.azeno.protocol.asset.AzAResponseType;
+import com.io7m.azeno.protocol.asset.AzATransactionResponse;
+import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import net.jqwik.api.Arbitraries;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the asset protocol message serializers.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AzProtocolBenchmark
+{
+  private static final int SAMPLES = 256;
+
+  @Param({"1", "100"})
+  public int transactionSize;
+
+  private AzA1Messages messages;
+  private List<AzACommandType<?>> commands;
+  private List<byte[]> commandsSerialized;
+  private List<AzAResponseType> responses;
+  private List<byte[]> responsesSerialized;
+  private AzATransactionResponse transaction;
+  private byte[] transactionSerialized;
+  private int index;
+
+  /**
+   * Benchmarks for the asset protocol message serializers.
+   */
+
+  public AzProtocolBenchmark()
+  {
+
+  }
+
+  /**
+   * Generate the inputs.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.messages = new AzA1Messages();
+
+    this.commands =
+      AzBenchmarkData.samples(
+          Arbitraries.defaultFor(AzACommandType.class),
+          SAMPLES,
+          c -> !(c instanceof AzACommandDebugRandom)
+               && !(c instanceof AzACommandDebugInvalid)
+        ).stream()
+        .<AzACommandType<?>>map(c -> (AzACommandType<?>) c)
+        .toList();
+
+    this.commandsSerialized =
+      this.commands.stream()
+        .map(this.messages::serialize)
+        .toList();
+
+    this.responses =
+      AzBenchmarkData.samples(
+        Arbitraries.defaultFor(AzAResponseType.class),
+        SAMPLES,
+        r -> true
+      );
+
+    this.responsesSerialized =
+      this.responses.stream()
+        .map(this.messages::serialize)
+        .toList();
+
+    this.transaction =
+      new AzATransactionResponse(
+        this.responses.subList(0, this.transactionSize)
+      );
+    this.transactionSerialized =
+      this.messages.serialize(this.transaction);
+  }
+
+  private int next()
+  {
+    this.index = (this.index + 1) % SAMPLES;
+    return this.index;
+  }
+
+  /**
+   * Serialize a command.
+   *
+   * @return The serialized command
+   */
+
+  @Benchmark
+  public byte[] commandSerialize()
+  {
+    return this.messages.serialize(this.commands.get(this.next()));
+  }
+
+  /**
+   * Parse a command.
+   *
+   * @return The parsed command
+   *
+   * @throws AzProtocolException On errors
+   */
+
+  @Benchmark
+  public AzAMessageType commandParse()
+    throws AzProtocolException
+  {
+    return this.messages.parse(this.commandsSerialized.get(this.next()));
+  }
+
+  /**
+   * Serialize a response.
+   *
+   * @return The serialized response
+   */
+
+  @Benchmark
+  public byte[] responseSerialize()
+  {
+    return this.messages.serialize(this.responses.get(this.next()));
+  }
+
+  /**
+   * Parse a response.
+   *
+   * @return The parsed response
+   *
+   * @throws AzProtocolException On errors
+   */
+
+  @Benchmark
+  public AzAMessageType responseParse()
+    throws AzProtocolException
+  {
+    return this.messages.parse(this.responsesSerialized.get(this.next()));
+  }
+
+  /**
+   * Serialize a framed transaction response.
+   *
+   * @return The serialized response
+   */
+
+  @Benchmark
+  public byte[] transactionSerialize()
+  {
+    return this.messages.serialize(this.transaction);
+  }
+
+  /**
+   * Parse a framed transaction response in the same manner as the client.
+   *
+   * @param blackhole The blackhole
+   *
+   * @throws Exception On errors
+   */
+
+  @Benchmark
+  public void transactionParse(
+    final Blackhole blackhole)
+    throws Exception
+  {
+    blackhole.consume(this.parseFramed(this.transactionSerialized));
+  }
+
+  private List<AzAMessageType> parseFramed(
+    final byte[] data)
+    throws IOException, AzProtocolException
+  {
+    final var results = new ArrayList<AzAMessageType>(this.transactionSize);
+    try (var input = new DataInputStream(new ByteArrayInputStream(data))) {
+      while (true) {
+        final var size = input.readInt();
+        if (size == 0) {
+          return results;
+        }
+        results.add(this.messages.parse(input.readNBytes(size)));
+      }
+    }
+  }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.benchmarks;
+
+import com.io7m.azeno.security.AzSecurity;
+import com.io7m.azeno.security.AzSecurityException;
+import com.io7m.azeno.security.AzSecurityPolicy;
+import com.io7m.medrina.api.MPolicy;
+import com.io7m.medrina.api.MPolicyEvaluator;
+import com.io7m.medrina.api.MPolicyEvaluatorType;
+import com.io7m.medrina.api.MSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.io7m.azeno.security.AzSecurityPolicy.AUDIT;
+import static com.io7m.azeno.security.AzSecurityPolicy.GRANT;
+import static com.io7m.azeno.security.AzSecurityPolicy.READ;
+import static com.io7m.azeno.security.AzSecurityPolicy.ROLE_ASSET_ADMIN;
+import static com.io7m.azeno.security.AzSecurityPolicy.ROLE_PERMISSIONS_DELEGATOR;
+import static com.io7m.azeno.security.AzSecurityPolicy.USERS;
+
+/**
+ * Benchmarks for security policy evaluation. The {@code evaluate*}
+ * benchmarks run the policy evaluator directly, which is the cost that
+ * {@link AzSecurity#check} paid on every command before decisions were
+ * memoized.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AzSecurityBenchmark
+{
+  private MPolicy policy;
+  private MPolicyEvaluatorType evaluator;
+  private UUID userId;
+  private MSubject admin;
+  private MSubject delegator;
+  private MSubject nobody;
+
+  /**
+   * Benchmarks for security policy evaluation.
+   */
+
+  public AzSecurityBenchmark()
+  {
+
+  }
+
+  /**
+   * Load the policy.
+   *
+   * @throws Exception On errors
+   */
+
+  @Setup
+  public void setup()
+    throws Exception
+  {
+    this.policy =
+      AzSecurityPolicy.open();
+    this.evaluator =
+      MPolicyEvaluator.create();
+
+    AzSecurity.setPolicy(this.policy);
+
+    this.userId =
+      new UUID(0L, 1L);
+    this.admin =
+      new MSubject(Set.of(ROLE_ASSET_ADMIN));
+    this.delegator =
+      new MSubject(Set.of(ROLE_PERMISSIONS_DELEGATOR));
+    this.nobody =
+      new MSubject(Set.of());
+  }
+
+  /**
+   * An action permitted by the first rule of the policy.
+   *
+   * @throws AzSecurityException On errors
+   */
+
+  @Benchmark
+  public void checkAllowedAdmin()
+    throws AzSecurityException
+  {
+    AzSecurity.check(this.userId, this.admin, AUDIT, READ);
+  }
+
+  /**
+   * An action permitted by a later rule of the policy.
+   *
+   * @throws AzSecurityException On errors
+   */
+
+  @Benchmark
+  public void checkAllowedDelegator()
+    throws AzSecurityException
+  {
+    AzSecurity.check(this.userId, this.delegator, USERS, GRANT);
+  }
+
+  /**
+   * An action denied by the policy.
+   *
+   * @return The exception
+   */
+
+  @Benchmark
+  public Object checkDenied()
+  {
+    try {
+      AzSecurity.check(this.userId, this.nobody, AUDIT, READ);
+      throw new IllegalStateException("Expected the check to be denied.");
+    } catch (final AzSecurityException e) {
+      return e;
+    }
+  }
+
+  /**
+   * An action permitted by the first rule of the policy, evaluated without
+   * memoization.
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public Object evaluateAllowedAdmin()
+  {
+    return this.evaluator.evaluate(this.policy, this.admin, AUDIT, READ);
+  }
+
+  /**
+   * An action permitted by a later rule of the policy, evaluated without
+   * memoization.
+   *
+   * @return The result
+   */
+
+  @Benchmark
+  public Object evaluateAllowedDelegator()
+  {
+    return this.evaluator.evaluate(this.policy, this.delegator, USERS, GRANT);
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.benchmarks;
+
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.server.service.sessions.AzSession;
+import com.io7m.azeno.server.service.sessions.AzSessionSecretIdentifier;
+import com.io7m.azeno.server.service.sessions.AzSessionService;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsService;
+import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryNoOp;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MSubject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for session creation. Each benchmark is run both on a single
+ * thread and on as many threads as there are cores; the throughput of the
+ * multithreaded variants is expected to scale with the number of cores.
+ */
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AzSessionBenchmark
+{
+  private AzSessionService sessions;
+  private AzUserID userId;
+  private IdName userName;
+  private MSubject subject;
+
+  /**
+   * Benchmarks for session creation.
+   */
+
+  public AzSessionBenchmark()
+  {
+
+  }
+
+  /**
+   * Create the session service. Sessions expire quickly so that the
+   * number of sessions held in memory stays bounded during a run.
+   */
+
+  @Setup
+  public void setup()
+  {
+    this.sessions =
+      new AzSessionService(
+        new AzMetricsService(AzServerTelemetryNoOp.noop()),
+        Duration.ofSeconds(1L)
+      );
+
+    this.userId =
+      new AzUserID(new UUID(0L, 1L));
+    this.userName =
+      new IdName("someone");
+    this.subject =
+      new MSubject(Set.of());
+  }
+
+  /**
+   * Generate session identifiers on a single thread.
+   *
+   * @return The identifier
+   */
+
+  @Benchmark
+  @Threads(1)
+  public AzSessionSecretIdentifier generateIdentifierSingle()
+  {
+    return AzSessionSecretIdentifier.generate();
+  }
+
+  /**
+   * Generate session identifiers on all cores.
+   *
+   * @return The identifier
+   */
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public AzSessionSecretIdentifier generateIdentifierAll()
+  {
+    return AzSessionSecretIdentifier.generate();
+  }
+
+  /**
+   * Create sessions on a single thread.
+   *
+   * @return The session
+   */
+
+  @Benchmark
+  @Threads(1)
+  public AzSession createSessionSingle()
+    throws DDatabaseException
+  {
+    return this.sessions.createSession(
+      this.userId,
+      this.userName,
+      this.subject
+    );
+  }
+
+  /**
+   * Create sessions on all cores.
+   *
+   * @return The session
+   */
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public AzSession createSessionAll()
+    throws DDatabaseException
+  {
+    return this.sessions.createSession(
+      this.userId,
+      this.userName,
+      this.subject
+    );
+  }
+}
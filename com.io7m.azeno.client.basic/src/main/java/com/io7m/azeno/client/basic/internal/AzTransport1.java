@@ -205,6 +205,7 @@ public final class AzTransport1
     final var requestBuilder =
       HttpRequest.newBuilder()
         .uri(targetURI)
+        .header("Accept-Encoding", "gzip")
         .POST(HttpRequest.BodyPublishers.ofByteArray(data));
 
     timeout.ifPresent(requestBuilder::timeout);
@@ -537,6 +538,7 @@ public final class AzTransport1
 
       final var request =
         HttpRequest.newBuilder(this.transactionURI)
+          .header("Accept-Encoding", "gzip")
           .POST(mainPublisher)
           .build();
 
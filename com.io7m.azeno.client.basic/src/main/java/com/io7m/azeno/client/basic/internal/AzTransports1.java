@@ -22,10 +22,10 @@ import com.io7m.azeno.strings.AzStrings;
 import com.io7m.genevan.core.GenProtocolIdentifier;
 import com.io7m.genevan.core.GenProtocolVersion;
 
+import java.math.BigInteger;
 import java.net.URI;
 import java.net.http.HttpClient;
 
-import static java.math.BigInteger.ONE;
 import static java.math.BigInteger.ZERO;
 
 /**
@@ -49,7 +49,10 @@ public final class AzTransports1
   {
     return new GenProtocolIdentifier(
       AzA1Messages.protocolId().toString(),
-      new GenProtocolVersion(ONE, ZERO)
+      new GenProtocolVersion(
+        BigInteger.valueOf(AzA1Messages.protocolVersion()),
+        ZERO
+      )
     );
   }
 
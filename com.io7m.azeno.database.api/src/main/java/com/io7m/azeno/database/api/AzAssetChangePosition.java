@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import com.io7m.azeno.model.AzAssetID;
+
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * A position in the asset change feed. Changes are ordered by the ID of the
+ * transaction that made them, and then by asset ID; a position denotes the
+ * last change that has been consumed.
+ *
+ * @param change The transaction ID of the change
+ * @param asset  The asset ID
+ */
+
+public record AzAssetChangePosition(
+  long change,
+  AzAssetID asset)
+{
+  private static final AzAssetChangePosition START =
+    new AzAssetChangePosition(-1L, new AzAssetID(new UUID(0L, 0L)));
+
+  /**
+   * A position in the asset change feed. Changes are ordered by the ID of the
+   * transaction that made them, and then by asset ID; a position denotes the
+   * last change that has been consumed.
+   *
+   * @param change The transaction ID of the change
+   * @param asset  The asset ID
+   */
+
+  public AzAssetChangePosition
+  {
+    Objects.requireNonNull(asset, "asset");
+  }
+
+  /**
+   * @return The position that precedes every change
+   */
+
+  public static AzAssetChangePosition start()
+  {
+    return START;
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.util.Objects;
+
+/**
+ * Retrieve at most the given number of assets that have changed after the
+ * given position. Only changes made by transactions that are older than every
+ * transaction still in progress are returned, so a change can never appear
+ * behind a position that has already been consumed.
+ */
+
+public interface AzAssetChangesGetType
+  extends AzDatabaseQueryType<AzAssetChangesGetType.Parameters, AzAssetChanges>
+{
+  /**
+   * The notification channel on which asset changes are announced. The
+   * payload is the ID of the transaction that made the changes.
+   */
+
+  String CHANNEL = "azeno_asset_changes";
+
+  /**
+   * The parameters.
+   *
+   * @param after The position after which to return changes
+   * @param limit The maximum number of assets to return
+   */
+
+  record Parameters(
+    AzAssetChangePosition after,
+    int limit)
+  {
+    /**
+     * The parameters.
+     *
+     * @param after The position after which to return changes
+     * @param limit The maximum number of assets to return
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(after, "after");
+
+      if (limit < 1) {
+        throw new IllegalArgumentException("Limit must be positive.");
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+/**
+ * Migrate at most the given number of assets that are stored using an older
+ * data type to the current data type. Assets that are locked by other
+ * transactions are skipped. Assets whose data cannot be parsed are left in
+ * place, marked so that they are not selected for migration again, and
+ * counted separately.
+ */
+
+public interface AzAssetDataMigrateType
+  extends AzDatabaseQueryType<Long, AzAssetDataMigrateType.Result>
+{
+  /**
+   * The result of a migration batch.
+   *
+   * @param migrated    The number of migrated assets
+   * @param unparseable The number of assets that could not be parsed
+   */
+
+  record Result(
+    long migrated,
+    long unparseable)
+  {
+    /**
+     * @return The number of assets examined by the batch
+     */
+
+    public long examined()
+    {
+      return this.migrated + this.unparseable;
+    }
+  }
+}
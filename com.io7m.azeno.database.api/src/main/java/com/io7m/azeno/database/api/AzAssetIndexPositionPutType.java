@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import com.io7m.azeno.model.AzUnit;
+
+import java.util.Objects;
+
+/**
+ * Record the durable position of the named index in the asset change feed.
+ */
+
+public interface AzAssetIndexPositionPutType
+  extends AzDatabaseQueryType<AzAssetIndexPositionPutType.Parameters, AzUnit>
+{
+  /**
+   * The parameters.
+   *
+   * @param indexName The index name
+   * @param position  The position of the last change consumed by the index
+   */
+
+  record Parameters(
+    String indexName,
+    AzAssetChangePosition position)
+  {
+    /**
+     * The parameters.
+     *
+     * @param indexName The index name
+     * @param position  The position of the last change consumed by the index
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(indexName, "indexName");
+      Objects.requireNonNull(position, "position");
+    }
+  }
+}
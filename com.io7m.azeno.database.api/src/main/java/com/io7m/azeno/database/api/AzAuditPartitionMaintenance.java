@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Parameters for audit partition maintenance.
+ *
+ * @param timeNow         The current time
+ * @param partitionsAhead The number of monthly partitions to create after
+ *                        the partition containing the current time
+ * @param expireBefore    The time at or before which partitions must end in
+ *                        order to be removed, if partitions are to be removed
+ * @param dropExpired     {@code true} if removed partitions should be
+ *                        dropped, {@code false} if they should only be
+ *                        detached
+ */
+
+public record AzAuditPartitionMaintenance(
+  OffsetDateTime timeNow,
+  int partitionsAhead,
+  Optional<OffsetDateTime> expireBefore,
+  boolean dropExpired)
+{
+  /**
+   * Parameters for audit partition maintenance.
+   *
+   * @param timeNow         The current time
+   * @param partitionsAhead The number of monthly partitions to create after
+   *                        the partition containing the current time
+   * @param expireBefore    The time at or before which partitions must end in
+   *                        order to be removed, if partitions are to be removed
+   * @param dropExpired     {@code true} if removed partitions should be
+   *                        dropped, {@code false} if they should only be
+   *                        detached
+   */
+
+  public AzAuditPartitionMaintenance
+  {
+    Objects.requireNonNull(timeNow, "timeNow");
+    Objects.requireNonNull(expireBefore, "expireBefore");
+
+    if (partitionsAhead < 0) {
+      throw new IllegalArgumentException(
+        "Partitions ahead must be non-negative.");
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzAuditSearchCursor;
+import com.io7m.azeno.model.AzPage;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A page of audit search results.
+ *
+ * @param page     The page
+ * @param next     The cursor for the next page, if there is one
+ * @param previous The cursor for the previous page, if there is one
+ */
+
+public record AzAuditSearchPage(
+  AzPage<AzAuditEvent> page,
+  Optional<AzAuditSearchCursor> next,
+  Optional<AzAuditSearchCursor> previous)
+{
+  /**
+   * A page of audit search results.
+   *
+   * @param page     The page
+   * @param next     The cursor for the next page, if there is one
+   * @param previous The cursor for the previous page, if there is one
+   */
+
+  public AzAuditSearchPage
+  {
+    Objects.requireNonNull(page, "page");
+    Objects.requireNonNull(next, "next");
+    Objects.requireNonNull(previous, "previous");
+  }
+}
@@ -17,14 +17,16 @@
 
 package com.io7m.azeno.database.api;
 
-import com.io7m.azeno.model.AzAuditSearchParameters;
+import com.io7m.azeno.model.AzAuditSearchCursor;
 
 /**
- * Search audit events.
+ * Retrieve the page of audit events at the given search cursor. The query
+ * holds no state between pages; the returned cursors are used to retrieve
+ * the adjacent pages.
  */
 
 public interface AzAuditSearchType
-  extends AzDatabaseQueryType<AzAuditSearchParameters, AzDatabaseAuditSearchType>
+  extends AzDatabaseQueryType<AzAuditSearchCursor, AzAuditSearchPage>
 {
 
 }
@@ -0,0 +1,43 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+/**
+ * The manner in which audit events are written.
+ */
+
+public enum AzDatabaseAuditMode
+{
+  /**
+   * Audit events are written inside the transaction of the operation that
+   * produced them, and become visible when that transaction commits.
+   */
+
+  TRANSACTIONAL,
+
+  /**
+   * Audit events are written to a queue table in a single statement as the
+   * transaction that produced them commits, and a background writer moves
+   * them into the audit table in large batches. Events become visible in
+   * the audit table shortly after their transaction commits, but are never
+   * lost once it has committed; a batch that cannot be moved is retried.
+   * Operations whose audit events must commit atomically with the operation
+   * itself always write their events transactionally.
+   */
+
+  WRITE_BEHIND
+}
@@ -79,7 +79,9 @@ public record AzDatabaseConfiguration(
         this.databaseUseTLS(),
         this.ownerRole(),
         this.info.workerRolePassword(),
-        this.info.readerRolePassword())
+        this.info.readerRolePassword(),
+        this.info.auditMode(),
+        this.info.readReplica())
     );
   }
 
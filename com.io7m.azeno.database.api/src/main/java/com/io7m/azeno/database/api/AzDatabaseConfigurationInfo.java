@@ -36,6 +36,8 @@ import java.util.Optional;
  * @param ownerRole          The database owner role
  * @param workerRolePassword The database worker role password
  * @param readerRolePassword The database reader role password
+ * @param auditMode          The manner in which audit events are written
+ * @param readReplica        The read replica, if any
  */
 
 public record AzDatabaseConfigurationInfo(
@@ -47,7 +49,9 @@ public record AzDatabaseConfigurationInfo(
   boolean databaseUseTLS,
   DUsernamePassword ownerRole,
   String workerRolePassword,
-  Optional<String> readerRolePassword)
+  Optional<String> readerRolePassword,
+  AzDatabaseAuditMode auditMode,
+  Optional<AzDatabaseReplicaInfo> readReplica)
 {
   /**
    * The database configuration.
@@ -61,6 +65,8 @@ public record AzDatabaseConfigurationInfo(
    * @param ownerRole          The database owner role
    * @param workerRolePassword The database worker role password
    * @param readerRolePassword The database reader role password
+   * @param auditMode          The manner in which audit events are written
+   * @param readReplica        The read replica, if any
    */
 
   public AzDatabaseConfigurationInfo
@@ -72,6 +78,14 @@ public record AzDatabaseConfigurationInfo(
     Objects.requireNonNull(ownerRole, "ownerRole");
     Objects.requireNonNull(workerRolePassword, "workerRolePassword");
     Objects.requireNonNull(readerRolePassword, "readerRolePassword");
+    Objects.requireNonNull(auditMode, "auditMode");
+    Objects.requireNonNull(readReplica, "readReplica");
+
+    if (readReplica.isPresent() && readerRolePassword.isEmpty()) {
+      throw new IllegalArgumentException(
+        "A read replica requires a reader role password."
+      );
+    }
   }
 
   /**
@@ -89,7 +103,9 @@ public record AzDatabaseConfigurationInfo(
       this.databaseUseTLS,
       this.ownerRole,
       this.workerRolePassword,
-      this.readerRolePassword
+      this.readerRolePassword,
+      this.auditMode,
+      this.readReplica
     );
   }
 }
@@ -44,4 +44,17 @@ public interface AzDatabaseTransactionType
 
   AzUserID userId()
     throws DDatabaseException;
+
+  /**
+   * Register an action to be run after this transaction next commits
+   * successfully. Actions are discarded if the transaction is rolled back or
+   * closed without committing. This is intended for work, such as the
+   * invalidation of caches, that must not be observed before the changes
+   * made by the transaction are visible to other transactions.
+   *
+   * @param action The action
+   */
+
+  void afterCommit(
+    Runnable action);
 }
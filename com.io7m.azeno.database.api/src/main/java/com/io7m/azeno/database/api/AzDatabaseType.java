@@ -20,6 +20,8 @@ package com.io7m.azeno.database.api;
 import com.io7m.darco.api.DDatabaseType;
 import com.io7m.repetoir.core.RPServiceType;
 
+import java.util.List;
+
 /**
  * The database.
  */
@@ -32,6 +34,34 @@ public interface AzDatabaseType
   AzDatabaseQueryProviderType<?, ?, ?>>,
   RPServiceType
 {
+  /**
+   * Obtain the database used for read-only work. If a read replica is
+   * configured, connections are taken from a separate pool connected to the
+   * replica using the read-only role. Otherwise, connections are taken from
+   * this database. In either case, all transactions opened on the returned
+   * database are {@code READ ONLY}.
+   *
+   * @return The read-only database
+   */
+
+  AzDatabaseType readOnly();
+
+  /**
+   * Start listening for notifications on the given channels. The listener
+   * holds a dedicated connection to the primary database, and reconnects if
+   * the connection is lost; the handler is informed each time listening
+   * (re)starts, because notifications sent whilst disconnected are lost.
+   *
+   * @param channels The channels
+   * @param handler  The handler
+   *
+   * @return The running listener
+   */
+
+  AzDatabaseNotificationListenerType listen(
+    List<String> channels,
+    AzDatabaseNotificationHandlerType handler);
+
   @Override
   default String description()
   {
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.util.Objects;
+
+/**
+ * A claimed background job.
+ *
+ * @param id              The job ID
+ * @param type            The job type
+ * @param data            The job data, interpreted by the job type
+ * @param attempt         The current attempt, starting at 1
+ * @param attemptsMaximum The maximum number of attempts
+ */
+
+public record AzJob(
+  AzJobID id,
+  String type,
+  String data,
+  int attempt,
+  int attemptsMaximum)
+{
+  /**
+   * A claimed background job.
+   *
+   * @param id              The job ID
+   * @param type            The job type
+   * @param data            The job data, interpreted by the job type
+   * @param attempt         The current attempt, starting at 1
+   * @param attemptsMaximum The maximum number of attempts
+   */
+
+  public AzJob
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(type, "type");
+    Objects.requireNonNull(data, "data");
+  }
+
+  /**
+   * @return {@code true} if the job will be retried should this attempt fail
+   */
+
+  public boolean hasAttemptsRemaining()
+  {
+    return this.attempt < this.attemptsMaximum;
+  }
+}
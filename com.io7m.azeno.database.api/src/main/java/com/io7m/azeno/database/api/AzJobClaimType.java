@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Claim at most the given number of pending jobs of the given type, leasing
+ * them to the given owner. Jobs that are locked by other transactions are
+ * skipped. Jobs of the given type whose leases have expired are first
+ * returned to the queue, or failed if they have no attempts remaining.
+ * Lease times are computed using the database clock, so the clocks of
+ * individual nodes do not need to agree.
+ */
+
+public interface AzJobClaimType
+  extends AzDatabaseQueryType<AzJobClaimType.Parameters, List<AzJob>>
+{
+  /**
+   * The parameters.
+   *
+   * @param owner The ID of the claiming node
+   * @param type  The job type
+   * @param limit The maximum number of jobs to claim
+   * @param lease The lease duration
+   */
+
+  record Parameters(
+    UUID owner,
+    String type,
+    int limit,
+    Duration lease)
+  {
+    /**
+     * The parameters.
+     *
+     * @param owner The ID of the claiming node
+     * @param type  The job type
+     * @param limit The maximum number of jobs to claim
+     * @param lease The lease duration
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(owner, "owner");
+      Objects.requireNonNull(type, "type");
+      Objects.requireNonNull(lease, "lease");
+
+      if (limit < 1) {
+        throw new IllegalArgumentException("Limit must be positive.");
+      }
+    }
+  }
+}
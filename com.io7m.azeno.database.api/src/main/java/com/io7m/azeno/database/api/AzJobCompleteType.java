@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import com.io7m.azeno.model.AzUnit;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Record the outcome of a job attempt. A failed job with attempts remaining
+ * is returned to the queue, to be retried after the given delay; otherwise,
+ * the job is finished. The outcome is ignored if the lease on the job is no
+ * longer held by the given owner.
+ */
+
+public interface AzJobCompleteType
+  extends AzDatabaseQueryType<AzJobCompleteType.Parameters, AzUnit>
+{
+  /**
+   * The parameters.
+   *
+   * @param owner   The ID of the node holding the lease
+   * @param job     The job
+   * @param failure The failure, if the attempt failed
+   */
+
+  record Parameters(
+    UUID owner,
+    AzJobID job,
+    Optional<Failure> failure)
+  {
+    /**
+     * The parameters.
+     *
+     * @param owner   The ID of the node holding the lease
+     * @param job     The job
+     * @param failure The failure, if the attempt failed
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(owner, "owner");
+      Objects.requireNonNull(job, "job");
+      Objects.requireNonNull(failure, "failure");
+    }
+  }
+
+  /**
+   * A failed attempt.
+   *
+   * @param message    The error message
+   * @param retryDelay The time to wait before the job may run again
+   */
+
+  record Failure(
+    String message,
+    Duration retryDelay)
+  {
+    /**
+     * A failed attempt.
+     *
+     * @param message    The error message
+     * @param retryDelay The time to wait before the job may run again
+     */
+
+    public Failure
+    {
+      Objects.requireNonNull(message, "message");
+      Objects.requireNonNull(retryDelay, "retryDelay");
+    }
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Extend the leases of the given running jobs, returning the IDs of the jobs
+ * whose leases are still held by the given owner. A job that is missing from
+ * the result has been taken over by another node, and should be abandoned.
+ */
+
+public interface AzJobHeartbeatType
+  extends AzDatabaseQueryType<AzJobHeartbeatType.Parameters, Set<AzJobID>>
+{
+  /**
+   * The parameters.
+   *
+   * @param owner The ID of the node holding the leases
+   * @param jobs  The jobs
+   * @param lease The new lease duration
+   */
+
+  record Parameters(
+    UUID owner,
+    List<AzJobID> jobs,
+    Duration lease)
+  {
+    /**
+     * The parameters.
+     *
+     * @param owner The ID of the node holding the leases
+     * @param jobs  The jobs
+     * @param lease The new lease duration
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(owner, "owner");
+      Objects.requireNonNull(lease, "lease");
+      jobs = List.copyOf(jobs);
+    }
+  }
+}
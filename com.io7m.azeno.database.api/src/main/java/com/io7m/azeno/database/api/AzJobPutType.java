@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import com.io7m.azeno.model.AzUnit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Enqueue a background job. Jobs enqueued in a transaction only become
+ * visible to workers if the transaction commits, so a job can be enqueued
+ * atomically with the changes that require it.
+ */
+
+public interface AzJobPutType
+  extends AzDatabaseQueryType<AzJobPutType.Parameters, AzUnit>
+{
+  /**
+   * The parameters.
+   *
+   * @param id              The job ID
+   * @param type            The job type
+   * @param data            The job data
+   * @param attemptsMaximum The maximum number of attempts
+   * @param delay           The time to wait before the job may first run
+   */
+
+  record Parameters(
+    AzJobID id,
+    String type,
+    String data,
+    int attemptsMaximum,
+    Duration delay)
+  {
+    /**
+     * The parameters.
+     *
+     * @param id              The job ID
+     * @param type            The job type
+     * @param data            The job data
+     * @param attemptsMaximum The maximum number of attempts
+     * @param delay           The time to wait before the job may first run
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(id, "id");
+      Objects.requireNonNull(type, "type");
+      Objects.requireNonNull(data, "data");
+      Objects.requireNonNull(delay, "delay");
+
+      if (attemptsMaximum < 1) {
+        throw new IllegalArgumentException("Attempts must be positive.");
+      }
+    }
+  }
+}
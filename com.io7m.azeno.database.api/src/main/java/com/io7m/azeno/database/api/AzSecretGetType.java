@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Get the secret with the given name, creating it with the given value
+ * supplier if it does not yet exist. All callers observe the same value,
+ * regardless of which of them created it.
+ */
+
+public interface AzSecretGetType
+  extends AzDatabaseQueryType<AzSecretGetType.Parameters, byte[]>
+{
+  /**
+   * The parameters.
+   *
+   * @param name    The secret name
+   * @param creator A supplier of new secret values
+   */
+
+  record Parameters(
+    String name,
+    Supplier<byte[]> creator)
+  {
+    /**
+     * The parameters.
+     *
+     * @param name    The secret name
+     * @param creator A supplier of new secret values
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(name, "name");
+      Objects.requireNonNull(creator, "creator");
+    }
+  }
+}
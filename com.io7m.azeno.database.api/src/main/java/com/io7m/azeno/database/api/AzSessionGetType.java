@@ -0,0 +1,54 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.api;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Get a session that has not expired.
+ */
+
+public interface AzSessionGetType
+  extends AzDatabaseQueryType<AzSessionGetType.Parameters, Optional<AzDatabaseSession>>
+{
+  /**
+   * The parameters.
+   *
+   * @param hash The hash of the session identifier
+   * @param time The current time
+   */
+
+  record Parameters(
+    String hash,
+    OffsetDateTime time)
+  {
+    /**
+     * The parameters.
+     *
+     * @param hash The hash of the session identifier
+     * @param time The current time
+     */
+
+    public Parameters
+    {
+      Objects.requireNonNull(hash, "hash");
+      Objects.requireNonNull(time, "time");
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
  *
  * Permission to use, copy, modify, and/or distribute this software for any
  * purpose with or without fee is hereby granted, provided that the above
@@ -14,17 +14,16 @@
  * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
  */
 
-
 package com.io7m.azeno.database.api;
 
-import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzUnit;
 
 /**
- * The type of audit event searches.
+ * Create or replace a session.
  */
 
-public interface AzDatabaseAuditSearchType
-  extends AzDatabasePagedQueryType<AzAuditEvent>
+public interface AzSessionPutType
+  extends AzDatabaseQueryType<AzDatabaseSession, AzUnit>
 {
 
 }
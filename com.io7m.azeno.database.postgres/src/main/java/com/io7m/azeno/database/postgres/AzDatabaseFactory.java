@@ -21,16 +21,21 @@ import com.io7m.azeno.database.api.AzDatabaseConfiguration;
 import com.io7m.azeno.database.api.AzDatabaseConnectionType;
 import com.io7m.azeno.database.api.AzDatabaseFactoryType;
 import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseReplicaInfo;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.database.postgres.internal.AzDatabase;
+import com.io7m.azeno.database.postgres.internal.AzReplicaLagMonitor;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.darco.postgres.DPQDatabaseFactory;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.lanark.core.RDottedName;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
 import org.jooq.conf.RenderNameCase;
 import org.jooq.conf.Settings;
 import org.jooq.impl.DSL;
+import org.postgresql.ds.PGSimpleDataSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -38,6 +43,7 @@ import javax.sql.DataSource;
 import java.io.InputStream;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.List;
 import java.util.ServiceLoader;
 import java.util.stream.Collectors;
@@ -88,14 +94,67 @@ public final class AzDatabaseFactory
     final List<AzDatabaseQueryProviderType<?, ?, ?>> queryProviders,
     final CloseableCollectionType<DDatabaseException> resources)
   {
+    final var replicaOpt =
+      configuration.info().readReplica();
+
+    final DataSource readOnlySource;
+    if (replicaOpt.isPresent()) {
+      final var replica = replicaOpt.get();
+      LOG.info(
+        "Read-only work will be routed to the replica at {}:{}",
+        replica.databaseAddress(),
+        Integer.valueOf(replica.databasePort())
+      );
+
+      readOnlySource =
+        resources.add(createReplicaDataSource(configuration, replica));
+      resources.add(
+        new AzReplicaLagMonitor(readOnlySource, configuration.telemetry())
+      );
+    } else {
+      readOnlySource = source;
+    }
+
     return new AzDatabase(
       configuration,
       source,
+      readOnlySource,
       queryProviders,
       resources
     );
   }
 
+  /**
+   * Create a connection pool for the read replica. Connections are made
+   * using the read-only role, and are marked read-only so that any attempt
+   * to write is rejected before it reaches the replica.
+   */
+
+  private static HikariDataSource createReplicaDataSource(
+    final AzDatabaseConfiguration configuration,
+    final AzDatabaseReplicaInfo replica)
+  {
+    final var info =
+      configuration.info();
+
+    final var pgSource = new PGSimpleDataSource();
+    pgSource.setServerNames(new String[]{replica.databaseAddress()});
+    pgSource.setPortNumbers(new int[]{replica.databasePort()});
+    pgSource.setDatabaseName(info.databaseName());
+    pgSource.setUser("azeno_read_only");
+    pgSource.setPassword(info.readerRolePassword().orElseThrow());
+    pgSource.setSsl(info.databaseUseTLS());
+    pgSource.setApplicationName("com.io7m.azeno.replica");
+
+    final var config = new HikariConfig();
+    config.setDataSource(pgSource);
+    config.setPoolName("com.io7m.azeno.replica");
+    config.setAutoCommit(false);
+    config.setReadOnly(true);
+    config.setConnectionTimeout(Duration.ofSeconds(10L).toMillis());
+    return new HikariDataSource(config);
+  }
+
   @Override
   protected InputStream onRequireDatabaseSchemaXML()
   {
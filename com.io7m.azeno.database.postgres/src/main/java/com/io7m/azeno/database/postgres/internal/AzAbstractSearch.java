@@ -20,50 +20,261 @@ import com.io7m.azeno.database.api.AzDatabasePagedQueryType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.model.AzPage;
 import com.io7m.darco.api.DDatabaseException;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.SelectField;
+import org.jooq.SortField;
+import org.jooq.Table;
+import org.jooq.TableLike;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
+
 /**
  * A convenient abstract class for performing paginated searches.
  *
+ * <p>Pages are computed lazily using keyset pagination: each page is fetched
+ * by seeking past the key of the last row of the previous page. The key at
+ * which each visited page starts is remembered, so moving backwards never
+ * requires a query that examines rows outside the requested page. No work
+ * is performed for pages that are never requested.</p>
+ *
+ * <p>The key fields must, taken together, uniquely identify a row; callers
+ * typically append the primary key as the final key field.</p>
+ *
  * @param <T> The type of returned values
  */
 
 public abstract class AzAbstractSearch<T>
   implements AzDatabasePagedQueryType<T>
 {
-  private final List<JQKeysetRandomAccessPageDefinition> pages;
+  private final String spanName;
+  private final TableLike<?> table;
+  private final Condition condition;
+  private final List<SelectField<?>> fields;
+  private final List<Field<?>> keyFields;
+  private final List<SortField<?>> sortFields;
+  private final long pageSize;
+  private final long rowEstimate;
+  private final ArrayList<Object[]> pageStarts;
   private int pageIndex;
+  private int pageLast;
+
+  AzAbstractSearch(
+    final String inSpanName,
+    final TableLike<?> inTable,
+    final List<SelectField<?>> inFields,
+    final List<Field<?>> inKeyFields,
+    final long inPageSize,
+    final long inRowEstimate)
+  {
+    this(
+      inSpanName,
+      inTable,
+      DSL.trueCondition(),
+      inFields,
+      inKeyFields,
+      inPageSize,
+      inRowEstimate
+    );
+  }
 
   AzAbstractSearch(
-    final List<JQKeysetRandomAccessPageDefinition> inPages)
+    final String inSpanName,
+    final TableLike<?> inTable,
+    final Condition inCondition,
+    final List<SelectField<?>> inFields,
+    final List<Field<?>> inKeyFields,
+    final long inPageSize,
+    final long inRowEstimate)
   {
-    this.pages =
-      Objects.requireNonNull(inPages, "pages");
+    this.spanName =
+      Objects.requireNonNull(inSpanName, "spanName");
+    this.table =
+      Objects.requireNonNull(inTable, "table");
+    this.condition =
+      Objects.requireNonNull(inCondition, "condition");
+    this.fields =
+      List.copyOf(inFields);
+    this.keyFields =
+      List.copyOf(inKeyFields);
+    this.sortFields =
+      this.keyFields.stream()
+        .<SortField<?>>map(Field::asc)
+        .toList();
+
+    if (this.keyFields.isEmpty()) {
+      throw new IllegalArgumentException("At least one key field is required.");
+    }
+
+    this.pageSize =
+      Math.max(1L, inPageSize);
+    this.rowEstimate =
+      Math.max(0L, inRowEstimate);
+    this.pageStarts =
+      new ArrayList<>();
+    this.pageStarts.add(null);
     this.pageIndex = 0;
+    this.pageLast = -1;
   }
 
+  /**
+   * Retrieve the planner's estimate of the number of rows in the given
+   * table. This is a catalog lookup, and does not examine the table itself.
+   *
+   * @param context The SQL context
+   * @param table   The table
+   *
+   * @return The estimated number of rows
+   */
+
+  static long estimateRows(
+    final DSLContext context,
+    final Table<?> table)
+  {
+    final var estimate =
+      context.resultQuery(
+        "SELECT reltuples::bigint FROM pg_class WHERE oid = to_regclass(?)",
+        table.getName()
+      ).fetchOne(0, Long.class);
+
+    if (estimate == null) {
+      return 0L;
+    }
+    return Math.max(0L, estimate.longValue());
+  }
+
+  /**
+   * Map a record to a value.
+   *
+   * @param record The record
+   *
+   * @return A value
+   */
+
+  protected abstract T map(Record record);
+
+  /**
+   * @return The page count; exact if the last page has been visited,
+   * otherwise an estimate
+   */
+
   protected final int pageCount()
   {
-    return this.pages.size();
+    if (this.pageLast >= 0) {
+      return this.pageLast + 1;
+    }
+
+    final var estimated =
+      (this.rowEstimate + this.pageSize - 1L) / this.pageSize;
+    final var lowerBound =
+      (long) this.pageStarts.size();
+
+    return (int) Math.min(
+      Integer.MAX_VALUE,
+      Math.max(estimated, lowerBound)
+    );
+  }
+
+  private AzPage<T> page(
+    final AzDatabaseTransaction transaction,
+    final int index)
+    throws DDatabaseException
+  {
+    final var context =
+      transaction.get(DSLContext.class);
+    final var querySpan =
+      transaction.createSubSpan(this.spanName);
+
+    try {
+      final var start =
+        this.pageStarts.get(index);
+      final var ordered =
+        context.select(this.fields)
+          .from(this.table)
+          .where(this.condition)
+          .orderBy(this.sortFields);
+
+      /*
+       * Fetch one row more than a page so that we know whether there is
+       * another page after this one without having to count anything.
+       */
+
+      final ResultQuery<Record> query;
+      if (start == null) {
+        query = ordered.limit(this.pageSize + 1L);
+      } else {
+        query = ordered.seek(start).limit(this.pageSize + 1L);
+      }
+
+      querySpan.setAttribute(DB_STATEMENT, query.toString());
+
+      final var records =
+        query.fetch();
+      final var hasMore =
+        records.size() > this.pageSize;
+      final var count =
+        hasMore ? (int) this.pageSize : records.size();
+
+      final var items = new ArrayList<T>(count);
+      for (int i = 0; i < count; ++i) {
+        items.add(this.map(records.get(i)));
+      }
+
+      if (hasMore) {
+        if (this.pageLast == index) {
+          this.pageLast = -1;
+        }
+        if (this.pageStarts.size() == index + 1) {
+          this.pageStarts.add(this.keyOf(records.get(count - 1)));
+        }
+      } else {
+        this.pageLast = index;
+        while (this.pageStarts.size() > index + 1) {
+          this.pageStarts.removeLast();
+        }
+      }
+
+      return new AzPage<>(
+        List.copyOf(items),
+        index,
+        this.pageCount(),
+        index * this.pageSize
+      );
+    } catch (final DataAccessException e) {
+      querySpan.recordException(e);
+      throw handleDatabaseException(transaction, Map.of(), e);
+    } finally {
+      querySpan.end();
+    }
   }
 
-  protected abstract AzPage<T> page(
-    AzDatabaseTransaction transaction,
-    JQKeysetRandomAccessPageDefinition page)
-    throws DDatabaseException;
+  private Object[] keyOf(
+    final Record record)
+  {
+    final var key = new Object[this.keyFields.size()];
+    for (int i = 0; i < key.length; ++i) {
+      key[i] = record.get(this.keyFields.get(i));
+    }
+    return key;
+  }
 
   @Override
   public final AzPage<T> pageCurrent(
     final AzDatabaseTransactionType transaction)
     throws DDatabaseException
   {
-    return this.page(
-      (AzDatabaseTransaction) transaction,
-      this.pages.get(this.pageIndex)
-    );
+    return this.page((AzDatabaseTransaction) transaction, this.pageIndex);
   }
 
   @Override
@@ -71,10 +282,23 @@ public abstract class AzAbstractSearch<T>
     final AzDatabaseTransactionType transaction)
     throws DDatabaseException
   {
+    final var t = (AzDatabaseTransaction) transaction;
+
+    /*
+     * If the start of the next page is not yet known, and the current page
+     * is not known to be the last page, then the current page must be
+     * fetched in order to discover where the next page starts.
+     */
+
     final var nextIndex = this.pageIndex + 1;
-    final var maxIndex = Math.max(0, this.pages.size() - 1);
-    this.pageIndex = Math.min(nextIndex, maxIndex);
-    return this.pageCurrent(transaction);
+    if (this.pageLast < 0 && this.pageStarts.size() <= nextIndex) {
+      this.page(t, this.pageIndex);
+    }
+
+    if (this.pageStarts.size() > nextIndex) {
+      this.pageIndex = nextIndex;
+    }
+    return this.page(t, this.pageIndex);
   }
 
   @Override
@@ -0,0 +1,137 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.anethum.api.ParsingException;
+import com.io7m.azeno.database.api.AzAssetChangePosition;
+import com.io7m.azeno.database.api.AzAssetChanges;
+import com.io7m.azeno.database.api.AzAssetChangesGetType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Optional;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.ASSETS;
+import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorIo;
+
+/**
+ * AssetChangesGet.
+ */
+
+public final class AzAssetChangesGet
+  extends AzDatabaseQueryAbstract<AzAssetChangesGetType.Parameters, AzAssetChanges>
+  implements AzAssetChangesGetType
+{
+  /**
+   * The oldest transaction that is still in progress. Every transaction with
+   * a lower ID has either committed or aborted, so no asset can subsequently
+   * appear with a change below this value.
+   */
+
+  private static final Field<Long> SNAPSHOT_XMIN =
+    DSL.field(
+      "pg_snapshot_xmin(pg_current_snapshot())::text::bigint",
+      SQLDataType.BIGINT
+    );
+
+  AzAssetChangesGet(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, AzAssetChanges, AzAssetChangesGetType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAssetChangesGetType.class,
+      AzAssetChangesGet::new
+    );
+  }
+
+  @Override
+  protected AzAssetChanges onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    final var after = parameters.after();
+    this.putAttribute("Change", Long.valueOf(after.change()));
+    this.putAttribute("AssetID", after.asset());
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      final var records =
+        context.select(
+            ASSETS.ASSET_CHANGE,
+            ASSETS.ASSET_ID,
+            ASSETS.ASSET_COLLECTION,
+            ASSETS.ASSET_HASH_VALUE,
+            ASSETS.ASSET_HASH_ALGORITHM,
+            ASSETS.ASSET_DATA_TYPE,
+            ASSETS.ASSET_DATA,
+            ASSETS.ASSET_DATA_BINARY)
+          .from(ASSETS)
+          .where(
+            DSL.row(ASSETS.ASSET_CHANGE, ASSETS.ASSET_ID)
+              .gt(Long.valueOf(after.change()), after.asset().id()))
+          .and(ASSETS.ASSET_CHANGE.lt(SNAPSHOT_XMIN))
+          .orderBy(ASSETS.ASSET_CHANGE, ASSETS.ASSET_ID)
+          .limit(parameters.limit())
+          .fetch();
+
+      final var assets = new ArrayList<AzAsset>(records.size());
+      var position = after;
+      for (final var r : records) {
+        assets.add(AzAssetGet.mapRecord(r));
+        position = new AzAssetChangePosition(
+          r.get(ASSETS.ASSET_CHANGE).longValue(),
+          new AzAssetID(r.get(ASSETS.ASSET_ID))
+        );
+      }
+
+      return new AzAssetChanges(assets, position);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    } catch (final ParsingException | IOException e) {
+      throw new DDatabaseException(
+        e.getMessage(),
+        e,
+        errorIo().id(),
+        this.attributes(),
+        Optional.empty()
+      );
+    }
+  }
+}
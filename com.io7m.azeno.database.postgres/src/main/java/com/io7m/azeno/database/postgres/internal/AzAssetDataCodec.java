@@ -0,0 +1,376 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.anethum.api.ParsingException;
+import com.io7m.anethum.api.SerializationException;
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetProperties;
+import com.io7m.azeno.model.AzAssets;
+import com.io7m.azeno.model.AzValueBoolean;
+import com.io7m.azeno.model.AzValueFloating;
+import com.io7m.azeno.model.AzValueInteger;
+import com.io7m.azeno.model.AzValueString;
+import com.io7m.azeno.model.AzValueTimestamp;
+import com.io7m.azeno.model.AzValueType;
+import com.io7m.azeno.model.AzValueURI;
+import com.io7m.azeno.model.AzValueUUID;
+import com.io7m.lanark.core.RDottedName;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * The codecs used to store asset properties in the {@code assets} table.
+ *
+ * <p>Assets are written using a compact binary encoding that can be decoded
+ * without any of the schema validation performed by the XML parsers; the
+ * properties were validated when the asset was submitted, and so do not need
+ * to be validated again on every read. Assets written by older versions of
+ * the server are stored as XML, and can still be decoded until they have
+ * been migrated.</p>
+ */
+
+public final class AzAssetDataCodec
+{
+  /**
+   * The data type of assets stored as XML.
+   */
+
+  public static final String DATA_TYPE_XML =
+    "com.io7m.azeno.xml:1";
+
+  /**
+   * The data type of assets stored using the binary encoding.
+   */
+
+  public static final String DATA_TYPE_BINARY =
+    "com.io7m.azeno.binary:1";
+
+  /**
+   * The data type of assets stored as XML that could not be parsed during
+   * migration. The data is retained so that it can be recovered by hand.
+   */
+
+  public static final String DATA_TYPE_XML_UNPARSEABLE =
+    "com.io7m.azeno.xml-unparseable:1";
+
+  private static final int VERSION = 1;
+
+  private static final int TAG_BOOLEAN = 0;
+  private static final int TAG_FLOATING = 1;
+  private static final int TAG_INTEGER = 2;
+  private static final int TAG_STRING = 3;
+  private static final int TAG_TIMESTAMP = 4;
+  private static final int TAG_URI = 5;
+  private static final int TAG_UUID = 6;
+
+  private AzAssetDataCodec()
+  {
+
+  }
+
+  /**
+   * Encode the given properties using the binary encoding.
+   *
+   * @param properties The properties
+   *
+   * @return The encoded properties
+   */
+
+  public static byte[] encodeBinary(
+    final AzAssetProperties properties)
+  {
+    Objects.requireNonNull(properties, "properties");
+
+    final var bytes = new ByteArrayOutputStream(256);
+    try (var output = new DataOutputStream(bytes)) {
+      final var values = properties.values();
+      output.writeByte(VERSION);
+      output.writeInt(values.size());
+
+      for (final var entry : values.entrySet()) {
+        writeString(output, entry.getKey().value());
+        output.writeInt(entry.getValue().size());
+        for (final var value : entry.getValue()) {
+          writeValue(output, value);
+        }
+      }
+    } catch (final IOException e) {
+      throw new IllegalStateException(e);
+    }
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Decode properties that were encoded using the binary encoding.
+   *
+   * @param data The encoded properties
+   *
+   * @return The properties
+   *
+   * @throws IOException If the data is malformed
+   */
+
+  public static AzAssetProperties decodeBinary(
+    final byte[] data)
+    throws IOException
+  {
+    Objects.requireNonNull(data, "data");
+
+    try (var input =
+           new DataInputStream(new ByteArrayInputStream(data))) {
+      final var version = input.readUnsignedByte();
+      if (version != VERSION) {
+        throw new IOException(
+          "Unsupported asset data version: %d".formatted(version)
+        );
+      }
+
+      final var nameCount =
+        checkCount(input, input.readInt());
+      final var values =
+        new HashMap<RDottedName, List<AzValueType>>(nameCount * 2);
+
+      for (int nameIndex = 0; nameIndex < nameCount; ++nameIndex) {
+        final var name =
+          new RDottedName(readString(input));
+        final var valueCount =
+          checkCount(input, input.readInt());
+        final var nameValues =
+          new ArrayList<AzValueType>(valueCount);
+
+        for (int valueIndex = 0; valueIndex < valueCount; ++valueIndex) {
+          nameValues.add(readValue(input, name));
+        }
+        values.put(name, List.copyOf(nameValues));
+      }
+
+      if (input.available() != 0) {
+        throw new IOException("Trailing garbage after asset data.");
+      }
+      return new AzAssetProperties(values);
+    } catch (final IllegalArgumentException e) {
+      throw new IOException(e);
+    }
+  }
+
+  /**
+   * Encode the given asset as XML.
+   *
+   * @param asset The asset
+   *
+   * @return The XML text
+   *
+   * @throws IOException            On I/O errors
+   * @throws SerializationException On serialization errors
+   */
+
+  public static String encodeXML(
+    final AzAsset asset)
+    throws IOException, SerializationException
+  {
+    try (var outputStream = new ByteArrayOutputStream()) {
+      AzXML.assetSerializers()
+        .serialize(
+          URI.create("urn:output"),
+          outputStream,
+          asset
+        );
+      outputStream.flush();
+      return outputStream.toString(UTF_8);
+    }
+  }
+
+  /**
+   * Decode properties that were stored as XML.
+   *
+   * @param data The XML text
+   *
+   * @return The properties
+   *
+   * @throws ParsingException On parse errors
+   */
+
+  public static AzAssetProperties decodeXML(
+    final String data)
+    throws ParsingException
+  {
+    final var assetR =
+      AzXML.assetParsers()
+        .parse(
+          URI.create("urn:db"),
+          new ByteArrayInputStream(data.getBytes(UTF_8))
+        );
+
+    return switch (assetR) {
+      case final AzAsset azAsset -> {
+        yield azAsset.properties();
+      }
+      case final AzAssets ignored -> {
+        throw new IllegalStateException(
+          "Cannot store multiple assets in a column.");
+      }
+    };
+  }
+
+  private static int checkCount(
+    final DataInputStream input,
+    final int count)
+    throws IOException
+  {
+    /*
+     * Every counted element occupies at least one byte, so a count larger
+     * than the remaining data can only be the result of corruption.
+     */
+
+    if (count < 0 || count > input.available()) {
+      throw new IOException("Invalid count in asset data: %d".formatted(count));
+    }
+    return count;
+  }
+
+  private static void writeValue(
+    final DataOutputStream output,
+    final AzValueType value)
+    throws IOException
+  {
+    switch (value) {
+      case final AzValueBoolean v -> {
+        output.writeByte(TAG_BOOLEAN);
+        output.writeBoolean(v.value());
+      }
+      case final AzValueFloating v -> {
+        output.writeByte(TAG_FLOATING);
+        output.writeDouble(v.value());
+      }
+      case final AzValueInteger v -> {
+        output.writeByte(TAG_INTEGER);
+        final var bytes = v.value().toByteArray();
+        output.writeInt(bytes.length);
+        output.write(bytes);
+      }
+      case final AzValueString v -> {
+        output.writeByte(TAG_STRING);
+        writeString(output, v.value());
+      }
+      case final AzValueTimestamp v -> {
+        output.writeByte(TAG_TIMESTAMP);
+        final var time = v.value();
+        output.writeLong(time.toEpochSecond());
+        output.writeInt(time.getNano());
+        output.writeInt(time.getOffset().getTotalSeconds());
+      }
+      case final AzValueURI v -> {
+        output.writeByte(TAG_URI);
+        writeString(output, v.value().toString());
+      }
+      case final AzValueUUID v -> {
+        output.writeByte(TAG_UUID);
+        output.writeLong(v.value().getMostSignificantBits());
+        output.writeLong(v.value().getLeastSignificantBits());
+      }
+    }
+  }
+
+  private static AzValueType readValue(
+    final DataInputStream input,
+    final RDottedName name)
+    throws IOException
+  {
+    final var tag = input.readUnsignedByte();
+    return switch (tag) {
+      case TAG_BOOLEAN -> {
+        yield new AzValueBoolean(name, input.readBoolean());
+      }
+      case TAG_FLOATING -> {
+        yield new AzValueFloating(name, input.readDouble());
+      }
+      case TAG_INTEGER -> {
+        yield new AzValueInteger(name, new BigInteger(readBytes(input)));
+      }
+      case TAG_STRING -> {
+        yield new AzValueString(name, readString(input));
+      }
+      case TAG_TIMESTAMP -> {
+        final var seconds = input.readLong();
+        final var nanos = input.readInt();
+        final var offset = input.readInt();
+        yield new AzValueTimestamp(
+          name,
+          OffsetDateTime.ofInstant(
+            Instant.ofEpochSecond(seconds, nanos),
+            ZoneOffset.ofTotalSeconds(offset)
+          )
+        );
+      }
+      case TAG_URI -> {
+        yield new AzValueURI(name, URI.create(readString(input)));
+      }
+      case TAG_UUID -> {
+        final var msb = input.readLong();
+        final var lsb = input.readLong();
+        yield new AzValueUUID(name, new UUID(msb, lsb));
+      }
+      default -> {
+        throw new IOException(
+          "Unrecognized value tag in asset data: %d".formatted(tag)
+        );
+      }
+    };
+  }
+
+  private static void writeString(
+    final DataOutputStream output,
+    final String text)
+    throws IOException
+  {
+    final var bytes = text.getBytes(UTF_8);
+    output.writeInt(bytes.length);
+    output.write(bytes);
+  }
+
+  private static String readString(
+    final DataInputStream input)
+    throws IOException
+  {
+    return new String(readBytes(input), UTF_8);
+  }
+
+  private static byte[] readBytes(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var size = checkCount(input, input.readInt());
+    return input.readNBytes(size);
+  }
+}
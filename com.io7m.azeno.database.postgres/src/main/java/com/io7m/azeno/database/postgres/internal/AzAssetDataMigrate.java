@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.anethum.api.ParsingException;
+import com.io7m.azeno.database.api.AzAssetDataMigrateType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.ASSETS;
+
+/**
+ * AssetDataMigrate.
+ */
+
+public final class AzAssetDataMigrate
+  extends AzDatabaseQueryAbstract<Long, AzAssetDataMigrateType.Result>
+  implements AzAssetDataMigrateType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzAssetDataMigrate.class);
+
+  AzAssetDataMigrate(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Long, Result, AzAssetDataMigrateType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAssetDataMigrateType.class,
+      AzAssetDataMigrate::new
+    );
+  }
+
+  @Override
+  protected Result onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Long limit)
+    throws DDatabaseException
+  {
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      final var legacy =
+        context.select(ASSETS.ASSET_ID, ASSETS.ASSET_DATA)
+          .from(ASSETS)
+          .where(ASSETS.ASSET_DATA_TYPE.eq(AzAssetDataCodec.DATA_TYPE_XML))
+          .limit(limit)
+          .forUpdate()
+          .skipLocked()
+          .fetch();
+
+      var migrated = 0L;
+      var unparseable = 0L;
+
+      for (final var r : legacy) {
+        final var id =
+          r.get(ASSETS.ASSET_ID);
+
+        this.putAttribute("AssetID", id);
+
+        try {
+          final var properties =
+            AzAssetDataCodec.decodeXML(r.get(ASSETS.ASSET_DATA));
+
+          context.update(ASSETS)
+            .set(ASSETS.ASSET_DATA_TYPE, AzAssetDataCodec.DATA_TYPE_BINARY)
+            .set(ASSETS.ASSET_DATA_BINARY, AzAssetDataCodec.encodeBinary(properties))
+            .set(ASSETS.ASSET_DATA, (String) null)
+            .where(ASSETS.ASSET_ID.eq(id))
+            .execute();
+
+          ++migrated;
+        } catch (final ParsingException e) {
+          LOG.warn("Asset {} could not be parsed and was not migrated: ", id, e);
+
+          context.update(ASSETS)
+            .set(ASSETS.ASSET_DATA_TYPE, AzAssetDataCodec.DATA_TYPE_XML_UNPARSEABLE)
+            .where(ASSETS.ASSET_ID.eq(id))
+            .execute();
+
+          ++unparseable;
+        }
+      }
+
+      return new Result(migrated, unparseable);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
@@ -24,7 +24,6 @@ import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.model.AzAsset;
 import com.io7m.azeno.model.AzAssetID;
 import com.io7m.azeno.model.AzAssetProperties;
-import com.io7m.azeno.model.AzAssets;
 import com.io7m.azeno.model.AzCollectionID;
 import com.io7m.azeno.model.AzHashSHA256;
 import com.io7m.azeno.model.AzHashType;
@@ -32,13 +31,11 @@ import com.io7m.darco.api.DDatabaseException;
 import org.jooq.DSLContext;
 import org.jooq.Record;
 
-import java.io.ByteArrayInputStream;
-import java.net.URI;
+import java.io.IOException;
 import java.util.Optional;
 
 import static com.io7m.azeno.database.postgres.internal.Tables.ASSETS;
 import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorIo;
-import static java.nio.charset.StandardCharsets.UTF_8;
 
 /**
  * AssetGet.
@@ -86,7 +83,8 @@ public final class AzAssetGet
           ASSETS.ASSET_HASH_VALUE,
           ASSETS.ASSET_HASH_ALGORITHM,
           ASSETS.ASSET_DATA_TYPE,
-          ASSETS.ASSET_DATA)
+          ASSETS.ASSET_DATA,
+          ASSETS.ASSET_DATA_BINARY)
         .from(ASSETS)
         .where(ASSETS.ASSET_ID.eq(id.id()))
         .fetchOptional();
@@ -97,7 +95,7 @@ public final class AzAssetGet
 
     try {
       return Optional.of(mapRecord(r.get()));
-    } catch (final ParsingException e) {
+    } catch (final ParsingException | IOException e) {
       throw new DDatabaseException(
         e.getMessage(),
         e,
@@ -108,9 +106,9 @@ public final class AzAssetGet
     }
   }
 
-  private static AzAsset mapRecord(
+  static AzAsset mapRecord(
     final Record x)
-    throws ParsingException
+    throws ParsingException, IOException
   {
     return new AzAsset(
       new AzAssetID(x.get(ASSETS.ASSET_ID)),
@@ -120,32 +118,30 @@ public final class AzAssetGet
         x.get(ASSETS.ASSET_HASH_VALUE)),
       propertiesOf(
         x.get(ASSETS.ASSET_DATA_TYPE),
-        x.get(ASSETS.ASSET_DATA)
+        x.get(ASSETS.ASSET_DATA),
+        x.get(ASSETS.ASSET_DATA_BINARY)
       )
     );
   }
 
   private static AzAssetProperties propertiesOf(
     final String assetDataType,
-    final String assetData)
-    throws ParsingException
+    final String assetData,
+    final byte[] assetDataBinary)
+    throws ParsingException, IOException
   {
-    final var parser =
-      AzXML.assetParsers();
-
-    final var assetR =
-      parser.parse(
-        URI.create("urn:db"),
-        new ByteArrayInputStream(assetData.getBytes(UTF_8))
-      );
-
-    return switch (assetR) {
-      case final AzAsset azAsset -> {
-        yield azAsset.properties();
+    return switch (assetDataType) {
+      case AzAssetDataCodec.DATA_TYPE_BINARY -> {
+        yield AzAssetDataCodec.decodeBinary(assetDataBinary);
       }
-      case final AzAssets ignored -> {
-        throw new IllegalStateException(
-          "Cannot store multiple assets in a column.");
+      case AzAssetDataCodec.DATA_TYPE_XML,
+           AzAssetDataCodec.DATA_TYPE_XML_UNPARSEABLE -> {
+        yield AzAssetDataCodec.decodeXML(assetData);
+      }
+      default -> {
+        throw new IOException(
+          "Unrecognized asset data type: %s".formatted(assetDataType)
+        );
       }
     };
   }
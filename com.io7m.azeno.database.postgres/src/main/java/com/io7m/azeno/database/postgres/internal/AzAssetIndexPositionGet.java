@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzAssetChangePosition;
+import com.io7m.azeno.database.api.AzAssetIndexPositionGetType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.ASSET_INDEX_POSITIONS;
+
+/**
+ * AssetIndexPositionGet.
+ */
+
+public final class AzAssetIndexPositionGet
+  extends AzDatabaseQueryAbstract<String, AzAssetChangePosition>
+  implements AzAssetIndexPositionGetType
+{
+  AzAssetIndexPositionGet(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<String, AzAssetChangePosition, AzAssetIndexPositionGetType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAssetIndexPositionGetType.class,
+      AzAssetIndexPositionGet::new
+    );
+  }
+
+  @Override
+  protected AzAssetChangePosition onExecute(
+    final AzDatabaseTransactionType transaction,
+    final String indexName)
+    throws DDatabaseException
+  {
+    this.putAttribute("Index", indexName);
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      return context.select(
+          ASSET_INDEX_POSITIONS.INDEX_CHANGE,
+          ASSET_INDEX_POSITIONS.INDEX_ASSET)
+        .from(ASSET_INDEX_POSITIONS)
+        .where(ASSET_INDEX_POSITIONS.INDEX_NAME.eq(indexName))
+        .fetchOptional()
+        .map(r -> {
+          return new AzAssetChangePosition(
+            r.get(ASSET_INDEX_POSITIONS.INDEX_CHANGE).longValue(),
+            new AzAssetID(r.get(ASSET_INDEX_POSITIONS.INDEX_ASSET))
+          );
+        })
+        .orElseGet(AzAssetChangePosition::start);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
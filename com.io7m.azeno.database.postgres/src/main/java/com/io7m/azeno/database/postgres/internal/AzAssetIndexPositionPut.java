@@ -0,0 +1,87 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzAssetIndexPositionPutType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzUnit;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.ASSET_INDEX_POSITIONS;
+
+/**
+ * AssetIndexPositionPut.
+ */
+
+public final class AzAssetIndexPositionPut
+  extends AzDatabaseQueryAbstract<AzAssetIndexPositionPutType.Parameters, AzUnit>
+  implements AzAssetIndexPositionPutType
+{
+  AzAssetIndexPositionPut(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, AzUnit, AzAssetIndexPositionPutType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAssetIndexPositionPutType.class,
+      AzAssetIndexPositionPut::new
+    );
+  }
+
+  @Override
+  protected AzUnit onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    final var position = parameters.position();
+    this.putAttribute("Index", parameters.indexName());
+    this.putAttribute("Change", Long.valueOf(position.change()));
+    this.putAttribute("AssetID", position.asset());
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      context.insertInto(ASSET_INDEX_POSITIONS)
+        .set(ASSET_INDEX_POSITIONS.INDEX_NAME, parameters.indexName())
+        .set(ASSET_INDEX_POSITIONS.INDEX_CHANGE, Long.valueOf(position.change()))
+        .set(ASSET_INDEX_POSITIONS.INDEX_ASSET, position.asset().id())
+        .onConflict(ASSET_INDEX_POSITIONS.INDEX_NAME)
+        .doUpdate()
+        .set(ASSET_INDEX_POSITIONS.INDEX_CHANGE, Long.valueOf(position.change()))
+        .set(ASSET_INDEX_POSITIONS.INDEX_ASSET, position.asset().id())
+        .execute();
+
+      return AzUnit.UNIT;
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
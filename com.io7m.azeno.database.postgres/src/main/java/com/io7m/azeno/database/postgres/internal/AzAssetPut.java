@@ -17,7 +17,6 @@
 
 package com.io7m.azeno.database.postgres.internal;
 
-import com.io7m.anethum.api.SerializationException;
 import com.io7m.azeno.database.api.AzAssetPutType;
 import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
@@ -29,16 +28,10 @@ import com.io7m.darco.api.DDatabaseException;
 import org.jooq.DSLContext;
 import org.jooq.exception.DataAccessException;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.net.URI;
-import java.nio.charset.StandardCharsets;
 import java.time.OffsetDateTime;
-import java.util.Optional;
 
 import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
 import static com.io7m.azeno.database.postgres.internal.Tables.ASSETS;
-import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorIo;
 
 /**
  * AssetPut.
@@ -79,8 +72,8 @@ public final class AzAssetPut
       transaction.get(DSLContext.class);
 
     try {
-      final var dataText =
-        serializeAsset(asset);
+      final var data =
+        AzAssetDataCodec.encodeBinary(asset.properties());
 
       context.insertInto(ASSETS)
         .set(ASSETS.ASSET_COLLECTION, asset.collection().id())
@@ -88,19 +81,21 @@ public final class AzAssetPut
         .set(ASSETS.ASSET_HASH_VALUE, asset.hash().value())
         .set(ASSETS.ASSET_ID, asset.id().id())
         .set(ASSETS.ASSET_STATE, AssetStateT.STATE_UPLOADING)
-        .set(ASSETS.ASSET_DATA_TYPE, "com.io7m.azeno.xml:1")
-        .set(ASSETS.ASSET_DATA, dataText)
+        .set(ASSETS.ASSET_DATA_TYPE, AzAssetDataCodec.DATA_TYPE_BINARY)
+        .set(ASSETS.ASSET_DATA, (String) null)
+        .set(ASSETS.ASSET_DATA_BINARY, data)
         .onDuplicateKeyUpdate()
         .set(ASSETS.ASSET_COLLECTION, asset.collection().id())
         .set(ASSETS.ASSET_HASH_ALGORITHM, asset.hash().name())
         .set(ASSETS.ASSET_HASH_VALUE, asset.hash().value())
         .set(ASSETS.ASSET_ID, asset.id().id())
-        .set(ASSETS.ASSET_DATA_TYPE, "com.io7m.azeno.xml:1")
-        .set(ASSETS.ASSET_DATA, dataText)
+        .set(ASSETS.ASSET_DATA_TYPE, AzAssetDataCodec.DATA_TYPE_BINARY)
+        .set(ASSETS.ASSET_DATA, (String) null)
+        .set(ASSETS.ASSET_DATA_BINARY, data)
         .execute();
 
       putAuditEvent(
-        context,
+        transaction,
         new AzAuditEvent(
           0L,
           OffsetDateTime.now(),
@@ -112,30 +107,6 @@ public final class AzAssetPut
       return AzUnit.UNIT;
     } catch (final DataAccessException e) {
       throw handleDatabaseException(transaction, this.attributes(), e);
-    } catch (final SerializationException | IOException e) {
-      throw new DDatabaseException(
-        e.getMessage(),
-        e,
-        errorIo().id(),
-        this.attributes(),
-        Optional.empty()
-      );
-    }
-  }
-
-  private static String serializeAsset(
-    final AzAsset asset)
-    throws IOException, SerializationException
-  {
-    try (final var outputStream = new ByteArrayOutputStream()) {
-      AzXML.assetSerializers()
-        .serialize(
-          URI.create("urn:output"),
-          outputStream,
-          asset
-        );
-      outputStream.flush();
-      return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
     }
   }
 }
@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzAssetPutManyType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.postgres.internal.enums.AssetStateT;
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzUnit;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.ASSETS;
+import static org.jooq.impl.DSL.excluded;
+
+/**
+ * AssetPutMany.
+ */
+
+public final class AzAssetPutMany
+  extends AzDatabaseQueryAbstract<List<AzAsset>, AzUnit>
+  implements AzAssetPutManyType
+{
+  /**
+   * The maximum number of rows written by a single statement. Each row
+   * requires eight bind parameters, and PostgreSQL limits statements to
+   * 32767 parameters.
+   */
+
+  private static final int ROWS_PER_STATEMENT = 1000;
+
+  AzAssetPutMany(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<List<AzAsset>, AzUnit, AzAssetPutManyType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAssetPutManyType.class,
+      AzAssetPutMany::new
+    );
+  }
+
+  @Override
+  protected AzUnit onExecute(
+    final AzDatabaseTransactionType transaction,
+    final List<AzAsset> assets)
+    throws DDatabaseException
+  {
+    /*
+     * A single INSERT ... ON CONFLICT statement cannot update the same row
+     * twice, so duplicate IDs within the batch are collapsed, keeping the
+     * last asset with each ID.
+     */
+
+    final var unique = new LinkedHashMap<AzAssetID, AzAsset>(assets.size());
+    for (final var asset : assets) {
+      unique.put(asset.id(), asset);
+    }
+
+    this.putAttribute("AssetCount", Integer.valueOf(unique.size()));
+
+    if (unique.isEmpty()) {
+      return AzUnit.UNIT;
+    }
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      final var batch = new ArrayList<>(unique.values());
+      for (int start = 0; start < batch.size(); start += ROWS_PER_STATEMENT) {
+        final var end =
+          Math.min(batch.size(), start + ROWS_PER_STATEMENT);
+        insertChunk(context, batch.subList(start, end));
+      }
+
+      putAuditEvent(
+        transaction,
+        new AzAuditEvent(
+          0L,
+          OffsetDateTime.now(),
+          transaction.userId(),
+          "ASSETS_UPDATED",
+          this.attributes()
+        ));
+
+      return AzUnit.UNIT;
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+
+  private static void insertChunk(
+    final DSLContext context,
+    final List<AzAsset> chunk)
+  {
+    var insert =
+      context.insertInto(
+        ASSETS,
+        ASSETS.ASSET_ID,
+        ASSETS.ASSET_COLLECTION,
+        ASSETS.ASSET_HASH_ALGORITHM,
+        ASSETS.ASSET_HASH_VALUE,
+        ASSETS.ASSET_STATE,
+        ASSETS.ASSET_DATA_TYPE,
+        ASSETS.ASSET_DATA,
+        ASSETS.ASSET_DATA_BINARY
+      );
+
+    for (final var asset : chunk) {
+      insert = insert.values(
+        asset.id().id(),
+        asset.collection().id(),
+        asset.hash().name(),
+        asset.hash().value(),
+        AssetStateT.STATE_UPLOADING,
+        AzAssetDataCodec.DATA_TYPE_BINARY,
+        null,
+        AzAssetDataCodec.encodeBinary(asset.properties())
+      );
+    }
+
+    insert.onConflict(ASSETS.ASSET_ID)
+      .doUpdate()
+      .set(ASSETS.ASSET_COLLECTION, excluded(ASSETS.ASSET_COLLECTION))
+      .set(ASSETS.ASSET_HASH_ALGORITHM, excluded(ASSETS.ASSET_HASH_ALGORITHM))
+      .set(ASSETS.ASSET_HASH_VALUE, excluded(ASSETS.ASSET_HASH_VALUE))
+      .set(ASSETS.ASSET_DATA_TYPE, excluded(ASSETS.ASSET_DATA_TYPE))
+      .set(ASSETS.ASSET_DATA, excluded(ASSETS.ASSET_DATA))
+      .set(ASSETS.ASSET_DATA_BINARY, excluded(ASSETS.ASSET_DATA_BINARY))
+      .execute();
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzAssetSummaryGetManyType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAssetSummary;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.ASSETS;
+import static org.jooq.impl.DSL.any;
+
+/**
+ * AssetSummaryGetMany.
+ */
+
+public final class AzAssetSummaryGetMany
+  extends AzDatabaseQueryAbstract<Set<AzAssetID>, List<AzAssetSummary>>
+  implements AzAssetSummaryGetManyType
+{
+  AzAssetSummaryGetMany(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Set<AzAssetID>, List<AzAssetSummary>, AzAssetSummaryGetManyType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAssetSummaryGetManyType.class,
+      AzAssetSummaryGetMany::new
+    );
+  }
+
+  @Override
+  protected List<AzAssetSummary> onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Set<AzAssetID> ids)
+    throws DDatabaseException
+  {
+    this.putAttribute("AssetCount", Integer.valueOf(ids.size()));
+
+    if (ids.isEmpty()) {
+      return List.of();
+    }
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    /*
+     * The IDs are passed as a single array parameter, so the number of
+     * assets is not limited by the number of bind parameters permitted in
+     * a statement.
+     */
+
+    final var array =
+      ids.stream()
+        .map(AzAssetID::id)
+        .toArray(UUID[]::new);
+
+    try {
+      return context.select(
+          ASSETS.ASSET_ID,
+          ASSETS.ASSET_COLLECTION)
+        .from(ASSETS)
+        .where(ASSETS.ASSET_ID.eq(any(array)))
+        .forUpdate()
+        .fetch(r -> {
+          return new AzAssetSummary(
+            new AzAssetID(r.get(ASSETS.ASSET_ID)),
+            new AzCollectionID(r.get(ASSETS.ASSET_COLLECTION))
+          );
+        });
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
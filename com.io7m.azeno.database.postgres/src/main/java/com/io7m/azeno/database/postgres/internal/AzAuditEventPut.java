@@ -23,7 +23,6 @@ import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.model.AzAuditEvent;
 import com.io7m.azeno.model.AzUnit;
 import com.io7m.darco.api.DDatabaseException;
-import org.jooq.DSLContext;
 
 /**
  * AuditEventPut.
@@ -58,10 +57,7 @@ public final class AzAuditEventPut
     final AzAuditEvent event)
     throws DDatabaseException
   {
-    final var context =
-      transaction.get(DSLContext.class);
-
-    putAuditEvent(context, event);
+    putAuditEvent(transaction, event);
     return AzUnit.UNIT;
   }
 }
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzAuditPartitionMaintainType;
+import com.io7m.azeno.database.api.AzAuditPartitionMaintenance;
+import com.io7m.azeno.database.api.AzAuditPartitionMaintenanceResult;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+
+/**
+ * Create audit partitions ahead of time, and remove audit partitions that
+ * have passed the retention period.
+ */
+
+public final class AzAuditPartitionMaintain
+  extends AzDatabaseQueryAbstract<AzAuditPartitionMaintenance, AzAuditPartitionMaintenanceResult>
+  implements AzAuditPartitionMaintainType
+{
+  AzAuditPartitionMaintain(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<AzAuditPartitionMaintenance, AzAuditPartitionMaintenanceResult, AzAuditPartitionMaintainType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAuditPartitionMaintainType.class,
+      AzAuditPartitionMaintain::new
+    );
+  }
+
+  @Override
+  protected AzAuditPartitionMaintenanceResult onExecute(
+    final AzDatabaseTransactionType transaction,
+    final AzAuditPartitionMaintenance parameters)
+    throws DDatabaseException
+  {
+    final var context =
+      transaction.get(DSLContext.class);
+
+    this.putAttribute("PartitionsAhead", parameters.partitionsAhead());
+    parameters.expireBefore()
+      .ifPresent(t -> this.putAttribute("ExpireBefore", t));
+
+    try {
+
+      /*
+       * Attaching and detaching partitions takes an exclusive lock on the
+       * audit table. Rather than queueing behind a long-running search, and
+       * blocking every audit write queued behind this transaction in turn,
+       * give up and try again at the next maintenance run.
+       */
+
+      context.execute("SET LOCAL lock_timeout = '5s'");
+
+      final var monthNow =
+        parameters.timeNow()
+          .withOffsetSameInstant(ZoneOffset.UTC)
+          .withDayOfMonth(1)
+          .withHour(0)
+          .withMinute(0)
+          .withSecond(0)
+          .withNano(0);
+
+      var created = 0L;
+      for (int index = 0; index <= parameters.partitionsAhead(); ++index) {
+        if (createPartition(context, monthNow.plusMonths(index))) {
+          ++created;
+        }
+      }
+
+      var removed = 0L;
+      final var expireBefore = parameters.expireBefore();
+      if (expireBefore.isPresent()) {
+        removed = expirePartitions(
+          context,
+          expireBefore.get(),
+          parameters.dropExpired()
+        );
+      }
+
+      return new AzAuditPartitionMaintenanceResult(created, removed);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+
+  private static boolean createPartition(
+    final DSLContext context,
+    final OffsetDateTime time)
+  {
+    final var created =
+      context.resultQuery("SELECT audit_partition_create(?)", time)
+        .fetchOne(0, Boolean.class);
+
+    return Boolean.TRUE.equals(created);
+  }
+
+  private static long expirePartitions(
+    final DSLContext context,
+    final OffsetDateTime cutoff,
+    final boolean dropExpired)
+  {
+    final var removed =
+      context.resultQuery(
+        "SELECT audit_partitions_expire(?, ?)",
+        cutoff,
+        Boolean.valueOf(dropExpired)
+      ).fetchOne(0, Long.class);
+
+    if (removed == null) {
+      return 0L;
+    }
+    return removed.longValue();
+  }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzAuditSearchPage;
+import com.io7m.azeno.database.api.AzAuditSearchType;
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzAuditSearchCursor;
+import com.io7m.azeno.model.AzAuditSearchParameters;
+import com.io7m.azeno.model.AzAuditSearchSeekType.After;
+import com.io7m.azeno.model.AzAuditSearchSeekType.Before;
+import com.io7m.azeno.model.AzAuditSearchSeekType.Start;
+import com.io7m.azeno.model.AzComparisonExactType;
+import com.io7m.azeno.model.AzPage;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.Condition;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.ResultQuery;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.AUDIT;
+
+/**
+ * AuditSearch.
+ */
+
+public final class AzAuditSearch
+  extends AzDatabaseQueryAbstract<AzAuditSearchCursor, AzAuditSearchPage>
+  implements AzAuditSearchType
+{
+  AzAuditSearch(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  @Override
+  protected AzAuditSearchPage onExecute(
+    final AzDatabaseTransactionType transaction,
+    final AzAuditSearchCursor cursor)
+    throws DDatabaseException
+  {
+    final var context =
+      transaction.get(DSLContext.class);
+    final var parameters =
+      cursor.parameters();
+    final var pageSize =
+      parameters.pageSize();
+    final var condition =
+      conditionOf(parameters);
+
+    /*
+     * The time range is always present and (audit_time, audit_id) is always
+     * the key, so every page is an index range scan that starts at the key
+     * carried in the cursor. One row more than a page is fetched so that
+     * the existence of a following (or preceding) page is known without
+     * having to count anything.
+     */
+
+    final var select =
+      context.select(
+          AUDIT.AUDIT_ID,
+          AUDIT.AUDIT_TIME,
+          AUDIT.AUDIT_USER_ID,
+          AUDIT.AUDIT_TYPE,
+          AU_DATA)
+        .from(AUDIT)
+        .where(condition);
+
+    final ResultQuery<? extends Record> query =
+      switch (cursor.seek()) {
+        case final Start s -> {
+          yield select.orderBy(AUDIT.AUDIT_TIME.asc(), AUDIT.AUDIT_ID.asc())
+            .limit(pageSize + 1L);
+        }
+        case final After s -> {
+          yield select.orderBy(AUDIT.AUDIT_TIME.asc(), AUDIT.AUDIT_ID.asc())
+            .seek(s.time(), Long.valueOf(s.id()))
+            .limit(pageSize + 1L);
+        }
+        case final Before s -> {
+          yield select.orderBy(AUDIT.AUDIT_TIME.desc(), AUDIT.AUDIT_ID.desc())
+            .seek(s.time(), Long.valueOf(s.id()))
+            .limit(pageSize + 1L);
+        }
+      };
+
+    try {
+      final var records =
+        query.fetch();
+      final var hasMore =
+        records.size() > pageSize;
+      final var count =
+        hasMore ? (int) pageSize : records.size();
+
+      final var items = new ArrayList<AzAuditEvent>(count);
+      for (int index = 0; index < count; ++index) {
+        items.add(mapRecord(records.get(index)));
+      }
+
+      return switch (cursor.seek()) {
+        case final Before s -> {
+          Collections.reverse(items);
+          final var pageIndex =
+            hasMore ? Math.max(1, cursor.pageIndex()) : 0;
+          yield pageOf(parameters, items, pageIndex, true, hasMore);
+        }
+        case final After s -> {
+          yield pageOf(parameters, items, cursor.pageIndex(), hasMore, true);
+        }
+        case final Start s -> {
+          yield pageOf(parameters, items, 0, hasMore, false);
+        }
+      };
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+
+  private static AzAuditSearchPage pageOf(
+    final AzAuditSearchParameters parameters,
+    final List<AzAuditEvent> items,
+    final int pageIndex,
+    final boolean hasNext,
+    final boolean hasPrevious)
+  {
+    final var pageSize =
+      parameters.pageSize();
+
+    Optional<AzAuditSearchCursor> next = Optional.empty();
+    Optional<AzAuditSearchCursor> previous = Optional.empty();
+
+    if (!items.isEmpty()) {
+      final var first = items.getFirst();
+      final var last = items.getLast();
+
+      if (hasNext) {
+        next = Optional.of(
+          new AzAuditSearchCursor(
+            parameters,
+            pageIndex + 1,
+            new After(last.time(), last.id())
+          )
+        );
+      }
+      if (hasPrevious && pageIndex > 0) {
+        previous = Optional.of(
+          new AzAuditSearchCursor(
+            parameters,
+            pageIndex - 1,
+            new Before(first.time(), first.id())
+          )
+        );
+      }
+    }
+
+    final var pageCount =
+      next.isPresent() ? pageIndex + 2 : pageIndex + 1;
+
+    return new AzAuditSearchPage(
+      new AzPage<>(
+        List.copyOf(items),
+        pageIndex,
+        pageCount,
+        pageIndex * pageSize
+      ),
+      next,
+      previous
+    );
+  }
+
+  private static AzAuditEvent mapRecord(
+    final Record record)
+  {
+    return new AzAuditEvent(
+      record.get(AUDIT.AUDIT_ID).longValue(),
+      record.get(AUDIT.AUDIT_TIME),
+      new AzUserID(record.get(AUDIT.AUDIT_USER_ID)),
+      record.get(AUDIT.AUDIT_TYPE),
+      record.get(AU_DATA).data()
+    );
+  }
+
+  private static Condition conditionOf(
+    final AzAuditSearchParameters parameters)
+  {
+    final var timeRange =
+      parameters.timeRange();
+
+    final var timeCondition =
+      AUDIT.AUDIT_TIME.ge(timeRange.lower())
+        .and(AUDIT.AUDIT_TIME.le(timeRange.upper()));
+
+    final var ownerCondition =
+      parameters.owner()
+        .map(owner -> AUDIT.AUDIT_USER_ID.eq(owner.id()))
+        .orElse(DSL.trueCondition());
+
+    final var typeCondition =
+      typeConditionOf(parameters.type());
+
+    return DSL.and(timeCondition, ownerCondition, typeCondition);
+  }
+
+  private static Condition typeConditionOf(
+    final AzComparisonExactType<String> type)
+  {
+    return switch (type) {
+      case final AzComparisonExactType.Anything<String> e -> {
+        yield DSL.trueCondition();
+      }
+      case final AzComparisonExactType.IsEqualTo<String> e -> {
+        yield AUDIT.AUDIT_TYPE.eq(e.value());
+      }
+      case final AzComparisonExactType.IsNotEqualTo<String> e -> {
+        yield AUDIT.AUDIT_TYPE.ne(e.value());
+      }
+    };
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<AzAuditSearchCursor, AzAuditSearchPage, AzAuditSearchType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzAuditSearchType.class,
+      AzAuditSearch::new
+    );
+  }
+}
@@ -0,0 +1,303 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.darco.api.DDatabaseTelemetryType;
+import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.jooq.postgres.extensions.bindings.HstoreBinding;
+import org.jooq.postgres.extensions.types.Hstore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.io7m.azeno.database.postgres.internal.Tables.AUDIT_QUEUE;
+
+/**
+ * A write-behind audit sink. Transactions insert their events into the
+ * {@code audit_queue} table as they commit, so an event is never lost once
+ * the transaction that produced it has committed. A background thread moves
+ * events from the queue into the audit table in large batches, and a batch
+ * that cannot be moved stays in the queue and is retried.
+ */
+
+public final class AzAuditSink implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzAuditSink.class);
+
+  private static final int BATCH_SIZE = 1_000;
+  private static final Duration POLL_INTERVAL = Duration.ofSeconds(1L);
+  private static final Duration RETRY_DELAY_MAXIMUM = Duration.ofSeconds(30L);
+
+  private static final DataType<Hstore> QUEUE_DATA_TYPE =
+    SQLDataType.OTHER.asConvertedDataType(new HstoreBinding());
+
+  private static final Field<Hstore> QUEUE_DATA =
+    DSL.field("QUEUE_DATA", QUEUE_DATA_TYPE);
+
+  /*
+   * Claim the oldest events in the queue, skipping any that are being moved
+   * by another server, and move them into the audit table in one statement.
+   */
+
+  private static final String MOVE_STATEMENT = """
+    WITH claimed AS (
+      SELECT queue_id FROM audit_queue
+        ORDER BY queue_id
+        LIMIT ?
+        FOR UPDATE SKIP LOCKED
+    ), moved AS (
+      DELETE FROM audit_queue
+        WHERE queue_id IN (SELECT queue_id FROM claimed)
+        RETURNING queue_id, queue_user_id, queue_time, queue_type, queue_data
+    ), inserted AS (
+      INSERT INTO audit (audit_user_id, audit_time, audit_type, audit_data)
+        SELECT queue_user_id, queue_time, queue_type, queue_data
+          FROM moved
+          ORDER BY queue_id
+        RETURNING audit_time
+    )
+    SELECT count(*), min(audit_time) FROM inserted
+    """;
+
+  private final DataSource dataSource;
+  private final Semaphore wake;
+  private final AtomicBoolean closed;
+  private final LongCounter written;
+  private final LongCounter failures;
+  private final ObservableLongGauge lagGauge;
+  private final Thread writer;
+  private volatile long flushLag;
+
+  /**
+   * A write-behind audit sink.
+   *
+   * @param inDataSource The data source used to move events
+   * @param telemetry    The telemetry
+   */
+
+  public AzAuditSink(
+    final DataSource inDataSource,
+    final DDatabaseTelemetryType telemetry)
+  {
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.wake =
+      new Semaphore(0);
+    this.closed =
+      new AtomicBoolean(false);
+
+    final var meter = telemetry.meter();
+
+    this.written =
+      meter.counterBuilder("azeno_audit_sink_written")
+        .setDescription("The number of audit events moved into the audit table by the audit sink.")
+        .build();
+
+    this.failures =
+      meter.counterBuilder("azeno_audit_sink_failures")
+        .setDescription("The number of batches of audit events that the audit sink failed to move, and will retry.")
+        .build();
+
+    this.lagGauge =
+      meter.gaugeBuilder("azeno_audit_sink_flush_lag")
+        .setDescription(
+          "The time between the oldest event in the most recent batch occurring and the batch being moved into the audit table (nanoseconds).")
+        .setUnit("ns")
+        .ofLongs()
+        .buildWithCallback(m -> m.record(this.flushLag));
+
+    this.writer =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.audit-sink")
+        .start(this::run);
+  }
+
+  /**
+   * Queue events for writing. This must be called inside the transaction
+   * that produced the events, before it commits, so that the events commit
+   * (or roll back) with the transaction.
+   *
+   * @param context The SQL context of the transaction
+   * @param events  The events
+   */
+
+  public void enqueue(
+    final DSLContext context,
+    final List<AzAuditEvent> events)
+  {
+    Objects.requireNonNull(context, "context");
+    Objects.requireNonNull(events, "events");
+
+    for (int base = 0; base < events.size(); base += BATCH_SIZE) {
+      final var chunk =
+        events.subList(base, Math.min(events.size(), base + BATCH_SIZE));
+
+      var insert =
+        context.insertInto(
+          AUDIT_QUEUE,
+          AUDIT_QUEUE.QUEUE_USER_ID,
+          AUDIT_QUEUE.QUEUE_TIME,
+          AUDIT_QUEUE.QUEUE_TYPE,
+          QUEUE_DATA
+        );
+
+      for (final var event : chunk) {
+        insert = insert.values(
+          event.owner().id(),
+          event.time(),
+          event.type(),
+          Hstore.valueOf(event.data())
+        );
+      }
+      insert.execute();
+    }
+  }
+
+  /**
+   * Indicate that events have been committed to the queue, so that they are
+   * moved without waiting for the next poll.
+   */
+
+  public void wake()
+  {
+    this.wake.release();
+  }
+
+  private void run()
+  {
+    var retryDelay = POLL_INTERVAL;
+
+    while (!this.closed.get()) {
+      try {
+        final Duration delay;
+        if (this.moveAll()) {
+          retryDelay = POLL_INTERVAL;
+          delay = POLL_INTERVAL;
+        } else {
+          delay = retryDelay;
+          retryDelay = retryDelay.multipliedBy(2L);
+          if (retryDelay.compareTo(RETRY_DELAY_MAXIMUM) > 0) {
+            retryDelay = RETRY_DELAY_MAXIMUM;
+          }
+        }
+
+        this.wake.tryAcquire(delay.toMillis(), TimeUnit.MILLISECONDS);
+        this.wake.drainPermits();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      }
+    }
+
+    /*
+     * Move whatever remains so that events are visible promptly after a
+     * clean shutdown. Anything that cannot be moved now stays in the queue
+     * and is moved by the next server to start.
+     */
+
+    this.moveAll();
+  }
+
+  /**
+   * Move batches until the queue is empty.
+   *
+   * @return {@code false} if a batch failed to move
+   */
+
+  private boolean moveAll()
+  {
+    while (true) {
+      final long moved;
+      try {
+        moved = this.moveBatch();
+      } catch (final SQLException e) {
+        LOG.error("Failed to move audit events; retrying later: ", e);
+        this.failures.add(1L);
+        return false;
+      }
+      if (moved < BATCH_SIZE) {
+        return true;
+      }
+    }
+  }
+
+  private long moveBatch()
+    throws SQLException
+  {
+    try (var connection = this.dataSource.getConnection()) {
+      connection.setAutoCommit(false);
+
+      try (var statement = connection.prepareStatement(MOVE_STATEMENT)) {
+        statement.setInt(1, BATCH_SIZE);
+
+        final long count;
+        final OffsetDateTime oldest;
+        try (var result = statement.executeQuery()) {
+          result.next();
+          count = result.getLong(1);
+          oldest = result.getObject(2, OffsetDateTime.class);
+        }
+        connection.commit();
+
+        if (count > 0L) {
+          this.written.add(count);
+          this.flushLag =
+            Duration.between(oldest, OffsetDateTime.now()).toNanos();
+        }
+        return count;
+      } catch (final SQLException e) {
+        connection.rollback();
+        throw e;
+      }
+    }
+  }
+
+  @Override
+  public void close()
+    throws InterruptedException
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.wake.release();
+      this.writer.join();
+      this.lagGauge.close();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzAuditSink 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,287 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
+import com.io7m.azeno.model.AzCollectionAccess;
+import com.io7m.azeno.model.AzCollectionAccessRequest;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.darco.api.DDatabaseTelemetryType;
+import io.opentelemetry.api.metrics.LongCounter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded cache of collection access decisions. The absence of access is
+ * cached in the same way as its presence, so repeated checks against a
+ * collection that a user cannot access do not reach the database either.
+ *
+ * <p>Entries are invalidated locally when access is changed through this
+ * server, and on every server by the {@code azeno_collection_access}
+ * notifications that the database sends when access rows change or
+ * collections are deleted. Entries additionally expire a fixed time after
+ * they are written, which bounds staleness should a notification be
+ * missed.</p>
+ *
+ * <p>Every invalidation advances a generation counter for the affected keys.
+ * A decision loaded from the database is only published if the generation
+ * of its key did not change while it was being loaded, so a load that
+ * raced with an invalidation cannot reinstate the decision that the
+ * invalidation discarded.</p>
+ */
+
+public final class AzCollectionAccessCache
+  implements AzDatabaseNotificationHandlerType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzCollectionAccessCache.class);
+
+  /**
+   * The notification channel upon which access changes are announced.
+   */
+
+  public static final String CHANNEL = "azeno_collection_access";
+
+  private static final int GENERATION_STRIPES = 64;
+
+  private final Cache<AzCollectionAccessRequest, AzCollectionAccess> cache;
+  private final AtomicLongArray generations;
+  private final LongCounter hits;
+  private final LongCounter misses;
+
+  /**
+   * A function that loads access from the database.
+   */
+
+  public interface LoaderType
+  {
+    /**
+     * Load access.
+     *
+     * @param request The request
+     *
+     * @return The access
+     *
+     * @throws DDatabaseException On errors
+     */
+
+    AzCollectionAccess load(AzCollectionAccessRequest request)
+      throws DDatabaseException;
+  }
+
+  /**
+   * A bounded cache of collection access decisions.
+   *
+   * @param telemetry     The telemetry
+   * @param inMaximumSize The maximum number of cached decisions
+   * @param inExpiration  The time after which cached decisions expire
+   */
+
+  public AzCollectionAccessCache(
+    final DDatabaseTelemetryType telemetry,
+    final long inMaximumSize,
+    final Duration inExpiration)
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+
+    this.cache =
+      Caffeine.newBuilder()
+        .maximumSize(inMaximumSize)
+        .expireAfterWrite(Objects.requireNonNull(inExpiration, "expiration"))
+        .build();
+
+    this.generations =
+      new AtomicLongArray(GENERATION_STRIPES);
+
+    final var meter = telemetry.meter();
+    this.hits =
+      meter.counterBuilder("azeno_collection_access_cache_hits")
+        .setDescription("The number of collection access checks served from the cache.")
+        .build();
+    this.misses =
+      meter.counterBuilder("azeno_collection_access_cache_misses")
+        .setDescription("The number of collection access checks that required a database query.")
+        .build();
+  }
+
+  /**
+   * Find cached access, or load it and cache it. The loaded access is only
+   * cached if no invalidation affected the request while it was being
+   * loaded.
+   *
+   * @param request The request
+   * @param loader  The loader
+   *
+   * @return The access
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  public AzCollectionAccess findOrLoad(
+    final AzCollectionAccessRequest request,
+    final LoaderType loader)
+    throws DDatabaseException
+  {
+    Objects.requireNonNull(request, "request");
+    Objects.requireNonNull(loader, "loader");
+
+    final var cached = this.cache.getIfPresent(request);
+    if (cached != null) {
+      this.hits.add(1L);
+      return cached;
+    }
+
+    this.misses.add(1L);
+    final var generation = this.generationOf(request);
+    final var loaded = loader.load(request);
+    this.publish(request, loaded, generation);
+    return loaded;
+  }
+
+  private void publish(
+    final AzCollectionAccessRequest request,
+    final AzCollectionAccess access,
+    final long generation)
+  {
+    if (this.generationOf(request) != generation) {
+      return;
+    }
+
+    this.cache.put(request, access);
+
+    /*
+     * An invalidation that advanced the generation between the check above
+     * and the put may have run its removal before the put. Such a decision
+     * is withdrawn again here; an invalidation that advances the generation
+     * after this check removes the entry itself.
+     */
+
+    if (this.generationOf(request) != generation) {
+      this.cache.asMap().remove(request, access);
+    }
+  }
+
+  private static int stripeOf(
+    final AzCollectionAccessRequest request)
+  {
+    return Math.floorMod(request.hashCode(), GENERATION_STRIPES);
+  }
+
+  private long generationOf(
+    final AzCollectionAccessRequest request)
+  {
+    return this.generations.get(stripeOf(request));
+  }
+
+  private void advanceAllGenerations()
+  {
+    for (int index = 0; index < GENERATION_STRIPES; ++index) {
+      this.generations.incrementAndGet(index);
+    }
+  }
+
+  /**
+   * Discard the cached access for the given request.
+   *
+   * @param request The request
+   */
+
+  public void invalidate(
+    final AzCollectionAccessRequest request)
+  {
+    Objects.requireNonNull(request, "request");
+    this.generations.incrementAndGet(stripeOf(request));
+    this.cache.invalidate(request);
+  }
+
+  /**
+   * Discard all cached access for the given collection.
+   *
+   * @param collection The collection
+   */
+
+  public void invalidateCollection(
+    final AzCollectionID collection)
+  {
+    Objects.requireNonNull(collection, "collection");
+    this.advanceAllGenerations();
+    this.cache.asMap()
+      .keySet()
+      .removeIf(r -> Objects.equals(r.collection(), collection));
+  }
+
+  /**
+   * Discard everything.
+   */
+
+  public void invalidateAll()
+  {
+    this.advanceAllGenerations();
+    this.cache.invalidateAll();
+  }
+
+  @Override
+  public void onListenStarted()
+  {
+    this.invalidateAll();
+  }
+
+  @Override
+  public void onNotification(
+    final String channel,
+    final String payload)
+  {
+    if (!CHANNEL.equals(channel)) {
+      return;
+    }
+
+    try {
+      final var separator = payload.indexOf(':');
+      if (separator < 0) {
+        this.invalidateCollection(
+          new AzCollectionID(UUID.fromString(payload))
+        );
+      } else {
+        this.invalidate(
+          new AzCollectionAccessRequest(
+            new AzUserID(UUID.fromString(payload.substring(separator + 1))),
+            new AzCollectionID(UUID.fromString(payload.substring(0, separator)))
+          )
+        );
+      }
+    } catch (final IllegalArgumentException e) {
+      LOG.warn("Unparseable collection access notification: {}", payload);
+      this.invalidateAll();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzCollectionAccessCache 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
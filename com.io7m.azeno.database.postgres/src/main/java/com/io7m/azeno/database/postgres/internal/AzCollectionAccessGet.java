@@ -65,6 +65,29 @@ public final class AzCollectionAccessGet
     this.putAttribute("CollectionID", access.collection().id());
     this.putAttribute("UserID", access.user().id());
 
+    final var azTransaction =
+      (AzDatabaseTransaction) transaction;
+    final var cache =
+      azTransaction.accessCache();
+
+    /*
+     * A transaction that has written may observe its own uncommitted
+     * changes, and those must never be visible to other transactions
+     * through the cache; such a transaction always goes to the database.
+     * A transaction that has not written only ever observes committed
+     * access, and the cache discards any load that races an invalidation.
+     */
+
+    if (cache.isPresent() && !azTransaction.hasWritten()) {
+      return cache.get().findOrLoad(access, r -> load(transaction, r));
+    }
+    return load(transaction, access);
+  }
+
+  private static AzCollectionAccess load(
+    final AzDatabaseTransactionType transaction,
+    final AzCollectionAccessRequest access)
+  {
     final var context =
       transaction.get(DSLContext.class);
 
@@ -81,11 +104,11 @@ public final class AzCollectionAccessGet
     ).from(COLLECTIONS_ACCESS)
       .where(collectionMatches.and(userMatches))
       .fetchOptional()
-      .map(this::mapRecord)
+      .map(AzCollectionAccessGet::mapRecord)
       .orElseGet(access::noAccess);
   }
 
-  private AzCollectionAccess mapRecord(
+  private static AzCollectionAccess mapRecord(
     final org.jooq.Record r)
   {
     return new AzCollectionAccess(
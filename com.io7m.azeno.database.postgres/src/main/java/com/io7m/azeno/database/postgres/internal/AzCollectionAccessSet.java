@@ -71,20 +71,32 @@ public final class AzCollectionAccessSet
     final var context =
       transaction.get(DSLContext.class);
 
+    ((AzDatabaseTransaction) transaction).markWritten();
+
     try {
       context.insertInto(COLLECTIONS_ACCESS)
         .set(COLLECTIONS_ACCESS.ACCESS_COLLECTION_ID, access.collection().id())
         .set(COLLECTIONS_ACCESS.ACCESS_USER_ID, access.user().id())
         .set(COLLECTIONS_ACCESS.ACCESS_READ, access.read())
-        .set(COLLECTIONS_ACCESS.ACCESS_WRITE, access.read())
+        .set(COLLECTIONS_ACCESS.ACCESS_WRITE, access.write())
         .onDuplicateKeyUpdate()
         .set(COLLECTIONS_ACCESS.ACCESS_COLLECTION_ID, access.collection().id())
         .set(COLLECTIONS_ACCESS.ACCESS_USER_ID, access.user().id())
         .set(COLLECTIONS_ACCESS.ACCESS_READ, access.read())
-        .set(COLLECTIONS_ACCESS.ACCESS_WRITE, access.read())
+        .set(COLLECTIONS_ACCESS.ACCESS_WRITE, access.write())
         .execute();
 
-      putAuditEvent(
+      /*
+       * The cached decision is discarded immediately; the notification sent
+       * when this transaction commits discards it again on every server,
+       * including this one, in case a concurrent check cached the old value
+       * in the meantime.
+       */
+
+      ((AzDatabaseTransaction) transaction).accessCache()
+        .ifPresent(c -> c.invalidate(access.request()));
+
+      putAuditEventTransactional(
         context,
         new AzAuditEvent(
           0L,
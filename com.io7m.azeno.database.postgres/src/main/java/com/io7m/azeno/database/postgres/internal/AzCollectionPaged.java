@@ -20,81 +20,56 @@ package com.io7m.azeno.database.postgres.internal;
 import com.io7m.azeno.database.api.AzDatabaseCollectionSearchType;
 import com.io7m.azeno.model.AzCollection;
 import com.io7m.azeno.model.AzCollectionID;
-import com.io7m.azeno.model.AzPage;
 import com.io7m.azeno.model.AzSchemaID;
 import com.io7m.azeno.model.AzStoreID;
-import com.io7m.darco.api.DDatabaseException;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
 import com.io7m.lanark.core.RDottedName;
-import org.jooq.DSLContext;
-import org.jooq.exception.DataAccessException;
+import org.jooq.Record;
 
 import java.util.List;
-import java.util.Map;
 
-import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
 import static com.io7m.azeno.database.postgres.internal.Tables.COLLECTIONS;
 import static com.io7m.azeno.database.postgres.internal.Tables.SCHEMAS;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 final class AzCollectionPaged
   extends AzAbstractSearch<AzCollection>
   implements AzDatabaseCollectionSearchType
 {
   AzCollectionPaged(
-    final List<JQKeysetRandomAccessPageDefinition> inPages)
+    final long inRowEstimate)
   {
-    super(inPages);
+    super(
+      "AzCollectionSearch.page",
+      COLLECTIONS
+        .join(SCHEMAS)
+        .on(SCHEMAS.SCHEMA_ID.eq(COLLECTIONS.COLLECTION_SCHEMA)),
+      List.of(
+        COLLECTIONS.COLLECTION_ID,
+        COLLECTIONS.COLLECTION_TITLE,
+        COLLECTIONS.COLLECTION_STORE,
+        SCHEMAS.SCHEMA_NAME,
+        SCHEMAS.SCHEMA_VERSION
+      ),
+      List.of(
+        COLLECTIONS.COLLECTION_TITLE,
+        COLLECTIONS.COLLECTION_ID
+      ),
+      1000L,
+      inRowEstimate
+    );
   }
 
   @Override
-  protected AzPage<AzCollection> page(
-    final AzDatabaseTransaction transaction,
-    final JQKeysetRandomAccessPageDefinition page)
-    throws DDatabaseException
+  protected AzCollection map(
+    final Record record)
   {
-    final var context =
-      transaction.get(DSLContext.class);
-
-    final var querySpan =
-      transaction.createSubSpan("AzCollectionSearch.page");
-
-    try {
-      final var query =
-        page.queryFields(context, List.of(
-          COLLECTIONS.COLLECTION_ID,
-          COLLECTIONS.COLLECTION_TITLE,
-          COLLECTIONS.COLLECTION_STORE,
-          SCHEMAS.SCHEMA_NAME,
-          SCHEMAS.SCHEMA_VERSION
-        ));
-
-      querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-      final var items =
-        query.fetch().map(record -> {
-          return new AzCollection(
-            new AzCollectionID(record.get(COLLECTIONS.COLLECTION_ID)),
-            record.get(COLLECTIONS.COLLECTION_TITLE),
-            new AzStoreID(record.get(COLLECTIONS.COLLECTION_STORE)),
-            new AzSchemaID(
-              new RDottedName(record.get(SCHEMAS.SCHEMA_NAME)),
-              record.get(SCHEMAS.SCHEMA_VERSION)
-            )
-          );
-        });
-
-      return new AzPage<>(
-        items,
-        (int) page.index(),
-        this.pageCount(),
-        page.firstOffset()
-      );
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw handleDatabaseException(transaction, Map.of(), e);
-    } finally {
-      querySpan.end();
-    }
+    return new AzCollection(
+      new AzCollectionID(record.get(COLLECTIONS.COLLECTION_ID)),
+      record.get(COLLECTIONS.COLLECTION_TITLE),
+      new AzStoreID(record.get(COLLECTIONS.COLLECTION_STORE)),
+      new AzSchemaID(
+        new RDottedName(record.get(SCHEMAS.SCHEMA_NAME)),
+        record.get(SCHEMAS.SCHEMA_VERSION)
+      )
+    );
   }
 }
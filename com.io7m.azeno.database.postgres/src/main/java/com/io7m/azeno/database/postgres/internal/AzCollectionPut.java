@@ -96,7 +96,7 @@ public final class AzCollectionPut
         .execute();
 
       putAuditEvent(
-        context,
+        transaction,
         new AzAuditEvent(
           0L,
           OffsetDateTime.now(),
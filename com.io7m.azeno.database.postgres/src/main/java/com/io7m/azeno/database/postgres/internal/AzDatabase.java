@@ -17,20 +17,27 @@
 
 package com.io7m.azeno.database.postgres.internal;
 
+import com.io7m.azeno.database.api.AzDatabaseAuditMode;
 import com.io7m.azeno.database.api.AzDatabaseConfiguration;
 import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationListenerType;
 import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.darco.api.DDatabaseAbstract;
 import com.io7m.darco.api.DDatabaseException;
+import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import io.opentelemetry.api.trace.Span;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
+import java.time.Duration;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * The main database.
@@ -44,22 +51,166 @@ public final class AzDatabase
   AzDatabaseQueryProviderType<?, ?, ?>>
   implements AzDatabaseType
 {
+  private final Optional<AzAuditSink> auditSink;
+  private final Optional<AzCollectionAccessCache> accessCache;
+  private final AzDatabaseSchemaCache schemaCache;
+  private final boolean isReadOnly;
+  private final AzDatabaseType readOnly;
+  private final DataSource listenDataSource;
+
   /**
    * The main database.
    *
-   * @param inConfiguration  The configuration
-   * @param inDataSource     The data source
-   * @param inQueryProviders The query providers
-   * @param inResources      The resources
+   * @param inConfiguration      The configuration
+   * @param inDataSource         The data source
+   * @param inReadOnlyDataSource The data source used for read-only work
+   * @param inQueryProviders     The query providers
+   * @param inResources          The resources
    */
 
   public AzDatabase(
     final AzDatabaseConfiguration inConfiguration,
     final DataSource inDataSource,
+    final DataSource inReadOnlyDataSource,
     final Collection<AzDatabaseQueryProviderType<?, ?, ?>> inQueryProviders,
     final CloseableCollectionType<DDatabaseException> inResources)
   {
     super(inConfiguration, inDataSource, inQueryProviders, inResources);
+
+    this.isReadOnly = false;
+    this.listenDataSource = inDataSource;
+    this.schemaCache =
+      new AzDatabaseSchemaCache(inConfiguration.telemetry(), 1_000L);
+    this.readOnly = new AzDatabase(
+      inConfiguration,
+      inReadOnlyDataSource,
+      inDataSource,
+      inQueryProviders,
+      this.schemaCache
+    );
+
+    if (inConfiguration.info().auditMode() == AzDatabaseAuditMode.WRITE_BEHIND) {
+      this.auditSink = Optional.of(
+        inResources.add(
+          new AzAuditSink(inDataSource, inConfiguration.telemetry())
+        )
+      );
+    } else {
+      this.auditSink = Optional.empty();
+    }
+
+    final var cache =
+      new AzCollectionAccessCache(
+        inConfiguration.telemetry(),
+        100_000L,
+        Duration.ofMinutes(5L)
+      );
+
+    inResources.add(
+      new AzDatabaseNotificationListener(
+        inDataSource,
+        List.of(AzCollectionAccessCache.CHANNEL),
+        cache
+      )
+    );
+    this.accessCache = Optional.of(cache);
+  }
+
+  /**
+   * A read-only view of a database. The view does not own any resources; the
+   * data sources are owned (and closed) by the main database. Replicas cannot
+   * execute {@code LISTEN}, so listeners always connect to the primary.
+   * Schemas cannot be updated, so the view shares the schema cache of the
+   * main database.
+   */
+
+  private AzDatabase(
+    final AzDatabaseConfiguration inConfiguration,
+    final DataSource inDataSource,
+    final DataSource inListenDataSource,
+    final Collection<AzDatabaseQueryProviderType<?, ?, ?>> inQueryProviders,
+    final AzDatabaseSchemaCache inSchemaCache)
+  {
+    super(
+      inConfiguration,
+      inDataSource,
+      inQueryProviders,
+      CloseableCollection.create(() -> {
+        return new DDatabaseException(
+          "Closing the read-only database failed.",
+          "error-resource-close-failed",
+          Map.of(),
+          Optional.empty()
+        );
+      })
+    );
+
+    this.isReadOnly = true;
+    this.readOnly = this;
+    this.listenDataSource = inListenDataSource;
+    this.auditSink = Optional.empty();
+    this.schemaCache = inSchemaCache;
+
+    /*
+     * Access decisions read from a replica might predate an invalidation
+     * received from the primary, so they are never cached.
+     */
+
+    this.accessCache = Optional.empty();
+  }
+
+  @Override
+  public AzDatabaseType readOnly()
+  {
+    return this.readOnly;
+  }
+
+  @Override
+  public AzDatabaseNotificationListenerType listen(
+    final List<String> channels,
+    final AzDatabaseNotificationHandlerType handler)
+  {
+    return new AzDatabaseNotificationListener(
+      this.listenDataSource,
+      channels,
+      handler
+    );
+  }
+
+  /**
+   * @return The write-behind audit sink, if audit events are written behind
+   */
+
+  Optional<AzAuditSink> auditSink()
+  {
+    return this.auditSink;
+  }
+
+  /**
+   * @return The collection access cache, if access decisions are cached
+   */
+
+  Optional<AzCollectionAccessCache> accessCache()
+  {
+    return this.accessCache;
+  }
+
+  /**
+   * @return The parsed schema cache
+   */
+
+  AzDatabaseSchemaCache schemaCache()
+  {
+    return this.schemaCache;
+  }
+
+  /**
+   * @return {@code true} if every transaction is read-only
+   */
+
+  boolean isReadOnly()
+  {
+    return this.isReadOnly;
   }
 
   @Override
@@ -70,7 +221,6 @@ public final class AzDatabase
   {
     return new AzDatabaseConnection(
       this,
-      this.configuration().strings(),
       span,
       connection,
       queries
@@ -21,7 +21,6 @@ import com.io7m.azeno.database.api.AzDatabaseConfiguration;
 import com.io7m.azeno.database.api.AzDatabaseConnectionType;
 import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
-import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.strings.AzStrings;
 import com.io7m.darco.api.DDatabaseConnectionAbstract;
 import com.io7m.darco.api.DDatabaseTransactionCloseBehavior;
@@ -46,18 +45,17 @@ final class AzDatabaseConnection
   private static final Settings SETTINGS =
     new Settings().withRenderNameCase(RenderNameCase.LOWER);
 
-  private final AzStrings strings;
+  private final AzDatabase database;
 
   AzDatabaseConnection(
-    final AzDatabaseType database,
-    final AzStrings inStrings,
+    final AzDatabase inDatabase,
     final Span span,
     final Connection connection,
     final Map<Class<?>, AzDatabaseQueryProviderType<?, ?, ?>> queries)
   {
-    super(database.configuration(), span, connection, queries);
-    this.strings =
-      Objects.requireNonNull(inStrings, "strings");
+    super(inDatabase.configuration(), span, connection, queries);
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
   }
 
   @Override
@@ -71,10 +69,19 @@ final class AzDatabaseConnection
       this.configuration(),
       this,
       transactionSpan,
-      queries
+      queries,
+      this.database.auditSink(),
+      this.database.accessCache(),
+      this.database.schemaCache()
     );
-    transaction.put(DSLContext.class, this.createContext());
-    transaction.put(AzStrings.class, this.strings);
+
+    final var context = this.createContext();
+    if (this.database.isReadOnly()) {
+      context.execute("SET TRANSACTION READ ONLY");
+    }
+
+    transaction.put(DSLContext.class, context);
+    transaction.put(AzStrings.class, this.configuration().strings());
     return transaction;
   }
 
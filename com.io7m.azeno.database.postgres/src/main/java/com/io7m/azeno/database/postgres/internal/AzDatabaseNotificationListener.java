@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationListenerType;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A listener that holds a dedicated connection open, {@code LISTEN}s on a
+ * set of notification channels, and delivers each notification to a
+ * handler. If the connection is lost, the listener reconnects; because
+ * notifications sent while disconnected are lost, the handler is informed
+ * each time listening (re)starts so that it can discard any state that
+ * notifications would otherwise have kept up to date.
+ */
+
+public final class AzDatabaseNotificationListener
+  implements AzDatabaseNotificationListenerType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzDatabaseNotificationListener.class);
+
+  private static final int POLL_TIMEOUT_MS = 1_000;
+  private static final Duration RETRY_DELAY = Duration.ofSeconds(1L);
+
+  private final DataSource dataSource;
+  private final List<String> channels;
+  private final AzDatabaseNotificationHandlerType handler;
+  private final CountDownLatch closed;
+  private final Thread thread;
+
+  /**
+   * A listener that delivers notifications on the given channels.
+   *
+   * @param inDataSource The data source
+   * @param inChannels   The channels
+   * @param inHandler    The handler
+   */
+
+  public AzDatabaseNotificationListener(
+    final DataSource inDataSource,
+    final List<String> inChannels,
+    final AzDatabaseNotificationHandlerType inHandler)
+  {
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.channels =
+      List.copyOf(inChannels);
+    this.handler =
+      Objects.requireNonNull(inHandler, "handler");
+    this.closed =
+      new CountDownLatch(1);
+
+    this.thread =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.notifications")
+        .start(this::run);
+  }
+
+  private boolean isClosed()
+  {
+    return this.closed.getCount() == 0L;
+  }
+
+  private void run()
+  {
+    while (!this.isClosed()) {
+      try (var connection = this.dataSource.getConnection()) {
+        try {
+          this.listen(connection);
+        } finally {
+          unlisten(connection);
+        }
+      } catch (final SQLException e) {
+        LOG.warn("Notification listener connection failed: ", e);
+      } catch (final RuntimeException e) {
+        LOG.error("Notification handler failed: ", e);
+      }
+
+      try {
+        this.closed.await(RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void listen(
+    final Connection connection)
+    throws SQLException
+  {
+    try (var statement = connection.createStatement()) {
+      for (final var channel : this.channels) {
+        statement.execute("LISTEN \"%s\"".formatted(channel));
+      }
+    }
+    if (!connection.getAutoCommit()) {
+      connection.commit();
+    }
+
+    final var pg = connection.unwrap(PGConnection.class);
+    this.handler.onListenStarted();
+
+    while (!this.isClosed()) {
+      final var notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+      if (notifications == null) {
+        continue;
+      }
+      for (final var notification : notifications) {
+        this.handler.onNotification(
+          notification.getName(),
+          notification.getParameter()
+        );
+      }
+    }
+  }
+
+  /**
+   * Stop listening before the connection is returned to the pool, so that
+   * notifications do not queue up on a connection that nobody is reading.
+   */
+
+  private static void unlisten(
+    final Connection connection)
+  {
+    try {
+      if (connection.isClosed()) {
+        return;
+      }
+      try (var statement = connection.createStatement()) {
+        statement.execute("UNLISTEN *");
+      }
+      if (!connection.getAutoCommit()) {
+        connection.commit();
+      }
+    } catch (final SQLException e) {
+      LOG.debug("Failed to stop listening: ", e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    this.closed.countDown();
+
+    try {
+      this.thread.join();
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzDatabaseNotificationListener 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -24,7 +24,6 @@ import com.io7m.darco.api.DDatabaseQueryAbstract;
 import org.jooq.DSLContext;
 import org.jooq.DataType;
 import org.jooq.Field;
-import org.jooq.Query;
 import org.jooq.impl.DSL;
 import org.jooq.impl.SQLDataType;
 import org.jooq.postgres.extensions.bindings.HstoreBinding;
@@ -77,14 +76,55 @@ public abstract class AzDatabaseQueryAbstract<P, R>
     return Map.copyOf(this.attributes);
   }
 
-  static Query putAuditEvent(
+  /**
+   * Record an audit event. If the database is configured to write audit
+   * events behind, the event is held by the transaction and handed to the
+   * audit sink when the transaction commits; it is discarded if the
+   * transaction is rolled back. Otherwise, the event is written inside the
+   * given transaction.
+   *
+   * @param transaction The transaction
+   * @param event       The event
+   */
+
+  static void putAuditEvent(
+    final AzDatabaseTransactionType transaction,
+    final AzAuditEvent event)
+  {
+    final var azTransaction =
+      (AzDatabaseTransaction) transaction;
+
+    azTransaction.markWritten();
+
+    final var sink =
+      azTransaction.auditSink();
+
+    if (sink.isPresent()) {
+      azTransaction.deferAuditEvent(event);
+      return;
+    }
+
+    putAuditEventTransactional(transaction.get(DSLContext.class), event);
+  }
+
+  /**
+   * Record an audit event inside the given transaction, regardless of the
+   * configured audit mode. This is used by operations whose audit events
+   * must commit atomically with the operation itself.
+   *
+   * @param context The SQL context
+   * @param event   The event
+   */
+
+  static void putAuditEventTransactional(
     final DSLContext context,
     final AzAuditEvent event)
   {
-    return context.insertInto(AUDIT)
+    context.insertInto(AUDIT)
       .set(AUDIT.AUDIT_TYPE, event.type())
       .set(AUDIT.AUDIT_TIME, event.time())
       .set(AUDIT.AUDIT_USER_ID, event.owner().id())
-      .set(AU_DATA, Hstore.valueOf(event.data()));
+      .set(AU_DATA, Hstore.valueOf(event.data()))
+      .execute();
   }
 }
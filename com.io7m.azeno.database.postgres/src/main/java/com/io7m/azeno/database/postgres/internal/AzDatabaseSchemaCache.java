@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.io7m.azeno.model.AzSchema;
+import com.io7m.azeno.model.AzSchemaID;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.darco.api.DDatabaseTelemetryType;
+import io.opentelemetry.api.metrics.LongCounter;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded cache of parsed schemas, used to avoid reading and parsing the
+ * schema XML each time a schema is retrieved.
+ *
+ * <p>Schemas are identified by name and version and cannot be updated, so
+ * entries do not expire. Only schemas that exist are cached; a schema that
+ * is created after a failed lookup is found by the next lookup. Entries are
+ * invalidated when a schema is written, and a schema loaded concurrently
+ * with an invalidation is not published.</p>
+ */
+
+public final class AzDatabaseSchemaCache
+{
+  private final Cache<AzSchemaID, AzSchema> cache;
+  private final AtomicLong generation;
+  private final LongCounter hits;
+  private final LongCounter misses;
+
+  /**
+   * A function that loads schemas from the database.
+   */
+
+  public interface LoaderType
+  {
+    /**
+     * Load a schema.
+     *
+     * @param id The schema ID
+     *
+     * @return The schema, if one exists
+     *
+     * @throws DDatabaseException On errors
+     */
+
+    Optional<AzSchema> load(AzSchemaID id)
+      throws DDatabaseException;
+  }
+
+  /**
+   * A bounded cache of parsed schemas.
+   *
+   * @param telemetry     The telemetry
+   * @param inMaximumSize The maximum number of cached schemas
+   */
+
+  public AzDatabaseSchemaCache(
+    final DDatabaseTelemetryType telemetry,
+    final long inMaximumSize)
+  {
+    Objects.requireNonNull(telemetry, "telemetry");
+
+    this.cache =
+      Caffeine.newBuilder()
+        .maximumSize(inMaximumSize)
+        .build();
+
+    this.generation =
+      new AtomicLong();
+
+    final var meter = telemetry.meter();
+    this.hits =
+      meter.counterBuilder("azeno_schema_get_cache_hits")
+        .setDescription("The number of schema retrievals served from the cache.")
+        .build();
+    this.misses =
+      meter.counterBuilder("azeno_schema_get_cache_misses")
+        .setDescription("The number of schema retrievals that required a database query.")
+        .build();
+  }
+
+  /**
+   * Find a cached schema, or load it and cache it.
+   *
+   * @param id     The schema ID
+   * @param loader The loader
+   *
+   * @return The schema, if one exists
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  public Optional<AzSchema> findOrLoad(
+    final AzSchemaID id,
+    final LoaderType loader)
+    throws DDatabaseException
+  {
+    Objects.requireNonNull(id, "id");
+    Objects.requireNonNull(loader, "loader");
+
+    final var cached = this.cache.getIfPresent(id);
+    if (cached != null) {
+      this.hits.add(1L);
+      return Optional.of(cached);
+    }
+
+    this.misses.add(1L);
+    final var generationThen = this.generation.get();
+    final var loaded = loader.load(id);
+    loaded.ifPresent(schema -> this.publish(id, schema, generationThen));
+    return loaded;
+  }
+
+  private void publish(
+    final AzSchemaID id,
+    final AzSchema schema,
+    final long generationThen)
+  {
+    if (this.generation.get() != generationThen) {
+      return;
+    }
+
+    this.cache.put(id, schema);
+
+    if (this.generation.get() != generationThen) {
+      this.cache.asMap().remove(id, schema);
+    }
+  }
+
+  /**
+   * Discard the cached schema with the given ID.
+   *
+   * @param id The schema ID
+   */
+
+  public void invalidate(
+    final AzSchemaID id)
+  {
+    Objects.requireNonNull(id, "id");
+    this.generation.incrementAndGet();
+    this.cache.invalidate(id);
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzDatabaseSchemaCache 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
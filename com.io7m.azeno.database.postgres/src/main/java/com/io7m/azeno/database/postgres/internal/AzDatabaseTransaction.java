@@ -21,15 +21,25 @@ import com.io7m.azeno.database.api.AzDatabaseConfiguration;
 import com.io7m.azeno.database.api.AzDatabaseConnectionType;
 import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzAuditEvent;
 import com.io7m.azeno.model.AzUserID;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.darco.api.DDatabaseTransactionAbstract;
 import com.io7m.darco.api.DDatabaseTransactionCloseBehavior;
 import io.opentelemetry.api.trace.Span;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+
 final class AzDatabaseTransaction
   extends DDatabaseTransactionAbstract<
   AzDatabaseConfiguration,
@@ -38,14 +48,26 @@ final class AzDatabaseTransaction
   AzDatabaseQueryProviderType<?, ?, ?>>
   implements AzDatabaseTransactionType
 {
+  private final Optional<AzAuditSink> auditSink;
+  private final Optional<AzCollectionAccessCache> accessCache;
+  private final AzDatabaseSchemaCache schemaCache;
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzDatabaseTransaction.class);
+
+  private final ArrayList<AzAuditEvent> auditPending;
+  private final ArrayList<Runnable> commitActions;
   private Optional<AzUserID> userId;
+  private boolean written;
 
   AzDatabaseTransaction(
     final DDatabaseTransactionCloseBehavior closeBehavior,
     final AzDatabaseConfiguration inConfiguration,
     final AzDatabaseConnectionType inConnection,
     final Span inTransactionScope,
-    final Map<Class<?>, AzDatabaseQueryProviderType<?, ?, ?>> inQueries)
+    final Map<Class<?>, AzDatabaseQueryProviderType<?, ?, ?>> inQueries,
+    final Optional<AzAuditSink> inAuditSink,
+    final Optional<AzCollectionAccessCache> inAccessCache,
+    final AzDatabaseSchemaCache inSchemaCache)
   {
     super(
       closeBehavior,
@@ -54,6 +76,146 @@ final class AzDatabaseTransaction
       inTransactionScope,
       inQueries
     );
+
+    this.auditSink =
+      Objects.requireNonNull(inAuditSink, "auditSink");
+    this.accessCache =
+      Objects.requireNonNull(inAccessCache, "accessCache");
+    this.schemaCache =
+      Objects.requireNonNull(inSchemaCache, "schemaCache");
+    this.auditPending =
+      new ArrayList<>();
+    this.commitActions =
+      new ArrayList<>();
+  }
+
+  /**
+   * Hold an audit event until this transaction commits. The event is written
+   * to the write-behind audit queue as part of the commit, and discarded if
+   * the transaction is rolled back or closed without committing.
+   *
+   * @param event The event
+   */
+
+  void deferAuditEvent(
+    final AzAuditEvent event)
+  {
+    this.auditPending.add(Objects.requireNonNull(event, "event"));
+  }
+
+  @Override
+  public void afterCommit(
+    final Runnable action)
+  {
+    this.commitActions.add(Objects.requireNonNull(action, "action"));
+  }
+
+  @Override
+  public void commit()
+    throws DDatabaseException
+  {
+    final var sink = this.auditSink;
+    final var audited = !this.auditPending.isEmpty();
+    if (sink.isPresent() && audited) {
+      try {
+        sink.get().enqueue(this.get(DSLContext.class), this.auditPending);
+      } catch (final DataAccessException e) {
+        throw handleDatabaseException(this, Map.of(), e);
+      }
+    }
+
+    super.commit();
+    this.auditPending.clear();
+
+    if (sink.isPresent() && audited) {
+      sink.get().wake();
+    }
+
+    final var actions = List.copyOf(this.commitActions);
+    this.commitActions.clear();
+
+    /*
+     * The transaction has already committed, so a failing action must not
+     * be reported to the caller as a failure to commit.
+     */
+
+    for (final var action : actions) {
+      try {
+        action.run();
+      } catch (final RuntimeException e) {
+        LOG.error("Post-commit action failed: ", e);
+      }
+    }
+  }
+
+  private void discardPending()
+  {
+    this.auditPending.clear();
+    this.commitActions.clear();
+  }
+
+  @Override
+  public void rollback()
+    throws DDatabaseException
+  {
+    this.discardPending();
+    super.rollback();
+  }
+
+  @Override
+  public void close()
+    throws DDatabaseException
+  {
+    try {
+      super.close();
+    } finally {
+      this.discardPending();
+    }
+  }
+
+  /**
+   * @return The write-behind audit sink, if audit events are written behind
+   */
+
+  Optional<AzAuditSink> auditSink()
+  {
+    return this.auditSink;
+  }
+
+  /**
+   * @return The collection access cache, if access decisions are cached
+   */
+
+  Optional<AzCollectionAccessCache> accessCache()
+  {
+    return this.accessCache;
+  }
+
+  /**
+   * @return The parsed schema cache
+   */
+
+  AzDatabaseSchemaCache schemaCache()
+  {
+    return this.schemaCache;
+  }
+
+  /**
+   * Note that this transaction has written to the database.
+   */
+
+  void markWritten()
+  {
+    this.written = true;
+  }
+
+  /**
+   * @return {@code true} if this transaction has written to the database
+   */
+
+  boolean hasWritten()
+  {
+    return this.written;
   }
 
   @Override
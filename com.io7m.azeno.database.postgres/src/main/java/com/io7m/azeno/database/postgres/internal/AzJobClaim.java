@@ -0,0 +1,129 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzJob;
+import com.io7m.azeno.database.api.AzJobClaimType;
+import com.io7m.azeno.database.postgres.internal.enums.JobStateT;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.List;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.JOBS;
+
+/**
+ * JobClaim.
+ */
+
+public final class AzJobClaim
+  extends AzDatabaseQueryAbstract<AzJobClaimType.Parameters, List<AzJob>>
+  implements AzJobClaimType
+{
+  AzJobClaim(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, List<AzJob>, AzJobClaimType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzJobClaimType.class,
+      AzJobClaim::new
+    );
+  }
+
+  @Override
+  protected List<AzJob> onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    this.putAttribute("JobType", parameters.type());
+    this.putAttribute("Owner", parameters.owner());
+
+    final var context =
+      transaction.get(DSLContext.class);
+    final var timeNow =
+      DSL.currentOffsetDateTime();
+
+    try {
+
+      /*
+       * Return jobs whose leases have expired to the queue. Expired jobs
+       * that have used all of their attempts are failed instead.
+       */
+
+      context.update(JOBS)
+        .set(
+          JOBS.JOB_STATE,
+          DSL.when(
+            JOBS.JOB_ATTEMPTS.ge(JOBS.JOB_ATTEMPTS_MAX),
+            JobStateT.JOB_FAILED
+          ).otherwise(JobStateT.JOB_PENDING))
+        .setNull(JOBS.JOB_LEASE_OWNER)
+        .setNull(JOBS.JOB_LEASE_EXPIRES)
+        .set(JOBS.JOB_RUN_AFTER, timeNow)
+        .set(JOBS.JOB_UPDATED, timeNow)
+        .set(JOBS.JOB_ERROR, "Lease expired.")
+        .where(JOBS.JOB_TYPE.eq(parameters.type()))
+        .and(JOBS.JOB_STATE.eq(JobStateT.JOB_RUNNING))
+        .and(JOBS.JOB_LEASE_EXPIRES.lt(timeNow))
+        .execute();
+
+      final var ready =
+        context.select(JOBS.JOB_ID)
+          .from(JOBS)
+          .where(JOBS.JOB_TYPE.eq(parameters.type()))
+          .and(JOBS.JOB_STATE.eq(JobStateT.JOB_PENDING))
+          .and(JOBS.JOB_RUN_AFTER.le(timeNow))
+          .orderBy(JOBS.JOB_RUN_AFTER)
+          .limit(parameters.limit())
+          .forUpdate()
+          .skipLocked();
+
+      return context.update(JOBS)
+        .set(JOBS.JOB_STATE, JobStateT.JOB_RUNNING)
+        .set(JOBS.JOB_ATTEMPTS, JOBS.JOB_ATTEMPTS.plus(1))
+        .set(JOBS.JOB_LEASE_OWNER, parameters.owner())
+        .set(JOBS.JOB_LEASE_EXPIRES, AzJobs.nowPlus(parameters.lease()))
+        .set(JOBS.JOB_UPDATED, timeNow)
+        .where(JOBS.JOB_ID.in(ready))
+        .returning(
+          JOBS.JOB_ID,
+          JOBS.JOB_TYPE,
+          JOBS.JOB_DATA,
+          JOBS.JOB_ATTEMPTS,
+          JOBS.JOB_ATTEMPTS_MAX)
+        .fetch()
+        .map(AzJobs::mapRecord);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
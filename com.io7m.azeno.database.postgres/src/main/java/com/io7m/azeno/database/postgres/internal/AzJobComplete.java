@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzJobCompleteType;
+import com.io7m.azeno.database.postgres.internal.enums.JobStateT;
+import com.io7m.azeno.model.AzUnit;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.JOBS;
+
+/**
+ * JobComplete.
+ */
+
+public final class AzJobComplete
+  extends AzDatabaseQueryAbstract<AzJobCompleteType.Parameters, AzUnit>
+  implements AzJobCompleteType
+{
+  AzJobComplete(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, AzUnit, AzJobCompleteType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzJobCompleteType.class,
+      AzJobComplete::new
+    );
+  }
+
+  @Override
+  protected AzUnit onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    this.putAttribute("JobID", parameters.job());
+    this.putAttribute("Owner", parameters.owner());
+
+    final var context =
+      transaction.get(DSLContext.class);
+    final var timeNow =
+      DSL.currentOffsetDateTime();
+
+    try {
+      final var isOwned =
+        JOBS.JOB_ID.eq(parameters.job().id())
+          .and(JOBS.JOB_STATE.eq(JobStateT.JOB_RUNNING))
+          .and(JOBS.JOB_LEASE_OWNER.eq(parameters.owner()));
+
+      final var failureOpt = parameters.failure();
+      if (failureOpt.isPresent()) {
+        final var failure = failureOpt.get();
+        this.putAttribute("Error", failure.message());
+
+        context.update(JOBS)
+          .set(
+            JOBS.JOB_STATE,
+            DSL.when(
+              JOBS.JOB_ATTEMPTS.ge(JOBS.JOB_ATTEMPTS_MAX),
+              JobStateT.JOB_FAILED
+            ).otherwise(JobStateT.JOB_PENDING))
+          .setNull(JOBS.JOB_LEASE_OWNER)
+          .setNull(JOBS.JOB_LEASE_EXPIRES)
+          .set(JOBS.JOB_RUN_AFTER, AzJobs.nowPlus(failure.retryDelay()))
+          .set(JOBS.JOB_UPDATED, timeNow)
+          .set(JOBS.JOB_ERROR, failure.message())
+          .where(isOwned)
+          .execute();
+      } else {
+        context.update(JOBS)
+          .set(JOBS.JOB_STATE, JobStateT.JOB_SUCCEEDED)
+          .setNull(JOBS.JOB_LEASE_OWNER)
+          .setNull(JOBS.JOB_LEASE_EXPIRES)
+          .set(JOBS.JOB_UPDATED, timeNow)
+          .setNull(JOBS.JOB_ERROR)
+          .where(isOwned)
+          .execute();
+      }
+
+      return AzUnit.UNIT;
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzJobDeleteFinishedType;
+import com.io7m.azeno.database.postgres.internal.enums.JobStateT;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import java.time.OffsetDateTime;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.JOBS;
+
+/**
+ * JobDeleteFinished.
+ */
+
+public final class AzJobDeleteFinished
+  extends AzDatabaseQueryAbstract<OffsetDateTime, Long>
+  implements AzJobDeleteFinishedType
+{
+  AzJobDeleteFinished(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<OffsetDateTime, Long, AzJobDeleteFinishedType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzJobDeleteFinishedType.class,
+      AzJobDeleteFinished::new
+    );
+  }
+
+  @Override
+  protected Long onExecute(
+    final AzDatabaseTransactionType transaction,
+    final OffsetDateTime time)
+    throws DDatabaseException
+  {
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      final var deleted =
+        context.deleteFrom(JOBS)
+          .where(JOBS.JOB_STATE.in(JobStateT.JOB_SUCCEEDED, JobStateT.JOB_FAILED))
+          .and(JOBS.JOB_UPDATED.lt(time))
+          .execute();
+
+      return Long.valueOf(deleted);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzJobHeartbeatType;
+import com.io7m.azeno.database.api.AzJobID;
+import com.io7m.azeno.database.postgres.internal.enums.JobStateT;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.JOBS;
+
+/**
+ * JobHeartbeat.
+ */
+
+public final class AzJobHeartbeat
+  extends AzDatabaseQueryAbstract<AzJobHeartbeatType.Parameters, Set<AzJobID>>
+  implements AzJobHeartbeatType
+{
+  AzJobHeartbeat(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, Set<AzJobID>, AzJobHeartbeatType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzJobHeartbeatType.class,
+      AzJobHeartbeat::new
+    );
+  }
+
+  @Override
+  protected Set<AzJobID> onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    this.putAttribute("Owner", parameters.owner());
+    this.putAttribute("JobCount", Integer.valueOf(parameters.jobs().size()));
+
+    if (parameters.jobs().isEmpty()) {
+      return Set.of();
+    }
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    final var ids =
+      parameters.jobs()
+        .stream()
+        .map(AzJobID::id)
+        .toList();
+
+    try {
+      return context.update(JOBS)
+        .set(JOBS.JOB_LEASE_EXPIRES, AzJobs.nowPlus(parameters.lease()))
+        .set(JOBS.JOB_UPDATED, DSL.currentOffsetDateTime())
+        .where(JOBS.JOB_ID.in(ids))
+        .and(JOBS.JOB_STATE.eq(JobStateT.JOB_RUNNING))
+        .and(JOBS.JOB_LEASE_OWNER.eq(parameters.owner()))
+        .returning(JOBS.JOB_ID)
+        .fetch()
+        .stream()
+        .map(r -> new AzJobID(r.get(JOBS.JOB_ID)))
+        .collect(Collectors.toUnmodifiableSet());
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzJobPutType;
+import com.io7m.azeno.database.postgres.internal.enums.JobStateT;
+import com.io7m.azeno.model.AzUnit;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.JOBS;
+
+/**
+ * JobPut.
+ */
+
+public final class AzJobPut
+  extends AzDatabaseQueryAbstract<AzJobPutType.Parameters, AzUnit>
+  implements AzJobPutType
+{
+  AzJobPut(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, AzUnit, AzJobPutType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzJobPutType.class,
+      AzJobPut::new
+    );
+  }
+
+  @Override
+  protected AzUnit onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    this.putAttribute("JobID", parameters.id());
+    this.putAttribute("JobType", parameters.type());
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      context.insertInto(JOBS)
+        .set(JOBS.JOB_ID, parameters.id().id())
+        .set(JOBS.JOB_TYPE, parameters.type())
+        .set(JOBS.JOB_DATA, parameters.data())
+        .set(JOBS.JOB_STATE, JobStateT.JOB_PENDING)
+        .set(JOBS.JOB_ATTEMPTS, Integer.valueOf(0))
+        .set(JOBS.JOB_ATTEMPTS_MAX, Integer.valueOf(parameters.attemptsMaximum()))
+        .set(JOBS.JOB_RUN_AFTER, AzJobs.nowPlus(parameters.delay()))
+        .set(JOBS.JOB_CREATED, DSL.currentOffsetDateTime())
+        .set(JOBS.JOB_UPDATED, DSL.currentOffsetDateTime())
+        .execute();
+
+      return AzUnit.UNIT;
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzJob;
+import com.io7m.azeno.database.api.AzJobID;
+import org.jooq.Field;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static com.io7m.azeno.database.postgres.internal.Tables.JOBS;
+
+/**
+ * Functions shared by the job queries.
+ */
+
+final class AzJobs
+{
+  private AzJobs()
+  {
+
+  }
+
+  /**
+   * Job times are always computed using the database clock, so that nodes
+   * with skewed clocks agree on when leases expire.
+   *
+   * @param duration The duration
+   *
+   * @return The current database time plus the given duration
+   */
+
+  static Field<OffsetDateTime> nowPlus(
+    final Duration duration)
+  {
+    return DSL.field(
+      "(now() + make_interval(secs => {0}))",
+      SQLDataType.TIMESTAMPWITHTIMEZONE,
+      DSL.val(Double.valueOf(duration.toMillis() / 1000.0))
+    );
+  }
+
+  static AzJob mapRecord(
+    final Record r)
+  {
+    return new AzJob(
+      new AzJobID(r.get(JOBS.JOB_ID)),
+      r.get(JOBS.JOB_TYPE),
+      r.get(JOBS.JOB_DATA),
+      r.get(JOBS.JOB_ATTEMPTS).intValue(),
+      r.get(JOBS.JOB_ATTEMPTS_MAX).intValue()
+    );
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.darco.api.DDatabaseTelemetryType;
+import io.opentelemetry.api.metrics.ObservableLongGauge;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A monitor that periodically samples the replay lag of a streaming read
+ * replica and exports it as a gauge. The lag is the age of the most recently
+ * replayed transaction, and is reported as zero when the replica has replayed
+ * everything that it has received (so that an idle primary does not appear
+ * as an ever-increasing lag).
+ */
+
+public final class AzReplicaLagMonitor implements AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzReplicaLagMonitor.class);
+
+  private static final Duration SAMPLE_INTERVAL =
+    Duration.ofSeconds(5L);
+
+  private static final String LAG_QUERY = """
+    SELECT CASE
+      WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+      ELSE COALESCE(
+        (EXTRACT(EPOCH FROM (now() - pg_last_xact_replay_timestamp())) * 1000)::bigint,
+        0)
+    END
+    """;
+
+  private final DataSource dataSource;
+  private final ObservableLongGauge lagGauge;
+  private final CountDownLatch closed;
+  private final Thread sampler;
+  private volatile long lag;
+
+  /**
+   * A monitor that periodically samples the replay lag of a streaming read
+   * replica.
+   *
+   * @param inDataSource The replica data source
+   * @param telemetry    The telemetry
+   */
+
+  public AzReplicaLagMonitor(
+    final DataSource inDataSource,
+    final DDatabaseTelemetryType telemetry)
+  {
+    this.dataSource =
+      Objects.requireNonNull(inDataSource, "dataSource");
+    this.closed =
+      new CountDownLatch(1);
+    this.lag =
+      -1L;
+
+    this.lagGauge =
+      telemetry.meter()
+        .gaugeBuilder("azeno_database_replica_lag")
+        .setDescription(
+          "The age of the most recently replayed transaction on the read replica (milliseconds).")
+        .setUnit("ms")
+        .ofLongs()
+        .buildWithCallback(m -> {
+          final var current = this.lag;
+          if (current >= 0L) {
+            m.record(current);
+          }
+        });
+
+    this.sampler =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.database.replica_lag")
+        .start(this::run);
+  }
+
+  private void run()
+  {
+    try {
+      do {
+        this.sample();
+      } while (!this.closed.await(
+        SAMPLE_INTERVAL.toMillis(),
+        TimeUnit.MILLISECONDS));
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void sample()
+  {
+    try (var connection = this.dataSource.getConnection()) {
+      try (var statement = connection.createStatement()) {
+        try (var result = statement.executeQuery(LAG_QUERY)) {
+          if (result.next()) {
+            this.lag = result.getLong(1);
+          }
+        }
+      }
+      connection.rollback();
+    } catch (final SQLException e) {
+      LOG.debug("Unable to sample replica lag: ", e);
+      this.lag = -1L;
+    }
+  }
+
+  /**
+   * @return The most recently sampled lag in milliseconds, or a negative
+   * value if the lag could not be sampled
+   */
+
+  public long lagMilliseconds()
+  {
+    return this.lag;
+  }
+
+  @Override
+  public void close()
+    throws InterruptedException
+  {
+    this.closed.countDown();
+    this.sampler.join();
+    this.lagGauge.close();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzReplicaLagMonitor 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
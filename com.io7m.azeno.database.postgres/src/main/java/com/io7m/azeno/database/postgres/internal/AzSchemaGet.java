@@ -66,6 +66,30 @@ public final class AzSchemaGet
     final AzDatabaseTransactionType transaction,
     final AzSchemaID id)
     throws DDatabaseException
+  {
+    this.putAttribute("Schema Name", id.name());
+    this.putAttribute("Schema Version", id.version());
+
+    final var azTransaction =
+      (AzDatabaseTransaction) transaction;
+
+    /*
+     * A transaction that has written may observe a schema that it has
+     * created but not yet committed, and that schema must not become
+     * visible to other transactions through the cache.
+     */
+
+    if (!azTransaction.hasWritten()) {
+      return azTransaction.schemaCache()
+        .findOrLoad(id, i -> this.load(transaction, i));
+    }
+    return this.load(transaction, id);
+  }
+
+  private Optional<AzSchema> load(
+    final AzDatabaseTransactionType transaction,
+    final AzSchemaID id)
+    throws DDatabaseException
   {
     final var context =
       transaction.get(DSLContext.class);
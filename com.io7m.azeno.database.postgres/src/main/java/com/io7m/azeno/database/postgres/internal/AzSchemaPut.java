@@ -78,6 +78,15 @@ public final class AzSchemaPut
     final var context =
       transaction.get(DSLContext.class);
 
+    final var azTransaction =
+      (AzDatabaseTransaction) transaction;
+    final var cache =
+      azTransaction.schemaCache();
+
+    azTransaction.markWritten();
+    cache.invalidate(schema.id());
+    transaction.afterCommit(() -> cache.invalidate(schema.id()));
+
     try {
       final var dataText =
         serializeSchema(schema);
@@ -90,7 +99,7 @@ public final class AzSchemaPut
         .execute();
 
       putAuditEvent(
-        context,
+        transaction,
         new AzAuditEvent(
           0L,
           OffsetDateTime.now(),
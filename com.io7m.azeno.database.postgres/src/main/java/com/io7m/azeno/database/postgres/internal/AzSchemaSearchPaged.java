@@ -18,74 +18,45 @@
 package com.io7m.azeno.database.postgres.internal;
 
 import com.io7m.azeno.database.api.AzDatabaseSchemaSearchType;
-import com.io7m.azeno.model.AzPage;
 import com.io7m.azeno.model.AzSchemaID;
-import com.io7m.darco.api.DDatabaseException;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
 import com.io7m.lanark.core.RDottedName;
-import org.jooq.DSLContext;
-import org.jooq.exception.DataAccessException;
+import org.jooq.Record;
 
 import java.util.List;
-import java.util.Map;
 
 import static com.io7m.azeno.database.postgres.internal.Tables.SCHEMAS;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 final class AzSchemaSearchPaged
   extends AzAbstractSearch<AzSchemaID>
   implements AzDatabaseSchemaSearchType
 {
   AzSchemaSearchPaged(
-    final List<JQKeysetRandomAccessPageDefinition> inPages)
+    final long inRowEstimate)
   {
-    super(inPages);
+    super(
+      "AzSchemaSearch.page",
+      SCHEMAS,
+      List.of(
+        SCHEMAS.SCHEMA_ID,
+        SCHEMAS.SCHEMA_NAME,
+        SCHEMAS.SCHEMA_VERSION
+      ),
+      List.of(
+        SCHEMAS.SCHEMA_NAME,
+        SCHEMAS.SCHEMA_ID
+      ),
+      1000L,
+      inRowEstimate
+    );
   }
 
   @Override
-  protected AzPage<AzSchemaID> page(
-    final AzDatabaseTransaction transaction,
-    final JQKeysetRandomAccessPageDefinition page)
-    throws DDatabaseException
+  protected AzSchemaID map(
+    final Record record)
   {
-    final var context =
-      transaction.get(DSLContext.class);
-
-    final var querySpan =
-      transaction.createSubSpan("AzSchemaSearch.page");
-
-    try {
-      final var query =
-        page.queryFields(context, List.of(
-          SCHEMAS.SCHEMA_NAME,
-          SCHEMAS.SCHEMA_VERSION
-        ));
-
-      querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-      final var items =
-        query.fetch().map(record -> {
-          return new AzSchemaID(
-            new RDottedName(record.get(SCHEMAS.SCHEMA_NAME)),
-            record.get(SCHEMAS.SCHEMA_VERSION)
-          );
-        });
-
-      return new AzPage<>(
-        items,
-        (int) page.index(),
-        this.pageCount(),
-        page.firstOffset()
-      );
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw AZDatabaseExceptions.handleDatabaseException(
-        transaction,
-        Map.of(),
-        e
-      );
-    } finally {
-      querySpan.end();
-    }
+    return new AzSchemaID(
+      new RDottedName(record.get(SCHEMAS.SCHEMA_NAME)),
+      record.get(SCHEMAS.SCHEMA_VERSION)
+    );
   }
 }
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzSecretGetType;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.SECRETS;
+
+/**
+ * SecretGet.
+ */
+
+public final class AzSecretGet
+  extends AzDatabaseQueryAbstract<AzSecretGetType.Parameters, byte[]>
+  implements AzSecretGetType
+{
+  AzSecretGet(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, byte[], AzSecretGetType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzSecretGetType.class,
+      AzSecretGet::new
+    );
+  }
+
+  @Override
+  protected byte[] onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    this.putAttribute("Secret", parameters.name());
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      final var existing =
+        context.select(SECRETS.SECRET_VALUE)
+          .from(SECRETS)
+          .where(SECRETS.SECRET_NAME.eq(parameters.name()))
+          .fetchOptional(SECRETS.SECRET_VALUE);
+
+      if (existing.isPresent()) {
+        return existing.get();
+      }
+
+      /*
+       * Another node may be creating the same secret concurrently. Whichever
+       * insert wins, the value read back afterwards is the one stored.
+       */
+
+      context.insertInto(SECRETS)
+        .set(SECRETS.SECRET_NAME, parameters.name())
+        .set(SECRETS.SECRET_VALUE, parameters.creator().get())
+        .onConflictDoNothing()
+        .execute();
+
+      return context.select(SECRETS.SECRET_VALUE)
+        .from(SECRETS)
+        .where(SECRETS.SECRET_NAME.eq(parameters.name()))
+        .fetchSingle(SECRETS.SECRET_VALUE);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
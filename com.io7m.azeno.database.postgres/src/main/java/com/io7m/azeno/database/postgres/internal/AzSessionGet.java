@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseSession;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzSessionGetType;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MRoleName;
+import com.io7m.medrina.api.MSubject;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.SESSIONS;
+import static com.io7m.azeno.database.postgres.internal.Tables.USERS;
+
+/**
+ * SessionGet.
+ */
+
+public final class AzSessionGet
+  extends AzDatabaseQueryAbstract<AzSessionGetType.Parameters, Optional<AzDatabaseSession>>
+  implements AzSessionGetType
+{
+  AzSessionGet(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<Parameters, Optional<AzDatabaseSession>, AzSessionGetType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzSessionGetType.class,
+      AzSessionGet::new
+    );
+  }
+
+  @Override
+  protected Optional<AzDatabaseSession> onExecute(
+    final AzDatabaseTransactionType transaction,
+    final Parameters parameters)
+    throws DDatabaseException
+  {
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      return context.select(
+          SESSIONS.SESSION_HASH,
+          SESSIONS.SESSION_EXPIRES,
+          USERS.ID,
+          USERS.NAME,
+          USERS.ROLES)
+        .from(SESSIONS)
+        .join(USERS)
+        .on(USERS.ID.eq(SESSIONS.SESSION_USER_ID))
+        .where(
+          SESSIONS.SESSION_HASH.eq(parameters.hash())
+            .and(SESSIONS.SESSION_EXPIRES.gt(parameters.time()))
+        )
+        .fetchOptional()
+        .map(AzSessionGet::mapRecord);
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+
+  private static AzDatabaseSession mapRecord(
+    final org.jooq.Record x)
+  {
+    return new AzDatabaseSession(
+      x.get(SESSIONS.SESSION_HASH),
+      new AzUser(
+        new AzUserID(x.get(USERS.ID)),
+        new IdName(x.get(USERS.NAME)),
+        new MSubject(
+          Stream.of(x.get(USERS.ROLES))
+            .map(MRoleName::of)
+            .collect(Collectors.toSet())
+        )
+      ),
+      x.get(SESSIONS.SESSION_EXPIRES)
+    );
+  }
+}
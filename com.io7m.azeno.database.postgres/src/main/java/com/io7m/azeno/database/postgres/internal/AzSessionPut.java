@@ -0,0 +1,84 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.database.postgres.internal;
+
+import com.io7m.azeno.database.api.AzDatabaseQueryProviderType;
+import com.io7m.azeno.database.api.AzDatabaseSession;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzSessionPutType;
+import com.io7m.azeno.model.AzUnit;
+import com.io7m.darco.api.DDatabaseException;
+import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.Tables.SESSIONS;
+
+/**
+ * SessionPut.
+ */
+
+public final class AzSessionPut
+  extends AzDatabaseQueryAbstract<AzDatabaseSession, AzUnit>
+  implements AzSessionPutType
+{
+  AzSessionPut(
+    final AzDatabaseTransactionType transaction)
+  {
+    super(transaction);
+  }
+
+  /**
+   * @return The query provider
+   */
+
+  public static AzDatabaseQueryProviderType<AzDatabaseSession, AzUnit, AzSessionPutType>
+  provider()
+  {
+    return AzDatabaseQueryProvider.provide(
+      AzSessionPutType.class,
+      AzSessionPut::new
+    );
+  }
+
+  @Override
+  protected AzUnit onExecute(
+    final AzDatabaseTransactionType transaction,
+    final AzDatabaseSession session)
+    throws DDatabaseException
+  {
+    this.putAttribute("UserID", session.user().userId().id());
+
+    final var context =
+      transaction.get(DSLContext.class);
+
+    try {
+      context.insertInto(SESSIONS)
+        .set(SESSIONS.SESSION_HASH, session.hash())
+        .set(SESSIONS.SESSION_USER_ID, session.user().userId().id())
+        .set(SESSIONS.SESSION_EXPIRES, session.expires())
+        .onDuplicateKeyUpdate()
+        .set(SESSIONS.SESSION_USER_ID, session.user().userId().id())
+        .set(SESSIONS.SESSION_EXPIRES, session.expires())
+        .execute();
+
+      return AzUnit.UNIT;
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, this.attributes(), e);
+    }
+  }
+}
@@ -94,7 +94,7 @@ public final class AzStorePut
       .execute();
 
     putAuditEvent(
-      context,
+      transaction,
       new AzAuditEvent(
         0L,
         OffsetDateTime.now(),
@@ -22,15 +22,15 @@ import com.io7m.azeno.database.api.AzDatabaseStoreSearchType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzStoreSearchType;
 import com.io7m.azeno.model.AzUnit;
-import com.io7m.jqpage.core.JQField;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPaginationParameters;
-import com.io7m.jqpage.core.JQOrder;
-import io.opentelemetry.api.trace.Span;
+import com.io7m.darco.api.DDatabaseException;
 import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
 
+import java.util.Map;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.AzAbstractSearch.estimateRows;
 import static com.io7m.azeno.database.postgres.internal.Tables.STORES;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 /**
  * StoreSearch.
@@ -50,23 +50,22 @@ public final class AzStoreSearch
   protected AzDatabaseStoreSearchType onExecute(
     final AzDatabaseTransactionType transaction,
     final AzUnit parameters)
+    throws DDatabaseException
   {
     final var context =
       transaction.get(DSLContext.class);
 
-    final var pageParameters =
-      JQKeysetRandomAccessPaginationParameters.forTable(STORES)
-        .addSortField(new JQField(STORES.STORE_TITLE, JQOrder.ASCENDING))
-        .setPageSize(1000L)
-        .setStatementListener(statement -> {
-          Span.current().setAttribute(DB_STATEMENT, statement.toString());
-        }).build();
-
-    final var pages =
-      JQKeysetRandomAccessPagination.createPageDefinitions(
-        context, pageParameters);
+    /*
+     * No rows are examined here; pages are fetched lazily as they are
+     * requested. Only the planner's row estimate is consulted in order to
+     * provide an estimated page count.
+     */
 
-    return new AzStoreSearchPaged(pages);
+    try {
+      return new AzStoreSearchPaged(estimateRows(context, STORES));
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, Map.of(), e);
+    }
   }
 
   /**
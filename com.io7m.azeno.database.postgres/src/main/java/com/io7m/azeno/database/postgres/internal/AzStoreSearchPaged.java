@@ -18,74 +18,44 @@
 package com.io7m.azeno.database.postgres.internal;
 
 import com.io7m.azeno.database.api.AzDatabaseStoreSearchType;
-import com.io7m.azeno.model.AzPage;
 import com.io7m.azeno.model.AzStoreID;
 import com.io7m.azeno.model.AzStoreSummary;
-import com.io7m.darco.api.DDatabaseException;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
-import org.jooq.DSLContext;
-import org.jooq.exception.DataAccessException;
+import org.jooq.Record;
 
 import java.util.List;
-import java.util.Map;
 
 import static com.io7m.azeno.database.postgres.internal.Tables.STORES;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 final class AzStoreSearchPaged
   extends AzAbstractSearch<AzStoreSummary>
   implements AzDatabaseStoreSearchType
 {
   AzStoreSearchPaged(
-    final List<JQKeysetRandomAccessPageDefinition> inPages)
+    final long inRowEstimate)
   {
-    super(inPages);
+    super(
+      "AzStoreSearch.page",
+      STORES,
+      List.of(
+        STORES.STORE_ID,
+        STORES.STORE_TITLE
+      ),
+      List.of(
+        STORES.STORE_TITLE,
+        STORES.STORE_ID
+      ),
+      1000L,
+      inRowEstimate
+    );
   }
 
   @Override
-  protected AzPage<AzStoreSummary> page(
-    final AzDatabaseTransaction transaction,
-    final JQKeysetRandomAccessPageDefinition page)
-    throws DDatabaseException
+  protected AzStoreSummary map(
+    final Record record)
   {
-    final var context =
-      transaction.get(DSLContext.class);
-
-    final var querySpan =
-      transaction.createSubSpan("AzStoreSearch.page");
-
-    try {
-      final var query =
-        page.queryFields(context, List.of(
-          STORES.STORE_ID,
-          STORES.STORE_TITLE
-        ));
-
-      querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-      final var items =
-        query.fetch().map(record -> {
-          return new AzStoreSummary(
-            new AzStoreID(record.get(STORES.STORE_ID)),
-            record.get(STORES.STORE_TITLE)
-          );
-        });
-
-      return new AzPage<>(
-        items,
-        (int) page.index(),
-        this.pageCount(),
-        page.firstOffset()
-      );
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw AZDatabaseExceptions.handleDatabaseException(
-        transaction,
-        Map.of(),
-        e
-      );
-    } finally {
-      querySpan.end();
-    }
+    return new AzStoreSummary(
+      new AzStoreID(record.get(STORES.STORE_ID)),
+      record.get(STORES.STORE_TITLE)
+    );
   }
 }
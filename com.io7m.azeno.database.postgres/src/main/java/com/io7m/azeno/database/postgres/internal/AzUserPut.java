@@ -100,7 +100,7 @@ public final class AzUserPut
       .set(USERS.ROLES, roles)
       .execute();
 
-    putAuditEvent(
+    putAuditEventTransactional(
       context,
       new AzAuditEvent(
         0L,
@@ -22,15 +22,15 @@ import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseUserSearchType;
 import com.io7m.azeno.database.api.AzUserSearchType;
 import com.io7m.azeno.model.AzUnit;
-import com.io7m.jqpage.core.JQField;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPagination;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPaginationParameters;
-import com.io7m.jqpage.core.JQOrder;
-import io.opentelemetry.api.trace.Span;
+import com.io7m.darco.api.DDatabaseException;
 import org.jooq.DSLContext;
+import org.jooq.exception.DataAccessException;
 
+import java.util.Map;
+
+import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
+import static com.io7m.azeno.database.postgres.internal.AzAbstractSearch.estimateRows;
 import static com.io7m.azeno.database.postgres.internal.Tables.USERS;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 /**
  * UserSearch.
@@ -50,23 +50,22 @@ public final class AzUserSearch
   protected AzDatabaseUserSearchType onExecute(
     final AzDatabaseTransactionType transaction,
     final AzUnit parameters)
+    throws DDatabaseException
   {
     final var context =
       transaction.get(DSLContext.class);
 
-    final var pageParameters =
-      JQKeysetRandomAccessPaginationParameters.forTable(USERS)
-        .addSortField(new JQField(USERS.NAME, JQOrder.ASCENDING))
-        .setPageSize(1000L)
-        .setStatementListener(statement -> {
-          Span.current().setAttribute(DB_STATEMENT, statement.toString());
-        }).build();
-
-    final var pages =
-      JQKeysetRandomAccessPagination.createPageDefinitions(
-        context, pageParameters);
+    /*
+     * No rows are examined here; pages are fetched lazily as they are
+     * requested. Only the planner's row estimate is consulted in order to
+     * provide an estimated page count.
+     */
 
-    return new AzUserSearchPaged(pages);
+    try {
+      return new AzUserSearchPaged(estimateRows(context, USERS));
+    } catch (final DataAccessException e) {
+      throw handleDatabaseException(transaction, Map.of(), e);
+    }
   }
 
   /**
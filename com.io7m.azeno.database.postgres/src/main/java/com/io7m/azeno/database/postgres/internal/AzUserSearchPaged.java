@@ -18,74 +18,48 @@
 package com.io7m.azeno.database.postgres.internal;
 
 import com.io7m.azeno.database.api.AzDatabaseUserSearchType;
-import com.io7m.azeno.model.AzPage;
 import com.io7m.azeno.model.AzUser;
 import com.io7m.azeno.model.AzUserID;
-import com.io7m.darco.api.DDatabaseException;
 import com.io7m.idstore.model.IdName;
-import com.io7m.jqpage.core.JQKeysetRandomAccessPageDefinition;
 import com.io7m.medrina.api.MSubject;
-import org.jooq.DSLContext;
-import org.jooq.exception.DataAccessException;
+import org.jooq.Record;
 
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
-import static com.io7m.azeno.database.postgres.internal.AZDatabaseExceptions.handleDatabaseException;
 import static com.io7m.azeno.database.postgres.internal.Tables.USERS;
-import static io.opentelemetry.semconv.trace.attributes.SemanticAttributes.DB_STATEMENT;
 
 final class AzUserSearchPaged
   extends AzAbstractSearch<AzUser>
   implements AzDatabaseUserSearchType
 {
   AzUserSearchPaged(
-    final List<JQKeysetRandomAccessPageDefinition> inPages)
+    final long inRowEstimate)
   {
-    super(inPages);
+    super(
+      "AzUserSearch.page",
+      USERS,
+      List.of(
+        USERS.ID,
+        USERS.NAME
+      ),
+      List.of(
+        USERS.NAME,
+        USERS.ID
+      ),
+      1000L,
+      inRowEstimate
+    );
   }
 
   @Override
-  protected AzPage<AzUser> page(
-    final AzDatabaseTransaction transaction,
-    final JQKeysetRandomAccessPageDefinition page)
-    throws DDatabaseException
+  protected AzUser map(
+    final Record record)
   {
-    final var context =
-      transaction.get(DSLContext.class);
-    final var querySpan =
-      transaction.createSubSpan("AzUserSearch.page");
-
-    try {
-      final var query =
-        page.queryFields(context, List.of(
-          USERS.ID,
-          USERS.NAME
-        ));
-
-      querySpan.setAttribute(DB_STATEMENT, query.toString());
-
-      final var items =
-        query.fetch().map(record -> {
-          return new AzUser(
-            new AzUserID(record.get(USERS.ID)),
-            new IdName(record.get(USERS.NAME)),
-            new MSubject(Set.of())
-          );
-        });
-
-      return new AzPage<>(
-        items,
-        (int) page.index(),
-        this.pageCount(),
-        page.firstOffset()
-      );
-    } catch (final DataAccessException e) {
-      querySpan.recordException(e);
-      throw handleDatabaseException(transaction, Map.of(), e);
-    } finally {
-      querySpan.end();
-    }
+    return new AzUser(
+      new AzUserID(record.get(USERS.ID)),
+      new IdName(record.get(USERS.NAME)),
+      new MSubject(Set.of())
+    );
   }
 }
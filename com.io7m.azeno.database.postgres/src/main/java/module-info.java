@@ -33,17 +33,18 @@ module com.io7m.azeno.database.postgres
   requires com.io7m.azeno.strings;
   requires com.io7m.azeno.xml;
 
+  requires com.github.benmanes.caffeine;
   requires com.io7m.anethum.api;
   requires com.io7m.darco.api;
   requires com.io7m.darco.postgres;
   requires com.io7m.huanuco.api;
   requires com.io7m.idstore.model;
   requires com.io7m.jmulticlose.core;
-  requires com.io7m.jqpage.core;
   requires com.io7m.lanark.core;
   requires com.io7m.medrina.api;
   requires com.io7m.trasco.api;
   requires com.io7m.trasco.vanilla;
+  requires com.zaxxer.hikari;
   requires io.opentelemetry.api;
   requires io.opentelemetry.context;
   requires io.opentelemetry.semconv;
@@ -60,14 +61,34 @@ module com.io7m.azeno.database.postgres
     com.io7m.azeno.database.postgres.internal.AzSchemaGet,
     com.io7m.azeno.database.postgres.internal.AzSchemaPut,
     com.io7m.azeno.database.postgres.internal.AzSchemaSearch,
+    com.io7m.azeno.database.postgres.internal.AzAssetChangesGet,
+    com.io7m.azeno.database.postgres.internal.AzAssetDataMigrate,
     com.io7m.azeno.database.postgres.internal.AzAssetGet,
+    com.io7m.azeno.database.postgres.internal.AzAssetIndexPositionGet,
+    com.io7m.azeno.database.postgres.internal.AzAssetIndexPositionPut,
     com.io7m.azeno.database.postgres.internal.AzAssetPut,
+    com.io7m.azeno.database.postgres.internal.AzAssetPutMany,
+    com.io7m.azeno.database.postgres.internal.AzAssetSummaryGet,
+    com.io7m.azeno.database.postgres.internal.AzAssetSummaryGetMany,
+    com.io7m.azeno.database.postgres.internal.AzAuditPartitionMaintain,
     com.io7m.azeno.database.postgres.internal.AzAuditEventPut,
+    com.io7m.azeno.database.postgres.internal.AzAuditSearch,
     com.io7m.azeno.database.postgres.internal.AzCollectionAccessGet,
     com.io7m.azeno.database.postgres.internal.AzCollectionAccessSet,
     com.io7m.azeno.database.postgres.internal.AzCollectionGet,
     com.io7m.azeno.database.postgres.internal.AzCollectionPut,
     com.io7m.azeno.database.postgres.internal.AzCollectionSearch,
+    com.io7m.azeno.database.postgres.internal.AzJobClaim,
+    com.io7m.azeno.database.postgres.internal.AzJobComplete,
+    com.io7m.azeno.database.postgres.internal.AzJobDeleteFinished,
+    com.io7m.azeno.database.postgres.internal.AzJobHeartbeat,
+    com.io7m.azeno.database.postgres.internal.AzJobPut,
+    com.io7m.azeno.database.postgres.internal.AzSecretGet,
+    com.io7m.azeno.database.postgres.internal.AzSessionDelete,
+    com.io7m.azeno.database.postgres.internal.AzSessionDeleteExpired,
+    com.io7m.azeno.database.postgres.internal.AzSessionExtend,
+    com.io7m.azeno.database.postgres.internal.AzSessionGet,
+    com.io7m.azeno.database.postgres.internal.AzSessionPut,
     com.io7m.azeno.database.postgres.internal.AzStoreGet,
     com.io7m.azeno.database.postgres.internal.AzStorePut,
     com.io7m.azeno.database.postgres.internal.AzStoreSearch,
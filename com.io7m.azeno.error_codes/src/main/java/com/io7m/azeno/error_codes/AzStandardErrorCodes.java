@@ -155,6 +155,19 @@ public final class AzStandardErrorCodes
     return ERROR_OPERATION_NOT_PERMITTED;
   }
 
+  private static final AzErrorCode ERROR_OVERLOADED =
+    new AzErrorCode("error-overloaded");
+
+  /**
+   * The server is overloaded and rejected a request.
+   *
+   * @return The error code
+   */
+  public static AzErrorCode errorOverloaded()
+  {
+    return ERROR_OVERLOADED;
+  }
+
   private static final AzErrorCode ERROR_PARSE =
     new AzErrorCode("error-parse");
 
@@ -181,6 +194,19 @@ public final class AzStandardErrorCodes
     return ERROR_PROTOCOL;
   }
 
+  private static final AzErrorCode ERROR_RATE_LIMITED =
+    new AzErrorCode("error-rate-limited");
+
+  /**
+   * The client has made too many requests and must wait before retrying.
+   *
+   * @return The error code
+   */
+  public static AzErrorCode errorRateLimited()
+  {
+    return ERROR_RATE_LIMITED;
+  }
+
   private static final AzErrorCode ERROR_REMOVE_IDENTIFIED_ITEMS =
     new AzErrorCode("error-remove-identified-items");
 
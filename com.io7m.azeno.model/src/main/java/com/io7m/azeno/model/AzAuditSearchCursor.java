@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.model;
+
+import java.util.Objects;
+
+/**
+ * A position within an audit search. A cursor contains everything required
+ * to produce a page of results; no other search state is retained.
+ *
+ * @param parameters The search parameters
+ * @param pageIndex  The index of the page to which the cursor refers
+ * @param seek       The position at which the page begins
+ */
+
+public record AzAuditSearchCursor(
+  AzAuditSearchParameters parameters,
+  int pageIndex,
+  AzAuditSearchSeekType seek)
+{
+  /**
+   * A position within an audit search.
+   *
+   * @param parameters The search parameters
+   * @param pageIndex  The index of the page to which the cursor refers
+   * @param seek       The position at which the page begins
+   */
+
+  public AzAuditSearchCursor
+  {
+    Objects.requireNonNull(parameters, "parameters");
+    Objects.requireNonNull(seek, "seek");
+
+    if (pageIndex < 0) {
+      throw new AzValidityException(
+        "Page index %d must be non-negative.".formatted(pageIndex)
+      );
+    }
+  }
+
+  /**
+   * @param parameters The search parameters
+   *
+   * @return A cursor that refers to the first page of a search
+   */
+
+  public static AzAuditSearchCursor first(
+    final AzAuditSearchParameters parameters)
+  {
+    return new AzAuditSearchCursor(
+      parameters,
+      0,
+      new AzAuditSearchSeekType.Start()
+    );
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.model;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+
+/**
+ * The position in the audit log at which a page of search results begins.
+ * Audit events are ordered by {@code (time, id)}.
+ */
+
+public sealed interface AzAuditSearchSeekType
+{
+  /**
+   * The page begins at the first matching event.
+   */
+
+  record Start() implements AzAuditSearchSeekType
+  {
+
+  }
+
+  /**
+   * The page begins with the first matching event that follows the given
+   * event.
+   *
+   * @param time The event time
+   * @param id   The event ID
+   */
+
+  record After(
+    OffsetDateTime time,
+    long id)
+    implements AzAuditSearchSeekType
+  {
+    /**
+     * The page begins with the first matching event that follows the given
+     * event.
+     */
+
+    public After
+    {
+      Objects.requireNonNull(time, "time");
+    }
+  }
+
+  /**
+   * The page ends with the last matching event that precedes the given
+   * event.
+   *
+   * @param time The event time
+   * @param id   The event ID
+   */
+
+  record Before(
+    OffsetDateTime time,
+    long id)
+    implements AzAuditSearchSeekType
+  {
+    /**
+     * The page ends with the last matching event that precedes the given
+     * event.
+     */
+
+    public Before
+    {
+      Objects.requireNonNull(time, "time");
+    }
+  }
+}
@@ -24,7 +24,8 @@ import java.util.Objects;
  *
  * @param items           The items
  * @param pageIndex       The page index (starting at 0)
- * @param pageCount       The total page count
+ * @param pageCount       The total page count (this may be an estimate if the
+ *                        final page has not yet been visited)
  * @param pageFirstOffset The offset of the first item in the list
  * @param <T>             The type of data
  */
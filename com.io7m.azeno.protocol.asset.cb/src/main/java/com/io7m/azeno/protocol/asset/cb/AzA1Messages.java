@@ -61,6 +61,14 @@ public final class AzA1Messages
 {
   private static final ProtocolAzA PROTOCOL = new ProtocolAzA();
 
+  /**
+   * The version of the protocol spoken by this implementation. Version 1
+   * carried session-held audit searches; version 2 carries explicit paging
+   * cursors and batch asset updates, and the two are not wire-compatible.
+   */
+
+  public static final long PROTOCOL_VERSION = 2L;
+
   /**
    * The content type for the protocol.
    */
@@ -98,9 +106,11 @@ public final class AzA1Messages
 
     this.validator = new AzA1Validation();
     this.serializer =
-      PROTOCOL.serializerForProtocolVersion(1L)
+      PROTOCOL.serializerForProtocolVersion(PROTOCOL_VERSION)
         .orElseThrow(() -> {
-          return new IllegalStateException("No support for version 1");
+          return new IllegalStateException(
+            "No support for version %d".formatted(PROTOCOL_VERSION)
+          );
         });
   }
 
@@ -140,6 +150,15 @@ public final class AzA1Messages
     return PROTOCOL.protocolId();
   }
 
+  /**
+   * @return The protocol version
+   */
+
+  public static long protocolVersion()
+  {
+    return PROTOCOL_VERSION;
+  }
+
   @Override
   public AzAMessageType parse(
     final byte[] data)
@@ -150,7 +169,7 @@ public final class AzA1Messages
 
     try {
       return this.validator.convertFromWire(
-        (ProtocolAzAv1Type) this.serializer.deserialize(context)
+        (ProtocolAzAv2Type) this.serializer.deserialize(context)
       );
     } catch (final IOException e) {
       throw new AzProtocolException(
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.protocol.asset.cb;
+
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAssetProperties;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.model.AzHashSHA256;
+import com.io7m.azeno.model.AzHashType;
+import com.io7m.azeno.model.AzValidityException;
+import com.io7m.azeno.protocol.api.AzProtocolException;
+import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
+import com.io7m.cedarbridge.runtime.api.CBUUID;
+import com.io7m.cedarbridge.runtime.convenience.CBLists;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorProtocol;
+import static com.io7m.azeno.protocol.asset.cb.AzA1VValue.VALUE;
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+
+/**
+ * A validator.
+ */
+
+public enum AzA1VAsset
+  implements AzProtocolMessageValidatorType<AzAsset, AzA1Asset>
+{
+  /**
+   * A validator.
+   */
+
+  ASSET;
+
+  @Override
+  public AzA1Asset convertToWire(
+    final AzAsset message)
+  {
+    final var values =
+      message.properties()
+        .values()
+        .values()
+        .stream()
+        .flatMap(List::stream)
+        .toList();
+
+    return new AzA1Asset(
+      new CBUUID(message.id().id()),
+      new CBUUID(message.collection().id()),
+      string(message.hash().name()),
+      string(message.hash().value()),
+      CBLists.ofCollection(values, VALUE::convertToWire)
+    );
+  }
+
+  @Override
+  public AzAsset convertFromWire(
+    final AzA1Asset message)
+    throws AzProtocolException
+  {
+    final var properties = AzAssetProperties.builder();
+    for (final var value : message.fieldValues().values()) {
+      properties.put(VALUE.convertFromWire(value));
+    }
+
+    return new AzAsset(
+      new AzAssetID(message.fieldId().value()),
+      new AzCollectionID(message.fieldCollection().value()),
+      hashOf(
+        message.fieldHashAlgorithm().value(),
+        message.fieldHashValue().value()
+      ),
+      properties.build()
+    );
+  }
+
+  private static AzHashType hashOf(
+    final String algorithm,
+    final String value)
+    throws AzProtocolException
+  {
+    try {
+      return switch (algorithm) {
+        case "SHA-256" -> {
+          yield new AzHashSHA256(value);
+        }
+        default -> {
+          throw new AzProtocolException(
+            "Unrecognized hash algorithm: %s".formatted(algorithm),
+            errorProtocol(),
+            Map.of(),
+            Optional.empty()
+          );
+        }
+      };
+    } catch (final AzValidityException e) {
+      throw new AzProtocolException(
+        e.getMessage(),
+        e,
+        errorProtocol(),
+        Map.of(),
+        Optional.empty()
+      );
+    }
+  }
+}
@@ -19,6 +19,7 @@ package com.io7m.azeno.protocol.asset.cb;
 
 import com.io7m.azeno.protocol.api.AzProtocolException;
 import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
+import com.io7m.azeno.protocol.asset.AzACommandAssetPutMany;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchBegin;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchNext;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchPrevious;
@@ -39,24 +40,25 @@ import com.io7m.azeno.protocol.asset.AzAResponseType;
 import com.io7m.azeno.protocol.asset.AzATransactionResponse;
 
 import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandAuditSearchBegin.COMMAND_AUDIT_SEARCH_BEGIN;
-import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandAuditSearchNext.COMMAND_AUDIT_SEARCH_NEXT;
-import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandAuditSearchPrevious.COMMAND_AUDIT_SEARCH_PREVIOUS;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandLogin.COMMAND_LOGIN;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandRolesAssign.COMMAND_ROLES_ASSIGN;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandRolesGet.COMMAND_ROLES_GET;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VCommandRolesRevoke.COMMAND_ROLES_REVOKE;
-import static com.io7m.azeno.protocol.asset.cb.AzA1VResponseAuditSearch.RESPONSE_AUDIT_SEARCH;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VResponseError.RESPONSE_ERROR;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VResponseLogin.RESPONSE_LOGIN;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VResponseOK.RESPONSE_OK;
 import static com.io7m.azeno.protocol.asset.cb.AzA1VResponseRolesGet.RESPONSE_ROLES_GET;
+import static com.io7m.azeno.protocol.asset.cb.AzA2VCommandAssetPutMany.COMMAND_ASSET_PUT_MANY;
+import static com.io7m.azeno.protocol.asset.cb.AzA2VCommandAuditSearchNext.COMMAND_AUDIT_SEARCH_NEXT;
+import static com.io7m.azeno.protocol.asset.cb.AzA2VCommandAuditSearchPrevious.COMMAND_AUDIT_SEARCH_PREVIOUS;
+import static com.io7m.azeno.protocol.asset.cb.AzA2VResponseAuditSearch.RESPONSE_AUDIT_SEARCH;
 
 /**
  * A validator.
  */
 
 public enum AzA1VMessage
-  implements AzProtocolMessageValidatorType<AzAMessageType, ProtocolAzAv1Type>
+  implements AzProtocolMessageValidatorType<AzAMessageType, ProtocolAzAv2Type>
 {
   /**
    * A validator.
@@ -65,7 +67,7 @@ public enum AzA1VMessage
   MESSAGE;
 
   @Override
-  public ProtocolAzAv1Type convertToWire(
+  public ProtocolAzAv2Type convertToWire(
     final AzAMessageType message)
     throws AzProtocolException
   {
@@ -82,13 +84,13 @@ public enum AzA1VMessage
     };
   }
 
-  private static ProtocolAzAv1Type convertToWireTransactionResponse(
+  private static ProtocolAzAv2Type convertToWireTransactionResponse(
     final AzATransactionResponse m)
   {
     throw new IllegalStateException("Unimplemented code");
   }
 
-  private static ProtocolAzAv1Type convertToWireResponse(
+  private static ProtocolAzAv2Type convertToWireResponse(
     final AzAResponseType m)
   {
     return switch (m) {
@@ -110,11 +112,14 @@ public enum AzA1VMessage
     };
   }
 
-  private static ProtocolAzAv1Type convertToWireCommand(
+  private static ProtocolAzAv2Type convertToWireCommand(
     final AzACommandType<?> m)
     throws AzProtocolException
   {
     return switch (m) {
+      case final AzACommandAssetPutMany c -> {
+        yield COMMAND_ASSET_PUT_MANY.convertToWire(c);
+      }
       case final AzACommandAuditSearchBegin c -> {
         yield COMMAND_AUDIT_SEARCH_BEGIN.convertToWire(c);
       }
@@ -151,14 +156,14 @@ public enum AzA1VMessage
 
   @Override
   public AzAMessageType convertFromWire(
-    final ProtocolAzAv1Type message)
+    final ProtocolAzAv2Type message)
     throws AzProtocolException
   {
     return switch (message) {
       case final AzA1CommandLogin m -> {
         yield COMMAND_LOGIN.convertFromWire(m);
       }
-      case final AzA1ResponseAuditSearch m -> {
+      case final AzA2ResponseAuditSearch m -> {
         yield RESPONSE_AUDIT_SEARCH.convertFromWire(m);
       }
       case final AzA1ResponseLogin m -> {
@@ -167,13 +172,16 @@ public enum AzA1VMessage
       case final AzA1ResponseRolesGet m -> {
         yield RESPONSE_ROLES_GET.convertFromWire(m);
       }
+      case final AzA2CommandAssetPutMany m -> {
+        yield COMMAND_ASSET_PUT_MANY.convertFromWire(m);
+      }
       case final AzA1CommandAuditSearchBegin m -> {
         yield COMMAND_AUDIT_SEARCH_BEGIN.convertFromWire(m);
       }
-      case final AzA1CommandAuditSearchNext m -> {
+      case final AzA2CommandAuditSearchNext m -> {
         yield COMMAND_AUDIT_SEARCH_NEXT.convertFromWire(m);
       }
-      case final AzA1CommandAuditSearchPrevious m -> {
+      case final AzA2CommandAuditSearchPrevious m -> {
         yield COMMAND_AUDIT_SEARCH_PREVIOUS.convertFromWire(m);
       }
       case final AzA1CommandRolesAssign m -> {
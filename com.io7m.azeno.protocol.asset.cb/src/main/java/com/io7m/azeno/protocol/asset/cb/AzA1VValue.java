@@ -0,0 +1,153 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.protocol.asset.cb;
+
+import com.io7m.azeno.model.AzValueBoolean;
+import com.io7m.azeno.model.AzValueFloating;
+import com.io7m.azeno.model.AzValueInteger;
+import com.io7m.azeno.model.AzValueString;
+import com.io7m.azeno.model.AzValueTimestamp;
+import com.io7m.azeno.model.AzValueType;
+import com.io7m.azeno.model.AzValueURI;
+import com.io7m.azeno.model.AzValueUUID;
+import com.io7m.azeno.protocol.api.AzProtocolException;
+import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
+import com.io7m.cedarbridge.runtime.api.CBFloat64;
+import com.io7m.cedarbridge.runtime.api.CBIntegerUnsigned8;
+import com.io7m.cedarbridge.runtime.api.CBUUID;
+import com.io7m.cedarbridge.runtime.time.CBOffsetDateTime;
+import com.io7m.lanark.core.RDottedName;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Map;
+import java.util.Optional;
+
+import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorProtocol;
+import static com.io7m.cedarbridge.runtime.api.CBCore.string;
+
+/**
+ * A validator.
+ */
+
+public enum AzA1VValue
+  implements AzProtocolMessageValidatorType<AzValueType, AzA1Value>
+{
+  /**
+   * A validator.
+   */
+
+  VALUE;
+
+  @Override
+  public AzA1Value convertToWire(
+    final AzValueType message)
+  {
+    final var name = string(message.name().value());
+    return switch (message) {
+      case final AzValueBoolean v -> {
+        yield new AzA1Value.ValueBoolean(
+          name,
+          new CBIntegerUnsigned8(v.value() ? 1 : 0)
+        );
+      }
+      case final AzValueFloating v -> {
+        yield new AzA1Value.ValueFloating(name, new CBFloat64(v.value()));
+      }
+      case final AzValueInteger v -> {
+        yield new AzA1Value.ValueInteger(name, string(v.value().toString()));
+      }
+      case final AzValueString v -> {
+        yield new AzA1Value.ValueString(name, string(v.value()));
+      }
+      case final AzValueTimestamp v -> {
+        yield new AzA1Value.ValueTimestamp(
+          name,
+          new CBOffsetDateTime(v.value())
+        );
+      }
+      case final AzValueURI v -> {
+        yield new AzA1Value.ValueURI(name, string(v.value().toString()));
+      }
+      case final AzValueUUID v -> {
+        yield new AzA1Value.ValueUUID(name, new CBUUID(v.value()));
+      }
+    };
+  }
+
+  @Override
+  public AzValueType convertFromWire(
+    final AzA1Value message)
+    throws AzProtocolException
+  {
+    try {
+      return switch (message) {
+        case final AzA1Value.ValueBoolean v -> {
+          yield new AzValueBoolean(
+            new RDottedName(v.fieldName().value()),
+            v.fieldValue().value() != 0
+          );
+        }
+        case final AzA1Value.ValueFloating v -> {
+          yield new AzValueFloating(
+            new RDottedName(v.fieldName().value()),
+            v.fieldValue().value()
+          );
+        }
+        case final AzA1Value.ValueInteger v -> {
+          yield new AzValueInteger(
+            new RDottedName(v.fieldName().value()),
+            new BigInteger(v.fieldValue().value())
+          );
+        }
+        case final AzA1Value.ValueString v -> {
+          yield new AzValueString(
+            new RDottedName(v.fieldName().value()),
+            v.fieldValue().value()
+          );
+        }
+        case final AzA1Value.ValueTimestamp v -> {
+          yield new AzValueTimestamp(
+            new RDottedName(v.fieldName().value()),
+            v.fieldValue().value()
+          );
+        }
+        case final AzA1Value.ValueURI v -> {
+          yield new AzValueURI(
+            new RDottedName(v.fieldName().value()),
+            new URI(v.fieldValue().value())
+          );
+        }
+        case final AzA1Value.ValueUUID v -> {
+          yield new AzValueUUID(
+            new RDottedName(v.fieldName().value()),
+            v.fieldValue().value()
+          );
+        }
+      };
+    } catch (final IllegalArgumentException | URISyntaxException e) {
+      throw new AzProtocolException(
+        e.getMessage(),
+        e,
+        errorProtocol(),
+        Map.of(),
+        Optional.empty()
+      );
+    }
+  }
+}
@@ -28,7 +28,7 @@ import static com.io7m.azeno.protocol.asset.cb.AzA1VMessage.MESSAGE;
  */
 
 public final class AzA1Validation
-  implements AzProtocolMessageValidatorType<AzAMessageType, ProtocolAzAv1Type>
+  implements AzProtocolMessageValidatorType<AzAMessageType, ProtocolAzAv2Type>
 {
   /**
    * Functions to translate between the core command set and the digital asset schema_v1
@@ -41,7 +41,7 @@ public final class AzA1Validation
   }
 
   @Override
-  public ProtocolAzAv1Type convertToWire(
+  public ProtocolAzAv2Type convertToWire(
     final AzAMessageType message)
     throws AzProtocolException
   {
@@ -54,7 +54,7 @@ public final class AzA1Validation
 
   @Override
   public AzAMessageType convertFromWire(
-    final ProtocolAzAv1Type message)
+    final ProtocolAzAv2Type message)
     throws AzProtocolException
   {
     try {
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.protocol.asset.cb;
+
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.protocol.api.AzProtocolException;
+import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
+import com.io7m.azeno.protocol.asset.AzACommandAssetPutMany;
+import com.io7m.cedarbridge.runtime.convenience.CBLists;
+
+import java.util.ArrayList;
+
+import static com.io7m.azeno.protocol.asset.cb.AzA1VAsset.ASSET;
+
+/**
+ * A validator. Used only by version 2 of the protocol.
+ */
+
+public enum AzA2VCommandAssetPutMany
+  implements AzProtocolMessageValidatorType<
+    AzACommandAssetPutMany, AzA2CommandAssetPutMany>
+{
+  /**
+   * A validator.
+   */
+
+  COMMAND_ASSET_PUT_MANY;
+
+  @Override
+  public AzA2CommandAssetPutMany convertToWire(
+    final AzACommandAssetPutMany c)
+  {
+    return new AzA2CommandAssetPutMany(
+      CBLists.ofCollection(c.assets(), ASSET::convertToWire)
+    );
+  }
+
+  @Override
+  public AzACommandAssetPutMany convertFromWire(
+    final AzA2CommandAssetPutMany m)
+    throws AzProtocolException
+  {
+    final var wireAssets = m.fieldAssets().values();
+    final var assets = new ArrayList<AzAsset>(wireAssets.size());
+    for (final var asset : wireAssets) {
+      assets.add(ASSET.convertFromWire(asset));
+    }
+    return new AzACommandAssetPutMany(assets);
+  }
+}
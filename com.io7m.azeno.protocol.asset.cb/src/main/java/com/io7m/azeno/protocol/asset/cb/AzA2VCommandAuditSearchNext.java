@@ -20,14 +20,15 @@ package com.io7m.azeno.protocol.asset.cb;
 import com.io7m.azeno.protocol.api.AzProtocolException;
 import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchNext;
+import com.io7m.cedarbridge.runtime.api.CBString;
 
 /**
- * A validator.
+ * A validator. Used only by version 2 of the protocol.
  */
 
-public enum AzA1VCommandAuditSearchNext
+public enum AzA2VCommandAuditSearchNext
   implements AzProtocolMessageValidatorType<
-    AzACommandAuditSearchNext, AzA1CommandAuditSearchNext>
+    AzACommandAuditSearchNext, AzA2CommandAuditSearchNext>
 {
   /**
    * A validator.
@@ -36,22 +37,22 @@ public enum AzA1VCommandAuditSearchNext
   COMMAND_AUDIT_SEARCH_NEXT;
 
   @Override
-  public AzA1CommandAuditSearchNext convertToWire(
+  public AzA2CommandAuditSearchNext convertToWire(
     final AzACommandAuditSearchNext c)
     throws AzProtocolException
   {
-    return new AzA1CommandAuditSearchNext(
-
+    return new AzA2CommandAuditSearchNext(
+      new CBString(c.cursor())
     );
   }
 
   @Override
   public AzACommandAuditSearchNext convertFromWire(
-    final AzA1CommandAuditSearchNext m)
+    final AzA2CommandAuditSearchNext m)
     throws AzProtocolException
   {
     return new AzACommandAuditSearchNext(
-
+      m.fieldCursor().value()
     );
   }
 }
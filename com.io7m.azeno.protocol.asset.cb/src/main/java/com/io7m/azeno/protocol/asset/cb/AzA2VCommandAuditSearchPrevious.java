@@ -20,14 +20,15 @@ package com.io7m.azeno.protocol.asset.cb;
 import com.io7m.azeno.protocol.api.AzProtocolException;
 import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchPrevious;
+import com.io7m.cedarbridge.runtime.api.CBString;
 
 /**
- * A validator.
+ * A validator. Used only by version 2 of the protocol.
  */
 
-public enum AzA1VCommandAuditSearchPrevious
+public enum AzA2VCommandAuditSearchPrevious
   implements AzProtocolMessageValidatorType<
-  AzACommandAuditSearchPrevious, AzA1CommandAuditSearchPrevious>
+  AzACommandAuditSearchPrevious, AzA2CommandAuditSearchPrevious>
 {
   /**
    * A validator.
@@ -36,22 +37,22 @@ public enum AzA1VCommandAuditSearchPrevious
   COMMAND_AUDIT_SEARCH_PREVIOUS;
 
   @Override
-  public AzA1CommandAuditSearchPrevious convertToWire(
+  public AzA2CommandAuditSearchPrevious convertToWire(
     final AzACommandAuditSearchPrevious c)
     throws AzProtocolException
   {
-    return new AzA1CommandAuditSearchPrevious(
-
+    return new AzA2CommandAuditSearchPrevious(
+      new CBString(c.cursor())
     );
   }
 
   @Override
   public AzACommandAuditSearchPrevious convertFromWire(
-    final AzA1CommandAuditSearchPrevious m)
+    final AzA2CommandAuditSearchPrevious m)
     throws AzProtocolException
   {
     return new AzACommandAuditSearchPrevious(
-
+      m.fieldCursor().value()
     );
   }
 }
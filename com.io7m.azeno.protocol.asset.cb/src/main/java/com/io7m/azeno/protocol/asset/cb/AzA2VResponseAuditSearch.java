@@ -19,17 +19,19 @@ package com.io7m.azeno.protocol.asset.cb;
 
 import com.io7m.azeno.protocol.api.AzProtocolMessageValidatorType;
 import com.io7m.azeno.protocol.asset.AzAResponseAuditSearch;
+import com.io7m.cedarbridge.runtime.api.CBOptionType;
+import com.io7m.cedarbridge.runtime.api.CBString;
 import com.io7m.cedarbridge.runtime.api.CBUUID;
 
 import static com.io7m.azeno.protocol.asset.cb.AzA1VAuditEvent.AUDIT_EVENT;
 
 /**
- * A validator.
+ * A validator. Used only by version 2 of the protocol.
  */
 
-public enum AzA1VResponseAuditSearch
+public enum AzA2VResponseAuditSearch
   implements AzProtocolMessageValidatorType<
-    AzAResponseAuditSearch, AzA1ResponseAuditSearch>
+    AzAResponseAuditSearch, AzA2ResponseAuditSearch>
 {
   /**
    * A validator.
@@ -38,22 +40,26 @@ public enum AzA1VResponseAuditSearch
   RESPONSE_AUDIT_SEARCH;
 
   @Override
-  public AzA1ResponseAuditSearch convertToWire(
+  public AzA2ResponseAuditSearch convertToWire(
     final AzAResponseAuditSearch c)
   {
-    return new AzA1ResponseAuditSearch(
+    return new AzA2ResponseAuditSearch(
       new CBUUID(c.requestId()),
-      AzA1VPage.pageToWire(c.results(), AUDIT_EVENT::convertToWire)
+      AzA1VPage.pageToWire(c.results(), AUDIT_EVENT::convertToWire),
+      CBOptionType.fromOptional(c.cursorNext().map(CBString::new)),
+      CBOptionType.fromOptional(c.cursorPrevious().map(CBString::new))
     );
   }
 
   @Override
   public AzAResponseAuditSearch convertFromWire(
-    final AzA1ResponseAuditSearch c)
+    final AzA2ResponseAuditSearch c)
   {
     return new AzAResponseAuditSearch(
       c.fieldRequestId().value(),
-      AzA1VPage.pageFromWire(c.fieldResults(), AUDIT_EVENT::convertFromWire)
+      AzA1VPage.pageFromWire(c.fieldResults(), AUDIT_EVENT::convertFromWire),
+      c.fieldCursorNext().asOptional().map(CBString::value),
+      c.fieldCursorPrevious().asOptional().map(CBString::value)
     );
   }
 }
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.protocol.asset;
+
+import com.io7m.azeno.model.AzAsset;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Create or update the given assets in a single batch.
+ *
+ * @param assets The assets
+ */
+
+public record AzACommandAssetPutMany(
+  List<AzAsset> assets)
+  implements AzACommandType<AzAResponseOK>
+{
+  /**
+   * Create or update the given assets in a single batch.
+   *
+   * @param assets The assets
+   */
+
+  public AzACommandAssetPutMany
+  {
+    Objects.requireNonNull(assets, "assets");
+  }
+
+  @Override
+  public Class<AzAResponseOK> responseClass()
+  {
+    return AzAResponseOK.class;
+  }
+}
@@ -17,13 +17,29 @@
 
 package com.io7m.azeno.protocol.asset;
 
+import java.util.Objects;
+
 /**
  * Continue searching.
+ *
+ * @param cursor The {@code cursorNext} cursor of the current page
  */
 
-public record AzACommandAuditSearchNext()
+public record AzACommandAuditSearchNext(
+  String cursor)
   implements AzACommandType<AzAResponseAuditSearch>
 {
+  /**
+   * Continue searching.
+   *
+   * @param cursor The {@code cursorNext} cursor of the current page
+   */
+
+  public AzACommandAuditSearchNext
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<AzAResponseAuditSearch> responseClass()
   {
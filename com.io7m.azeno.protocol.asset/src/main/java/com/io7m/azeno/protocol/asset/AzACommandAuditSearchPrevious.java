@@ -17,13 +17,29 @@
 
 package com.io7m.azeno.protocol.asset;
 
+import java.util.Objects;
+
 /**
  * Continue searching.
+ *
+ * @param cursor The {@code cursorPrevious} cursor of the current page
  */
 
-public record AzACommandAuditSearchPrevious()
+public record AzACommandAuditSearchPrevious(
+  String cursor)
   implements AzACommandType<AzAResponseAuditSearch>
 {
+  /**
+   * Continue searching.
+   *
+   * @param cursor The {@code cursorPrevious} cursor of the current page
+   */
+
+  public AzACommandAuditSearchPrevious
+  {
+    Objects.requireNonNull(cursor, "cursor");
+  }
+
   @Override
   public Class<AzAResponseAuditSearch> responseClass()
   {
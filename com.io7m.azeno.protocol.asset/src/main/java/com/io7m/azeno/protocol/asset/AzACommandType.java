@@ -24,7 +24,8 @@ package com.io7m.azeno.protocol.asset;
 
 public sealed interface AzACommandType<R extends AzAResponseType>
   extends AzAMessageType
-  permits AzACommandAuditSearchBegin,
+  permits AzACommandAssetPutMany,
+  AzACommandAuditSearchBegin,
   AzACommandAuditSearchNext,
   AzACommandAuditSearchPrevious,
   AzACommandDebugInvalid,
@@ -22,30 +22,39 @@ import com.io7m.azeno.model.AzAuditEvent;
 import com.io7m.azeno.model.AzPage;
 
 import java.util.Objects;
+import java.util.Optional;
 import java.util.UUID;
 
 /**
  * An audit event retrieval.
  *
- * @param requestId The message ID
- * @param results   The results
+ * @param requestId      The message ID
+ * @param results        The results
+ * @param cursorNext     The cursor used to retrieve the next page, if any
+ * @param cursorPrevious The cursor used to retrieve the previous page, if any
  */
 
 public record AzAResponseAuditSearch(
   UUID requestId,
-  AzPage<AzAuditEvent> results)
+  AzPage<AzAuditEvent> results,
+  Optional<String> cursorNext,
+  Optional<String> cursorPrevious)
   implements AzAResponseType
 {
   /**
    * An audit event retrieval.
    *
-   * @param requestId The message ID
-   * @param results   The results
+   * @param requestId      The message ID
+   * @param results        The results
+   * @param cursorNext     The cursor used to retrieve the next page, if any
+   * @param cursorPrevious The cursor used to retrieve the previous page, if any
    */
 
   public AzAResponseAuditSearch
   {
     Objects.requireNonNull(requestId, "requestId");
     Objects.requireNonNull(results, "results");
+    Objects.requireNonNull(cursorNext, "cursorNext");
+    Objects.requireNonNull(cursorPrevious, "cursorPrevious");
   }
 }
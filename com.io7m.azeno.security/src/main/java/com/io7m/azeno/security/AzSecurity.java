@@ -22,6 +22,7 @@ import com.io7m.medrina.api.MPolicy;
 import com.io7m.medrina.api.MPolicyAccess;
 import com.io7m.medrina.api.MPolicyEvaluator;
 import com.io7m.medrina.api.MPolicyEvaluatorType;
+import com.io7m.medrina.api.MRoleName;
 import com.io7m.medrina.api.MSubject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,12 +31,19 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorSecurityPolicyDenied;
 
 /**
  * The main API for performing security policy checks.
+ *
+ * <p>Policy decisions depend only on the subject's roles, the object, and
+ * the action, and so decisions are memoized per policy. The policy and its
+ * decisions are published together, and so replacing the policy discards
+ * every decision made under the previous policy atomically.</p>
  */
 
 public final class AzSecurity
@@ -43,12 +51,15 @@ public final class AzSecurity
   private static final Logger LOG =
     LoggerFactory.getLogger(AzSecurity.class);
 
-  private static volatile MPolicy POLICY =
-    new MPolicy(List.of());
-
   private static final MPolicyEvaluatorType EVALUATOR =
     MPolicyEvaluator.create();
 
+  private static final int DECISIONS_MAXIMUM =
+    10_000;
+
+  private static volatile LoadedPolicy POLICY =
+    new LoadedPolicy(new MPolicy(List.of()));
+
   private AzSecurity()
   {
 
@@ -63,7 +74,32 @@ public final class AzSecurity
   public static void setPolicy(
     final MPolicy policy)
   {
-    POLICY = Objects.requireNonNull(policy, "policy");
+    POLICY = new LoadedPolicy(Objects.requireNonNull(policy, "policy"));
+  }
+
+  /**
+   * Determine whether a subject is allowed to perform an action by the
+   * current policy. Unlike {@link #check(UUID, MSubject, MObject, MActionName)},
+   * a denial is neither logged nor raised as an exception.
+   *
+   * @param subject    The subject
+   * @param object     The object
+   * @param actionName The action
+   *
+   * @return {@code true} if the action is permitted
+   */
+
+  public static boolean isPermitted(
+    final MSubject subject,
+    final MObject object,
+    final MActionName actionName)
+  {
+    Objects.requireNonNull(subject, "subject");
+    Objects.requireNonNull(object, "object");
+    Objects.requireNonNull(actionName, "actionName");
+
+    return POLICY.evaluate(subject, object, actionName)
+           != MPolicyAccess.ACCESS_DENIED;
   }
 
   /**
@@ -89,10 +125,7 @@ public final class AzSecurity
     Objects.requireNonNull(object, "object");
     Objects.requireNonNull(actionName, "actionName");
 
-    final var result =
-      EVALUATOR.evaluate(POLICY, subject, object, actionName);
-
-    if (result.accessResult() == MPolicyAccess.ACCESS_DENIED) {
+    if (!isPermitted(subject, object, actionName)) {
       LOG.warn(
         "{} deny {} {} on {}",
         userId,
@@ -109,4 +142,78 @@ public final class AzSecurity
       );
     }
   }
+
+  private record DecisionKey(
+    Set<MRoleName> roles,
+    MObject object,
+    MActionName action)
+  {
+
+  }
+
+  private static final class LoadedPolicy
+  {
+    private final MPolicy policy;
+    private final ConcurrentHashMap<Set<MRoleName>, Set<MRoleName>> roleSets;
+    private final ConcurrentHashMap<DecisionKey, MPolicyAccess> decisions;
+
+    LoadedPolicy(
+      final MPolicy inPolicy)
+    {
+      this.policy =
+        Objects.requireNonNull(inPolicy, "policy");
+      this.roleSets =
+        new ConcurrentHashMap<>();
+      this.decisions =
+        new ConcurrentHashMap<>();
+    }
+
+    MPolicyAccess evaluate(
+      final MSubject subject,
+      final MObject object,
+      final MActionName action)
+    {
+      final var roles =
+        this.roleSets.get(subject.roles());
+      final var key =
+        roles != null ? new DecisionKey(roles, object, action) : null;
+
+      if (key != null) {
+        final var existing = this.decisions.get(key);
+        if (existing != null) {
+          return existing;
+        }
+      }
+
+      final var access =
+        EVALUATOR.evaluate(this.policy, subject, object, action)
+          .accessResult();
+
+      /*
+       * The number of distinct decisions is normally small, as it is
+       * bounded by the role combinations that actually occur. If that
+       * assumption fails, further decisions are simply not remembered.
+       */
+
+      if (this.decisions.size() < DECISIONS_MAXIMUM) {
+        if (key != null) {
+          this.decisions.putIfAbsent(key, access);
+        } else {
+          this.decisions.putIfAbsent(
+            new DecisionKey(this.intern(subject), object, action),
+            access
+          );
+        }
+      }
+      return access;
+    }
+
+    private Set<MRoleName> intern(
+      final MSubject subject)
+    {
+      final var roles = Set.copyOf(subject.roles());
+      final var existing = this.roleSets.putIfAbsent(roles, roles);
+      return existing != null ? existing : roles;
+    }
+  }
 }
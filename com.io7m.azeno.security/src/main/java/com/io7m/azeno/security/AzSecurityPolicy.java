@@ -49,6 +49,14 @@ public final class AzSecurityPolicy
   public static final MObject AUDIT =
     new MObject(MTypeName.of("audit"), Map.of());
 
+  /**
+   * The assets.
+   */
+
+  @AzSecurityDocumentation("The assets.")
+  public static final MObject ASSETS =
+    new MObject(MTypeName.of("assets"), Map.of());
+
   /**
    * The users.
    */
@@ -0,0 +1,88 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.api;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration information for adaptive admission control. The server
+ * maintains a limit on the number of requests in progress at any one time,
+ * and rejects requests that would exceed it. The limit grows slowly whilst
+ * requests complete promptly, and shrinks quickly when requests become slow
+ * or when requests wait too long for database connections.
+ *
+ * @param minimumConcurrency      The lowest value to which the limit may shrink
+ * @param initialConcurrency      The limit when the server starts
+ * @param maximumConcurrency      The highest value to which the limit may grow
+ * @param latencyThreshold        Requests taking longer than this are taken as
+ *                                a sign of overload
+ * @param connectionWaitThreshold Waiting longer than this for a database
+ *                                connection is taken as a sign of overload
+ */
+
+public record AzServerAdmissionControlConfiguration(
+  int minimumConcurrency,
+  int initialConcurrency,
+  int maximumConcurrency,
+  Duration latencyThreshold,
+  Duration connectionWaitThreshold)
+{
+  /**
+   * Configuration information for adaptive admission control. The server
+   * maintains a limit on the number of requests in progress at any one time,
+   * and rejects requests that would exceed it. The limit grows slowly whilst
+   * requests complete promptly, and shrinks quickly when requests become slow
+   * or when requests wait too long for database connections.
+   *
+   * @param minimumConcurrency      The lowest value to which the limit may shrink
+   * @param initialConcurrency      The limit when the server starts
+   * @param maximumConcurrency      The highest value to which the limit may grow
+   * @param latencyThreshold        Requests taking longer than this are taken as
+   *                                a sign of overload
+   * @param connectionWaitThreshold Waiting longer than this for a database
+   *                                connection is taken as a sign of overload
+   */
+
+  public AzServerAdmissionControlConfiguration
+  {
+    Objects.requireNonNull(latencyThreshold, "latencyThreshold");
+    Objects.requireNonNull(connectionWaitThreshold, "connectionWaitThreshold");
+
+    if (minimumConcurrency < 1) {
+      throw new IllegalArgumentException(
+        "Minimum concurrency must be at least 1.");
+    }
+    if (initialConcurrency < minimumConcurrency) {
+      throw new IllegalArgumentException(
+        "Initial concurrency must be at least the minimum concurrency.");
+    }
+    if (maximumConcurrency < initialConcurrency) {
+      throw new IllegalArgumentException(
+        "Maximum concurrency must be at least the initial concurrency.");
+    }
+    if (latencyThreshold.isNegative() || latencyThreshold.isZero()) {
+      throw new IllegalArgumentException(
+        "Latency threshold must be positive.");
+    }
+    if (connectionWaitThreshold.isNegative()
+        || connectionWaitThreshold.isZero()) {
+      throw new IllegalArgumentException(
+        "Connection wait threshold must be positive.");
+    }
+  }
+}
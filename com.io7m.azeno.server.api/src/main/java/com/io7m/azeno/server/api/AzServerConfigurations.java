@@ -84,7 +84,9 @@ public final class AzServerConfigurations
           fileDbConfig.ownerRolePassword()
         ),
         fileDbConfig.workerRolePassword(),
-        fileDbConfig.readerRolePassword()
+        fileDbConfig.readerRolePassword(),
+        fileDbConfig.auditMode(),
+        fileDbConfig.readReplica()
       );
 
     final var databaseFactories =
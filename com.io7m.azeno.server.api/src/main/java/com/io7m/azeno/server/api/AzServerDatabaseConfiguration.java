@@ -16,6 +16,9 @@
 
 package com.io7m.azeno.server.api;
 
+import com.io7m.azeno.database.api.AzDatabaseAuditMode;
+import com.io7m.azeno.database.api.AzDatabaseReplicaInfo;
+
 import java.util.Objects;
 import java.util.Optional;
 
@@ -33,6 +36,8 @@ import java.util.Optional;
  * @param kind               The underlying SQL database kind
  * @param port               The database port
  * @param upgrade            {@code true} if the database schema should be upgraded
+ * @param auditMode          The manner in which audit events are written
+ * @param readReplica        The read replica to which read-only work is routed, if any
  */
 
 public record AzServerDatabaseConfiguration(
@@ -46,7 +51,9 @@ public record AzServerDatabaseConfiguration(
   String databaseName,
   String databaseLanguage,
   boolean create,
-  boolean upgrade)
+  boolean upgrade,
+  AzDatabaseAuditMode auditMode,
+  Optional<AzDatabaseReplicaInfo> readReplica)
 {
   /**
    * Configuration for the database.
@@ -62,6 +69,8 @@ public record AzServerDatabaseConfiguration(
    * @param kind               The underlying SQL database kind
    * @param port               The database port
    * @param upgrade            {@code true} if the database schema should be upgraded
+   * @param auditMode          The manner in which audit events are written
+   * @param readReplica        The read replica to which read-only work is routed, if any
    */
 
   public AzServerDatabaseConfiguration
@@ -74,5 +83,7 @@ public record AzServerDatabaseConfiguration(
     Objects.requireNonNull(address, "address");
     Objects.requireNonNull(databaseName, "databaseName");
     Objects.requireNonNull(databaseLanguage, "databaseLanguage");
+    Objects.requireNonNull(auditMode, "auditMode");
+    Objects.requireNonNull(readReplica, "readReplica");
   }
 }
@@ -17,29 +17,46 @@
 package com.io7m.azeno.server.api;
 
 import java.net.URI;
+import java.time.Duration;
 import java.util.Objects;
+import java.util.Optional;
 
 /**
  * Configuration information for {@code idstore}.
  *
- * @param baseURI          The server base URI
- * @param passwordResetURI The password reset URI
+ * @param baseURI              The server base URI
+ * @param passwordResetURI     The password reset URI
+ * @param verificationCacheTTL The length of time for which successful
+ *                             credential verifications are cached, if
+ *                             verifications are to be cached at all
  */
 
 public record AzServerIdstoreConfiguration(
   URI baseURI,
-  URI passwordResetURI)
+  URI passwordResetURI,
+  Optional<Duration> verificationCacheTTL)
 {
   /**
    * Configuration information for {@code idstore}.
    *
-   * @param baseURI          The server base URI
-   * @param passwordResetURI The password reset URI
+   * @param baseURI              The server base URI
+   * @param passwordResetURI     The password reset URI
+   * @param verificationCacheTTL The length of time for which successful
+   *                             credential verifications are cached, if
+   *                             verifications are to be cached at all
    */
 
   public AzServerIdstoreConfiguration
   {
     Objects.requireNonNull(baseURI, "baseURI");
     Objects.requireNonNull(passwordResetURI, "passwordResetURI");
+    Objects.requireNonNull(verificationCacheTTL, "verificationCacheTTL");
+
+    verificationCacheTTL.ifPresent(ttl -> {
+      if (ttl.isNegative() || ttl.isZero()) {
+        throw new IllegalArgumentException(
+          "Verification cache TTL must be positive.");
+      }
+    });
   }
 }
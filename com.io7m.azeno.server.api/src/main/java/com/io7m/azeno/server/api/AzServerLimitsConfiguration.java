@@ -16,16 +16,41 @@
 
 package com.io7m.azeno.server.api;
 
+import java.util.Objects;
+import java.util.Optional;
+
 /**
  * Configuration information for limits.
  *
  * @param maximumFileUploadSizeOctets The maximum permitted size of uploaded files (in octets).
  * @param maximumCommandSizeOctets    The maximum permitted size of ordinary commands (in octets).
+ * @param userRequestLimits           The request limits applied to each authenticated user, if any
+ * @param addressRequestLimits        The request limits applied to each remote address, if any
+ * @param admissionControl            The adaptive admission control, if any
  */
 
 public record AzServerLimitsConfiguration(
   long maximumFileUploadSizeOctets,
-  long maximumCommandSizeOctets)
+  long maximumCommandSizeOctets,
+  Optional<AzServerRequestRateLimitConfiguration> userRequestLimits,
+  Optional<AzServerRequestRateLimitConfiguration> addressRequestLimits,
+  Optional<AzServerAdmissionControlConfiguration> admissionControl)
 {
+  /**
+   * Configuration information for limits.
+   *
+   * @param maximumFileUploadSizeOctets The maximum permitted size of uploaded files (in octets).
+   * @param maximumCommandSizeOctets    The maximum permitted size of ordinary commands (in octets).
+   * @param userRequestLimits           The request limits applied to each authenticated user, if any
+   * @param addressRequestLimits        The request limits applied to each remote address, if any
+   * @param admissionControl            The adaptive admission control, if any
+ * @param admissionControl            The adaptive admission control, if any
+   */
 
+  public AzServerLimitsConfiguration
+  {
+    Objects.requireNonNull(userRequestLimits, "userRequestLimits");
+    Objects.requireNonNull(addressRequestLimits, "addressRequestLimits");
+    Objects.requireNonNull(admissionControl, "admissionControl");
+  }
 }
@@ -23,21 +23,33 @@ import java.util.Optional;
 /**
  * Configuration information for the server's maintenance service.
  *
- * @param tlsReloadInterval The interval at which to reload TLS contexts
+ * @param tlsReloadInterval    The interval at which to reload TLS contexts
+ * @param auditRetention       The length of time for which audit events are
+ *                             retained; retained forever if not specified
+ * @param auditRetentionAction The action taken on expired audit partitions
  */
 
 public record AzServerMaintenanceConfiguration(
-  Optional<Duration> tlsReloadInterval)
+  Optional<Duration> tlsReloadInterval,
+  Optional<Duration> auditRetention,
+  AzServerAuditRetentionAction auditRetentionAction)
 {
   /**
    * Configuration information for the server's maintenance service.
    *
-   * @param tlsReloadInterval The interval at which to reload TLS contexts
+   * @param tlsReloadInterval    The interval at which to reload TLS contexts
+   * @param auditRetention       The length of time for which audit events are
+   *                             retained; retained forever if not specified
+   * @param auditRetentionAction The action taken on expired audit partitions
    */
 
   public AzServerMaintenanceConfiguration
   {
     Objects.requireNonNull(
       tlsReloadInterval, "tlsReloadInterval");
+    Objects.requireNonNull(
+      auditRetention, "auditRetention");
+    Objects.requireNonNull(
+      auditRetentionAction, "auditRetentionAction");
   }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.api;
+
+/**
+ * Configuration information for request rate and concurrency limits that
+ * apply to a single client (such as a single user, or a single remote
+ * address).
+ *
+ * @param requestsPerSecond         The sustained number of requests per second
+ * @param burst                     The number of requests that may be made
+ *                                  at once before the sustained rate applies
+ * @param maximumConcurrentRequests The maximum number of requests that may
+ *                                  be in progress at any one time
+ */
+
+public record AzServerRequestRateLimitConfiguration(
+  double requestsPerSecond,
+  int burst,
+  int maximumConcurrentRequests)
+{
+  /**
+   * Configuration information for request rate and concurrency limits that
+   * apply to a single client (such as a single user, or a single remote
+   * address).
+   *
+   * @param requestsPerSecond         The sustained number of requests per second
+   * @param burst                     The number of requests that may be made
+   *                                  at once before the sustained rate applies
+   * @param maximumConcurrentRequests The maximum number of requests that may
+   *                                  be in progress at any one time
+   */
+
+  public AzServerRequestRateLimitConfiguration
+  {
+    if (!(requestsPerSecond > 0.0) || Double.isInfinite(requestsPerSecond)) {
+      throw new IllegalArgumentException(
+        "Requests per second must be positive and finite.");
+    }
+    if (burst < 1) {
+      throw new IllegalArgumentException(
+        "Burst must be at least 1.");
+    }
+    if (maximumConcurrentRequests < 1) {
+      throw new IllegalArgumentException(
+        "Maximum concurrent requests must be at least 1.");
+    }
+  }
+}
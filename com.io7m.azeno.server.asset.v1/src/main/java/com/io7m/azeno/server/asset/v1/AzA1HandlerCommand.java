@@ -29,6 +29,7 @@ import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
 import com.io7m.azeno.server.controller.asset.AzACommandContext;
 import com.io7m.azeno.server.controller.asset.AzACommandExecutor;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
+import com.io7m.azeno.server.http.AzHTTPAdmissionTicket;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctional;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreType;
 import com.io7m.azeno.server.http.AzHTTPRequestInformation;
@@ -55,6 +56,9 @@ import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_SERVER;
 import static com.io7m.azeno.server.asset.v1.AzA1Errors.errorResponseOf;
 import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreAuthenticated.withAuthentication;
 import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreTransactional.withTransaction;
+import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreAdmitted.withAdmission;
+import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreLimited.withAddressLimits;
+import static com.io7m.azeno.server.http.AzHTTPHandlerCoreCompressed.withCompression;
 import static com.io7m.azeno.server.http.AzHTTPHandlerCoreInstrumented.withInstrumentation;
 import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.azeno.strings.AzStringConstants.ERROR_COMMAND_NOT_HERE;
@@ -88,75 +92,99 @@ public final class AzA1HandlerCommand extends AzHTTPHandlerFunctional
       services.requireService(AzStrings.class);
     final var telemetry =
       services.requireService(AzServerTelemetryServiceType.class);
+    final var executor =
+      new AzACommandExecutor(services);
 
     final var authenticated =
       withAuthentication(services, (req1, info1, session, user) -> {
-        return withTransaction(services, (req2, info2, transaction) -> {
-          return execute(
-            services,
-            req2,
-            info2,
-            messages,
-            telemetry,
-            limits,
-            strings,
-            session,
-            transaction
-          );
-        }).execute(req1, info1);
+        return execute(
+          services,
+          executor,
+          req1,
+          info1,
+          messages,
+          telemetry,
+          limits,
+          strings,
+          session
+        );
       });
 
-    return withInstrumentation(services, authenticated);
+    return withInstrumentation(
+      services,
+      withAddressLimits(
+        services,
+        withAdmission(
+          services,
+          withCompression(services, authenticated)
+        )
+      )
+    );
   }
 
   private static AzHTTPResponseType execute(
     final RPServiceDirectoryType services,
+    final AzACommandExecutor executor,
     final ServerRequest request,
     final AzHTTPRequestInformation information,
     final AzA1Messages messages,
     final AzServerTelemetryServiceType telemetry,
     final AzRequestLimits limits,
     final AzStrings strings,
-    final AzSession session,
-    final AzDatabaseTransactionType transaction)
+    final AzSession session)
   {
+    final AzAMessageType message;
     try (var input = limits.boundedMaximumInput(request, 1048576L)) {
-      final var message =
-        parseMessage(telemetry, messages, input);
-
-      if (message instanceof final AzACommandType<?> command) {
-        return executeCommand(
-          services,
-          information,
-          messages,
-          telemetry,
-          session,
-          command,
-          transaction
-        );
-      }
-
-      return errorResponseOf(
-        messages,
-        information,
-        BLAME_CLIENT,
-        new AzProtocolException(
-          strings.format(ERROR_COMMAND_NOT_HERE),
-          AzStandardErrorCodes.errorApiMisuse(),
-          Map.of(),
-          Optional.empty()
-        )
-      );
-
+      message = parseMessage(telemetry, messages, input);
     } catch (final IOException e) {
       throw new UncheckedIOException(e);
     } catch (final AzRequestLimitExceeded | AzProtocolException e) {
       setSpanErrorCode(e.errorCode());
       return errorResponseOf(messages, information, BLAME_CLIENT, e);
-    } catch (final DDatabaseException e) {
-      setSpanErrorCode(new AzErrorCode(e.errorCode()));
-      return errorResponseOf(messages, information, BLAME_SERVER, e);
     }
+
+    AzHTTPAdmissionTicket.onRequestBodyRead(request);
+
+    if (message instanceof final AzACommandType<?> command) {
+
+      /*
+       * The command is parsed before a transaction is opened so that
+       * read-only commands can be routed to the read replica.
+       */
+
+      final var readOnly =
+        AzACommandExecutor.isReadOnly(command);
+
+      return withTransaction(services, readOnly, (req2, info2, transaction) -> {
+        try {
+          return executeCommand(
+            services,
+            executor,
+            info2,
+            messages,
+            telemetry,
+            session,
+            command,
+            transaction
+          );
+        } catch (final DDatabaseException e) {
+          setSpanErrorCode(new AzErrorCode(e.errorCode()));
+          return errorResponseOf(messages, info2, BLAME_SERVER, e);
+        }
+      }).execute(request, information);
+    }
+
+    return errorResponseOf(
+      messages,
+      information,
+      BLAME_CLIENT,
+      new AzProtocolException(
+        strings.format(ERROR_COMMAND_NOT_HERE),
+        AzStandardErrorCodes.errorApiMisuse(),
+        Map.of(),
+        Optional.empty()
+      )
+    );
   }
 
   private static AzAMessageType parseMessage(
@@ -215,6 +243,7 @@ public final class AzA1HandlerCommand extends AzHTTPHandlerFunctional
 
   private static AzHTTPResponseType executeCommand(
     final RPServiceDirectoryType services,
+    final AzACommandExecutor executor,
     final AzHTTPRequestInformation information,
     final AzA1Messages messages,
     final AzServerTelemetryServiceType telemetry,
@@ -223,9 +252,6 @@ public final class AzA1HandlerCommand extends AzHTTPHandlerFunctional
     final AzDatabaseTransactionType transaction)
     throws DDatabaseException
   {
-    final var executor =
-      new AzACommandExecutor();
-
     final var context =
       new AzACommandContext(
         services,
@@ -0,0 +1,145 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.asset.v1;
+
+import com.io7m.azeno.error_codes.AzStandardErrorCodes;
+import com.io7m.azeno.protocol.asset.AzAResponseError;
+import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
+import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreType;
+import com.io7m.azeno.server.http.AzHTTPRequestInformation;
+import com.io7m.azeno.server.http.AzHTTPResponseFixedSize;
+import com.io7m.azeno.server.http.AzHTTPResponseType;
+import com.io7m.azeno.strings.AzStrings;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.helidon.webserver.http.ServerRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_SERVER;
+import static com.io7m.azeno.server.http.AzHTTPResponses.closeAfterResponse;
+import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
+import static com.io7m.azeno.strings.AzStringConstants.ERROR_OVERLOADED;
+
+/**
+ * A servlet core that executes the given core only if admission control
+ * admits the request.
+ */
+
+public final class AzA1HandlerCoreAdmitted
+  implements AzHTTPHandlerFunctionalCoreType
+{
+  private final AzHTTPHandlerFunctionalCoreType core;
+  private final AzHTTPAdmissionController admission;
+  private final AzA1Messages messages;
+  private final AzStrings strings;
+
+  private AzA1HandlerCoreAdmitted(
+    final RPServiceDirectoryType services,
+    final AzHTTPHandlerFunctionalCoreType inCore)
+  {
+    Objects.requireNonNull(services, "services");
+
+    this.core =
+      Objects.requireNonNull(inCore, "core");
+    this.admission =
+      services.requireService(AzHTTPAdmissionController.class);
+    this.messages =
+      services.requireService(AzA1Messages.class);
+    this.strings =
+      services.requireService(AzStrings.class);
+  }
+
+  /**
+   * @param services The services
+   * @param inCore   The core
+   *
+   * @return A servlet core that executes the given core subject to
+   * admission control
+   */
+
+  public static AzHTTPHandlerFunctionalCoreType withAdmission(
+    final RPServiceDirectoryType services,
+    final AzHTTPHandlerFunctionalCoreType inCore)
+  {
+    return new AzA1HandlerCoreAdmitted(services, inCore);
+  }
+
+  @Override
+  public AzHTTPResponseType execute(
+    final ServerRequest request,
+    final AzHTTPRequestInformation information)
+  {
+    final var ticketOpt = this.admission.tryAdmit();
+    if (ticketOpt.isEmpty()) {
+      return this.overloadedResponse(information);
+    }
+
+    /*
+     * The ticket is held until the response has been written, which for
+     * streamed responses is after this method returns. Handlers report when
+     * they have read the request body through the ticket attached to the
+     * request, so that the time taken by the client to send the body is not
+     * counted as latency.
+     */
+
+    final var ticket = ticketOpt.get();
+    ticket.attachTo(request);
+
+    try {
+      return closeAfterResponse(this.core.execute(request, information), ticket);
+    } catch (final RuntimeException | Error e) {
+      ticket.close();
+      throw e;
+    }
+  }
+
+  private AzHTTPResponseType overloadedResponse(
+    final AzHTTPRequestInformation information)
+  {
+    final var errorCode =
+      AzStandardErrorCodes.errorOverloaded();
+    final var seconds =
+      Long.toString(this.admission.retryAfterSeconds());
+
+    setSpanErrorCode(errorCode);
+
+    return new AzHTTPResponseFixedSize(
+      503,
+      Set.of(),
+      AzA1Messages.contentType(),
+      this.messages.serialize(
+        new AzAResponseError(
+          information.requestID(),
+          this.strings.format(ERROR_OVERLOADED, seconds),
+          errorCode,
+          Map.of(),
+          Optional.empty(),
+          Optional.empty(),
+          BLAME_SERVER,
+          List.of()
+        )
+      ),
+      Optional.empty(),
+      Map.of("Retry-After", seconds)
+    );
+  }
+}
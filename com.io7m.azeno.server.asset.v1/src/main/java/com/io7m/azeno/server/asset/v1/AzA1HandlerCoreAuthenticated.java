@@ -26,14 +26,18 @@ import com.io7m.azeno.model.AzUserID;
 import com.io7m.azeno.model.AzValidityException;
 import com.io7m.azeno.protocol.asset.AzAResponseError;
 import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreAuthenticatedType;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreType;
 import com.io7m.azeno.server.http.AzHTTPRequestInformation;
 import com.io7m.azeno.server.http.AzHTTPResponseFixedSize;
 import com.io7m.azeno.server.http.AzHTTPResponseType;
+import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
+import com.io7m.azeno.server.service.reqlimit.AzRequestThrottled;
 import com.io7m.azeno.server.service.sessions.AzSession;
 import com.io7m.azeno.server.service.sessions.AzSessionSecretIdentifier;
 import com.io7m.azeno.server.service.sessions.AzSessionService;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
 import com.io7m.azeno.strings.AzStrings;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -49,6 +53,7 @@ import java.util.Set;
 import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_CLIENT;
 import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_SERVER;
 import static com.io7m.azeno.server.asset.v1.AzA1Errors.errorResponseOf;
+import static com.io7m.azeno.server.http.AzHTTPResponses.closeAfterResponse;
 import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.azeno.strings.AzStringConstants.ERROR_UNAUTHORIZED;
 
@@ -62,8 +67,11 @@ public final class AzA1HandlerCoreAuthenticated
   private final AzHTTPHandlerFunctionalCoreAuthenticatedType<AzSession, AzUser> core;
   private final AzDatabaseType database;
   private final AzSessionService userSessions;
+  private final AzUserCache userCache;
   private final AzA1Messages messages;
   private final AzStrings strings;
+  private final AzRequestLimits limits;
+  private final AzHTTPAdmissionController admission;
 
   private AzA1HandlerCoreAuthenticated(
     final RPServiceDirectoryType services,
@@ -79,8 +87,14 @@ public final class AzA1HandlerCoreAuthenticated
       services.requireService(AzDatabaseType.class);
     this.userSessions =
       services.requireService(AzSessionService.class);
+    this.userCache =
+      services.requireService(AzUserCache.class);
     this.messages =
       services.requireService(AzA1Messages.class);
+    this.limits =
+      services.requireService(AzRequestLimits.class);
+    this.admission =
+      services.requireService(AzHTTPAdmissionController.class);
   }
 
   /**
@@ -122,8 +136,13 @@ public final class AzA1HandlerCoreAuthenticated
       return this.notAuthenticated(information);
     }
 
-    final var userSessionOpt =
-      this.userSessions.findSession(userSessionId);
+    final Optional<AzSession> userSessionOpt;
+    try {
+      userSessionOpt = this.userSessions.findSession(userSessionId);
+    } catch (final DDatabaseException e) {
+      setSpanErrorCode(new AzErrorCode(e.errorCode()));
+      return errorResponseOf(this.messages, information, BLAME_SERVER, e);
+    }
 
     if (userSessionOpt.isEmpty()) {
       return this.notAuthenticated(information);
@@ -144,12 +163,33 @@ public final class AzA1HandlerCoreAuthenticated
       return this.notAuthenticated(information);
     }
 
-    return this.core.executeAuthenticated(
-      request,
-      information,
-      userSession,
-      userOpt.get()
-    );
+    final var admission =
+      this.limits.admitUser(userSession.userId().id());
+
+    if (admission instanceof final AzRequestThrottled throttled) {
+      admission.close();
+      return AzA1HandlerCoreLimited.throttledResponse(
+        this.messages,
+        this.strings,
+        information,
+        throttled
+      );
+    }
+
+    try {
+      return closeAfterResponse(
+        this.core.executeAuthenticated(
+          request,
+          information,
+          userSession,
+          userOpt.get()
+        ),
+        admission
+      );
+    } catch (final RuntimeException | Error e) {
+      admission.close();
+      throw e;
+    }
   }
 
   private AzHTTPResponseType notAuthenticated(
@@ -178,7 +218,14 @@ public final class AzA1HandlerCoreAuthenticated
     final AzUserID id)
     throws DDatabaseException
   {
-    try (var c = this.database.openConnection()) {
+    return this.userCache.findOrLoad(id, this::userLoad);
+  }
+
+  private Optional<AzUser> userLoad(
+    final AzUserID id)
+    throws DDatabaseException
+  {
+    try (var c = this.admission.openConnection(this.database)) {
       try (var t = c.openTransaction()) {
         final var q = t.query(AzUserGetType.class);
         return q.execute(id);
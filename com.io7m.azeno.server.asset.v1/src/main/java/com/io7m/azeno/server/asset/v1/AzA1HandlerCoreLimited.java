@@ -0,0 +1,165 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.asset.v1;
+
+import com.io7m.azeno.error_codes.AzStandardErrorCodes;
+import com.io7m.azeno.protocol.asset.AzAResponseError;
+import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreType;
+import com.io7m.azeno.server.http.AzHTTPRequestInformation;
+import com.io7m.azeno.server.http.AzHTTPResponseFixedSize;
+import com.io7m.azeno.server.http.AzHTTPResponseType;
+import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
+import com.io7m.azeno.server.service.reqlimit.AzRequestThrottled;
+import com.io7m.azeno.strings.AzStrings;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.helidon.webserver.http.ServerRequest;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_CLIENT;
+import static com.io7m.azeno.server.http.AzHTTPResponses.closeAfterResponse;
+import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
+import static com.io7m.azeno.strings.AzStringConstants.ERROR_RATE_LIMITED;
+
+/**
+ * A servlet core that executes the given core only if the remote address
+ * has not exceeded its request rate and concurrency limits.
+ */
+
+public final class AzA1HandlerCoreLimited
+  implements AzHTTPHandlerFunctionalCoreType
+{
+  private final AzHTTPHandlerFunctionalCoreType core;
+  private final AzRequestLimits limits;
+  private final AzA1Messages messages;
+  private final AzStrings strings;
+
+  private AzA1HandlerCoreLimited(
+    final RPServiceDirectoryType services,
+    final AzHTTPHandlerFunctionalCoreType inCore)
+  {
+    Objects.requireNonNull(services, "services");
+
+    this.core =
+      Objects.requireNonNull(inCore, "core");
+    this.limits =
+      services.requireService(AzRequestLimits.class);
+    this.messages =
+      services.requireService(AzA1Messages.class);
+    this.strings =
+      services.requireService(AzStrings.class);
+  }
+
+  /**
+   * @param services The services
+   * @param inCore   The core
+   *
+   * @return A servlet core that executes the given core subject to the
+   * per-address request limits
+   */
+
+  public static AzHTTPHandlerFunctionalCoreType withAddressLimits(
+    final RPServiceDirectoryType services,
+    final AzHTTPHandlerFunctionalCoreType inCore)
+  {
+    return new AzA1HandlerCoreLimited(services, inCore);
+  }
+
+  @Override
+  public AzHTTPResponseType execute(
+    final ServerRequest request,
+    final AzHTTPRequestInformation information)
+  {
+    final var admission =
+      this.limits.admitAddress(information.remoteAddress());
+
+    if (admission instanceof final AzRequestThrottled throttled) {
+      admission.close();
+      return throttledResponse(
+        this.messages,
+        this.strings,
+        information,
+        throttled
+      );
+    }
+
+    /*
+     * The admission is held until the response has been written, which
+     * for streamed responses is after this method returns.
+     */
+
+    try {
+      return closeAfterResponse(
+        this.core.execute(request, information),
+        admission
+      );
+    } catch (final RuntimeException | Error e) {
+      admission.close();
+      throw e;
+    }
+  }
+
+  /**
+   * Produce a response for a throttled request.
+   *
+   * @param messages    The messages
+   * @param strings     The strings
+   * @param information The request information
+   * @param throttled   The throttling result
+   *
+   * @return A 429 response with a Retry-After header
+   */
+
+  static AzHTTPResponseType throttledResponse(
+    final AzA1Messages messages,
+    final AzStrings strings,
+    final AzHTTPRequestInformation information,
+    final AzRequestThrottled throttled)
+  {
+    final var errorCode =
+      AzStandardErrorCodes.errorRateLimited();
+    final var seconds =
+      Long.toString(throttled.retryAfterSeconds());
+
+    setSpanErrorCode(errorCode);
+
+    return new AzHTTPResponseFixedSize(
+      429,
+      Set.of(),
+      AzA1Messages.contentType(),
+      messages.serialize(
+        new AzAResponseError(
+          information.requestID(),
+          strings.format(ERROR_RATE_LIMITED, seconds),
+          errorCode,
+          Map.of(),
+          Optional.empty(),
+          Optional.empty(),
+          BLAME_CLIENT,
+          List.of()
+        )
+      ),
+      Optional.empty(),
+      Map.of("Retry-After", seconds)
+    );
+  }
+}
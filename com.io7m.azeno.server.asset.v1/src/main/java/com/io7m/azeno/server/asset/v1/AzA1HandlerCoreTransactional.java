@@ -19,6 +19,7 @@ package com.io7m.azeno.server.asset.v1;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.error_codes.AzErrorCode;
 import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreTransactionalType;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreType;
 import com.io7m.azeno.server.http.AzHTTPRequestInformation;
@@ -42,19 +43,27 @@ public final class AzA1HandlerCoreTransactional
   private final AzHTTPHandlerFunctionalCoreTransactionalType core;
   private final AzDatabaseType database;
   private final AzA1Messages messages;
+  private final AzHTTPAdmissionController admission;
 
   private AzA1HandlerCoreTransactional(
     final RPServiceDirectoryType services,
+    final boolean readOnly,
     final AzHTTPHandlerFunctionalCoreTransactionalType inCore)
   {
     Objects.requireNonNull(services, "services");
 
     this.core =
       Objects.requireNonNull(inCore, "core");
-    this.database =
+
+    final var primary =
       services.requireService(AzDatabaseType.class);
+
+    this.database =
+      readOnly ? primary.readOnly() : primary;
     this.messages =
       services.requireService(AzA1Messages.class);
+    this.admission =
+      services.requireService(AzHTTPAdmissionController.class);
   }
 
   /**
@@ -69,7 +78,25 @@ public final class AzA1HandlerCoreTransactional
     final RPServiceDirectoryType inServices,
     final AzHTTPHandlerFunctionalCoreTransactionalType inCore)
   {
-    return new AzA1HandlerCoreTransactional(inServices, inCore);
+    return new AzA1HandlerCoreTransactional(inServices, false, inCore);
+  }
+
+  /**
+   * @param inServices The services
+   * @param readOnly   {@code true} if the transaction should be read-only
+   * @param inCore     The core
+   *
+   * @return A servlet core that executes the given core with a database
+   * transaction; read-only transactions are opened on the read replica if
+   * one is configured
+   */
+
+  public static AzHTTPHandlerFunctionalCoreType withTransaction(
+    final RPServiceDirectoryType inServices,
+    final boolean readOnly,
+    final AzHTTPHandlerFunctionalCoreTransactionalType inCore)
+  {
+    return new AzA1HandlerCoreTransactional(inServices, readOnly, inCore);
   }
 
   @Override
@@ -77,7 +104,7 @@ public final class AzA1HandlerCoreTransactional
     final ServerRequest request,
     final AzHTTPRequestInformation information)
   {
-    try (var connection = this.database.openConnection()) {
+    try (var connection = this.admission.openConnection(this.database)) {
       try (var transaction = connection.openTransaction()) {
         return this.core.executeTransactional(
           request,
@@ -21,6 +21,7 @@ import com.io7m.azeno.database.api.AzAuditPutType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.database.api.AzDatabaseUserUpdates;
+import com.io7m.azeno.error_codes.AzErrorCode;
 import com.io7m.azeno.error_codes.AzException;
 import com.io7m.azeno.error_codes.AzStandardErrorCodes;
 import com.io7m.azeno.model.AzAuditEvent;
@@ -30,6 +31,7 @@ import com.io7m.azeno.protocol.asset.AzACommandLogin;
 import com.io7m.azeno.protocol.asset.AzAResponseBlame;
 import com.io7m.azeno.protocol.asset.AzAResponseLogin;
 import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
 import com.io7m.azeno.server.http.AzHTTPCookieDeclaration;
 import com.io7m.azeno.server.http.AzHTTPErrorStatusException;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctional;
@@ -40,13 +42,14 @@ import com.io7m.azeno.server.http.AzHTTPResponseType;
 import com.io7m.azeno.server.service.configuration.AzConfigurationServiceType;
 import com.io7m.azeno.server.service.idstore.AzIdstoreClientsType;
 import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
+import com.io7m.azeno.server.service.sessions.AzSession;
 import com.io7m.azeno.server.service.sessions.AzSessionService;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
 import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType;
 import com.io7m.azeno.strings.AzStrings;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.idstore.model.IdLoginMetadataStandard;
-import com.io7m.idstore.protocol.user.IdUResponseLogin;
-import com.io7m.idstore.user_client.api.IdUClientConnectionParameters;
 import com.io7m.idstore.user_client.api.IdUClientException;
 import com.io7m.medrina.api.MSubject;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
@@ -63,7 +66,9 @@ import java.util.UUID;
 
 import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorApiMisuse;
 import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorProtocol;
+import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreLimited.withAddressLimits;
 import static com.io7m.azeno.server.http.AzHTTPHandlerCoreInstrumented.withInstrumentation;
+import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.azeno.strings.AzStringConstants.COMMAND;
 import static com.io7m.azeno.strings.AzStringConstants.ERROR_EXPECTED_COMMAND;
 import static io.helidon.http.Status.BAD_REQUEST_400;
@@ -101,10 +106,16 @@ public final class AzA1HandlerLogin extends AzHTTPHandlerFunctional
       services.requireService(AzStrings.class);
     final var database =
       services.requireService(AzDatabaseType.class);
+    final var admission =
+      services.requireService(AzHTTPAdmissionController.class);
     final var sessions =
       services.requireService(AzSessionService.class);
+    final var userCache =
+      services.requireService(AzUserCache.class);
     final var telemetry =
       services.requireService(AzServerTelemetryServiceType.class);
+    final var metrics =
+      services.requireService(AzMetricsServiceType.class);
     final var idClients =
       services.requireService(AzIdstoreClientsType.class);
     final var configuration =
@@ -116,37 +127,49 @@ public final class AzA1HandlerLogin extends AzHTTPHandlerFunctional
         .sessionExpiration()
         .orElse(DEFAULT_EXPIRATION);
 
-    final var transactional =
-      AzA1HandlerCoreTransactional.withTransaction(services, (request, info, transaction) -> {
+    final AzHTTPHandlerFunctionalCoreType core =
+      (request, info) -> {
         return execute(
           database,
+          admission,
           telemetry,
+          metrics,
           idClients,
           sessions,
+          userCache,
           strings,
           limits,
           messages,
           request,
           info,
-          transaction,
           sessionDuration
         );
-      });
+      };
 
-    return withInstrumentation(services, transactional);
+    return withInstrumentation(services, withAddressLimits(services, core));
   }
 
+  /*
+   * Login deliberately does not run inside a transaction opened by
+   * AzA1HandlerCoreTransactional: authenticating with the idstore server
+   * can take up to the client timeouts, and no database connection may be
+   * held while that happens. The database work is done afterwards in a
+   * single short transaction.
+   */
+
   private static AzHTTPResponseType execute(
     final AzDatabaseType database,
+    final AzHTTPAdmissionController admission,
     final AzServerTelemetryServiceType telemetry,
+    final AzMetricsServiceType metrics,
     final AzIdstoreClientsType idClients,
     final AzSessionService sessions,
+    final AzUserCache userCache,
     final AzStrings strings,
     final AzRequestLimits limits,
     final AzA1Messages messages,
     final ServerRequest request,
     final AzHTTPRequestInformation information,
-    final AzDatabaseTransactionType transaction,
     final Duration sessionDuration)
   {
     final AzACommandLogin login;
@@ -175,63 +198,79 @@ public final class AzA1HandlerLogin extends AzHTTPHandlerFunctional
         )
       );
 
-    final var clientCredentials =
-      new IdUClientConnectionParameters(
-        login.userName().value(),
-        login.password(),
-        idClients.baseURI(),
-        clientMetadata,
-        Duration.ofSeconds(30L),
-        Duration.ofSeconds(30L)
-      );
-
     final var span =
       telemetry.tracer()
         .spanBuilder("IdstoreLogin")
         .startSpan();
 
+    final var timeThen = System.nanoTime();
+    var succeeded = false;
+    var cached = false;
     try (var ignored = span.makeCurrent()) {
-      try (var client = idClients.createClient()) {
-        final var result =
-          client.connectOrThrow(clientCredentials);
-        final var resultM =
-          (IdUResponseLogin) result;
-
-        userId = resultM.user().id();
-      } catch (final IdUClientException e) {
-        span.setAttribute("idstore.errorCode", e.errorCode().id());
-        return AzA1Errors.errorResponseOf(
-          messages,
-          information,
-          AzAResponseBlame.BLAME_CLIENT,
-          new AzException(
-            e.getMessage(),
-            e,
-            AzStandardErrorCodes.errorAuthentication(),
-            e.attributes(),
-            e.remediatingAction()
-          )
+      final var result =
+        idClients.login(
+          login.userName().value(),
+          login.password(),
+          clientMetadata
         );
-      } catch (final InterruptedException e) {
-        throw new IllegalStateException(e);
-      }
+
+      userId = result.userId();
+      cached = result.cached();
+      succeeded = true;
+      span.setAttribute("idstore.cached", cached);
+    } catch (final IdUClientException e) {
+      span.setAttribute("idstore.errorCode", e.errorCode().id());
+      return AzA1Errors.errorResponseOf(
+        messages,
+        information,
+        AzAResponseBlame.BLAME_CLIENT,
+        new AzException(
+          e.getMessage(),
+          e,
+          AzStandardErrorCodes.errorAuthentication(),
+          e.attributes(),
+          e.remediatingAction()
+        )
+      );
+    } catch (final InterruptedException e) {
+      throw new IllegalStateException(e);
     } finally {
+      if (!cached) {
+        metrics.onIdstoreLogin(System.nanoTime() - timeThen, succeeded);
+      }
       span.end();
     }
 
     /*
-     * Merge in the user's latest username and credentials.
+     * Merge in the user's latest username and credentials, record the
+     * login, and create the session, all in one transaction.
      */
 
-    var icUser =
+    final var icUser =
       new AzUser(
         new AzUserID(userId),
         login.userName(),
         new MSubject(Set.of()));
 
-    try {
-      icUser = AzDatabaseUserUpdates.userMerge(database, icUser);
+    final var userGeneration =
+      userCache.generation(icUser.userId());
+
+    final AzUser user;
+    final AzSession session;
+    try (var connection = admission.openConnection(database)) {
+      try (var transaction = connection.openTransaction()) {
+        transaction.setUserID(icUser.userId());
+        user = AzDatabaseUserUpdates.userMerge(transaction, icUser);
+        session = createNewSession(
+          sessions,
+          information,
+          transaction,
+          login,
+          user
+        );
+      }
     } catch (final DDatabaseException e) {
+      setSpanErrorCode(new AzErrorCode(e.errorCode()));
       return AzA1Errors.errorResponseOf(
         messages,
         information,
@@ -239,78 +278,72 @@ public final class AzA1HandlerLogin extends AzHTTPHandlerFunctional
         e);
     }
 
-    return createNewSession(
-      messages,
-      sessions,
-      information,
-      transaction,
-      login,
-      icUser,
-      sessionDuration
+    userCache.put(user, userGeneration);
+
+    final var cookie =
+      new AzHTTPCookieDeclaration(
+        "AZENO_ASSET_SESSION",
+        session.id().value(),
+        sessionDuration
+      );
+
+    return new AzHTTPResponseFixedSize(
+      200,
+      Set.of(cookie),
+      AzA1Messages.contentType(),
+      messages.serialize(
+        new AzAResponseLogin(
+          information.requestID(),
+          user.userId()
+        )
+      )
     );
   }
 
-
   /**
-   * Create a new session.
+   * Create a new session and commit the transaction. The session is
+   * discarded if the transaction cannot be committed.
    */
 
-  private static AzHTTPResponseType createNewSession(
-    final AzA1Messages messages,
+  private static AzSession createNewSession(
     final AzSessionService sessions,
     final AzHTTPRequestInformation information,
     final AzDatabaseTransactionType transaction,
     final AzACommandLogin login,
-    final AzUser icUser,
-    final Duration sessionDuration)
+    final AzUser user)
+    throws DDatabaseException
   {
+    transaction.query(AzAuditPutType.class)
+      .execute(new AzAuditEvent(
+        0L,
+        OffsetDateTime.now(),
+        user.userId(),
+        "USER_LOGGED_IN",
+        Map.ofEntries(
+          entry("Host", information.remoteAddress()),
+          entry("UserAgent", information.userAgent())
+        )
+      ));
+
     final var session =
       sessions.createSession(
-        icUser.userId(),
+        transaction,
+        user.userId(),
         login.userName(),
-        icUser.subject()
+        user.subject()
       );
 
     try {
-      transaction.query(AzAuditPutType.class)
-        .execute(new AzAuditEvent(
-          0L,
-          OffsetDateTime.now(),
-          icUser.userId(),
-          "USER_LOGGED_IN",
-          Map.ofEntries(
-            entry("Host", information.remoteAddress()),
-            entry("UserAgent", information.userAgent())
-          )
-        ));
-
       transaction.commit();
     } catch (final DDatabaseException e) {
-      return AzA1Errors.errorResponseOf(
-        messages,
-        information,
-        AzAResponseBlame.BLAME_SERVER,
-        e);
+      try {
+        sessions.deleteSession(session.id());
+      } catch (final DDatabaseException ex) {
+        e.addSuppressed(ex);
+      }
+      throw e;
     }
-
-    final var cookie =
-      new AzHTTPCookieDeclaration(
-        "AZENO_ASSET_SESSION",
-        session.id().value(),
-        sessionDuration
-      );
-
-    return new AzHTTPResponseFixedSize(
-      200,
-      Set.of(cookie),
-      AzA1Messages.contentType(),
-      messages.serialize(
-        new AzAResponseLogin(
-          information.requestID(),
-          icUser.userId()
-        )
-      )
-    );
+    return session;
   }
 
   private static AzACommandLogin readLoginCommand(
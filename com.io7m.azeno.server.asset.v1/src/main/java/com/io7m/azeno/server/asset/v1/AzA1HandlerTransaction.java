@@ -30,9 +30,11 @@ import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
 import com.io7m.azeno.server.controller.asset.AzACommandContext;
 import com.io7m.azeno.server.controller.asset.AzACommandExecutor;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
+import com.io7m.azeno.server.http.AzHTTPAdmissionTicket;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctional;
 import com.io7m.azeno.server.http.AzHTTPHandlerFunctionalCoreType;
 import com.io7m.azeno.server.http.AzHTTPRequestInformation;
+import com.io7m.azeno.server.http.AzHTTPResponseStreamed;
 import com.io7m.azeno.server.http.AzHTTPResponseType;
 import com.io7m.azeno.server.service.reqlimit.AzRequestLimitExceeded;
 import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
@@ -43,6 +45,7 @@ import com.io7m.azeno.strings.AzStrings;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.repetoir.core.RPServiceDirectoryType;
 import io.helidon.webserver.http.ServerRequest;
+import io.opentelemetry.context.Context;
 
 import java.io.IOException;
 import java.io.InputStream;
@@ -52,17 +55,30 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_CLIENT;
 import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_SERVER;
 import static com.io7m.azeno.server.asset.v1.AzA1Errors.errorOf;
 import static com.io7m.azeno.server.asset.v1.AzA1Errors.transactionResponseOf;
+import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreAdmitted.withAdmission;
+import static com.io7m.azeno.server.asset.v1.AzA1HandlerCoreLimited.withAddressLimits;
+import static com.io7m.azeno.server.http.AzHTTPHandlerCoreCompressed.withCompression;
 import static com.io7m.azeno.server.http.AzHTTPHandlerCoreInstrumented.withInstrumentation;
 import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
 import static com.io7m.azeno.strings.AzStringConstants.ERROR_COMMAND_NOT_HERE;
 
 /**
  * The schema_v1 transaction servlet.
+ *
+ * <p>By default, the entire request is read and parsed before any command is
+ * executed, and the entire response is assembled before it is sent. If the
+ * request carries a {@code stream=true} query parameter, the servlet instead
+ * reads, executes, and responds to one framed command at a time, writing each
+ * framed response to a chunked response body as soon as it is available. The
+ * framing of the request and response bodies is identical in both modes.</p>
+ *
+ * @see AzA1TransactionStreamed
  */
 
 public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
@@ -90,48 +106,121 @@ public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
       services.requireService(AzStrings.class);
     final var telemetry =
       services.requireService(AzServerTelemetryServiceType.class);
+    final var executor =
+      new AzACommandExecutor(services);
+    final var streamed =
+      AzA1TransactionStreamed.create(services);
 
     final var authenticated =
       AzA1HandlerCoreAuthenticated.withAuthentication(services, (req1, info1, session, user) -> {
-        return AzA1HandlerCoreTransactional.withTransaction(services, (req2, info2, transaction) -> {
-          return execute(
-            services,
-            req2,
-            info2,
-            messages,
-            telemetry,
-            limits,
-            strings,
-            session,
-            transaction
-          );
-        }).execute(req1, info1);
+        if (isStreamingRequested(req1)) {
+          return executeStreamedResponse(streamed, req1, info1, session);
+        }
+
+        return execute(
+          services,
+          executor,
+          req1,
+          info1,
+          messages,
+          telemetry,
+          limits,
+          strings,
+          session
+        );
       });
 
-    return withInstrumentation(services, authenticated);
+    return withInstrumentation(
+      services,
+      withAddressLimits(
+        services,
+        withAdmission(
+          services,
+          withCompression(services, authenticated)
+        )
+      )
+    );
   }
 
   private static AzHTTPResponseType execute(
     final RPServiceDirectoryType services,
+    final AzACommandExecutor executor,
     final ServerRequest request,
     final AzHTTPRequestInformation information,
     final AzA1Messages messages,
     final AzServerTelemetryServiceType telemetry,
     final AzRequestLimits limits,
     final AzStrings strings,
+    final AzSession session)
+  {
+    final List<AzAMessageType> messagesParsed;
+    try (var input = limits.boundedMaximumInput(request, 1048576L)) {
+      messagesParsed = parseMessages(telemetry, strings, messages, input);
+    } catch (final IOException e) {
+      setSpanErrorCode(AzStandardErrorCodes.errorIo());
+      return respond(messages, errorListOf(errorOf(information, BLAME_SERVER, e)));
+    } catch (final AzRequestLimitExceeded | AzProtocolException e) {
+      setSpanErrorCode(e.errorCode());
+      return respond(messages, errorListOf(errorOf(information, BLAME_CLIENT, e)));
+    }
+
+    AzHTTPAdmissionTicket.onRequestBodyRead(request);
+
+    /*
+     * The whole transaction has been parsed before a database transaction
+     * is opened, so a transaction consisting solely of read-only commands
+     * can be routed to the read replica.
+     */
+
+    final var readOnly =
+      messagesParsed.stream()
+        .allMatch(m -> {
+          return m instanceof final AzACommandType<?> c
+                 && AzACommandExecutor.isReadOnly(c);
+        });
+
+    return AzA1HandlerCoreTransactional.withTransaction(services, readOnly, (req2, info2, transaction) -> {
+      return executeParsed(
+        services,
+        executor,
+        info2,
+        messages,
+        telemetry,
+        strings,
+        session,
+        messagesParsed,
+        transaction
+      );
+    }).execute(request, information);
+  }
+
+  private static ArrayList<AzAResponseType> errorListOf(
+    final AzAResponseError error)
+  {
+    final var results = new ArrayList<AzAResponseType>(1);
+    results.add(error);
+    return results;
+  }
+
+  private static AzHTTPResponseType executeParsed(
+    final RPServiceDirectoryType services,
+    final AzACommandExecutor executor,
+    final AzHTTPRequestInformation information,
+    final AzA1Messages messages,
+    final AzServerTelemetryServiceType telemetry,
+    final AzStrings strings,
     final AzSession session,
+    final List<AzAMessageType> messagesParsed,
     final AzDatabaseTransactionType transaction)
   {
     final var results = new ArrayList<AzAResponseType>(16);
-    try (var input = limits.boundedMaximumInput(request, 1048576L)) {
-      final var messagesParsed =
-        parseMessages(telemetry, strings, messages, input);
-
+    try {
       for (final var message : messagesParsed) {
         if (message instanceof final AzACommandType<?> command) {
           final var r =
             executeCommand(
               services,
+              executor,
               information,
               session,
               command,
@@ -160,14 +249,6 @@ public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
 
       commit(telemetry, transaction);
       return respond(messages, results);
-    } catch (final IOException e) {
-      setSpanErrorCode(AzStandardErrorCodes.errorIo());
-      results.add(errorOf(information, BLAME_SERVER, e));
-      return respond(messages, results);
-    } catch (final AzRequestLimitExceeded | AzProtocolException e) {
-      setSpanErrorCode(e.errorCode());
-      results.add(errorOf(information, BLAME_CLIENT, e));
-      return respond(messages, results);
     } catch (final DDatabaseException e) {
       setSpanErrorCode(new AzErrorCode(e.errorCode()));
       results.add(errorOf(information, BLAME_SERVER, e));
@@ -175,6 +256,44 @@ public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
     }
   }
 
+  private static boolean isStreamingRequested(
+    final ServerRequest request)
+  {
+    final var query = request.query();
+    return query.contains("stream") && "true".equals(query.get("stream"));
+  }
+
+  private static AzHTTPResponseType executeStreamedResponse(
+    final AzA1TransactionStreamed streamed,
+    final ServerRequest request,
+    final AzHTTPRequestInformation information,
+    final AzSession session)
+  {
+    /*
+     * The response body is written after this method returns, so the
+     * current telemetry context is captured in order that the spans created
+     * during execution are attached to this request.
+     */
+
+    final var context = Context.current();
+    return new AzHTTPResponseStreamed(
+      200,
+      Set.of(),
+      AzA1Messages.contentTypeForSequence(),
+      output -> {
+        try (var ignored = context.makeCurrent()) {
+          streamed.execute(
+            information,
+            session,
+            request.content().inputStream(),
+            output,
+            () -> AzHTTPAdmissionTicket.onRequestBodyRead(request)
+          );
+        }
+      }
+    );
+  }
+
   private static AzHTTPResponseType respond(
     final AzA1Messages messages,
     final ArrayList<AzAResponseType> results)
@@ -241,22 +360,9 @@ public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
     final var results = new ArrayList<byte[]>();
     try (var ignored = readSpan.makeCurrent()) {
       while (true) {
-        final var size =
-          input.readNBytes(4);
+        final var messageSize =
+          parseMessageReadSize(strings, input);
 
-        if (size.length != 4) {
-          throw new AzProtocolException(
-            strings.format(AzStringConstants.ERROR_IO),
-            AzStandardErrorCodes.errorApiMisuse(),
-            Map.of(),
-            Optional.empty()
-          );
-        }
-
-        final var sizeBuffer = ByteBuffer.wrap(size);
-        sizeBuffer.order(ByteOrder.BIG_ENDIAN);
-
-        final var messageSize = sizeBuffer.getInt(0);
         if (messageSize == 0) {
           return List.copyOf(results);
         }
@@ -268,17 +374,43 @@ public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
     }
   }
 
-  private static AzAResponseType executeCommand(
+  static int parseMessageReadSize(
+    final AzStrings strings,
+    final InputStream input)
+    throws IOException, AzProtocolException
+  {
+    final var size =
+      input.readNBytes(4);
+
+    if (size.length != 4) {
+      throw errorTruncated(strings);
+    }
+
+    final var sizeBuffer = ByteBuffer.wrap(size);
+    sizeBuffer.order(ByteOrder.BIG_ENDIAN);
+    return sizeBuffer.getInt(0);
+  }
+
+  static AzProtocolException errorTruncated(
+    final AzStrings strings)
+  {
+    return new AzProtocolException(
+      strings.format(AzStringConstants.ERROR_IO),
+      AzStandardErrorCodes.errorApiMisuse(),
+      Map.of(),
+      Optional.empty()
+    );
+  }
+
+  static AzAResponseType executeCommand(
     final RPServiceDirectoryType services,
+    final AzACommandExecutor executor,
     final AzHTTPRequestInformation information,
     final AzSession session,
     final AzACommandType<?> command,
     final AzDatabaseTransactionType transaction)
     throws DDatabaseException
   {
-    final var executor =
-      new AzACommandExecutor();
-
     final var context =
       new AzACommandContext(
         services,
@@ -297,7 +429,7 @@ public final class AzA1HandlerTransaction extends AzHTTPHandlerFunctional
     }
   }
 
-  private static void commit(
+  static void commit(
     final AzServerTelemetryServiceType telemetry,
     final AzDatabaseTransactionType transaction)
     throws DDatabaseException
@@ -97,9 +97,9 @@ public final class AzA1HandlerVersions
     return new VProtocols(List.of(
       new VProtocolSupported(
         AzA1Messages.protocolId(),
-        1L,
+        AzA1Messages.protocolVersion(),
         0L,
-        "/asset/1/0/"
+        "/asset/2/0/"
       )
     ));
   }
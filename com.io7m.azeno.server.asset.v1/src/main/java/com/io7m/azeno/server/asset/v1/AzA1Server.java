@@ -87,13 +87,13 @@ public final class AzA1Server
         ))
         .get("/", new AzA1HandlerVersions(services))
         .post(
-          "/asset/1/0/login",
+          "/asset/2/0/login",
           new AzA1HandlerLogin(services))
         .post(
-          "/asset/1/0/command",
+          "/asset/2/0/command",
           new AzA1HandlerCommand(services))
         .post(
-          "/asset/1/0/transaction",
+          "/asset/2/0/transaction",
           new AzA1HandlerTransaction(services))
         .get("/version", new AzA1HandlerVersion(services))
         .get("/health", new AzA1HandlerHealth(services));
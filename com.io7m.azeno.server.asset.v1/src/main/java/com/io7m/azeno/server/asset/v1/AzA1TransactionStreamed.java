@@ -0,0 +1,341 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.asset.v1;
+
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.error_codes.AzErrorCode;
+import com.io7m.azeno.error_codes.AzStandardErrorCodes;
+import com.io7m.azeno.protocol.api.AzProtocolException;
+import com.io7m.azeno.protocol.asset.AzACommandType;
+import com.io7m.azeno.protocol.asset.AzAMessageType;
+import com.io7m.azeno.protocol.asset.AzAResponseError;
+import com.io7m.azeno.protocol.asset.AzAResponseType;
+import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.controller.asset.AzACommandExecutor;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
+import com.io7m.azeno.server.http.AzHTTPRequestInformation;
+import com.io7m.azeno.server.service.clock.AzServerClock;
+import com.io7m.azeno.server.service.reqlimit.AzRequestLimitExceeded;
+import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
+import com.io7m.azeno.server.service.sessions.AzSession;
+import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType;
+import com.io7m.azeno.strings.AzStrings;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_CLIENT;
+import static com.io7m.azeno.protocol.asset.AzAResponseBlame.BLAME_SERVER;
+import static com.io7m.azeno.server.asset.v1.AzA1Errors.errorOf;
+import static com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType.setSpanErrorCode;
+import static com.io7m.azeno.strings.AzStringConstants.ERROR_COMMAND_NOT_HERE;
+import static com.io7m.azeno.strings.AzStringConstants.ERROR_STREAM_TIMEOUT;
+
+/**
+ * The execution of transactions in streaming mode. Commands are read,
+ * executed, and responded to one at a time, so the memory required is
+ * proportional to the size of the largest message rather than the size of
+ * the batch. The status code has already been sent by the time any command
+ * executes, so failures are reported solely through an error response as the
+ * final message in the body. As with the buffered mode, the transaction is
+ * committed only if every command succeeds.
+ *
+ * <p>A database connection and transaction are held while the client sends
+ * the request body, so the body is read subject to timeouts: each message
+ * must arrive within the idle timeout, and the whole body must arrive within
+ * the total timeout. The transaction of a client that sends too slowly is
+ * rolled back, and the client receives an error.</p>
+ */
+
+public final class AzA1TransactionStreamed
+{
+  private static final Duration IDLE_TIMEOUT =
+    Duration.ofSeconds(30L);
+  private static final Duration TOTAL_TIMEOUT =
+    Duration.ofMinutes(5L);
+
+  private final RPServiceDirectoryType services;
+  private final AzA1Messages messages;
+  private final AzStrings strings;
+  private final AzServerTelemetryServiceType telemetry;
+  private final AzDatabaseType database;
+  private final AzRequestLimits limits;
+  private final AzHTTPAdmissionController admission;
+  private final AzServerClock clock;
+  private final AzACommandExecutor executor;
+  private final long idleTimeoutNanos;
+  private final long totalTimeoutNanos;
+
+  /**
+   * The execution of transactions in streaming mode.
+   *
+   * @param inServices     The services
+   * @param inIdleTimeout  The maximum time to wait for each message
+   * @param inTotalTimeout The maximum time to wait for the whole request body
+   */
+
+  public AzA1TransactionStreamed(
+    final RPServiceDirectoryType inServices,
+    final Duration inIdleTimeout,
+    final Duration inTotalTimeout)
+  {
+    this.services =
+      Objects.requireNonNull(inServices, "services");
+    this.messages =
+      inServices.requireService(AzA1Messages.class);
+    this.strings =
+      inServices.requireService(AzStrings.class);
+    this.telemetry =
+      inServices.requireService(AzServerTelemetryServiceType.class);
+    this.database =
+      inServices.requireService(AzDatabaseType.class);
+    this.limits =
+      inServices.requireService(AzRequestLimits.class);
+    this.admission =
+      inServices.requireService(AzHTTPAdmissionController.class);
+    this.clock =
+      inServices.requireService(AzServerClock.class);
+    this.executor =
+      new AzACommandExecutor(inServices);
+    this.idleTimeoutNanos =
+      Objects.requireNonNull(inIdleTimeout, "idleTimeout").toNanos();
+    this.totalTimeoutNanos =
+      Objects.requireNonNull(inTotalTimeout, "totalTimeout").toNanos();
+  }
+
+  /**
+   * The execution of transactions in streaming mode, using the default
+   * timeouts.
+   *
+   * @param services The services
+   *
+   * @return The streamed execution
+   */
+
+  public static AzA1TransactionStreamed create(
+    final RPServiceDirectoryType services)
+  {
+    return new AzA1TransactionStreamed(services, IDLE_TIMEOUT, TOTAL_TIMEOUT);
+  }
+
+  /**
+   * Execute a transaction, reading framed commands from the given input and
+   * writing framed responses to the given output.
+   *
+   * @param information The request information
+   * @param session     The user session
+   * @param input       The request body
+   * @param output      The response body
+   * @param onBodyRead  A function evaluated once the request body has been
+   *                    read completely
+   *
+   * @throws IOException On I/O errors writing the response
+   */
+
+  public void execute(
+    final AzHTTPRequestInformation information,
+    final AzSession session,
+    final InputStream input,
+    final OutputStream output,
+    final Runnable onBodyRead)
+    throws IOException
+  {
+    Objects.requireNonNull(information, "information");
+    Objects.requireNonNull(session, "session");
+    Objects.requireNonNull(input, "input");
+    Objects.requireNonNull(output, "output");
+    Objects.requireNonNull(onBodyRead, "onBodyRead");
+
+    final var dataOut =
+      new DataOutputStream(output);
+
+    try (var connection = this.admission.openConnection(this.database)) {
+      try (var transaction = connection.openTransaction()) {
+        final var deadline =
+          this.clock.nanoTime() + this.totalTimeoutNanos;
+
+        while (true) {
+          final Optional<AzAMessageType> next;
+          try {
+            next = this.readMessageWithin(input, deadline);
+          } catch (final IOException e) {
+            setSpanErrorCode(AzStandardErrorCodes.errorIo());
+            this.writeResponse(dataOut, errorOf(information, BLAME_SERVER, e));
+            break;
+          } catch (final AzRequestLimitExceeded | AzProtocolException e) {
+            setSpanErrorCode(e.errorCode());
+            this.writeResponse(dataOut, errorOf(information, BLAME_CLIENT, e));
+            break;
+          }
+
+          if (next.isEmpty()) {
+            onBodyRead.run();
+            AzA1HandlerTransaction.commit(this.telemetry, transaction);
+            break;
+          }
+
+          if (next.get() instanceof final AzACommandType<?> command) {
+            final var r =
+              AzA1HandlerTransaction.executeCommand(
+                this.services,
+                this.executor,
+                information,
+                session,
+                command,
+                transaction
+              );
+
+            this.writeResponse(dataOut, r);
+            if (r instanceof AzAResponseError) {
+              break;
+            }
+            continue;
+          }
+
+          this.writeResponse(dataOut, errorOf(
+            information,
+            BLAME_CLIENT,
+            new AzProtocolException(
+              this.strings.format(ERROR_COMMAND_NOT_HERE),
+              AzStandardErrorCodes.errorApiMisuse(),
+              Map.of(),
+              Optional.empty()
+            )));
+          break;
+        }
+      }
+    } catch (final DDatabaseException e) {
+      setSpanErrorCode(new AzErrorCode(e.errorCode()));
+      this.writeResponse(dataOut, errorOf(information, BLAME_SERVER, e));
+    }
+
+    dataOut.writeInt(0);
+    dataOut.flush();
+  }
+
+  /**
+   * Read the next message, waiting no longer than the idle timeout and not
+   * past the given deadline. Blocking reads cannot be abandoned, so each
+   * message is read on a virtual thread of its own; a read that times out
+   * is left to fail when the connection is closed after the response has
+   * been written.
+   */
+
+  private Optional<AzAMessageType> readMessageWithin(
+    final InputStream input,
+    final long deadline)
+    throws IOException, AzProtocolException, AzRequestLimitExceeded
+  {
+    final var future =
+      new CompletableFuture<Optional<AzAMessageType>>();
+
+    Thread.ofVirtual()
+      .name("azeno-transaction-stream-read")
+      .start(() -> {
+        try {
+          future.complete(this.readMessage(input));
+        } catch (final Throwable e) {
+          future.completeExceptionally(e);
+        }
+      });
+
+    final var wait =
+      Math.min(this.idleTimeoutNanos, deadline - this.clock.nanoTime());
+
+    try {
+      return future.get(Math.max(0L, wait), TimeUnit.NANOSECONDS);
+    } catch (final TimeoutException e) {
+      throw new AzProtocolException(
+        this.strings.format(ERROR_STREAM_TIMEOUT),
+        AzStandardErrorCodes.errorIo(),
+        Map.of(),
+        Optional.empty()
+      );
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException(e);
+    } catch (final ExecutionException e) {
+      final var cause = e.getCause();
+      if (cause instanceof final IOException x) {
+        throw x;
+      }
+      if (cause instanceof final AzProtocolException x) {
+        throw x;
+      }
+      if (cause instanceof final AzRequestLimitExceeded x) {
+        throw x;
+      }
+      if (cause instanceof final RuntimeException x) {
+        throw x;
+      }
+      if (cause instanceof final Error x) {
+        throw x;
+      }
+      throw new IOException(cause);
+    }
+  }
+
+  private Optional<AzAMessageType> readMessage(
+    final InputStream input)
+    throws IOException, AzProtocolException, AzRequestLimitExceeded
+  {
+    final var size =
+      AzA1HandlerTransaction.parseMessageReadSize(this.strings, input);
+
+    if (size == 0) {
+      return Optional.empty();
+    }
+
+    this.limits.checkMessageSize(Integer.toUnsignedLong(size));
+
+    final var data = input.readNBytes(size);
+    if (data.length != size) {
+      throw AzA1HandlerTransaction.errorTruncated(this.strings);
+    }
+    return Optional.of(this.messages.parse(data));
+  }
+
+  private void writeResponse(
+    final DataOutputStream output,
+    final AzAResponseType response)
+    throws IOException
+  {
+    final var data = this.messages.serialize(response);
+    output.writeInt(data.length);
+    output.write(data);
+    output.flush();
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzA1TransactionStreamed 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
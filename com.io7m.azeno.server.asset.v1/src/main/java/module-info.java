@@ -45,6 +45,7 @@ module com.io7m.azeno.server.asset.v1
   requires com.io7m.verdant.core;
   requires io.helidon.webserver;
   requires io.opentelemetry.api;
+  requires io.opentelemetry.context;
   requires org.slf4j;
   requires com.io7m.idstore.protocol.user;
   requires com.io7m.idstore.user_client.api;
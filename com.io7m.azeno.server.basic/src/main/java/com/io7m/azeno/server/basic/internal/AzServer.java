@@ -18,6 +18,7 @@ package com.io7m.azeno.server.basic.internal;
 
 import com.io7m.azeno.database.api.AzDatabaseConfiguration;
 import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzSecretGetType;
 import com.io7m.azeno.database.api.AzUserPutType;
 import com.io7m.azeno.error_codes.AzErrorCode;
 import com.io7m.azeno.model.AzUser;
@@ -29,15 +30,22 @@ import com.io7m.azeno.server.api.AzServerConfiguration;
 import com.io7m.azeno.server.api.AzServerException;
 import com.io7m.azeno.server.api.AzServerType;
 import com.io7m.azeno.server.asset.v1.AzA1Server;
+import com.io7m.azeno.server.controller.asset.AzAuditSearchCursors;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
+import com.io7m.azeno.server.http.AzHTTPCompression;
 import com.io7m.azeno.server.service.clock.AzServerClock;
 import com.io7m.azeno.server.service.configuration.AzConfigurationService;
 import com.io7m.azeno.server.service.configuration.AzConfigurationServiceType;
 import com.io7m.azeno.server.service.health.AzServerHealth;
 import com.io7m.azeno.server.service.idstore.AzIdstoreClients;
 import com.io7m.azeno.server.service.idstore.AzIdstoreClientsType;
+import com.io7m.azeno.server.service.maintenance.AzJobService;
+import com.io7m.azeno.server.service.maintenance.AzJobServiceConfiguration;
 import com.io7m.azeno.server.service.maintenance.AzMaintenanceService;
 import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
 import com.io7m.azeno.server.service.sessions.AzSessionService;
+import com.io7m.azeno.server.service.sessions.AzSessionStoreDatabase;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
 import com.io7m.azeno.server.service.telemetry.api.AzMetricsService;
 import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
 import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryNoOp;
@@ -59,6 +67,7 @@ import io.opentelemetry.api.trace.SpanKind;
 import io.opentelemetry.api.trace.StatusCode;
 
 import java.time.Duration;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
@@ -184,6 +193,7 @@ public final class AzServer implements AzServerType
 
   private RPServiceDirectoryType createServiceDirectory(
     final AzDatabaseType newDatabase)
+    throws DDatabaseException
   {
     final var services = new RPServiceDirectory();
     final var strings = this.configuration.strings();
@@ -198,12 +208,18 @@ public final class AzServer implements AzServerType
     final var metrics = new AzMetricsService(this.telemetry);
     services.register(AzMetricsServiceType.class, metrics);
 
+    services.register(
+      AzHTTPCompression.class,
+      AzHTTPCompression.createDefault()
+    );
+
     final var health = AzServerHealth.create(services);
     services.register(AzServerHealth.class, health);
 
     final var sessionAssetService =
       new AzSessionService(
         metrics,
+        new AzSessionStoreDatabase(newDatabase),
         this.configuration.assetApiConfiguration()
           .sessionExpiration()
           .orElseGet(() -> Duration.ofDays(3650L))
@@ -211,6 +227,18 @@ public final class AzServer implements AzServerType
 
     services.register(AzSessionService.class, sessionAssetService);
 
+    final var userCache =
+      new AzUserCache(metrics, 10_000L, Duration.ofMinutes(5L));
+    services.register(AzUserCache.class, userCache);
+    this.resources.add(
+      newDatabase.listen(List.of(AzUserCache.CHANNEL), userCache)
+    );
+
+    services.register(
+      AzAuditSearchCursors.class,
+      new AzAuditSearchCursors(searchCursorKey(newDatabase))
+    );
+
     final var idstore =
       AzIdstoreClients.create(
         this.configuration.locale(),
@@ -245,11 +273,29 @@ public final class AzServer implements AzServerType
       );
     services.register(AzMaintenanceService.class, maintenance);
 
+    final var jobs =
+      AzJobService.create(
+        this.database,
+        metrics,
+        AzJobServiceConfiguration.defaults(),
+        List.of()
+      );
+    services.register(AzJobService.class, jobs);
+
     services.register(
       AzRequestLimits.class,
-      new AzRequestLimits(configService, (final Long size) -> {
+      new AzRequestLimits(configService, metrics, (final Long size) -> {
         return strings.format(ERROR_REQUEST_TOO_LARGE, size);
       }));
+
+    services.register(
+      AzHTTPAdmissionController.class,
+      new AzHTTPAdmissionController(
+        metrics,
+        clock::nanoTime,
+        this.configuration.limitsConfiguration().admissionControl()
+      )
+    );
     return services;
   }
 
@@ -358,6 +404,27 @@ public final class AzServer implements AzServerType
     }
   }
 
+  private static byte[] searchCursorKey(
+    final AzDatabaseType database)
+    throws DDatabaseException
+  {
+    try (var connection =
+           database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        final var key =
+          transaction.query(AzSecretGetType.class)
+            .execute(new AzSecretGetType.Parameters(
+              AzAuditSearchCursors.SECRET_NAME,
+              AzAuditSearchCursors::generateKey
+            ));
+
+        transaction.commit();
+        return key;
+      }
+    }
+  }
+
   private static void setUserAsAdminSpan(
     final AzDatabaseType database,
     final AzUserID adminId,
@@ -36,6 +36,8 @@ module com.io7m.azeno.server.basic
   requires com.io7m.azeno.security;
   requires com.io7m.azeno.server.api;
   requires com.io7m.azeno.server.asset.v1;
+  requires com.io7m.azeno.server.controller;
+  requires com.io7m.azeno.server.http;
   requires com.io7m.azeno.server.service.clock;
   requires com.io7m.azeno.server.service.configuration;
   requires com.io7m.azeno.server.service.health;
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.controller.asset;
+
+import com.io7m.azeno.database.api.AzAssetPutManyType;
+import com.io7m.azeno.database.api.AzAssetSummaryGetManyType;
+import com.io7m.azeno.database.api.AzCollectionAccessGetType;
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetSummary;
+import com.io7m.azeno.model.AzCollectionAccessRequest;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.protocol.asset.AzACommandAssetPutMany;
+import com.io7m.azeno.protocol.asset.AzAResponseOK;
+import com.io7m.azeno.protocol.asset.AzAResponseType;
+import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
+import com.io7m.darco.api.DDatabaseException;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorOperationNotPermitted;
+import static com.io7m.azeno.security.AzSecurityPolicy.ASSETS;
+import static com.io7m.azeno.security.AzSecurityPolicy.WRITE;
+import static com.io7m.azeno.strings.AzStringConstants.COLLECTION_ID;
+import static com.io7m.azeno.strings.AzStringConstants.ERROR_OPERATION_NOT_PERMITTED;
+
+/**
+ * @see AzACommandAssetPutMany
+ */
+
+public final class AzACmdAssetPutMany extends AzACmdAbstract<AzACommandAssetPutMany>
+{
+  /**
+   * @see AzACommandAssetPutMany
+   */
+
+  public AzACmdAssetPutMany()
+  {
+
+  }
+
+  @Override
+  protected AzAResponseType executeActual(
+    final AzACommandContext context,
+    final AzACommandAssetPutMany command)
+    throws DDatabaseException, AzCommandExecutionFailure
+  {
+    final var transaction =
+      context.transaction();
+    final var session =
+      context.session();
+
+    /*
+     * Unless the security policy permits the subject to write any asset, the
+     * subject must be able to write to every collection named in the batch,
+     * and to every collection that currently holds an asset that the batch
+     * would overwrite; otherwise, writing an asset with an existing ID would
+     * move that asset out of a collection the subject cannot write. The
+     * existing assets are locked, so their collections cannot change before
+     * the batch is written. Access is checked once per distinct collection
+     * rather than once per asset.
+     */
+
+    if (!context.securityPermits(ASSETS, WRITE)) {
+      final var collections =
+        command.assets()
+          .stream()
+          .map(AzAsset::collection)
+          .collect(Collectors.toCollection(HashSet::new));
+
+      final var ids =
+        command.assets()
+          .stream()
+          .map(AzAsset::id)
+          .collect(Collectors.toSet());
+
+      transaction.query(AzAssetSummaryGetManyType.class)
+        .execute(ids)
+        .stream()
+        .map(AzAssetSummary::collection)
+        .forEach(collections::add);
+
+      final var accessGet =
+        transaction.query(AzCollectionAccessGetType.class);
+
+      for (final AzCollectionID collection : collections) {
+        final var access =
+          accessGet.execute(
+            new AzCollectionAccessRequest(session.userId(), collection)
+          );
+
+        if (!access.write()) {
+          throw context.failFormatted(
+            400,
+            errorOperationNotPermitted(),
+            Map.of(COLLECTION_ID, collection.toString()),
+            ERROR_OPERATION_NOT_PERMITTED
+          );
+        }
+      }
+    }
+
+    transaction.query(AzAssetPutManyType.class)
+      .execute(command.assets());
+
+    return new AzAResponseOK(context.requestId());
+  }
+}
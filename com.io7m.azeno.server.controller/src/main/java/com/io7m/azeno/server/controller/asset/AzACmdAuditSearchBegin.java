@@ -17,9 +17,8 @@
 package com.io7m.azeno.server.controller.asset;
 
 import com.io7m.azeno.database.api.AzAuditSearchType;
-import com.io7m.azeno.database.api.AzDatabaseAuditSearchType;
+import com.io7m.azeno.model.AzAuditSearchCursor;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchBegin;
-import com.io7m.azeno.protocol.asset.AzAResponseAuditSearch;
 import com.io7m.azeno.protocol.asset.AzAResponseType;
 import com.io7m.azeno.security.AzSecurityException;
 import com.io7m.darco.api.DDatabaseException;
@@ -51,20 +50,16 @@ public final class AzACmdAuditSearchBegin
   {
     context.securityCheck(AUDIT, READ);
 
-    final var transaction =
-      context.transaction();
+    final var cursors =
+      context.services()
+        .requireService(AzAuditSearchCursors.class);
     final var searchQuery =
-      transaction.query(AzAuditSearchType.class);
+      context.transaction()
+        .query(AzAuditSearchType.class);
 
-    final var search =
-      searchQuery.execute(command.parameters());
-
-    context.session()
-      .setProperty(AzDatabaseAuditSearchType.class, search);
-
-    return new AzAResponseAuditSearch(
+    return cursors.response(
       context.requestId(),
-      search.pageCurrent(transaction)
+      searchQuery.execute(AzAuditSearchCursor.first(command.parameters()))
     );
   }
 }
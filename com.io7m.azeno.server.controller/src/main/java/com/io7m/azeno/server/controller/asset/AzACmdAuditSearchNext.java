@@ -16,9 +16,8 @@
 
 package com.io7m.azeno.server.controller.asset;
 
-import com.io7m.azeno.database.api.AzDatabaseAuditSearchType;
+import com.io7m.azeno.database.api.AzAuditSearchType;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchNext;
-import com.io7m.azeno.protocol.asset.AzAResponseAuditSearch;
 import com.io7m.azeno.protocol.asset.AzAResponseType;
 import com.io7m.azeno.security.AzSecurityException;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
@@ -29,7 +28,7 @@ import java.util.Map;
 import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorApiMisuse;
 import static com.io7m.azeno.security.AzSecurityPolicy.AUDIT;
 import static com.io7m.azeno.security.AzSecurityPolicy.READ;
-import static com.io7m.azeno.strings.AzStringConstants.ERROR_SEARCH_NOT_ACTIVE;
+import static com.io7m.azeno.strings.AzStringConstants.ERROR_SEARCH_CURSOR_INVALID;
 
 /**
  * @see AzACommandAuditSearchNext
@@ -55,21 +54,28 @@ public final class AzACmdAuditSearchNext
   {
     context.securityCheck(AUDIT, READ);
 
-    final var search =
-      context.session()
-        .property(AzDatabaseAuditSearchType.class)
+    final var cursors =
+      context.services()
+        .requireService(AzAuditSearchCursors.class);
+
+    final var cursor =
+      cursors.decode(command.cursor())
         .orElseThrow(() -> {
           return context.failFormatted(
             400,
             errorApiMisuse(),
             Map.of(),
-            ERROR_SEARCH_NOT_ACTIVE
+            ERROR_SEARCH_CURSOR_INVALID
           );
         });
 
-    return new AzAResponseAuditSearch(
+    final var searchQuery =
+      context.transaction()
+        .query(AzAuditSearchType.class);
+
+    return cursors.response(
       context.requestId(),
-      search.pageNext(context.transaction())
+      searchQuery.execute(cursor)
     );
   }
 }
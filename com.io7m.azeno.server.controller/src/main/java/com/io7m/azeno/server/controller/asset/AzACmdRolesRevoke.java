@@ -23,6 +23,7 @@ import com.io7m.azeno.protocol.asset.AzACommandRolesRevoke;
 import com.io7m.azeno.protocol.asset.AzAResponseOK;
 import com.io7m.azeno.protocol.asset.AzAResponseType;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.medrina.api.MRoleName;
 import com.io7m.medrina.api.MSubject;
@@ -122,6 +123,25 @@ public final class AzACmdRolesRevoke extends AzACmdAbstract<AzACommandRolesRevok
         new MSubject(newRoles)
       )
     );
+
+    /*
+     * The user's roles have changed, so any cached copy of the user must
+     * not be used to authorize further requests. The cached copy is
+     * discarded now, and again once the change has committed in case a
+     * concurrent request cached the old roles in the meantime.
+     */
+
+    final var cache =
+      context.services()
+        .optionalService(AzUserCache.class);
+
+    if (cache.isPresent()) {
+      final var userCache = cache.get();
+      final var userId = targetUser.userId();
+      userCache.invalidate(userId);
+      context.afterCommit(() -> userCache.invalidate(userId));
+    }
+
     return new AzAResponseOK(context.requestId());
   }
 }
@@ -87,4 +87,26 @@ public final class AzACommandContext
       action
     );
   }
+
+  /**
+   * Determine whether the security policy permits the given action. This is
+   * for commands that fall back to finer-grained checks (such as per-collection
+   * access) when the policy does not grant the action outright.
+   *
+   * @param object The object
+   * @param action The action
+   *
+   * @return {@code true} if the action is permitted
+   */
+
+  public boolean securityPermits(
+    final MObject object,
+    final MActionName action)
+  {
+    return AzSecurity.isPermitted(
+      this.session().subject(),
+      object,
+      action
+    );
+  }
 }
@@ -16,6 +16,7 @@
 
 package com.io7m.azeno.server.controller.asset;
 
+import com.io7m.azeno.protocol.asset.AzACommandAssetPutMany;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchBegin;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchNext;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchPrevious;
@@ -29,6 +30,12 @@ import com.io7m.azeno.protocol.asset.AzACommandType;
 import com.io7m.azeno.protocol.asset.AzAResponseType;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutorType;
+import com.io7m.azeno.server.service.clock.AzServerClock;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+
+import java.util.Objects;
+import java.util.Optional;
 
 /**
  * A command executor for public commands.
@@ -40,13 +47,25 @@ public final class AzACommandExecutor
   AzACommandType<? extends AzAResponseType>,
   AzAResponseType>
 {
+  private final Optional<AzMetricsServiceType> metrics;
+  private final AzServerClock clock;
+
   /**
-   * A command executor for public commands.
+   * A command executor for public commands. The executor holds no state
+   * specific to any command, and may be shared between requests.
+   *
+   * @param services The services
    */
 
-  public AzACommandExecutor()
+  public AzACommandExecutor(
+    final RPServiceDirectoryType services)
   {
+    Objects.requireNonNull(services, "services");
 
+    this.metrics =
+      services.optionalService(AzMetricsServiceType.class);
+    this.clock =
+      services.requireService(AzServerClock.class);
   }
 
   @Override
@@ -60,6 +79,7 @@ public final class AzACommandExecutor
         .spanBuilder(command.getClass().getSimpleName())
         .startSpan();
 
+    final var timeThen = this.clock.nanoTime();
     try (var ignored = span.makeCurrent()) {
       context.transaction().setUserID(context.session().userId());
       return executeCommand(context, command);
@@ -68,6 +88,43 @@ public final class AzACommandExecutor
       throw e;
     } finally {
       span.end();
+      this.recordTime(command, this.clock.nanoTime() - timeThen);
+    }
+  }
+
+  /**
+   * Determine whether the given command only reads from the database. Such
+   * commands may be executed in read-only transactions, and therefore
+   * may be routed to a read replica.
+   *
+   * @param command The command
+   *
+   * @return {@code true} if the command is read-only
+   */
+
+  public static boolean isReadOnly(
+    final AzACommandType<?> command)
+  {
+    return switch (command) {
+      case final AzACommandRolesGet m -> true;
+      case final AzACommandAuditSearchBegin m -> true;
+      case final AzACommandAuditSearchNext m -> true;
+      case final AzACommandAuditSearchPrevious m -> true;
+      case final AzACommandAssetPutMany m -> false;
+      case final AzACommandRolesAssign m -> false;
+      case final AzACommandRolesRevoke m -> false;
+      case final AzACommandDebugInvalid m -> false;
+      case final AzACommandDebugRandom m -> false;
+      case final AzACommandLogin m -> false;
+    };
+  }
+
+  private void recordTime(
+    final AzACommandType<? extends AzAResponseType> command,
+    final long nanos)
+  {
+    if (this.metrics.isPresent()) {
+      this.metrics.get().onCommandTime(command.getClass(), nanos);
     }
   }
 
@@ -77,6 +134,9 @@ public final class AzACommandExecutor
     throws AzCommandExecutionFailure
   {
     return switch (command) {
+      case final AzACommandAssetPutMany m -> {
+        yield new AzACmdAssetPutMany().execute(context, m);
+      }
       case final AzACommandRolesAssign m -> {
         yield new AzACmdRolesAssign().execute(context, m);
       }
@@ -0,0 +1,394 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.controller.asset;
+
+import com.io7m.azeno.database.api.AzAuditSearchPage;
+import com.io7m.azeno.model.AzAuditSearchCursor;
+import com.io7m.azeno.model.AzAuditSearchParameters;
+import com.io7m.azeno.model.AzAuditSearchSeekType;
+import com.io7m.azeno.model.AzAuditSearchSeekType.After;
+import com.io7m.azeno.model.AzAuditSearchSeekType.Before;
+import com.io7m.azeno.model.AzAuditSearchSeekType.Start;
+import com.io7m.azeno.model.AzComparisonExactType;
+import com.io7m.azeno.model.AzTimeRange;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.model.AzValidityException;
+import com.io7m.azeno.protocol.asset.AzAResponseAuditSearch;
+import com.io7m.repetoir.core.RPServiceType;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Encoding and decoding of signed audit search cursors.
+ *
+ * <p>A cursor is a compact binary encoding of an {@link AzAuditSearchCursor}
+ * followed by a truncated HMAC-SHA256 tag, and is sent to clients as
+ * unpadded URL-safe base64. Because the cursor carries the search parameters
+ * and the key at which the page begins, any server that shares the key can
+ * continue a search, and no search state is held between requests.</p>
+ */
+
+public final class AzAuditSearchCursors implements RPServiceType
+{
+  /**
+   * The name of the secret used to sign cursors.
+   */
+
+  public static final String SECRET_NAME =
+    "com.io7m.azeno.audit_search_cursor";
+
+  /**
+   * The size of newly generated keys, in octets.
+   */
+
+  public static final int KEY_SIZE = 32;
+
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  private static final int FORMAT_VERSION = 1;
+  private static final int TAG_SIZE = 16;
+
+  private static final Base64.Encoder ENCODER =
+    Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder DECODER =
+    Base64.getUrlDecoder();
+
+  private final SecretKeySpec key;
+
+  /**
+   * Encoding and decoding of signed audit search cursors.
+   *
+   * @param inKey The signing key
+   */
+
+  public AzAuditSearchCursors(
+    final byte[] inKey)
+  {
+    Objects.requireNonNull(inKey, "key");
+
+    if (inKey.length < KEY_SIZE) {
+      throw new IllegalArgumentException(
+        "Keys must be at least %d octets.".formatted(KEY_SIZE)
+      );
+    }
+
+    this.key = new SecretKeySpec(inKey.clone(), MAC_ALGORITHM);
+  }
+
+  /**
+   * @return A new randomly generated key
+   */
+
+  public static byte[] generateKey()
+  {
+    final var data = new byte[KEY_SIZE];
+    new SecureRandom().nextBytes(data);
+    return data;
+  }
+
+  /**
+   * Produce a response for the given page.
+   *
+   * @param requestId The request ID
+   * @param page      The page
+   *
+   * @return A response
+   */
+
+  public AzAResponseAuditSearch response(
+    final UUID requestId,
+    final AzAuditSearchPage page)
+  {
+    return new AzAResponseAuditSearch(
+      requestId,
+      page.page(),
+      page.next().map(this::encode),
+      page.previous().map(this::encode)
+    );
+  }
+
+  /**
+   * Encode and sign a cursor.
+   *
+   * @param cursor The cursor
+   *
+   * @return The encoded cursor
+   */
+
+  public String encode(
+    final AzAuditSearchCursor cursor)
+  {
+    Objects.requireNonNull(cursor, "cursor");
+
+    final var bytes = new ByteArrayOutputStream(128);
+    try (var output = new DataOutputStream(bytes)) {
+      output.writeByte(FORMAT_VERSION);
+      output.writeInt(cursor.pageIndex());
+      writeSeek(output, cursor.seek());
+      writeParameters(output, cursor.parameters());
+      output.write(this.tagOf(bytes.toByteArray()));
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return ENCODER.encodeToString(bytes.toByteArray());
+  }
+
+  /**
+   * Verify and decode a cursor.
+   *
+   * @param text The encoded cursor
+   *
+   * @return The cursor, or nothing if the cursor is malformed or was not
+   * signed with this key
+   */
+
+  public Optional<AzAuditSearchCursor> decode(
+    final String text)
+  {
+    Objects.requireNonNull(text, "text");
+
+    final byte[] data;
+    try {
+      data = DECODER.decode(text);
+    } catch (final IllegalArgumentException e) {
+      return Optional.empty();
+    }
+
+    if (data.length <= TAG_SIZE) {
+      return Optional.empty();
+    }
+
+    final var payloadSize = data.length - TAG_SIZE;
+    final var payload = Arrays.copyOf(data, payloadSize);
+    final var tag = Arrays.copyOfRange(data, payloadSize, data.length);
+    if (!MessageDigest.isEqual(tag, this.tagOf(payload))) {
+      return Optional.empty();
+    }
+
+    try (var input =
+           new DataInputStream(new ByteArrayInputStream(payload))) {
+      if (input.readUnsignedByte() != FORMAT_VERSION) {
+        return Optional.empty();
+      }
+
+      final var pageIndex =
+        input.readInt();
+      final var seek =
+        readSeek(input);
+      final var parameters =
+        readParameters(input);
+
+      if (input.available() != 0) {
+        return Optional.empty();
+      }
+      return Optional.of(new AzAuditSearchCursor(parameters, pageIndex, seek));
+    } catch (final IOException | AzValidityException e) {
+      return Optional.empty();
+    }
+  }
+
+  private byte[] tagOf(
+    final byte[] payload)
+  {
+    try {
+      final var mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(this.key);
+      return Arrays.copyOf(mac.doFinal(payload), TAG_SIZE);
+    } catch (final GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static void writeSeek(
+    final DataOutputStream output,
+    final AzAuditSearchSeekType seek)
+    throws IOException
+  {
+    switch (seek) {
+      case final Start s -> {
+        output.writeByte(0);
+      }
+      case final After s -> {
+        output.writeByte(1);
+        writeInstant(output, s.time());
+        output.writeLong(s.id());
+      }
+      case final Before s -> {
+        output.writeByte(2);
+        writeInstant(output, s.time());
+        output.writeLong(s.id());
+      }
+    }
+  }
+
+  private static AzAuditSearchSeekType readSeek(
+    final DataInputStream input)
+    throws IOException
+  {
+    return switch (input.readUnsignedByte()) {
+      case 0 -> new Start();
+      case 1 -> new After(readInstant(input), input.readLong());
+      case 2 -> new Before(readInstant(input), input.readLong());
+      default -> throw new IOException("Unrecognized seek type.");
+    };
+  }
+
+  private static void writeParameters(
+    final DataOutputStream output,
+    final AzAuditSearchParameters parameters)
+    throws IOException
+  {
+    final var owner = parameters.owner();
+    output.writeBoolean(owner.isPresent());
+    if (owner.isPresent()) {
+      final var id = owner.get().id();
+      output.writeLong(id.getMostSignificantBits());
+      output.writeLong(id.getLeastSignificantBits());
+    }
+
+    switch (parameters.type()) {
+      case final AzComparisonExactType.Anything<String> e -> {
+        output.writeByte(0);
+      }
+      case final AzComparisonExactType.IsEqualTo<String> e -> {
+        output.writeByte(1);
+        output.writeUTF(e.value());
+      }
+      case final AzComparisonExactType.IsNotEqualTo<String> e -> {
+        output.writeByte(2);
+        output.writeUTF(e.value());
+      }
+    }
+
+    writeTime(output, parameters.timeRange().lower());
+    writeTime(output, parameters.timeRange().upper());
+    output.writeLong(parameters.pageSize());
+  }
+
+  private static AzAuditSearchParameters readParameters(
+    final DataInputStream input)
+    throws IOException
+  {
+    final Optional<AzUserID> owner;
+    if (input.readBoolean()) {
+      owner = Optional.of(
+        new AzUserID(new UUID(input.readLong(), input.readLong()))
+      );
+    } else {
+      owner = Optional.empty();
+    }
+
+    final AzComparisonExactType<String> type =
+      switch (input.readUnsignedByte()) {
+        case 0 -> new AzComparisonExactType.Anything<>();
+        case 1 -> new AzComparisonExactType.IsEqualTo<>(input.readUTF());
+        case 2 -> new AzComparisonExactType.IsNotEqualTo<>(input.readUTF());
+        default -> throw new IOException("Unrecognized comparison type.");
+      };
+
+    final var lower = readTime(input);
+    final var upper = readTime(input);
+    return new AzAuditSearchParameters(
+      owner,
+      type,
+      new AzTimeRange(lower, upper),
+      input.readLong()
+    );
+  }
+
+  /*
+   * Seek keys are compared as instants by the database, so the offset is
+   * not needed. The time range is part of the search parameters echoed back
+   * to the client, so its offsets are preserved.
+   */
+
+  private static void writeInstant(
+    final DataOutputStream output,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    final var instant = time.toInstant();
+    output.writeLong(instant.getEpochSecond());
+    output.writeInt(instant.getNano());
+  }
+
+  private static OffsetDateTime readInstant(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var seconds = input.readLong();
+    final var nanos = input.readInt();
+    try {
+      return Instant.ofEpochSecond(seconds, nanos).atOffset(ZoneOffset.UTC);
+    } catch (final RuntimeException e) {
+      throw new IOException(e);
+    }
+  }
+
+  private static void writeTime(
+    final DataOutputStream output,
+    final OffsetDateTime time)
+    throws IOException
+  {
+    writeInstant(output, time);
+    output.writeInt(time.getOffset().getTotalSeconds());
+  }
+
+  private static OffsetDateTime readTime(
+    final DataInputStream input)
+    throws IOException
+  {
+    final var time = readInstant(input);
+    try {
+      return time.withOffsetSameInstant(
+        ZoneOffset.ofTotalSeconds(input.readInt())
+      );
+    } catch (final RuntimeException e) {
+      throw new IOException(e);
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Audit search cursor service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzAuditSearchCursors 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
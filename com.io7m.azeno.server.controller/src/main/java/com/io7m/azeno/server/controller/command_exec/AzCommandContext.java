@@ -184,6 +184,22 @@ public abstract class AzCommandContext<E extends AzProtocolMessageType>
     return this.transaction;
   }
 
+  /**
+   * Run the given action after the database transaction commits
+   * successfully. The action is discarded if the transaction does not
+   * commit.
+   *
+   * @param action The action
+   *
+   * @see AzDatabaseTransactionType#afterCommit(Runnable)
+   */
+
+  public final void afterCommit(
+    final Runnable action)
+  {
+    this.transaction.afterCommit(action);
+  }
+
   /**
    * Localize the given string.
    *
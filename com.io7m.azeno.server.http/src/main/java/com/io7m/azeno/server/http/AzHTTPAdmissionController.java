@@ -0,0 +1,288 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.server.api.AzServerAdmissionControlConfiguration;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * <p>Adaptive admission control.</p>
+ *
+ * <p>The controller maintains a limit on the number of requests in progress,
+ * and rejects requests that would exceed it. The limit is adjusted using
+ * additive increase and multiplicative decrease: each request that completes
+ * within the latency threshold whilst the limit is in use raises the limit
+ * by the reciprocal of the limit (so, by roughly one per limit's worth of
+ * requests), and each request that exceeds the latency threshold, or each
+ * wait for a database connection that exceeds the connection wait
+ * threshold, lowers the limit by a constant ratio. Decreases are applied at
+ * most once per latency threshold, so that one burst of slow requests does
+ * not collapse the limit to the minimum.</p>
+ *
+ * <p>Rejecting excess requests early means that requests that are admitted
+ * do not queue for database connections behind requests that will time out
+ * anyway.</p>
+ */
+
+public final class AzHTTPAdmissionController implements RPServiceType
+{
+  private static final double BACKOFF_RATIO = 0.9;
+
+  private final AzMetricsServiceType metrics;
+  private final LongSupplier clock;
+  private final AzServerAdmissionControlConfiguration configuration;
+  private final long latencyThresholdNanos;
+  private final long connectionWaitThresholdNanos;
+  private final long retryAfterSeconds;
+  private final AtomicInteger inFlight;
+  private final AtomicLong limitBits;
+  private final AtomicLong decreasedAt;
+
+  /**
+   * Adaptive admission control.
+   *
+   * @param inMetrics       The metrics
+   * @param inClock         A monotonic clock in nanoseconds
+   * @param inConfiguration The configuration, if admission control is enabled
+   */
+
+  public AzHTTPAdmissionController(
+    final AzMetricsServiceType inMetrics,
+    final LongSupplier inClock,
+    final Optional<AzServerAdmissionControlConfiguration> inConfiguration)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+
+    Objects.requireNonNull(inConfiguration, "configuration");
+    this.configuration =
+      inConfiguration.orElse(null);
+
+    this.inFlight =
+      new AtomicInteger(0);
+    this.limitBits =
+      new AtomicLong();
+    this.decreasedAt =
+      new AtomicLong(this.clock.getAsLong());
+
+    if (this.configuration != null) {
+      this.latencyThresholdNanos =
+        this.configuration.latencyThreshold().toNanos();
+      this.connectionWaitThresholdNanos =
+        this.configuration.connectionWaitThreshold().toNanos();
+      this.retryAfterSeconds =
+        Math.max(
+          1L,
+          this.configuration.latencyThreshold()
+            .plusNanos(999_999_999L)
+            .toSeconds()
+        );
+      this.setLimit(this.configuration.initialConcurrency());
+    } else {
+      this.latencyThresholdNanos = Long.MAX_VALUE;
+      this.connectionWaitThresholdNanos = Long.MAX_VALUE;
+      this.retryAfterSeconds = 1L;
+    }
+  }
+
+  /**
+   * Try to admit a request. The returned ticket must be closed when the
+   * request completes.
+   *
+   * @return The ticket, or nothing if the request is rejected
+   */
+
+  public Optional<AzHTTPAdmissionTicket> tryAdmit()
+  {
+    if (this.configuration == null) {
+      return Optional.of(AzHTTPAdmissionTicket.unlimited());
+    }
+
+    final var limit = (int) this.limit();
+    while (true) {
+      final var current = this.inFlight.get();
+      if (current >= limit) {
+        this.metrics.onRequestShed();
+        return Optional.empty();
+      }
+      if (this.inFlight.compareAndSet(current, current + 1)) {
+        return Optional.of(
+          new AzHTTPAdmissionTicket(this, this.clock.getAsLong(), current + 1)
+        );
+      }
+    }
+  }
+
+  /**
+   * Open a database connection, recording the time spent waiting for it.
+   *
+   * @param database The database
+   *
+   * @return The connection
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  public AzDatabaseConnectionType openConnection(
+    final AzDatabaseType database)
+    throws DDatabaseException
+  {
+    Objects.requireNonNull(database, "database");
+
+    final var timeThen = this.clock.getAsLong();
+    try {
+      return database.openConnection();
+    } finally {
+      final var timeNow = this.clock.getAsLong();
+      final var waited = timeNow - timeThen;
+      this.metrics.onDatabaseConnectionWait(waited);
+      if (waited > this.connectionWaitThresholdNanos) {
+        this.decrease(timeNow);
+      }
+    }
+  }
+
+  /**
+   * @return The number of seconds rejected clients should wait before retrying
+   */
+
+  public long retryAfterSeconds()
+  {
+    return this.retryAfterSeconds;
+  }
+
+  /**
+   * @return The current concurrency limit
+   */
+
+  public double limit()
+  {
+    return Double.longBitsToDouble(this.limitBits.get());
+  }
+
+  /**
+   * @return The number of admitted requests in progress
+   */
+
+  public int inFlight()
+  {
+    return this.inFlight.get();
+  }
+
+  long now()
+  {
+    return this.clock.getAsLong();
+  }
+
+  void onCompleted(
+    final long timeThen,
+    final int inFlightThen)
+  {
+    this.inFlight.decrementAndGet();
+
+    final var timeNow = this.clock.getAsLong();
+    if (timeNow - timeThen > this.latencyThresholdNanos) {
+      this.decrease(timeNow);
+      return;
+    }
+
+    /*
+     * Only raise the limit if the limit was actually being used; otherwise
+     * a lightly loaded server would raise its limit without bound.
+     */
+
+    if ((double) inFlightThen * 2.0 >= this.limit()) {
+      this.increase();
+    }
+  }
+
+  private void increase()
+  {
+    final var maximum = (double) this.configuration.maximumConcurrency();
+    while (true) {
+      final var bits = this.limitBits.get();
+      final var limit = Double.longBitsToDouble(bits);
+      final var next = Math.min(maximum, limit + 1.0 / limit);
+      if (next == limit) {
+        return;
+      }
+      if (this.limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+        this.metrics.onAdmissionLimit((long) next);
+        return;
+      }
+    }
+  }
+
+  private void decrease(
+    final long timeNow)
+  {
+    if (this.configuration == null) {
+      return;
+    }
+
+    final var then = this.decreasedAt.get();
+    if (timeNow - then < this.latencyThresholdNanos) {
+      return;
+    }
+    if (!this.decreasedAt.compareAndSet(then, timeNow)) {
+      return;
+    }
+
+    final var minimum = (double) this.configuration.minimumConcurrency();
+    while (true) {
+      final var bits = this.limitBits.get();
+      final var limit = Double.longBitsToDouble(bits);
+      final var next = Math.max(minimum, limit * BACKOFF_RATIO);
+      if (this.limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+        this.metrics.onAdmissionLimit((long) next);
+        return;
+      }
+    }
+  }
+
+  private void setLimit(
+    final double limit)
+  {
+    this.limitBits.set(Double.doubleToLongBits(limit));
+    this.metrics.onAdmissionLimit((long) limit);
+  }
+
+  @Override
+  public String description()
+  {
+    return "Adaptive admission control service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzHTTPAdmissionController 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
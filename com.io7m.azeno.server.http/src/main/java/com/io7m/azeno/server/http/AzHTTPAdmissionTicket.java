@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import io.helidon.webserver.http.ServerRequest;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A request admitted by admission control. Closing the ticket informs the
+ * controller that the request has completed. Closing a ticket more than once
+ * has no further effect.
+ *
+ * <p>The latency that the controller observes for a request is measured from
+ * the time at which the request body has been read, if the handler reports
+ * it, so that clients sending slowly do not appear to the controller as
+ * server overload.</p>
+ */
+
+public final class AzHTTPAdmissionTicket implements AutoCloseable
+{
+  private static final AzHTTPAdmissionTicket UNLIMITED =
+    new AzHTTPAdmissionTicket(null, 0L, 0);
+
+  private final AzHTTPAdmissionController controller;
+  private volatile long timeThen;
+  private final int inFlightThen;
+  private final AtomicBoolean closed;
+
+  AzHTTPAdmissionTicket(
+    final AzHTTPAdmissionController inController,
+    final long inTimeThen,
+    final int inInFlightThen)
+  {
+    this.controller = inController;
+    this.timeThen = inTimeThen;
+    this.inFlightThen = inInFlightThen;
+    this.closed = new AtomicBoolean(false);
+  }
+
+  static AzHTTPAdmissionTicket unlimited()
+  {
+    return UNLIMITED;
+  }
+
+  /**
+   * Attach this ticket to the given request, so that handlers executing the
+   * request can report progress with
+   * {@link #onRequestBodyRead(ServerRequest)}.
+   *
+   * @param request The request
+   */
+
+  public void attachTo(
+    final ServerRequest request)
+  {
+    Objects.requireNonNull(request, "request")
+      .context()
+      .register(this);
+  }
+
+  /**
+   * Indicate that the body of the given request has been read completely.
+   * This has no effect if no ticket is attached to the request.
+   *
+   * @param request The request
+   */
+
+  public static void onRequestBodyRead(
+    final ServerRequest request)
+  {
+    Objects.requireNonNull(request, "request")
+      .context()
+      .get(AzHTTPAdmissionTicket.class)
+      .ifPresent(AzHTTPAdmissionTicket::onBodyRead);
+  }
+
+  /**
+   * Indicate that the request body has been read completely. The latency of
+   * the request is measured from this point.
+   */
+
+  public void onBodyRead()
+  {
+    if (this.controller == null) {
+      return;
+    }
+    this.timeThen = this.controller.now();
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.controller == null) {
+      return;
+    }
+    if (this.closed.compareAndSet(false, true)) {
+      this.controller.onCompleted(this.timeThen, this.inFlightThen);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzHTTPAdmissionTicket 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
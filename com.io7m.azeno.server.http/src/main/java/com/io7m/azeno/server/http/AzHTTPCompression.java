@@ -0,0 +1,289 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * A response compression service.
+ *
+ * <p>{@link Deflater} instances own native memory that is only released when
+ * they are explicitly ended, and are comparatively expensive to create. The
+ * service therefore keeps a bounded pool of deflaters for each encoding, and
+ * resets and reuses them between responses.</p>
+ */
+
+public final class AzHTTPCompression implements RPServiceType
+{
+  private static final byte[] GZIP_HEADER = {
+    (byte) 0x1f,
+    (byte) 0x8b,
+    Deflater.DEFLATED,
+    0,
+    0,
+    0,
+    0,
+    0,
+    0,
+    (byte) 0xff,
+  };
+
+  private final long threshold;
+  private final int level;
+  private final ArrayBlockingQueue<Deflater> deflatersRaw;
+  private final ArrayBlockingQueue<Deflater> deflatersZlib;
+
+  /**
+   * A response compression service.
+   *
+   * @param inThreshold The minimum size of responses that will be compressed
+   * @param inLevel     The compression level (0-9)
+   * @param inPoolSize  The maximum number of idle deflaters kept per encoding
+   */
+
+  public AzHTTPCompression(
+    final long inThreshold,
+    final int inLevel,
+    final int inPoolSize)
+  {
+    if (inLevel < Deflater.NO_COMPRESSION || inLevel > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException(
+        "Compression level must be in the range [0, 9]");
+    }
+
+    this.threshold =
+      Math.max(0L, inThreshold);
+    this.level =
+      inLevel;
+    this.deflatersRaw =
+      new ArrayBlockingQueue<>(Math.max(1, inPoolSize));
+    this.deflatersZlib =
+      new ArrayBlockingQueue<>(Math.max(1, inPoolSize));
+  }
+
+  /**
+   * @return A response compression service with reasonable defaults
+   */
+
+  public static AzHTTPCompression createDefault()
+  {
+    return new AzHTTPCompression(1024L, 6, 64);
+  }
+
+  /**
+   * @return The minimum size of responses that will be compressed
+   */
+
+  public long threshold()
+  {
+    return this.threshold;
+  }
+
+  /**
+   * Select the most preferred supported encoding from the value of an
+   * {@code Accept-Encoding} header. Encodings with a quality value of zero
+   * are never selected, and gzip is preferred over deflate when the client
+   * expresses no preference.
+   *
+   * @param acceptEncoding The header value
+   *
+   * @return The selected encoding, if any
+   */
+
+  public static Optional<AzHTTPContentEncoding> negotiate(
+    final String acceptEncoding)
+  {
+    double qGzip = -1.0;
+    double qDeflate = -1.0;
+    double qAny = -1.0;
+
+    for (final var element : acceptEncoding.split(",")) {
+      final var parts = element.split(";");
+      final var name = parts[0].trim().toLowerCase(Locale.ROOT);
+      final var quality = qualityOf(parts);
+
+      switch (name) {
+        case "gzip", "x-gzip" -> qGzip = Math.max(qGzip, quality);
+        case "deflate" -> qDeflate = Math.max(qDeflate, quality);
+        case "*" -> qAny = Math.max(qAny, quality);
+        default -> {
+
+        }
+      }
+    }
+
+    if (qGzip < 0.0) {
+      qGzip = qAny;
+    }
+    if (qDeflate < 0.0) {
+      qDeflate = qAny;
+    }
+
+    if (qGzip > 0.0 && qGzip >= qDeflate) {
+      return Optional.of(AzHTTPContentEncoding.GZIP);
+    }
+    if (qDeflate > 0.0) {
+      return Optional.of(AzHTTPContentEncoding.DEFLATE);
+    }
+    return Optional.empty();
+  }
+
+  private static double qualityOf(
+    final String[] parts)
+  {
+    for (int index = 1; index < parts.length; ++index) {
+      final var parameter = parts[index].trim();
+      if (parameter.startsWith("q=")) {
+        try {
+          return Double.parseDouble(parameter.substring(2));
+        } catch (final NumberFormatException e) {
+          return 0.0;
+        }
+      }
+    }
+    return 1.0;
+  }
+
+  /**
+   * Compress the given data. Data that is smaller than the threshold, or
+   * that does not become smaller when compressed, is not compressed.
+   *
+   * @param encoding The encoding
+   * @param data     The data
+   *
+   * @return The compressed data, if compression was worthwhile
+   */
+
+  public Optional<byte[]> compress(
+    final AzHTTPContentEncoding encoding,
+    final byte[] data)
+  {
+    if (Integer.toUnsignedLong(data.length) < this.threshold) {
+      return Optional.empty();
+    }
+
+    final var result =
+      switch (encoding) {
+        case GZIP -> this.compressGzip(data);
+        case DEFLATE -> this.compressDeflate(data);
+      };
+
+    if (result.length >= data.length) {
+      return Optional.empty();
+    }
+    return Optional.of(result);
+  }
+
+  private byte[] compressDeflate(
+    final byte[] data)
+  {
+    final var output = new ByteArrayOutputStream(data.length / 2);
+    final var deflater = this.acquire(this.deflatersZlib, false);
+    try {
+      deflate(deflater, data, output);
+    } finally {
+      release(this.deflatersZlib, deflater);
+    }
+    return output.toByteArray();
+  }
+
+  private byte[] compressGzip(
+    final byte[] data)
+  {
+    final var output = new ByteArrayOutputStream(data.length / 2);
+    output.writeBytes(GZIP_HEADER);
+
+    final var deflater = this.acquire(this.deflatersRaw, true);
+    try {
+      deflate(deflater, data, output);
+    } finally {
+      release(this.deflatersRaw, deflater);
+    }
+
+    final var crc = new CRC32();
+    crc.update(data);
+    writeIntLE(output, (int) crc.getValue());
+    writeIntLE(output, data.length);
+    return output.toByteArray();
+  }
+
+  private static void writeIntLE(
+    final ByteArrayOutputStream output,
+    final int value)
+  {
+    output.write(value & 0xff);
+    output.write((value >>> 8) & 0xff);
+    output.write((value >>> 16) & 0xff);
+    output.write((value >>> 24) & 0xff);
+  }
+
+  private static void deflate(
+    final Deflater deflater,
+    final byte[] data,
+    final ByteArrayOutputStream output)
+  {
+    deflater.setInput(data);
+    deflater.finish();
+
+    final var buffer = new byte[8192];
+    while (!deflater.finished()) {
+      final var count = deflater.deflate(buffer);
+      output.write(buffer, 0, count);
+    }
+  }
+
+  private Deflater acquire(
+    final ArrayBlockingQueue<Deflater> pool,
+    final boolean nowrap)
+  {
+    final var existing = pool.poll();
+    if (existing != null) {
+      return existing;
+    }
+    return new Deflater(this.level, nowrap);
+  }
+
+  private static void release(
+    final ArrayBlockingQueue<Deflater> pool,
+    final Deflater deflater)
+  {
+    deflater.reset();
+    if (!pool.offer(deflater)) {
+      deflater.end();
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "HTTP response compression service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzHTTPCompression 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import java.util.Objects;
+
+/**
+ * The supported response content encodings.
+ */
+
+public enum AzHTTPContentEncoding
+{
+  /**
+   * The gzip encoding (RFC 1952).
+   */
+
+  GZIP("gzip"),
+
+  /**
+   * The deflate encoding (RFC 1950 zlib data).
+   */
+
+  DEFLATE("deflate");
+
+  private final String headerValue;
+
+  AzHTTPContentEncoding(
+    final String inHeaderValue)
+  {
+    this.headerValue =
+      Objects.requireNonNull(inHeaderValue, "headerValue");
+  }
+
+  /**
+   * @return The value used in {@code Content-Encoding} headers
+   */
+
+  public String headerValue()
+  {
+    return this.headerValue;
+  }
+}
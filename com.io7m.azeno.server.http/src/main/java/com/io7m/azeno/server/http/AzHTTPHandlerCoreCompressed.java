@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.repetoir.core.RPServiceDirectoryType;
+import io.helidon.webserver.http.ServerRequest;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A servlet core that executes the given core and compresses fixed size
+ * responses according to the client's {@code Accept-Encoding} header.
+ */
+
+public final class AzHTTPHandlerCoreCompressed
+  implements AzHTTPHandlerFunctionalCoreType
+{
+  private final AzHTTPHandlerFunctionalCoreType core;
+  private final AzHTTPCompression compression;
+  private final AzMetricsServiceType metrics;
+
+  private AzHTTPHandlerCoreCompressed(
+    final RPServiceDirectoryType inServices,
+    final AzHTTPHandlerFunctionalCoreType inCore)
+  {
+    this.compression =
+      inServices.requireService(AzHTTPCompression.class);
+    this.metrics =
+      inServices.requireService(AzMetricsServiceType.class);
+
+    this.core =
+      Objects.requireNonNull(inCore, "core");
+  }
+
+  /**
+   * @param inServices The services
+   * @param inCore     The core
+   *
+   * @return A servlet core that executes the given core with compression
+   */
+
+  public static AzHTTPHandlerFunctionalCoreType withCompression(
+    final RPServiceDirectoryType inServices,
+    final AzHTTPHandlerFunctionalCoreType inCore)
+  {
+    return new AzHTTPHandlerCoreCompressed(inServices, inCore);
+  }
+
+  @Override
+  public AzHTTPResponseType execute(
+    final ServerRequest request,
+    final AzHTTPRequestInformation information)
+  {
+    final var response =
+      this.core.execute(request, information);
+
+    if (response instanceof final AzHTTPResponseFixedSize fixed) {
+      if (fixed.contentEncoding().isPresent()) {
+        return fixed;
+      }
+      if (Integer.toUnsignedLong(fixed.data().length) < this.compression.threshold()) {
+        return fixed;
+      }
+
+      final var encodingOpt =
+        AzHTTPCompression.negotiate(AzHTTPServerRequests.acceptEncoding(request));
+
+      if (encodingOpt.isEmpty()) {
+        return fixed;
+      }
+
+      final var encoding =
+        encodingOpt.get();
+      final var compressedOpt =
+        this.compression.compress(encoding, fixed.data());
+
+      if (compressedOpt.isEmpty()) {
+        return fixed;
+      }
+
+      final var compressed = compressedOpt.get();
+      this.metrics.onHttpResponseCompressed(
+        Integer.toUnsignedLong(fixed.data().length),
+        Integer.toUnsignedLong(compressed.length)
+      );
+
+      return new AzHTTPResponseFixedSize(
+        fixed.statusCode(),
+        fixed.cookies(),
+        fixed.contentType(),
+        compressed,
+        Optional.of(encoding),
+        fixed.headers()
+      );
+    }
+    return response;
+  }
+}
@@ -25,6 +25,8 @@ import io.helidon.webserver.http.ServerResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -93,6 +95,11 @@ public abstract class AzHTTPHandlerFunctional implements Handler
         case final AzHTTPResponseFixedSize fixed -> {
           response.status(fixed.statusCode());
           response.header(HeaderNames.CONTENT_TYPE, fixed.contentType());
+          fixed.headers().forEach((name, value) -> response.header(name, value));
+          fixed.contentEncoding().ifPresent(encoding -> {
+            response.header(HeaderNames.CONTENT_ENCODING, encoding.headerValue());
+            response.header(HeaderNames.VARY, "Accept-Encoding");
+          });
           response.send(fixed.data());
         }
         case final AzHTTPResponseRedirect target -> {
@@ -100,10 +107,26 @@ public abstract class AzHTTPHandlerFunctional implements Handler
           response.status(Status.FOUND_302);
           response.send();
         }
+        case final AzHTTPResponseStreamed streamed -> {
+          response.status(streamed.statusCode());
+          response.header(HeaderNames.CONTENT_TYPE, streamed.contentType());
+          sendStreamed(response, streamed);
+        }
       }
     } catch (final Throwable e) {
       LOG.debug("Uncaught exception: ", e);
       throw e;
     }
   }
+
+  private static void sendStreamed(
+    final ServerResponse response,
+    final AzHTTPResponseStreamed streamed)
+  {
+    try (var output = response.outputStream()) {
+      streamed.writer().write(output);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
 }
@@ -16,33 +16,41 @@
 
 package com.io7m.azeno.server.http;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.OptionalLong;
 import java.util.Set;
 
 /**
  * A fixed size servlet response.
  *
- * @param statusCode  The status code
- * @param cookies     The cookies to set
- * @param contentType The content type
- * @param data        The data
+ * @param statusCode      The status code
+ * @param cookies         The cookies to set
+ * @param contentType     The content type
+ * @param data            The data
+ * @param contentEncoding The encoding of the data, if it is encoded
+ * @param headers         Extra response headers
  */
 
 public record AzHTTPResponseFixedSize(
   int statusCode,
   Set<AzHTTPCookieDeclaration> cookies,
   String contentType,
-  byte[] data)
+  byte[] data,
+  Optional<AzHTTPContentEncoding> contentEncoding,
+  Map<String, String> headers)
   implements AzHTTPResponseType
 {
   /**
    * A fixed size servlet response.
    *
-   * @param statusCode  The status code
-   * @param cookies     The cookies to set
-   * @param contentType The content type
-   * @param data        The data
+   * @param statusCode      The status code
+   * @param cookies         The cookies to set
+   * @param contentType     The content type
+   * @param data            The data
+   * @param contentEncoding The encoding of the data, if it is encoded
+   * @param headers         Extra response headers
    */
 
   public AzHTTPResponseFixedSize
@@ -50,7 +58,48 @@ public record AzHTTPResponseFixedSize(
     Objects.requireNonNull(contentType, "contentType");
     Objects.requireNonNull(cookies, "cookies");
     Objects.requireNonNull(data, "data");
+    Objects.requireNonNull(contentEncoding, "contentEncoding");
+    Objects.requireNonNull(headers, "headers");
     cookies = Set.copyOf(cookies);
+    headers = Map.copyOf(headers);
+  }
+
+  /**
+   * A fixed size servlet response with no extra headers.
+   *
+   * @param statusCode      The status code
+   * @param cookies         The cookies to set
+   * @param contentType     The content type
+   * @param data            The data
+   * @param contentEncoding The encoding of the data, if it is encoded
+   */
+
+  public AzHTTPResponseFixedSize(
+    final int statusCode,
+    final Set<AzHTTPCookieDeclaration> cookies,
+    final String contentType,
+    final byte[] data,
+    final Optional<AzHTTPContentEncoding> contentEncoding)
+  {
+    this(statusCode, cookies, contentType, data, contentEncoding, Map.of());
+  }
+
+  /**
+   * A fixed size servlet response with unencoded data and no extra headers.
+   *
+   * @param statusCode  The status code
+   * @param cookies     The cookies to set
+   * @param contentType The content type
+   * @param data        The data
+   */
+
+  public AzHTTPResponseFixedSize(
+    final int statusCode,
+    final Set<AzHTTPCookieDeclaration> cookies,
+    final String contentType,
+    final byte[] data)
+  {
+    this(statusCode, cookies, contentType, data, Optional.empty());
   }
 
   @Override
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import java.util.Objects;
+import java.util.OptionalLong;
+import java.util.Set;
+
+/**
+ * A streamed servlet response. The length of the response is not known in
+ * advance, and so the response is delivered using chunked transfer encoding.
+ * The status code is sent before any of the body is written, and so cannot
+ * reflect failures that occur while the body is being written.
+ *
+ * @param statusCode  The status code
+ * @param cookies     The cookies to set
+ * @param contentType The content type
+ * @param writer      The body writer
+ */
+
+public record AzHTTPResponseStreamed(
+  int statusCode,
+  Set<AzHTTPCookieDeclaration> cookies,
+  String contentType,
+  AzHTTPResponseWriterType writer)
+  implements AzHTTPResponseType
+{
+  /**
+   * A streamed servlet response.
+   *
+   * @param statusCode  The status code
+   * @param cookies     The cookies to set
+   * @param contentType The content type
+   * @param writer      The body writer
+   */
+
+  public AzHTTPResponseStreamed
+  {
+    Objects.requireNonNull(contentType, "contentType");
+    Objects.requireNonNull(cookies, "cookies");
+    Objects.requireNonNull(writer, "writer");
+    cookies = Set.copyOf(cookies);
+  }
+
+  @Override
+  public OptionalLong contentLengthOptional()
+  {
+    return OptionalLong.empty();
+  }
+}
@@ -25,7 +25,9 @@ import java.util.Set;
  */
 
 public sealed interface AzHTTPResponseType
-  permits AzHTTPResponseFixedSize, AzHTTPResponseRedirect
+  permits AzHTTPResponseFixedSize,
+  AzHTTPResponseRedirect,
+  AzHTTPResponseStreamed
 {
   /**
    * @return The response status code
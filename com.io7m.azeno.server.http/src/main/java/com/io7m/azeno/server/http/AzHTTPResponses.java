@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.http;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Objects;
+
+/**
+ * Functions over servlet responses.
+ */
+
+public final class AzHTTPResponses
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzHTTPResponses.class);
+
+  private AzHTTPResponses()
+  {
+
+  }
+
+  /**
+   * Arrange for a resource to be closed once the given response has been
+   * produced. The body of a streamed response is written after the handler
+   * that produced it has returned, so a resource that must be held for the
+   * whole of the request (such as an admission that limits concurrent
+   * requests) is closed once the body has been written. The resource is
+   * closed immediately for any other kind of response.
+   *
+   * @param response The response
+   * @param resource The resource
+   *
+   * @return The response
+   */
+
+  public static AzHTTPResponseType closeAfterResponse(
+    final AzHTTPResponseType response,
+    final AutoCloseable resource)
+  {
+    Objects.requireNonNull(response, "response");
+    Objects.requireNonNull(resource, "resource");
+
+    if (response instanceof final AzHTTPResponseStreamed streamed) {
+      final var writer = streamed.writer();
+      return new AzHTTPResponseStreamed(
+        streamed.statusCode(),
+        streamed.cookies(),
+        streamed.contentType(),
+        output -> writeThenClose(writer, resource, output)
+      );
+    }
+
+    closeQuietly(resource);
+    return response;
+  }
+
+  private static void writeThenClose(
+    final AzHTTPResponseWriterType writer,
+    final AutoCloseable resource,
+    final OutputStream output)
+    throws IOException
+  {
+    try {
+      writer.write(output);
+    } finally {
+      closeQuietly(resource);
+    }
+  }
+
+  private static void closeQuietly(
+    final AutoCloseable resource)
+  {
+    try {
+      resource.close();
+    } catch (final Exception e) {
+      LOG.error("Failed to close request resource: ", e);
+    }
+  }
+}
@@ -72,6 +72,29 @@ public final class AzHTTPServerRequests
     }
   }
 
+  /**
+   * Obtain the values of all Accept-Encoding headers for the given request,
+   * or the empty string if none exist.
+   *
+   * @param request The request
+   *
+   * @return The accepted encodings
+   */
+
+  public static String acceptEncoding(
+    final ServerRequest request)
+  {
+    try {
+      final var headers = request.headers();
+      return String.join(
+        ",",
+        headers.get(HeaderNames.ACCEPT_ENCODING).allValues()
+      );
+    } catch (final NoSuchElementException | UnsupportedOperationException e) {
+      return "";
+    }
+  }
+
   /**
    * Obtain the remote address for the given request. The function takes into
    * account headers such as "X-Forwarded-For".
@@ -26,10 +26,13 @@ module com.io7m.azeno.server.http
   requires com.io7m.azeno.database.api;
   requires com.io7m.azeno.error_codes;
   requires com.io7m.azeno.model;
+  requires com.io7m.azeno.server.api;
   requires com.io7m.azeno.server.service.clock;
   requires com.io7m.azeno.server.service.telemetry.api;
 
+  requires com.io7m.darco.api;
   requires com.io7m.repetoir.core;
+  requires io.helidon.common.context;
   requires io.helidon.http;
   requires io.helidon.webserver;
   requires io.opentelemetry.api;
@@ -66,6 +66,18 @@ public final class AzServerClock implements RPServiceType
     return OffsetDateTime.now(this.clock);
   }
 
+  /**
+   * @return The current value of a monotonic time source, in nanoseconds,
+   * suitable only for measuring elapsed time
+   *
+   * @see System#nanoTime()
+   */
+
+  public long nanoTime()
+  {
+    return System.nanoTime();
+  }
+
   @Override
   public String toString()
   {
@@ -18,12 +18,14 @@
 package com.io7m.azeno.server.service.configuration;
 
 import com.io7m.anethum.api.SerializationException;
+import com.io7m.azeno.server.api.AzServerAdmissionControlConfiguration;
 import com.io7m.azeno.server.api.AzServerConfigurationFile;
 import com.io7m.azeno.server.api.AzServerDatabaseConfiguration;
 import com.io7m.azeno.server.api.AzServerHTTPServiceConfiguration;
 import com.io7m.azeno.server.api.AzServerIdstoreConfiguration;
 import com.io7m.azeno.server.api.AzServerLimitsConfiguration;
 import com.io7m.azeno.server.api.AzServerOpenTelemetryConfiguration;
+import com.io7m.azeno.server.api.AzServerRequestRateLimitConfiguration;
 import com.io7m.azeno.tls.AzTLSConfigurationType;
 import com.io7m.azeno.tls.AzTLSDisabled;
 import com.io7m.azeno.tls.AzTLSEnabled;
@@ -119,6 +121,71 @@ final class AzServerConfigurationSerializer
       "MaximumFileUploadSizeOctets",
       Long.toUnsignedString(c.maximumFileUploadSizeOctets())
     );
+
+    if (c.userRequestLimits().isPresent()) {
+      this.serializeRequestLimits(
+        "UserRequestLimits",
+        c.userRequestLimits().get()
+      );
+    }
+    if (c.addressRequestLimits().isPresent()) {
+      this.serializeRequestLimits(
+        "AddressRequestLimits",
+        c.addressRequestLimits().get()
+      );
+    }
+    if (c.admissionControl().isPresent()) {
+      this.serializeAdmissionControl(c.admissionControl().get());
+    }
+    this.output.writeEndElement();
+  }
+
+  private void serializeAdmissionControl(
+    final AzServerAdmissionControlConfiguration c)
+    throws XMLStreamException
+  {
+    this.output.writeStartElement("AdmissionControl");
+    this.output.writeAttribute(
+      "MinimumConcurrency",
+      Integer.toString(c.minimumConcurrency())
+    );
+    this.output.writeAttribute(
+      "InitialConcurrency",
+      Integer.toString(c.initialConcurrency())
+    );
+    this.output.writeAttribute(
+      "MaximumConcurrency",
+      Integer.toString(c.maximumConcurrency())
+    );
+    this.output.writeAttribute(
+      "LatencyThreshold",
+      c.latencyThreshold().toString()
+    );
+    this.output.writeAttribute(
+      "ConnectionWaitThreshold",
+      c.connectionWaitThreshold().toString()
+    );
+    this.output.writeEndElement();
+  }
+
+  private void serializeRequestLimits(
+    final String name,
+    final AzServerRequestRateLimitConfiguration c)
+    throws XMLStreamException
+  {
+    this.output.writeStartElement(name);
+    this.output.writeAttribute(
+      "RequestsPerSecond",
+      Double.toString(c.requestsPerSecond())
+    );
+    this.output.writeAttribute(
+      "Burst",
+      Integer.toString(c.burst())
+    );
+    this.output.writeAttribute(
+      "MaximumConcurrentRequests",
+      Integer.toString(c.maximumConcurrentRequests())
+    );
     this.output.writeEndElement();
   }
 
@@ -131,6 +198,11 @@ final class AzServerConfigurationSerializer
     this.output.writeAttribute(
       "PasswordResetURI",
       c.passwordResetURI().toString());
+
+    if (c.verificationCacheTTL().isPresent()) {
+      final var t = c.verificationCacheTTL().get();
+      this.output.writeAttribute("VerificationCacheTTL", t.toString());
+    }
     this.output.writeEndElement();
   }
 
@@ -276,6 +348,19 @@ final class AzServerConfigurationSerializer
       "Upgrade",
       Boolean.toString(c.upgrade())
     );
+    this.output.writeAttribute(
+      "AuditMode",
+      c.auditMode().name()
+    );
+
+    if (c.readReplica().isPresent()) {
+      final var r = c.readReplica().get();
+      this.output.writeStartElement("ReadReplica");
+      this.output.writeAttribute("Address", r.databaseAddress());
+      this.output.writeAttribute("Port", toUnsignedString(r.databasePort()));
+      this.output.writeEndElement();
+    }
+
     this.output.writeEndElement();
   }
 
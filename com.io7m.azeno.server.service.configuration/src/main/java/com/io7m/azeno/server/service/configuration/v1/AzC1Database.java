@@ -17,23 +17,43 @@
 
 package com.io7m.azeno.server.service.configuration.v1;
 
+import com.io7m.azeno.database.api.AzDatabaseAuditMode;
+import com.io7m.azeno.database.api.AzDatabaseReplicaInfo;
 import com.io7m.azeno.server.api.AzServerDatabaseConfiguration;
 import com.io7m.azeno.server.api.AzServerDatabaseKind;
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
 import org.xml.sax.Attributes;
 
+import java.util.Map;
 import java.util.Optional;
 
+import static com.io7m.azeno.server.service.configuration.v1.AzC1Names.qName;
+import static java.util.Map.entry;
+
 final class AzC1Database
   implements BTElementHandlerType<Object, AzServerDatabaseConfiguration>
 {
-  private AzServerDatabaseConfiguration result;
+  private AzServerDatabaseKind kind;
+  private String ownerRoleName;
+  private String ownerRolePassword;
+  private String workerRolePassword;
+  private Optional<String> readerRolePassword;
+  private String address;
+  private int port;
+  private String name;
+  private String language;
+  private boolean create;
+  private boolean upgrade;
+  private AzDatabaseAuditMode auditMode;
+  private Optional<AzDatabaseReplicaInfo> readReplica;
 
   AzC1Database(
     final BTElementParsingContextType context)
   {
-
+    this.readReplica = Optional.empty();
   }
 
   @Override
@@ -41,26 +61,79 @@ final class AzC1Database
     final BTElementParsingContextType context,
     final Attributes attributes)
   {
-    this.result =
-      new AzServerDatabaseConfiguration(
-        AzServerDatabaseKind.valueOf(attributes.getValue("Kind")),
-        attributes.getValue("OwnerRoleName"),
-        attributes.getValue("OwnerRolePassword"),
-        attributes.getValue("WorkerRolePassword"),
-        Optional.ofNullable(attributes.getValue("ReaderRolePassword")),
-        attributes.getValue("Address"),
-        Integer.valueOf(attributes.getValue("Port")).intValue(),
-        attributes.getValue("Name"),
-        attributes.getValue("Language"),
-        Boolean.parseBoolean(attributes.getValue("Create")),
-        Boolean.parseBoolean(attributes.getValue("Upgrade"))
-      );
+    this.kind =
+      AzServerDatabaseKind.valueOf(attributes.getValue("Kind"));
+    this.ownerRoleName =
+      attributes.getValue("OwnerRoleName");
+    this.ownerRolePassword =
+      attributes.getValue("OwnerRolePassword");
+    this.workerRolePassword =
+      attributes.getValue("WorkerRolePassword");
+    this.readerRolePassword =
+      Optional.ofNullable(attributes.getValue("ReaderRolePassword"));
+    this.address =
+      attributes.getValue("Address");
+    this.port =
+      Integer.valueOf(attributes.getValue("Port")).intValue();
+    this.name =
+      attributes.getValue("Name");
+    this.language =
+      attributes.getValue("Language");
+    this.create =
+      Boolean.parseBoolean(attributes.getValue("Create"));
+    this.upgrade =
+      Boolean.parseBoolean(attributes.getValue("Upgrade"));
+    this.auditMode =
+      Optional.ofNullable(attributes.getValue("AuditMode"))
+        .map(AzDatabaseAuditMode::valueOf)
+        .orElse(AzDatabaseAuditMode.TRANSACTIONAL);
+  }
+
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      entry(qName("ReadReplica"), AzC1DatabaseReplica::new)
+    );
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    switch (result) {
+      case final AzDatabaseReplicaInfo r -> {
+        this.readReplica = Optional.of(r);
+      }
+      default -> {
+        throw new IllegalStateException(
+          "Unrecognized element received: %s".formatted(result)
+        );
+      }
+    }
   }
 
   @Override
   public AzServerDatabaseConfiguration onElementFinished(
     final BTElementParsingContextType context)
   {
-    return this.result;
+    return new AzServerDatabaseConfiguration(
+      this.kind,
+      this.ownerRoleName,
+      this.ownerRolePassword,
+      this.workerRolePassword,
+      this.readerRolePassword,
+      this.address,
+      this.port,
+      this.name,
+      this.language,
+      this.create,
+      this.upgrade,
+      this.auditMode,
+      this.readReplica
+    );
   }
 }
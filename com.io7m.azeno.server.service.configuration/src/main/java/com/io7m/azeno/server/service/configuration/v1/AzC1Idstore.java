@@ -23,17 +23,20 @@ import com.io7m.blackthorne.core.BTElementParsingContextType;
 import org.xml.sax.Attributes;
 
 import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
 
 final class AzC1Idstore
   implements BTElementHandlerType<Object, AzServerIdstoreConfiguration>
 {
   private URI baseURI;
   private URI passwordResetURI;
+  private Optional<Duration> verificationCacheTTL;
 
   AzC1Idstore(
     final BTElementParsingContextType context)
   {
-
+    this.verificationCacheTTL = Optional.empty();
   }
 
   @Override
@@ -45,6 +48,9 @@ final class AzC1Idstore
       URI.create(attributes.getValue("BaseURI"));
     this.passwordResetURI =
       URI.create(attributes.getValue("PasswordResetURI"));
+    this.verificationCacheTTL =
+      Optional.ofNullable(attributes.getValue("VerificationCacheTTL"))
+        .map(AzC1Durations::parse);
   }
 
   @Override
@@ -54,7 +60,8 @@ final class AzC1Idstore
   {
     return new AzServerIdstoreConfiguration(
       this.baseURI,
-      this.passwordResetURI
+      this.passwordResetURI,
+      this.verificationCacheTTL
     );
   }
 }
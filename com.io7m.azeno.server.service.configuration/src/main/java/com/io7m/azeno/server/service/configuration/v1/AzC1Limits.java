@@ -17,21 +17,36 @@
 
 package com.io7m.azeno.server.service.configuration.v1;
 
+import com.io7m.azeno.server.api.AzServerAdmissionControlConfiguration;
 import com.io7m.azeno.server.api.AzServerLimitsConfiguration;
+import com.io7m.azeno.server.api.AzServerRequestRateLimitConfiguration;
+import com.io7m.blackthorne.core.BTElementHandlerConstructorType;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
+import com.io7m.blackthorne.core.BTQualifiedName;
 import org.xml.sax.Attributes;
 
+import java.util.Map;
+import java.util.Optional;
+
+import static com.io7m.azeno.server.service.configuration.v1.AzC1Names.qName;
+import static java.util.Map.entry;
+
 final class AzC1Limits
   implements BTElementHandlerType<Object, AzServerLimitsConfiguration>
 {
   private long maximumFileUploadSizeOctets;
   private long maximumCommandSizeOctets;
+  private Optional<AzServerRequestRateLimitConfiguration> userRequestLimits;
+  private Optional<AzServerRequestRateLimitConfiguration> addressRequestLimits;
+  private Optional<AzServerAdmissionControlConfiguration> admissionControl;
 
   AzC1Limits(
     final BTElementParsingContextType context)
   {
-
+    this.userRequestLimits = Optional.empty();
+    this.addressRequestLimits = Optional.empty();
+    this.admissionControl = Optional.empty();
   }
 
   @Override
@@ -50,6 +65,41 @@ final class AzC1Limits
       );
   }
 
+  @Override
+  public Map<BTQualifiedName, BTElementHandlerConstructorType<?, ?>>
+  onChildHandlersRequested(
+    final BTElementParsingContextType context)
+  {
+    return Map.ofEntries(
+      entry(qName("UserRequestLimits"), AzC1RequestLimits::forUsers),
+      entry(qName("AddressRequestLimits"), AzC1RequestLimits::forAddresses),
+      entry(qName("AdmissionControl"), AzC1AdmissionControl::new)
+    );
+  }
+
+  @Override
+  public void onChildValueProduced(
+    final BTElementParsingContextType context,
+    final Object result)
+  {
+    switch (result) {
+      case final AzC1RequestLimits.Result r -> {
+        switch (r.scope()) {
+          case USER -> this.userRequestLimits = Optional.of(r.limits());
+          case ADDRESS -> this.addressRequestLimits = Optional.of(r.limits());
+        }
+      }
+      case final AzServerAdmissionControlConfiguration c -> {
+        this.admissionControl = Optional.of(c);
+      }
+      default -> {
+        throw new IllegalStateException(
+          "Unrecognized element received: %s".formatted(result)
+        );
+      }
+    }
+  }
+
   @Override
   public AzServerLimitsConfiguration onElementFinished(
     final BTElementParsingContextType context)
@@ -57,7 +107,10 @@ final class AzC1Limits
   {
     return new AzServerLimitsConfiguration(
       this.maximumFileUploadSizeOctets,
-      this.maximumCommandSizeOctets
+      this.maximumCommandSizeOctets,
+      this.userRequestLimits,
+      this.addressRequestLimits,
+      this.admissionControl
     );
   }
 }
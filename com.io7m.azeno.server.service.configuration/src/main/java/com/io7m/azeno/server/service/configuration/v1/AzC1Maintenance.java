@@ -17,6 +17,7 @@
 
 package com.io7m.azeno.server.service.configuration.v1;
 
+import com.io7m.azeno.server.api.AzServerAuditRetentionAction;
 import com.io7m.azeno.server.api.AzServerMaintenanceConfiguration;
 import com.io7m.blackthorne.core.BTElementHandlerType;
 import com.io7m.blackthorne.core.BTElementParsingContextType;
@@ -29,6 +30,8 @@ final class AzC1Maintenance
   implements BTElementHandlerType<Object, AzServerMaintenanceConfiguration>
 {
   private Optional<Duration> tlsReloadInterval;
+  private Optional<Duration> auditRetention;
+  private AzServerAuditRetentionAction auditRetentionAction;
 
   AzC1Maintenance(
     final BTElementParsingContextType context)
@@ -44,6 +47,13 @@ final class AzC1Maintenance
     this.tlsReloadInterval =
       Optional.ofNullable(attributes.getValue("TLSReloadInterval"))
         .map(AzC1Durations::parse);
+    this.auditRetention =
+      Optional.ofNullable(attributes.getValue("AuditRetention"))
+        .map(AzC1Durations::parse);
+    this.auditRetentionAction =
+      Optional.ofNullable(attributes.getValue("AuditRetentionAction"))
+        .map(AzServerAuditRetentionAction::valueOf)
+        .orElse(AzServerAuditRetentionAction.DROP);
   }
 
   @Override
@@ -52,7 +62,9 @@ final class AzC1Maintenance
     throws Exception
   {
     return new AzServerMaintenanceConfiguration(
-      this.tlsReloadInterval
+      this.tlsReloadInterval,
+      this.auditRetention,
+      this.auditRetentionAction
     );
   }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.configuration.v1;
+
+import com.io7m.azeno.server.api.AzServerRequestRateLimitConfiguration;
+import com.io7m.blackthorne.core.BTElementHandlerType;
+import com.io7m.blackthorne.core.BTElementParsingContextType;
+import org.xml.sax.Attributes;
+
+import java.util.Objects;
+
+final class AzC1RequestLimits
+  implements BTElementHandlerType<Object, AzC1RequestLimits.Result>
+{
+  private final Scope scope;
+  private AzServerRequestRateLimitConfiguration limits;
+
+  private AzC1RequestLimits(
+    final Scope inScope)
+  {
+    this.scope = Objects.requireNonNull(inScope, "scope");
+  }
+
+  static AzC1RequestLimits forUsers(
+    final BTElementParsingContextType context)
+  {
+    return new AzC1RequestLimits(Scope.USER);
+  }
+
+  static AzC1RequestLimits forAddresses(
+    final BTElementParsingContextType context)
+  {
+    return new AzC1RequestLimits(Scope.ADDRESS);
+  }
+
+  @Override
+  public void onElementStart(
+    final BTElementParsingContextType context,
+    final Attributes attributes)
+  {
+    this.limits =
+      new AzServerRequestRateLimitConfiguration(
+        Double.parseDouble(attributes.getValue("RequestsPerSecond")),
+        Integer.parseInt(attributes.getValue("Burst")),
+        Integer.parseInt(attributes.getValue("MaximumConcurrentRequests"))
+      );
+  }
+
+  @Override
+  public Result onElementFinished(
+    final BTElementParsingContextType context)
+  {
+    return new Result(this.scope, this.limits);
+  }
+
+  enum Scope
+  {
+    USER,
+    ADDRESS
+  }
+
+  record Result(
+    Scope scope,
+    AzServerRequestRateLimitConfiguration limits)
+  {
+
+  }
+}
@@ -23,6 +23,7 @@ module com.io7m.azeno.server.service.configuration
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
 
+  requires com.io7m.azeno.database.api;
   requires com.io7m.azeno.server.api;
   requires com.io7m.azeno.tls;
 
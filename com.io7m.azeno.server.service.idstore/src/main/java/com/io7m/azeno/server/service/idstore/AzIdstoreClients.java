@@ -16,31 +16,71 @@
 
 package com.io7m.azeno.server.service.idstore;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.io7m.azeno.server.api.AzServerIdstoreConfiguration;
 import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType;
+import com.io7m.idstore.protocol.user.IdUResponseLogin;
 import com.io7m.idstore.user_client.IdUClients;
 import com.io7m.idstore.user_client.api.IdUClientConfiguration;
+import com.io7m.idstore.user_client.api.IdUClientConnectionParameters;
 import com.io7m.idstore.user_client.api.IdUClientException;
 import com.io7m.idstore.user_client.api.IdUClientFactoryType;
 import com.io7m.idstore.user_client.api.IdUClientType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
 import java.time.Clock;
+import java.time.Duration;
+import java.util.HexFormat;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingDeque;
 
 /**
  * Idstore clients.
+ *
+ * <p>Clients used for logins are pooled: each client holds an HTTP client
+ * whose connections to the idstore server are kept alive, and so a burst of
+ * logins does not pay for connection setup and TLS handshakes each time.</p>
+ *
+ * <p>Successful credential verifications may optionally be cached for a
+ * short time. Cache keys are SHA-256 hashes of the credentials with a salt
+ * that is generated randomly when the service is created and never leaves
+ * the process; the credentials themselves are never retained. Rejected
+ * credentials are never cached.</p>
  */
 
 public final class AzIdstoreClients
-  implements AzIdstoreClientsType
+  implements AzIdstoreClientsType, AutoCloseable
 {
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzIdstoreClients.class);
+
+  private static final int POOL_IDLE_MAXIMUM =
+    16;
+  private static final long VERIFICATIONS_MAXIMUM =
+    10_000L;
+  private static final Duration LOGIN_TIMEOUT =
+    Duration.ofSeconds(30L);
+
   private final Clock clock;
   private final AzServerIdstoreConfiguration idstore;
   private final AzServerTelemetryServiceType telemetry;
   private final IdUClientFactoryType clients;
   private final Locale locale;
+  private final LinkedBlockingDeque<IdUClientType> idle;
+  private final Optional<Cache<String, UUID>> verifications;
+  private final byte[] verificationSalt;
 
   private AzIdstoreClients(
     final Locale inLocale,
@@ -59,6 +99,20 @@ public final class AzIdstoreClients
       Objects.requireNonNull(inTelemetry, "telemetry");
     this.clients =
       Objects.requireNonNull(inClients, "clients");
+
+    this.idle =
+      new LinkedBlockingDeque<>(POOL_IDLE_MAXIMUM);
+    this.verifications =
+      inIdstore.verificationCacheTTL()
+        .map(ttl -> {
+          return Caffeine.newBuilder()
+            .expireAfterWrite(ttl)
+            .maximumSize(VERIFICATIONS_MAXIMUM)
+            .build();
+        });
+
+    this.verificationSalt = new byte[32];
+    new SecureRandom().nextBytes(this.verificationSalt);
   }
 
   /**
@@ -77,6 +131,29 @@ public final class AzIdstoreClients
     final Clock inClock,
     final AzServerTelemetryServiceType telemetry,
     final AzServerIdstoreConfiguration idstore)
+  {
+    return create(inLocale, inClock, telemetry, idstore, new IdUClients());
+  }
+
+  /**
+   * Create an idstore client service that creates clients with the given
+   * client factory.
+   *
+   * @param inLocale  The locale
+   * @param inClock   The clock
+   * @param telemetry The telemetry service
+   * @param idstore   The idstore server configuration
+   * @param clients   The client factory
+   *
+   * @return A client service
+   */
+
+  public static AzIdstoreClients create(
+    final Locale inLocale,
+    final Clock inClock,
+    final AzServerTelemetryServiceType telemetry,
+    final AzServerIdstoreConfiguration idstore,
+    final IdUClientFactoryType clients)
   {
     Objects.requireNonNull(inLocale, "inLocale");
     Objects.requireNonNull(inClock, "inClock");
@@ -87,7 +164,7 @@ public final class AzIdstoreClients
       inClock,
       idstore,
       telemetry,
-      new IdUClients()
+      clients
     );
   }
 
@@ -104,6 +181,117 @@ public final class AzIdstoreClients
     );
   }
 
+  @Override
+  public AzIdstoreLogin login(
+    final String userName,
+    final String password,
+    final Map<String, String> metadata)
+    throws IdUClientException, InterruptedException
+  {
+    Objects.requireNonNull(userName, "userName");
+    Objects.requireNonNull(password, "password");
+    Objects.requireNonNull(metadata, "metadata");
+
+    final var key =
+      this.verifications.map(ignored -> this.verificationKey(userName, password));
+
+    if (key.isPresent()) {
+      final var userId =
+        this.verifications.get().getIfPresent(key.get());
+      if (userId != null) {
+        return new AzIdstoreLogin(userId, true);
+      }
+    }
+
+    final var parameters =
+      new IdUClientConnectionParameters(
+        userName,
+        password,
+        this.idstore.baseURI(),
+        metadata,
+        LOGIN_TIMEOUT,
+        LOGIN_TIMEOUT
+      );
+
+    final var client = this.clientTake();
+    final UUID userId;
+    try {
+      final var result =
+        (IdUResponseLogin) client.connectOrThrow(parameters);
+      userId = result.user().id();
+    } catch (final IdUClientException e) {
+      this.clientReturn(client);
+      throw e;
+    } catch (final InterruptedException | RuntimeException e) {
+      closeClient(client);
+      throw e;
+    }
+    this.clientReturn(client);
+
+    key.ifPresent(k -> this.verifications.get().put(k, userId));
+    return new AzIdstoreLogin(userId, false);
+  }
+
+  private IdUClientType clientTake()
+    throws IdUClientException, InterruptedException
+  {
+    final var client = this.idle.pollFirst();
+    if (client != null) {
+      return client;
+    }
+    return this.createClient();
+  }
+
+  private void clientReturn(
+    final IdUClientType client)
+  {
+    if (!this.idle.offerFirst(client)) {
+      closeClient(client);
+    }
+  }
+
+  private static void closeClient(
+    final IdUClientType client)
+  {
+    try {
+      client.close();
+    } catch (final Exception e) {
+      LOG.debug("Failed to close idstore client: ", e);
+    }
+  }
+
+  private String verificationKey(
+    final String userName,
+    final String password)
+  {
+    try {
+      final var digest =
+        MessageDigest.getInstance("SHA-256");
+      final var userBytes =
+        userName.getBytes(StandardCharsets.UTF_8);
+
+      digest.update(this.verificationSalt);
+      digest.update(ByteBuffer.allocate(4).putInt(userBytes.length).array());
+      digest.update(userBytes);
+      digest.update(password.getBytes(StandardCharsets.UTF_8));
+      return HexFormat.of().formatHex(digest.digest());
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  @Override
+  public void close()
+  {
+    while (true) {
+      final var client = this.idle.pollFirst();
+      if (client == null) {
+        return;
+      }
+      closeClient(client);
+    }
+  }
+
   @Override
   public URI baseURI()
   {
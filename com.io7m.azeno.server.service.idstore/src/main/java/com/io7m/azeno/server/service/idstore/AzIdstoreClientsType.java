@@ -21,6 +21,7 @@ import com.io7m.idstore.user_client.api.IdUClientType;
 import com.io7m.repetoir.core.RPServiceType;
 
 import java.net.URI;
+import java.util.Map;
 
 /**
  * Idstore clients.
@@ -40,6 +41,28 @@ public interface AzIdstoreClientsType extends RPServiceType
   IdUClientType createClient()
     throws IdUClientException, InterruptedException;
 
+  /**
+   * Authenticate a user with the idstore server. Clients are reused between
+   * calls so that connections to the idstore server are kept alive. If a
+   * verification cache is configured, credentials that were recently
+   * accepted are accepted again without contacting the idstore server.
+   *
+   * @param userName The user name
+   * @param password The password
+   * @param metadata The login metadata passed to the idstore server
+   *
+   * @return The authenticated user
+   *
+   * @throws IdUClientException   On client errors, including rejected credentials
+   * @throws InterruptedException On interruption
+   */
+
+  AzIdstoreLogin login(
+    String userName,
+    String password,
+    Map<String, String> metadata)
+    throws IdUClientException, InterruptedException;
+
   /**
    * @return The base URI of the idstore server
    */
@@ -26,9 +26,12 @@ module com.io7m.azeno.server.service.idstore
   requires com.io7m.azeno.server.service.telemetry.api;
   requires com.io7m.azeno.server.api;
 
+  requires com.github.benmanes.caffeine;
+  requires com.io7m.idstore.protocol.user;
   requires com.io7m.idstore.user_client.api;
   requires com.io7m.idstore.user_client;
   requires com.io7m.repetoir.core;
+  requires org.slf4j;
 
   exports com.io7m.azeno.server.service.idstore;
 }
@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.maintenance;
+
+import com.io7m.azeno.database.api.AzJob;
+
+/**
+ * A handler for background jobs of a single type.
+ */
+
+public interface AzJobHandlerType
+{
+  /**
+   * @return The job type handled by this handler
+   */
+
+  String type();
+
+  /**
+   * @return The maximum number of jobs of this type that may run
+   * concurrently on a single node
+   */
+
+  int concurrencyLimit();
+
+  /**
+   * Execute a job. A job may be executed more than once (for example, if a
+   * node stops after executing a job but before recording that the job
+   * succeeded), so execution must be idempotent. The executing thread is
+   * interrupted if the lease on the job is lost, or if the server is
+   * shutting down.
+   *
+   * @param job The job
+   *
+   * @throws Exception On errors; the job is retried if it has attempts
+   *                   remaining
+   */
+
+  void execute(AzJob job)
+    throws Exception;
+}
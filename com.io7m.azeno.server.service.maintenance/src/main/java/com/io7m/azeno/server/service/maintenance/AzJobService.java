@@ -0,0 +1,491 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.maintenance;
+
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzJob;
+import com.io7m.azeno.database.api.AzJobClaimType;
+import com.io7m.azeno.database.api.AzJobCompleteType;
+import com.io7m.azeno.database.api.AzJobHeartbeatType;
+import com.io7m.azeno.database.api.AzJobID;
+import com.io7m.azeno.database.api.AzJobPutType;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.repetoir.core.RPServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A service that executes background jobs from the queue shared by every
+ * server node.
+ *
+ * <p>A single dispatcher thread claims jobs for each registered job type,
+ * up to the concurrency limit of that type on this node, and executes each
+ * claimed job on its own virtual thread. Claims use
+ * {@code SELECT ... FOR UPDATE SKIP LOCKED}, so nodes never claim the same
+ * job and never wait for each other. The dispatcher periodically extends the
+ * leases of running jobs; if a node stops, its leases expire and its jobs are
+ * claimed by another node. A failed job is retried after an exponentially
+ * increasing delay until it runs out of attempts.</p>
+ */
+
+public final class AzJobService
+  implements RPServiceType, AutoCloseable
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzJobService.class);
+
+  private final AzDatabaseType database;
+  private final AzMetricsServiceType metrics;
+  private final AzJobServiceConfiguration configuration;
+  private final Map<String, AzJobHandlerType> handlers;
+  private final Map<String, Semaphore> permits;
+  private final ConcurrentHashMap<AzJobID, Running> running;
+  private final UUID owner;
+  private final Semaphore wake;
+  private final AtomicBoolean closed;
+  private final Thread dispatcher;
+
+  /**
+   * A running job. The {@code recording} flag is set once the job has
+   * finished and its outcome is being recorded; recording the outcome
+   * releases the lease, so the heartbeat must not treat the missing lease
+   * as lost.
+   */
+
+  private record Running(
+    AzJob job,
+    Thread thread,
+    AtomicBoolean recording)
+  {
+
+  }
+
+  private AzJobService(
+    final AzDatabaseType inDatabase,
+    final AzMetricsServiceType inMetrics,
+    final AzJobServiceConfiguration inConfiguration,
+    final List<AzJobHandlerType> inHandlers)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.handlers =
+      inHandlers.stream()
+        .collect(Collectors.toUnmodifiableMap(
+          AzJobHandlerType::type,
+          Function.identity()
+        ));
+    this.permits =
+      inHandlers.stream()
+        .collect(Collectors.toUnmodifiableMap(
+          AzJobHandlerType::type,
+          h -> new Semaphore(Math.max(1, h.concurrencyLimit()))
+        ));
+    this.running =
+      new ConcurrentHashMap<>();
+    this.owner =
+      UUID.randomUUID();
+    this.wake =
+      new Semaphore(0);
+    this.closed =
+      new AtomicBoolean(false);
+    this.dispatcher =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.jobs.dispatcher")
+        .unstarted(this::runDispatcher);
+  }
+
+  /**
+   * Create a background job service.
+   *
+   * @param database      The database
+   * @param metrics       The metrics service
+   * @param configuration The configuration
+   * @param handlers      The handlers for each job type
+   *
+   * @return The service
+   */
+
+  public static AzJobService create(
+    final AzDatabaseType database,
+    final AzMetricsServiceType metrics,
+    final AzJobServiceConfiguration configuration,
+    final List<AzJobHandlerType> handlers)
+  {
+    final var service =
+      new AzJobService(database, metrics, configuration, handlers);
+    service.dispatcher.start();
+    return service;
+  }
+
+  /**
+   * Enqueue a background job. The job may be executed by any node that has
+   * a handler for the job type.
+   *
+   * @param type            The job type
+   * @param data            The job data
+   * @param attemptsMaximum The maximum number of attempts
+   *
+   * @return The new job ID
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  public AzJobID submit(
+    final String type,
+    final String data,
+    final int attemptsMaximum)
+    throws DDatabaseException
+  {
+    final var id = AzJobID.random();
+
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        transaction.query(AzJobPutType.class)
+          .execute(new AzJobPutType.Parameters(
+            id,
+            type,
+            data,
+            attemptsMaximum,
+            Duration.ZERO
+          ));
+        transaction.commit();
+      }
+    }
+
+    if (this.handlers.containsKey(type)) {
+      this.wake.release();
+    }
+    return id;
+  }
+
+  /**
+   * @return The ID under which this node holds job leases
+   */
+
+  public UUID owner()
+  {
+    return this.owner;
+  }
+
+  private void runDispatcher()
+  {
+    final var heartbeatNanos =
+      this.configuration.heartbeatInterval().toNanos();
+    var heartbeatNext =
+      System.nanoTime() + heartbeatNanos;
+
+    while (!this.closed.get()) {
+      try {
+        this.claimAll();
+      } catch (final DDatabaseException e) {
+        LOG.error("Failed to claim jobs: ", e);
+      }
+
+      final var timeNow = System.nanoTime();
+      if (timeNow - heartbeatNext >= 0L) {
+        try {
+          this.heartbeat();
+        } catch (final DDatabaseException e) {
+          LOG.error("Failed to extend job leases: ", e);
+        }
+        heartbeatNext = timeNow + heartbeatNanos;
+      }
+
+      final var waitNanos =
+        Math.min(
+          this.configuration.pollInterval().toNanos(),
+          Math.max(0L, heartbeatNext - System.nanoTime())
+        );
+
+      try {
+        if (this.wake.tryAcquire(waitNanos, TimeUnit.NANOSECONDS)) {
+          this.wake.drainPermits();
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void claimAll()
+    throws DDatabaseException
+  {
+    for (final var handler : this.handlers.values()) {
+      if (this.closed.get()) {
+        return;
+      }
+
+      final var type = handler.type();
+      final var available = this.permits.get(type).availablePermits();
+      if (available == 0) {
+        continue;
+      }
+
+      final List<AzJob> claimed;
+      try (var connection =
+             this.database.openConnection()) {
+        try (var transaction =
+               connection.openTransaction()) {
+          claimed =
+            transaction.query(AzJobClaimType.class)
+              .execute(new AzJobClaimType.Parameters(
+                this.owner,
+                type,
+                available,
+                this.configuration.leaseDuration()
+              ));
+          transaction.commit();
+        }
+      }
+
+      for (final var job : claimed) {
+        this.start(handler, job);
+      }
+    }
+  }
+
+  private void start(
+    final AzJobHandlerType handler,
+    final AzJob job)
+  {
+    this.metrics.onJobClaimed(job.type());
+    this.permits.get(job.type()).acquireUninterruptibly();
+
+    final var thread =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.jobs.job-" + job.id())
+        .unstarted(() -> this.runJob(handler, job));
+
+    this.running.put(job.id(), new Running(job, thread, new AtomicBoolean()));
+    this.metrics.onJobsRunning(this.running.size());
+    thread.start();
+  }
+
+  private void runJob(
+    final AzJobHandlerType handler,
+    final AzJob job)
+  {
+    final var timeThen = System.nanoTime();
+
+    try {
+      Optional<AzJobCompleteType.Failure> failure;
+      try {
+        handler.execute(job);
+        failure = Optional.empty();
+      } catch (final Exception e) {
+        failure = Optional.of(
+          new AzJobCompleteType.Failure(
+            Objects.requireNonNullElse(e.getMessage(), e.getClass().getName()),
+            this.retryDelay(job.attempt())
+          )
+        );
+      }
+
+      /*
+       * A job that is still flagged as interrupted has lost its lease, or was
+       * stopped by the shutdown. A job that fails whilst the service is
+       * closing was most likely interrupted by the shutdown. In either case
+       * the outcome is not recorded; the lease on the job expires and another
+       * node takes it over.
+       */
+
+      if (Thread.interrupted() || (failure.isPresent() && this.closed.get())) {
+        return;
+      }
+
+      this.running.get(job.id()).recording().set(true);
+
+      final var timeTaken = System.nanoTime() - timeThen;
+      if (failure.isEmpty()) {
+        this.metrics.onJobSucceeded(job.type(), timeTaken);
+      } else {
+        LOG.warn(
+          "Job {} ({}) attempt {} failed: {}",
+          job.id(),
+          job.type(),
+          Integer.valueOf(job.attempt()),
+          failure.get().message()
+        );
+        this.metrics.onJobFailed(
+          job.type(),
+          timeTaken,
+          job.hasAttemptsRemaining()
+        );
+      }
+
+      this.complete(job, failure);
+    } finally {
+      this.running.remove(job.id());
+      this.metrics.onJobsRunning(this.running.size());
+      this.permits.get(job.type()).release();
+      this.wake.release();
+    }
+  }
+
+  private void complete(
+    final AzJob job,
+    final Optional<AzJobCompleteType.Failure> failure)
+  {
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        transaction.query(AzJobCompleteType.class)
+          .execute(new AzJobCompleteType.Parameters(
+            this.owner,
+            job.id(),
+            failure
+          ));
+        transaction.commit();
+      }
+    } catch (final DDatabaseException e) {
+      LOG.error("Failed to record the outcome of job {}: ", job.id(), e);
+    }
+  }
+
+  private void heartbeat()
+    throws DDatabaseException
+  {
+    final var jobs = new ArrayList<>(this.running.keySet());
+    if (jobs.isEmpty()) {
+      return;
+    }
+
+    final var held =
+      this.heartbeatJobs(jobs);
+
+    for (final var id : jobs) {
+      if (held.contains(id)) {
+        continue;
+      }
+
+      final var lost = this.running.get(id);
+      if (lost != null && !lost.recording().get()) {
+        LOG.warn("Lost the lease on job {}; abandoning it.", id);
+        this.metrics.onJobLeaseLost(lost.job().type());
+        lost.thread().interrupt();
+      }
+    }
+  }
+
+  private Set<AzJobID> heartbeatJobs(
+    final List<AzJobID> jobs)
+    throws DDatabaseException
+  {
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        final var held =
+          transaction.query(AzJobHeartbeatType.class)
+            .execute(new AzJobHeartbeatType.Parameters(
+              this.owner,
+              jobs,
+              this.configuration.leaseDuration()
+            ));
+        transaction.commit();
+        return held;
+      }
+    }
+  }
+
+  /**
+   * The delay doubles with each attempt up to the configured maximum. Half
+   * of the delay is randomized so that jobs that failed together do not all
+   * retry together.
+   */
+
+  private Duration retryDelay(
+    final int attempt)
+  {
+    final var initial =
+      this.configuration.retryInitial().toMillis();
+    final var maximum =
+      this.configuration.retryMaximum().toMillis();
+    final var shift =
+      Math.clamp(attempt - 1, 0, 62);
+
+    final long delay;
+    if (initial > (maximum >> shift)) {
+      delay = maximum;
+    } else {
+      delay = initial << shift;
+    }
+
+    final var half = delay / 2L;
+    return Duration.ofMillis(
+      half + ThreadLocalRandom.current().nextLong(half + 1L)
+    );
+  }
+
+  @Override
+  public String description()
+  {
+    return "Background job service.";
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.wake.release();
+
+      try {
+        this.dispatcher.join();
+        for (final var job : List.copyOf(this.running.values())) {
+          job.thread().interrupt();
+        }
+        for (final var job : List.copyOf(this.running.values())) {
+          job.thread().join();
+        }
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzJobService 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.maintenance;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for the background job service.
+ *
+ * @param pollInterval      The maximum time between checks for new jobs
+ * @param leaseDuration     The duration of the lease taken on a claimed job
+ * @param heartbeatInterval The time between extensions of the leases of
+ *                          running jobs
+ * @param retryInitial      The delay before the first retry of a failed job
+ * @param retryMaximum      The maximum delay before any retry of a failed job
+ */
+
+public record AzJobServiceConfiguration(
+  Duration pollInterval,
+  Duration leaseDuration,
+  Duration heartbeatInterval,
+  Duration retryInitial,
+  Duration retryMaximum)
+{
+  /**
+   * Configuration for the background job service.
+   *
+   * @param pollInterval      The maximum time between checks for new jobs
+   * @param leaseDuration     The duration of the lease taken on a claimed job
+   * @param heartbeatInterval The time between extensions of the leases of
+   *                          running jobs
+   * @param retryInitial      The delay before the first retry of a failed job
+   * @param retryMaximum      The maximum delay before any retry of a failed job
+   */
+
+  public AzJobServiceConfiguration
+  {
+    Objects.requireNonNull(pollInterval, "pollInterval");
+    Objects.requireNonNull(leaseDuration, "leaseDuration");
+    Objects.requireNonNull(heartbeatInterval, "heartbeatInterval");
+    Objects.requireNonNull(retryInitial, "retryInitial");
+    Objects.requireNonNull(retryMaximum, "retryMaximum");
+
+    if (heartbeatInterval.compareTo(leaseDuration) >= 0) {
+      throw new IllegalArgumentException(
+        "Heartbeat interval must be shorter than the lease duration."
+      );
+    }
+    if (retryInitial.compareTo(retryMaximum) > 0) {
+      throw new IllegalArgumentException(
+        "Initial retry delay must not exceed the maximum retry delay."
+      );
+    }
+  }
+
+  /**
+   * @return A sensible default configuration
+   */
+
+  public static AzJobServiceConfiguration defaults()
+  {
+    return new AzJobServiceConfiguration(
+      Duration.ofSeconds(5L),
+      Duration.ofSeconds(60L),
+      Duration.ofSeconds(20L),
+      Duration.ofSeconds(10L),
+      Duration.ofHours(1L)
+    );
+  }
+}
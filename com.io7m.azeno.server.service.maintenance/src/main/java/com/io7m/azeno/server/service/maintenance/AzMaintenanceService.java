@@ -17,18 +17,27 @@
 
 package com.io7m.azeno.server.service.maintenance;
 
+import com.io7m.azeno.database.api.AzAssetDataMigrateType;
+import com.io7m.azeno.database.api.AzAuditPartitionMaintainType;
+import com.io7m.azeno.database.api.AzAuditPartitionMaintenance;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzJobDeleteFinishedType;
+import com.io7m.azeno.database.api.AzSessionDeleteExpiredType;
+import com.io7m.azeno.server.api.AzServerAuditRetentionAction;
+import com.io7m.azeno.server.api.AzServerMaintenanceConfiguration;
 import com.io7m.azeno.server.service.clock.AzServerClock;
 import com.io7m.azeno.server.service.configuration.AzConfigurationServiceType;
 import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType;
 import com.io7m.azeno.server.service.tls.AzTLSContextServiceType;
 import com.io7m.darco.api.DDatabaseException;
 import com.io7m.repetoir.core.RPServiceType;
+import io.opentelemetry.api.trace.Span;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.Duration;
+import java.time.OffsetDateTime;
 import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
@@ -46,6 +55,10 @@ public final class AzMaintenanceService
   private static final Logger LOG =
     LoggerFactory.getLogger(AzMaintenanceService.class);
 
+  private static final long ASSET_MIGRATION_BATCH = 100L;
+  private static final int AUDIT_PARTITIONS_AHEAD = 3;
+  private static final Duration JOB_RETENTION = Duration.ofDays(7L);
+
   private final ExecutorService executor;
   private final AzServerClock clock;
   private final AzServerTelemetryServiceType telemetry;
@@ -145,6 +158,12 @@ public final class AzMaintenanceService
         // Not important.
       }
 
+      try {
+        this.runAssetMigration();
+      } catch (final Exception e) {
+        // Not important.
+      }
+
       final var timeNow =
         this.clock.now();
       final var timeNextMidnight =
@@ -213,33 +232,163 @@ public final class AzMaintenanceService
         .startSpan();
 
     try (var ignored = span.makeCurrent()) {
-      try (var connection =
-             this.database.openConnection()) {
-        try (var transaction =
-               connection.openTransaction()) {
-
-          try {
-            executeDatabaseMaintenance(transaction);
-          } catch (final Exception e) {
-            span.recordException(e);
-          }
+      final var maintenance =
+        this.configuration.configuration().maintenanceConfiguration();
+      final var timeNow =
+        this.clock.now();
 
-          LOG.info("Maintenance task completed.");
+      /*
+       * Audit partition maintenance takes exclusive locks on the audit
+       * table, so it runs in a short transaction of its own rather than
+       * holding those locks for the duration of the other maintenance work.
+       * A failure of either does not prevent the other from running.
+       */
+
+      this.runMaintenanceTransaction(
+        span,
+        transaction -> executeDatabaseMaintenance(transaction, timeNow)
+      );
+      this.runMaintenanceTransaction(
+        span,
+        transaction -> {
+          executeAuditPartitionMaintenance(transaction, maintenance, timeNow);
         }
+      );
+
+      LOG.info("Maintenance task completed.");
+    } catch (final Exception e) {
+      LOG.error("Maintenance task failed: ", e);
+      span.recordException(e);
+    } finally {
+      span.end();
+    }
+  }
+
+  private interface MaintenanceTransactionType
+  {
+    void execute(AzDatabaseTransactionType transaction)
+      throws DDatabaseException;
+  }
+
+  private void runMaintenanceTransaction(
+    final Span span,
+    final MaintenanceTransactionType task)
+  {
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        task.execute(transaction);
+        transaction.commit();
       }
     } catch (final Exception e) {
       LOG.error("Maintenance task failed: ", e);
       span.recordException(e);
+    }
+  }
+
+  /**
+   * Migrate assets stored using older data types to the current data type.
+   * Each batch of assets is migrated in its own transaction so that rows are
+   * never locked for long, and the migration stops as soon as there is
+   * nothing left to migrate.
+   */
+
+  private void runAssetMigration()
+  {
+    final var span =
+      this.telemetry.tracer()
+        .spanBuilder("AssetMigration")
+        .startSpan();
+
+    var total = 0L;
+    var totalUnparseable = 0L;
+    try (var ignored = span.makeCurrent()) {
+      while (!this.closed.get()) {
+        final AzAssetDataMigrateType.Result result;
+        try (var connection =
+               this.database.openConnection()) {
+          try (var transaction =
+                 connection.openTransaction()) {
+            result =
+              transaction.query(AzAssetDataMigrateType.class)
+                .execute(Long.valueOf(ASSET_MIGRATION_BATCH));
+            transaction.commit();
+          }
+        }
+
+        total += result.migrated();
+        totalUnparseable += result.unparseable();
+        if (result.examined() == 0L) {
+          break;
+        }
+      }
+
+      if (total > 0L) {
+        LOG.info("Migrated {} assets to the current data type.", total);
+      }
+      if (totalUnparseable > 0L) {
+        LOG.warn(
+          "Skipped {} assets whose data could not be parsed.",
+          totalUnparseable
+        );
+      }
+    } catch (final Exception e) {
+      LOG.error("Asset migration failed: ", e);
+      span.recordException(e);
     } finally {
       span.end();
     }
   }
 
   private static void executeDatabaseMaintenance(
-    final AzDatabaseTransactionType transaction)
+    final AzDatabaseTransactionType transaction,
+    final OffsetDateTime timeNow)
     throws DDatabaseException
   {
+    final var sessionsDeleted =
+      transaction.query(AzSessionDeleteExpiredType.class)
+        .execute(timeNow);
 
+    LOG.info("Deleted {} expired sessions.", sessionsDeleted);
+
+    final var jobsDeleted =
+      transaction.query(AzJobDeleteFinishedType.class)
+        .execute(timeNow.minus(JOB_RETENTION));
+
+    LOG.info("Deleted {} finished jobs.", jobsDeleted);
+  }
+
+  private static void executeAuditPartitionMaintenance(
+    final AzDatabaseTransactionType transaction,
+    final AzServerMaintenanceConfiguration configuration,
+    final OffsetDateTime timeNow)
+    throws DDatabaseException
+  {
+    /*
+     * Audit events are partitioned by month. Partitions are created a few
+     * months ahead of time so that events are never written to the default
+     * partition, and partitions that lie entirely outside the retention
+     * period are removed.
+     */
+
+    final var partitions =
+      transaction.query(AzAuditPartitionMaintainType.class)
+        .execute(
+          new AzAuditPartitionMaintenance(
+            timeNow,
+            AUDIT_PARTITIONS_AHEAD,
+            configuration.auditRetention().map(timeNow::minus),
+            configuration.auditRetentionAction()
+              == AzServerAuditRetentionAction.DROP
+          )
+        );
+
+    LOG.info(
+      "Created {} audit partitions, removed {} expired audit partitions.",
+      Long.valueOf(partitions.created()),
+      Long.valueOf(partitions.removed())
+    );
   }
 
   @Override
@@ -31,6 +31,7 @@ module com.io7m.azeno.server.service.maintenance
   requires com.io7m.azeno.server.service.tls;
 
   requires com.io7m.repetoir.core;
+  requires io.opentelemetry.api;
   requires io.opentelemetry.context;
   requires org.slf4j;
   requires com.io7m.darco.api;
@@ -0,0 +1,65 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.reqlimit;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A request was admitted. Closing the admission releases the request's
+ * place in the in-flight request count.
+ */
+
+public final class AzRequestAdmitted implements AzRequestAdmissionType
+{
+  private static final AzRequestAdmitted UNLIMITED =
+    new AzRequestAdmitted(null);
+
+  private final AtomicInteger inFlight;
+  private final AtomicBoolean closed;
+
+  AzRequestAdmitted(
+    final AtomicInteger inInFlight)
+  {
+    this.inFlight = inInFlight;
+    this.closed = new AtomicBoolean(false);
+  }
+
+  /**
+   * @return An admission for a request that is not subject to any limits
+   */
+
+  public static AzRequestAdmitted unlimited()
+  {
+    return UNLIMITED;
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.inFlight != null && this.closed.compareAndSet(false, true)) {
+      this.inFlight.decrementAndGet();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzRequestAdmitted 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -19,39 +19,119 @@ package com.io7m.azeno.server.service.reqlimit;
 
 import com.io7m.azeno.server.http.AzHTTPServerRequests;
 import com.io7m.azeno.server.service.configuration.AzConfigurationServiceType;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
 import com.io7m.repetoir.core.RPServiceType;
 import io.helidon.webserver.http.ServerRequest;
 import org.apache.commons.io.input.BoundedInputStream;
 
 import java.io.InputStream;
+import java.util.Locale;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
 import java.util.function.Function;
 
 /**
- * Methods to handle request size limits.
+ * Methods to handle request size, rate, and concurrency limits.
  */
 
 public final class AzRequestLimits implements RPServiceType
 {
   private final AzConfigurationServiceType configService;
+  private final AzMetricsServiceType metrics;
   private final Function<Long, String> requestTooLargeMessage;
+  private final Optional<AzRequestRateLimiter<UUID>> userLimits;
+  private final Optional<AzRequestRateLimiter<String>> addressLimits;
 
   /**
-   * Methods to handle request size limits.
+   * Methods to handle request size, rate, and concurrency limits.
    *
    * @param inConfigService          The configuration service
+   * @param inMetrics                The metrics service
    * @param inRequestTooLargeMessage A function that formats a message
    */
 
   public AzRequestLimits(
     final AzConfigurationServiceType inConfigService,
+    final AzMetricsServiceType inMetrics,
     final Function<Long, String> inRequestTooLargeMessage)
   {
     this.configService =
       Objects.requireNonNull(inConfigService, "configService");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
     this.requestTooLargeMessage =
       Objects.requireNonNull(
         inRequestTooLargeMessage, "requestTooLargeMessage");
+
+    final var limits =
+      inConfigService.configuration()
+        .limitsConfiguration();
+
+    this.userLimits =
+      limits.userRequestLimits()
+        .map(c -> {
+          return new AzRequestRateLimiter<>(
+            AzRequestLimitScope.USER, c, System::nanoTime);
+        });
+    this.addressLimits =
+      limits.addressRequestLimits()
+        .map(c -> {
+          return new AzRequestRateLimiter<>(
+            AzRequestLimitScope.ADDRESS, c, System::nanoTime);
+        });
+  }
+
+  /**
+   * Try to admit a request from the given authenticated user. The returned
+   * admission must be closed when the request completes.
+   *
+   * @param userId The user
+   *
+   * @return The admission
+   */
+
+  public AzRequestAdmissionType admitUser(
+    final UUID userId)
+  {
+    Objects.requireNonNull(userId, "userId");
+
+    if (this.userLimits.isEmpty()) {
+      return AzRequestAdmitted.unlimited();
+    }
+    return this.recordThrottling(this.userLimits.get().tryAcquire(userId));
+  }
+
+  /**
+   * Try to admit a request from the given remote address. The returned
+   * admission must be closed when the request completes.
+   *
+   * @param address The remote address
+   *
+   * @return The admission
+   */
+
+  public AzRequestAdmissionType admitAddress(
+    final String address)
+  {
+    Objects.requireNonNull(address, "address");
+
+    if (this.addressLimits.isEmpty()) {
+      return AzRequestAdmitted.unlimited();
+    }
+    return this.recordThrottling(this.addressLimits.get().tryAcquire(address));
+  }
+
+  private AzRequestAdmissionType recordThrottling(
+    final AzRequestAdmissionType admission)
+  {
+    if (admission instanceof final AzRequestThrottled throttled) {
+      this.metrics.onRequestThrottled(
+        throttled.scope().name().toLowerCase(Locale.ROOT),
+        throttled.reason().name().toLowerCase(Locale.ROOT)
+      );
+    }
+    return admission;
   }
 
   /**
@@ -96,6 +176,34 @@ public final class AzRequestLimits implements RPServiceType
     );
   }
 
+  /**
+   * Check that a single framed message of the given size is permitted,
+   * raising an exception if the size is larger than the maximum permitted
+   * size of ordinary commands.
+   *
+   * @param size The message size
+   *
+   * @throws AzRequestLimitExceeded On errors
+   */
+
+  public void checkMessageSize(
+    final long size)
+    throws AzRequestLimitExceeded
+  {
+    final var maximum =
+      this.configService.configuration()
+        .limitsConfiguration()
+        .maximumCommandSizeOctets();
+
+    if (Long.compareUnsigned(size, maximum) > 0) {
+      throw new AzRequestLimitExceeded(
+        this.requestTooLargeMessage.apply(Long.valueOf(size)),
+        maximum,
+        size
+      );
+    }
+  }
+
   @Override
   public String description()
   {
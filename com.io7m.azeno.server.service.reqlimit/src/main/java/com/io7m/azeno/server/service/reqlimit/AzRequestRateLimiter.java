@@ -0,0 +1,314 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.reqlimit;
+
+import com.io7m.azeno.server.api.AzServerRequestRateLimitConfiguration;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Request rate and concurrency limits for a set of clients.
+ *
+ * <p>Each client has a token bucket, implemented as a generic cell rate
+ * algorithm: the bucket is a single "theoretical arrival time" that is
+ * advanced with a compare-and-set for each admitted request, and so no
+ * locks are taken. Each client also has a counter of requests in flight.
+ * Clients whose buckets are full and that have no requests in flight are
+ * periodically forgotten. A forgotten client is first retired with a
+ * compare-and-set on its in-flight counter, so a request that fetched the
+ * client concurrently cannot be admitted against a client that is no longer
+ * tracked; such a request simply retries with a fresh client.</p>
+ *
+ * @param <K> The type of client keys
+ */
+
+public final class AzRequestRateLimiter<K>
+{
+  private static final int SWEEP_INTERVAL = 1024;
+
+  /*
+   * Intervals are bounded so that arithmetic on monotonic clock values
+   * cannot overflow.
+   */
+
+  private static final long INTERVAL_MAXIMUM =
+    Duration.ofDays(365L).toNanos();
+
+  private static final Duration CONCURRENCY_RETRY =
+    Duration.ofSeconds(1L);
+
+  private final AzRequestLimitScope scope;
+  private final int concurrencyMaximum;
+  private final long emissionNanos;
+  private final long toleranceNanos;
+  private final LongSupplier clock;
+  private final ConcurrentHashMap<K, ClientState> clients;
+  private final AtomicInteger created;
+  private final AtomicBoolean sweeping;
+
+  /**
+   * Request rate and concurrency limits for a set of clients.
+   *
+   * @param inScope         The scope of the limits
+   * @param inConfiguration The limits
+   * @param inClock         A monotonic clock in nanoseconds
+   */
+
+  public AzRequestRateLimiter(
+    final AzRequestLimitScope inScope,
+    final AzServerRequestRateLimitConfiguration inConfiguration,
+    final LongSupplier inClock)
+  {
+    this.scope =
+      Objects.requireNonNull(inScope, "scope");
+    this.clock =
+      Objects.requireNonNull(inClock, "clock");
+
+    Objects.requireNonNull(inConfiguration, "configuration");
+    this.concurrencyMaximum =
+      inConfiguration.maximumConcurrentRequests();
+    this.emissionNanos =
+      emissionIntervalOf(inConfiguration.requestsPerSecond());
+    this.toleranceNanos =
+      toleranceOf(this.emissionNanos, inConfiguration.burst());
+
+    this.clients =
+      new ConcurrentHashMap<>();
+    this.created =
+      new AtomicInteger();
+    this.sweeping =
+      new AtomicBoolean(false);
+  }
+
+  private static long emissionIntervalOf(
+    final double requestsPerSecond)
+  {
+    final var nanos = 1_000_000_000.0 / requestsPerSecond;
+    return (long) Math.clamp(nanos, 1.0, (double) INTERVAL_MAXIMUM);
+  }
+
+  private static long toleranceOf(
+    final long emission,
+    final int burst)
+  {
+    try {
+      return Math.min(Math.multiplyExact(emission, burst), INTERVAL_MAXIMUM);
+    } catch (final ArithmeticException e) {
+      return INTERVAL_MAXIMUM;
+    }
+  }
+
+  /**
+   * Try to admit a request from the given client.
+   *
+   * @param key The client
+   *
+   * @return The admission
+   */
+
+  public AzRequestAdmissionType tryAcquire(
+    final K key)
+  {
+    Objects.requireNonNull(key, "key");
+
+    final var now =
+      this.clock.getAsLong();
+
+    ClientState state;
+    while (true) {
+      state = this.clientFor(key, now);
+
+      final var entered = state.enter(this.concurrencyMaximum);
+      if (entered == ClientEntry.ENTERED) {
+        break;
+      }
+      if (entered == ClientEntry.FULL) {
+        return new AzRequestThrottled(
+          this.scope,
+          AzRequestThrottleReason.CONCURRENCY,
+          CONCURRENCY_RETRY
+        );
+      }
+      this.clients.remove(key, state);
+    }
+
+    final var waitNanos =
+      state.take(now, this.emissionNanos, this.toleranceNanos);
+
+    if (waitNanos > 0L) {
+      state.inFlight.decrementAndGet();
+      return new AzRequestThrottled(
+        this.scope,
+        AzRequestThrottleReason.RATE,
+        Duration.ofNanos(waitNanos)
+      );
+    }
+
+    return new AzRequestAdmitted(state.inFlight);
+  }
+
+  /**
+   * @return The number of clients currently tracked
+   */
+
+  public int clientCount()
+  {
+    return this.clients.size();
+  }
+
+  private ClientState clientFor(
+    final K key,
+    final long now)
+  {
+    final var existing = this.clients.get(key);
+    if (existing != null) {
+      return existing;
+    }
+
+    final var state =
+      this.clients.computeIfAbsent(key, k -> new ClientState(now));
+
+    if (this.created.incrementAndGet() % SWEEP_INTERVAL == 0) {
+      this.sweep(now);
+    }
+    return state;
+  }
+
+  /**
+   * Forget clients that are idle.
+   */
+
+  private void sweep(
+    final long now)
+  {
+    if (!this.sweeping.compareAndSet(false, true)) {
+      return;
+    }
+
+    try {
+      for (final var entry : this.clients.entrySet()) {
+        final var state = entry.getValue();
+        if (state.tryRetire(now)) {
+          this.clients.remove(entry.getKey(), state);
+        }
+      }
+    } finally {
+      this.sweeping.set(false);
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzRequestRateLimiter %s 0x%s]"
+      .formatted(
+        this.scope,
+        Long.toUnsignedString(this.hashCode(), 16)
+      );
+  }
+
+  private enum ClientEntry
+  {
+    ENTERED,
+    FULL,
+    RETIRED
+  }
+
+  private static final class ClientState
+  {
+    /*
+     * The in-flight count of a client that has been retired by a sweep. No
+     * request can enter a retired client.
+     */
+
+    private static final int RETIRED = -1;
+
+    private final AtomicLong arrival;
+    private final AtomicInteger inFlight;
+
+    ClientState(
+      final long now)
+    {
+      this.arrival = new AtomicLong(now);
+      this.inFlight = new AtomicInteger(0);
+    }
+
+    ClientEntry enter(
+      final int maximum)
+    {
+      while (true) {
+        final var current = this.inFlight.get();
+        if (current == RETIRED) {
+          return ClientEntry.RETIRED;
+        }
+        if (current >= maximum) {
+          return ClientEntry.FULL;
+        }
+        if (this.inFlight.compareAndSet(current, current + 1)) {
+          return ClientEntry.ENTERED;
+        }
+      }
+    }
+
+    long take(
+      final long now,
+      final long emission,
+      final long tolerance)
+    {
+      while (true) {
+        final var arrivalNow =
+          this.arrival.get();
+        final var start =
+          arrivalNow - now > 0L ? arrivalNow : now;
+        final var next =
+          start + emission;
+        final var wait =
+          (next - now) - tolerance;
+
+        if (wait > 0L) {
+          return wait;
+        }
+        if (this.arrival.compareAndSet(arrivalNow, next)) {
+          return 0L;
+        }
+      }
+    }
+
+    /**
+     * Retire this client if it is idle. A client is idle if its bucket has
+     * refilled completely and it has no requests in flight; forgetting it
+     * loses no information. A retired client is never revived, as a request
+     * may already have fetched it and would otherwise be admitted against a
+     * client that is no longer tracked.
+     */
+
+    boolean tryRetire(
+      final long now)
+    {
+      if (this.arrival.get() - now > 0L) {
+        return false;
+      }
+      return this.inFlight.compareAndSet(0, RETIRED);
+    }
+  }
+}
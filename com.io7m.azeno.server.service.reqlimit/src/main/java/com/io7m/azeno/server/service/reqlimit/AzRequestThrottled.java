@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.reqlimit;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * A request was rejected because a client exceeded a request limit.
+ *
+ * @param scope      The scope of the limit that was exceeded
+ * @param reason     The limit that was exceeded
+ * @param retryAfter The time after which the request may succeed if retried
+ */
+
+public record AzRequestThrottled(
+  AzRequestLimitScope scope,
+  AzRequestThrottleReason reason,
+  Duration retryAfter)
+  implements AzRequestAdmissionType
+{
+  /**
+   * A request was rejected because a client exceeded a request limit.
+   *
+   * @param scope      The scope of the limit that was exceeded
+   * @param reason     The limit that was exceeded
+   * @param retryAfter The time after which the request may succeed if retried
+   */
+
+  public AzRequestThrottled
+  {
+    Objects.requireNonNull(scope, "scope");
+    Objects.requireNonNull(reason, "reason");
+    Objects.requireNonNull(retryAfter, "retryAfter");
+  }
+
+  /**
+   * @return The retry time in whole seconds, rounded up, and at least one
+   */
+
+  public long retryAfterSeconds()
+  {
+    final var seconds =
+      this.retryAfter.plusNanos(999_999_999L).toSeconds();
+    return Math.max(1L, seconds);
+  }
+
+  @Override
+  public void close()
+  {
+
+  }
+}
@@ -27,6 +27,7 @@ module com.io7m.azeno.server.service.reqlimit
   requires com.io7m.azeno.server.api;
   requires com.io7m.azeno.server.service.configuration;
   requires com.io7m.azeno.server.http;
+  requires com.io7m.azeno.server.service.telemetry.api;
 
   requires com.io7m.repetoir.core;
   requires io.helidon.webserver;
@@ -18,6 +18,7 @@ package com.io7m.azeno.server.service.sessions;
 
 import com.io7m.azeno.model.AzValidityException;
 
+import java.security.DrbgParameters;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.HexFormat;
@@ -70,16 +71,16 @@ public record AzSessionSecretIdentifier(
   /**
    * Generate a random identifier.
    *
+   * <p>Identifiers are produced by a set of DRBG instances that are seeded
+   * once and then never block. The instances are striped by thread so that
+   * concurrent logins do not contend on a single generator.</p>
+   *
    * @return The identifier
    */
 
   public static AzSessionSecretIdentifier generate()
   {
-    try {
-      return generate(SecureRandom.getInstanceStrong());
-    } catch (final NoSuchAlgorithmException e) {
-      throw new IllegalStateException(e);
-    }
+    return generate(Generators.current());
   }
 
   /**
@@ -97,4 +98,47 @@ public record AzSessionSecretIdentifier(
     rng.nextBytes(data);
     return new AzSessionSecretIdentifier(HEX_FORMAT.formatHex(data));
   }
+
+  private static final class Generators
+  {
+    private static final SecureRandom[] GENERATORS =
+      createGenerators();
+
+    private Generators()
+    {
+
+    }
+
+    private static SecureRandom[] createGenerators()
+    {
+      final var count =
+        Runtime.getRuntime().availableProcessors();
+      final var generators =
+        new SecureRandom[count];
+
+      try {
+        for (int index = 0; index < count; ++index) {
+          generators[index] =
+            SecureRandom.getInstance(
+              "DRBG",
+              DrbgParameters.instantiation(
+                256,
+                DrbgParameters.Capability.RESEED_ONLY,
+                null
+              )
+            );
+        }
+      } catch (final NoSuchAlgorithmException e) {
+        throw new IllegalStateException(e);
+      }
+      return generators;
+    }
+
+    static SecureRandom current()
+    {
+      final var index =
+        Math.floorMod(Thread.currentThread().threadId(), GENERATORS.length);
+      return GENERATORS[index];
+    }
+  }
 }
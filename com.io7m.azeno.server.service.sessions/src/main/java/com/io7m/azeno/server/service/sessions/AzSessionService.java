@@ -20,9 +20,11 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.Scheduler;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.model.AzUser;
 import com.io7m.azeno.model.AzUserID;
 import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.darco.api.DDatabaseException;
 import com.io7m.idstore.model.IdName;
 import com.io7m.jaffirm.core.Preconditions;
 import com.io7m.medrina.api.MSubject;
@@ -30,7 +32,13 @@ import com.io7m.repetoir.core.RPServiceType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentMap;
@@ -40,6 +48,12 @@ import static java.lang.Long.toUnsignedString;
 
 /**
  * A service to create and manage sessions.
+ *
+ * <p>Sessions are written through to a {@link AzSessionStoreType}, and the
+ * service holds a near-cache of the sessions it has seen in memory. Lookups
+ * of cached sessions do not touch the store, except to periodically extend
+ * the session's expiry time in the store and to discover sessions that have
+ * been deleted by other servers.</p>
  */
 
 public final class AzSessionService implements RPServiceType
@@ -47,29 +61,60 @@ public final class AzSessionService implements RPServiceType
   private static final Logger LOG =
     LoggerFactory.getLogger(AzSessionService.class);
 
-  private final Cache<AzSessionSecretIdentifier, AzSession> sessions;
-  private final ConcurrentMap<AzSessionSecretIdentifier, AzSession> sessionsMap;
+  private static final Duration REVALIDATE_MAXIMUM =
+    Duration.ofSeconds(30L);
+
+  private final Cache<AzSessionSecretIdentifier, Entry> sessions;
+  private final ConcurrentMap<AzSessionSecretIdentifier, Entry> sessionsMap;
   private final AzMetricsServiceType metrics;
+  private final AzSessionStoreType store;
+  private final Duration expiration;
+  private final Duration revalidate;
+
+  /**
+   * A service to create and manage sessions. Sessions are held only in
+   * the memory of the current process.
+   *
+   * @param inMetrics    The metrics service
+   * @param inExpiration The session expiration time
+   */
+
+  public AzSessionService(
+    final AzMetricsServiceType inMetrics,
+    final Duration inExpiration)
+  {
+    this(inMetrics, new AzSessionStoreLocal(), inExpiration);
+  }
 
   /**
    * A service to create and manage sessions.
    *
    * @param inMetrics    The metrics service
+   * @param inStore      The session store
    * @param inExpiration The session expiration time
    */
 
   public AzSessionService(
     final AzMetricsServiceType inMetrics,
+    final AzSessionStoreType inStore,
     final Duration inExpiration)
   {
     this.metrics =
       Objects.requireNonNull(inMetrics, "inMetrics");
+    this.store =
+      Objects.requireNonNull(inStore, "inStore");
+    this.expiration =
+      Objects.requireNonNull(inExpiration, "inExpiration");
+
+    final var half = inExpiration.dividedBy(2L);
+    this.revalidate =
+      half.compareTo(REVALIDATE_MAXIMUM) < 0 ? half : REVALIDATE_MAXIMUM;
 
     this.sessions =
       Caffeine.newBuilder()
         .expireAfterAccess(inExpiration)
         .scheduler(createScheduler())
-        .<AzSessionSecretIdentifier, AzSession>evictionListener(
+        .<AzSessionSecretIdentifier, Entry>evictionListener(
           (key, val, removalCause) -> this.onSessionRemoved(removalCause))
         .build();
 
@@ -92,6 +137,30 @@ public final class AzSessionService implements RPServiceType
     );
   }
 
+  private static OffsetDateTime timeNow()
+  {
+    return OffsetDateTime.now(ZoneOffset.UTC);
+  }
+
+  /**
+   * @param id The session identifier
+   *
+   * @return The hex-encoded SHA-256 hash of the session identifier
+   */
+
+  static String hashOf(
+    final AzSessionSecretIdentifier id)
+  {
+    try {
+      final var digest = MessageDigest.getInstance("SHA-256");
+      return HexFormat.of().formatHex(
+        digest.digest(id.value().getBytes(StandardCharsets.US_ASCII))
+      );
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   private void onSessionRemoved(
     final RemovalCause removalCause)
   {
@@ -115,14 +184,96 @@ public final class AzSessionService implements RPServiceType
    * @param id The identifier
    *
    * @return The session
+   *
+   * @throws DDatabaseException If the session is not held in memory and the
+   *                            store cannot be read
    */
 
   public Optional<AzSession> findSession(
     final AzSessionSecretIdentifier id)
+    throws DDatabaseException
   {
-    return Optional.ofNullable(
-      this.sessionsMap.get(Objects.requireNonNull(id, "id"))
-    );
+    Objects.requireNonNull(id, "id");
+
+    final var entry = this.sessionsMap.get(id);
+    if (entry != null) {
+      final var now = timeNow();
+      if (now.isBefore(entry.revalidateAt)) {
+        return Optional.of(entry.session);
+      }
+      return this.revalidate(id, entry, now);
+    }
+
+    try {
+      return Optional.ofNullable(this.sessions.get(id, this::loadUnchecked))
+        .map(e -> e.session);
+    } catch (final StoreUncheckedException e) {
+      throw e.getCause();
+    }
+  }
+
+  /**
+   * Extend the session in the store, and discover if it has been deleted.
+   * The revalidation time is moved forward before the store is contacted
+   * so that concurrent requests on the same session continue to be served
+   * from memory. Only a store that reports that the session does not exist
+   * causes the session to be dropped; if the store cannot be reached, the
+   * session continues to be served from memory until the next
+   * revalidation.
+   */
+
+  private Optional<AzSession> revalidate(
+    final AzSessionSecretIdentifier id,
+    final Entry entry,
+    final OffsetDateTime now)
+  {
+    entry.revalidateAt = now.plus(this.revalidate);
+
+    final boolean exists;
+    try {
+      exists = this.store.extend(entry.hash, now.plus(this.expiration));
+    } catch (final DDatabaseException e) {
+      LOG.warn("Failed to revalidate session: ", e);
+      return Optional.of(entry.session);
+    }
+
+    if (exists) {
+      return Optional.of(entry.session);
+    }
+
+    this.sessions.invalidate(id);
+    return Optional.empty();
+  }
+
+  private Entry loadUnchecked(
+    final AzSessionSecretIdentifier id)
+  {
+    try {
+      return this.load(id);
+    } catch (final DDatabaseException e) {
+      throw new StoreUncheckedException(e);
+    }
+  }
+
+  private Entry load(
+    final AzSessionSecretIdentifier id)
+    throws DDatabaseException
+  {
+    final var hash =
+      hashOf(id);
+    final var now =
+      timeNow();
+
+    return this.store.find(hash, now)
+      .map(user -> {
+        LOG.debug("loaded session from store");
+        return new Entry(
+          new AzSession(id, user),
+          hash,
+          now.plus(this.revalidate)
+        );
+      })
+      .orElse(null);
   }
 
   /**
@@ -133,12 +284,80 @@ public final class AzSessionService implements RPServiceType
    * @param subject The user subject
    *
    * @return A new session
+   *
+   * @throws DDatabaseException If the session cannot be stored
    */
 
   public AzSession createSession(
     final AzUserID userId,
     final IdName name,
     final MSubject subject)
+    throws DDatabaseException
+  {
+    final var pending =
+      this.reserveSession(userId, name, subject);
+
+    try {
+      this.store.put(pending.hash(), pending.user(), pending.expires());
+    } catch (final DDatabaseException e) {
+      this.sessions.invalidate(pending.session().id());
+      throw e;
+    }
+    return this.publishSession(pending);
+  }
+
+  /**
+   * Create a new session, writing it to the store as part of the given
+   * transaction. If the transaction subsequently fails to commit, the
+   * caller must delete the session with
+   * {@link #deleteSession(AzSessionSecretIdentifier)}.
+   *
+   * @param transaction The transaction
+   * @param userId      The user ID
+   * @param name        The user's latest username
+   * @param subject     The user subject
+   *
+   * @return A new session
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  public AzSession createSession(
+    final AzDatabaseTransactionType transaction,
+    final AzUserID userId,
+    final IdName name,
+    final MSubject subject)
+    throws DDatabaseException
+  {
+    Objects.requireNonNull(transaction, "transaction");
+
+    final var pending =
+      this.reserveSession(userId, name, subject);
+
+    try {
+      this.store.put(
+        transaction,
+        pending.hash(),
+        pending.user(),
+        pending.expires()
+      );
+    } catch (final DDatabaseException e) {
+      this.sessions.invalidate(pending.session().id());
+      throw e;
+    }
+    return this.publishSession(pending);
+  }
+
+  /**
+   * Generate a new session and insert it into the near-cache. The insertion
+   * is atomic, and so no other session can be assigned the same identifier
+   * even if identifiers are being generated concurrently.
+   */
+
+  private PendingSession reserveSession(
+    final AzUserID userId,
+    final IdName name,
+    final MSubject subject)
   {
     Objects.requireNonNull(userId, "userId");
     Objects.requireNonNull(name, "name");
@@ -146,15 +365,37 @@ public final class AzSessionService implements RPServiceType
 
     final var id =
       AzSessionSecretIdentifier.generate();
+    final var user =
+      new AzUser(userId, name, subject);
+    final var session =
+      new AzSession(id, user);
+    final var hash =
+      hashOf(id);
+    final var now =
+      timeNow();
+
+    final var existing =
+      this.sessionsMap.putIfAbsent(
+        id,
+        new Entry(session, hash, now.plus(this.revalidate))
+      );
 
     Preconditions.checkPreconditionV(
-      !this.sessionsMap.containsKey(id),
+      existing == null,
       "Session ID cannot already have been used."
     );
 
-    final var session = new AzSession(id, new AzUser(userId, name, subject));
-    this.sessions.put(id, session);
+    return new PendingSession(
+      session,
+      user,
+      hash,
+      now.plus(this.expiration)
+    );
+  }
 
+  private AzSession publishSession(
+    final PendingSession pending)
+  {
     final var sizeNow = this.sessions.estimatedSize();
     this.metrics.onLogin(sizeNow);
 
@@ -162,21 +403,26 @@ public final class AzSessionService implements RPServiceType
       LOG.debug("create session ({} now active)", toUnsignedString(sizeNow));
     }
 
-    return session;
+    return pending.session();
   }
 
   /**
-   * Delete an existing session.
+   * Delete an existing session. The session is removed from memory even if
+   * it cannot be removed from the store.
    *
    * @param id The session ID
+   *
+   * @throws DDatabaseException If the session cannot be removed from the store
    */
 
   public void deleteSession(
     final AzSessionSecretIdentifier id)
+    throws DDatabaseException
   {
     Objects.requireNonNull(id, "id");
 
     this.sessions.invalidate(id);
+    this.store.delete(hashOf(id));
   }
 
   @Override
@@ -191,4 +437,49 @@ public final class AzSessionService implements RPServiceType
     return "[AzSessionService 0x%s]"
       .formatted(Long.toUnsignedString(this.hashCode(), 16));
   }
+
+  private record PendingSession(
+    AzSession session,
+    AzUser user,
+    String hash,
+    OffsetDateTime expires)
+  {
+
+  }
+
+  private static final class StoreUncheckedException
+    extends RuntimeException
+  {
+    StoreUncheckedException(
+      final DDatabaseException cause)
+    {
+      super(cause);
+    }
+
+    @Override
+    public DDatabaseException getCause()
+    {
+      return (DDatabaseException) super.getCause();
+    }
+  }
+
+  private static final class Entry
+  {
+    private final AzSession session;
+    private final String hash;
+    private volatile OffsetDateTime revalidateAt;
+
+    Entry(
+      final AzSession inSession,
+      final String inHash,
+      final OffsetDateTime inRevalidateAt)
+    {
+      this.session =
+        Objects.requireNonNull(inSession, "session");
+      this.hash =
+        Objects.requireNonNull(inHash, "hash");
+      this.revalidateAt =
+        Objects.requireNonNull(inRevalidateAt, "revalidateAt");
+    }
+  }
 }
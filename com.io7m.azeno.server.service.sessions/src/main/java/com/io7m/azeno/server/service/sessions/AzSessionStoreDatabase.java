@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.sessions;
+
+import com.io7m.azeno.database.api.AzDatabaseSession;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzSessionDeleteType;
+import com.io7m.azeno.database.api.AzSessionExtendType;
+import com.io7m.azeno.database.api.AzSessionGetType;
+import com.io7m.azeno.database.api.AzSessionPutType;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.darco.api.DDatabaseException;
+
+import java.time.OffsetDateTime;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * A session store backed by the database. Sessions stored here survive
+ * server restarts and are visible to every server that uses the same
+ * database.
+ */
+
+public final class AzSessionStoreDatabase implements AzSessionStoreType
+{
+  private final AzDatabaseType database;
+
+  /**
+   * A session store backed by the database.
+   *
+   * @param inDatabase The database
+   */
+
+  public AzSessionStoreDatabase(
+    final AzDatabaseType inDatabase)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+  }
+
+  @Override
+  public void put(
+    final String hash,
+    final AzUser user,
+    final OffsetDateTime expires)
+    throws DDatabaseException
+  {
+    final var session =
+      new AzDatabaseSession(hash, user, expires);
+
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        t.setUserID(user.userId());
+        t.query(AzSessionPutType.class).execute(session);
+        t.commit();
+      }
+    }
+  }
+
+  @Override
+  public void put(
+    final AzDatabaseTransactionType transaction,
+    final String hash,
+    final AzUser user,
+    final OffsetDateTime expires)
+    throws DDatabaseException
+  {
+    transaction.query(AzSessionPutType.class)
+      .execute(new AzDatabaseSession(hash, user, expires));
+  }
+
+  @Override
+  public Optional<AzUser> find(
+    final String hash,
+    final OffsetDateTime time)
+    throws DDatabaseException
+  {
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        return t.query(AzSessionGetType.class)
+          .execute(new AzSessionGetType.Parameters(hash, time))
+          .map(AzDatabaseSession::user);
+      }
+    }
+  }
+
+  @Override
+  public boolean extend(
+    final String hash,
+    final OffsetDateTime expires)
+    throws DDatabaseException
+  {
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        final var exists =
+          t.query(AzSessionExtendType.class)
+            .execute(new AzSessionExtendType.Parameters(hash, expires))
+            .booleanValue();
+        t.commit();
+        return exists;
+      }
+    }
+  }
+
+  @Override
+  public void delete(
+    final String hash)
+    throws DDatabaseException
+  {
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        t.query(AzSessionDeleteType.class).execute(hash);
+        t.commit();
+      }
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzSessionStoreDatabase 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
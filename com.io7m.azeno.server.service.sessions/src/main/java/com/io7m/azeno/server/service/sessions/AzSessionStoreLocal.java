@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.sessions;
+
+import com.io7m.azeno.model.AzUser;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * A session store that stores nothing. Sessions exist only in the memory of
+ * the process that created them.
+ */
+
+public final class AzSessionStoreLocal implements AzSessionStoreType
+{
+  /**
+   * A session store that stores nothing.
+   */
+
+  public AzSessionStoreLocal()
+  {
+
+  }
+
+  @Override
+  public void put(
+    final String hash,
+    final AzUser user,
+    final OffsetDateTime expires)
+  {
+
+  }
+
+  @Override
+  public Optional<AzUser> find(
+    final String hash,
+    final OffsetDateTime time)
+  {
+    return Optional.empty();
+  }
+
+  @Override
+  public boolean extend(
+    final String hash,
+    final OffsetDateTime expires)
+  {
+    return true;
+  }
+
+  @Override
+  public void delete(
+    final String hash)
+  {
+
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzSessionStoreLocal 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.sessions;
+
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.darco.api.DDatabaseException;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+/**
+ * A store of sessions that lives outside the memory of the current process.
+ *
+ * <p>Sessions are identified by the hex-encoded SHA-256 hash of their secret
+ * identifier; stores never see the identifiers themselves.</p>
+ *
+ * <p>Failures to access the store are reported to the caller, so that a
+ * session is never handed out or reported as deleted without the store
+ * having recorded it, and so that a store that cannot be reached is never
+ * mistaken for a store that does not contain a session.</p>
+ */
+
+public interface AzSessionStoreType
+{
+  /**
+   * Create or replace a session.
+   *
+   * @param hash    The session identifier hash
+   * @param user    The user that owns the session
+   * @param expires The time at which the session expires
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  void put(
+    String hash,
+    AzUser user,
+    OffsetDateTime expires)
+    throws DDatabaseException;
+
+  /**
+   * Create or replace a session as part of the given transaction. The
+   * session is only visible to other servers if the transaction commits.
+   * Stores that do not live in the database ignore the transaction.
+   *
+   * @param transaction The transaction
+   * @param hash        The session identifier hash
+   * @param user        The user that owns the session
+   * @param expires     The time at which the session expires
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  default void put(
+    final AzDatabaseTransactionType transaction,
+    final String hash,
+    final AzUser user,
+    final OffsetDateTime expires)
+    throws DDatabaseException
+  {
+    this.put(hash, user, expires);
+  }
+
+  /**
+   * Find a session that has not expired.
+   *
+   * @param hash The session identifier hash
+   * @param time The current time
+   *
+   * @return The user that owns the session, if the session exists
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  Optional<AzUser> find(
+    String hash,
+    OffsetDateTime time)
+    throws DDatabaseException;
+
+  /**
+   * Extend the expiry time of a session.
+   *
+   * @param hash    The session identifier hash
+   * @param expires The new expiry time
+   *
+   * @return {@code false} if the session does not exist
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  boolean extend(
+    String hash,
+    OffsetDateTime expires)
+    throws DDatabaseException;
+
+  /**
+   * Delete a session.
+   *
+   * @param hash The session identifier hash
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  void delete(String hash)
+    throws DDatabaseException;
+}
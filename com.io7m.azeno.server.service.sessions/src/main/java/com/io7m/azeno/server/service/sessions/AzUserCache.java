@@ -0,0 +1,290 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.sessions;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.repetoir.core.RPServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A bounded cache of users, used to avoid loading the user from the
+ * database on every authenticated request.
+ *
+ * <p>Entries are invalidated locally when a user is modified through this
+ * server, and on every server by the {@code azeno_users} notifications that
+ * the database sends when a user is modified. Entries additionally expire a
+ * fixed time after they are written, which bounds staleness should a
+ * notification be missed.</p>
+ *
+ * <p>Every invalidation advances a generation counter for the affected
+ * users. A user loaded from the database is only published if the
+ * generation of the user did not change while it was being loaded, so a
+ * load that raced with an invalidation cannot reinstate the user that the
+ * invalidation discarded.</p>
+ */
+
+public final class AzUserCache
+  implements RPServiceType, AzDatabaseNotificationHandlerType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzUserCache.class);
+
+  /**
+   * The notification channel upon which user changes are announced.
+   */
+
+  public static final String CHANNEL = "azeno_users";
+
+  private static final int GENERATION_STRIPES = 64;
+
+  private final Cache<AzUserID, AzUser> users;
+  private final AtomicLongArray generations;
+  private final AzMetricsServiceType metrics;
+
+  /**
+   * A function that loads a user from the database.
+   */
+
+  public interface LoaderType
+  {
+    /**
+     * Load a user.
+     *
+     * @param id The user ID
+     *
+     * @return The user, if one exists
+     *
+     * @throws DDatabaseException On errors
+     */
+
+    Optional<AzUser> load(AzUserID id)
+      throws DDatabaseException;
+  }
+
+  /**
+   * A bounded cache of users.
+   *
+   * @param inMetrics     The metrics service
+   * @param inMaximumSize The maximum number of cached users
+   * @param inExpiration  The time after which cached users expire
+   */
+
+  public AzUserCache(
+    final AzMetricsServiceType inMetrics,
+    final long inMaximumSize,
+    final Duration inExpiration)
+  {
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "inMetrics");
+
+    this.users =
+      Caffeine.newBuilder()
+        .maximumSize(inMaximumSize)
+        .expireAfterWrite(Objects.requireNonNull(inExpiration, "expiration"))
+        .build();
+
+    this.generations =
+      new AtomicLongArray(GENERATION_STRIPES);
+  }
+
+  /**
+   * Find a cached user.
+   *
+   * @param id The user ID
+   *
+   * @return The user, if cached
+   */
+
+  public Optional<AzUser> find(
+    final AzUserID id)
+  {
+    final var user =
+      this.users.getIfPresent(Objects.requireNonNull(id, "id"));
+
+    if (user == null) {
+      this.metrics.onUserCacheMiss();
+      return Optional.empty();
+    }
+
+    this.metrics.onUserCacheHit();
+    return Optional.of(user);
+  }
+
+  /**
+   * Find a cached user, or load the user and cache it. The loaded user is
+   * only cached if no invalidation affected the user while it was being
+   * loaded.
+   *
+   * @param id     The user ID
+   * @param loader The loader
+   *
+   * @return The user, if one exists
+   *
+   * @throws DDatabaseException On errors
+   */
+
+  public Optional<AzUser> findOrLoad(
+    final AzUserID id,
+    final LoaderType loader)
+    throws DDatabaseException
+  {
+    Objects.requireNonNull(loader, "loader");
+
+    final var cached = this.find(id);
+    if (cached.isPresent()) {
+      return cached;
+    }
+
+    final var generation = this.generation(id);
+    final var loaded = loader.load(id);
+    loaded.ifPresent(user -> this.put(user, generation));
+    return loaded;
+  }
+
+  /**
+   * Obtain the current generation of the given user. The generation must be
+   * taken before the user is read from the database, and passed to
+   * {@link #put(AzUser, long)} afterwards.
+   *
+   * @param id The user ID
+   *
+   * @return The generation
+   */
+
+  public long generation(
+    final AzUserID id)
+  {
+    return this.generations.get(stripeOf(Objects.requireNonNull(id, "id")));
+  }
+
+  /**
+   * Add or replace a cached user. The user is not cached if the user was
+   * invalidated after the given generation was taken.
+   *
+   * @param user       The user
+   * @param generation The generation taken before the user was read
+   *
+   * @see #generation(AzUserID)
+   */
+
+  public void put(
+    final AzUser user,
+    final long generation)
+  {
+    Objects.requireNonNull(user, "user");
+
+    final var id = user.userId();
+    if (this.generation(id) != generation) {
+      return;
+    }
+
+    this.users.put(id, user);
+
+    /*
+     * An invalidation that advanced the generation between the check above
+     * and the put may have run its removal before the put. Such a user is
+     * withdrawn again here; an invalidation that advances the generation
+     * after this check removes the entry itself.
+     */
+
+    if (this.generation(id) != generation) {
+      this.users.asMap().remove(id, user);
+    }
+  }
+
+  private static int stripeOf(
+    final AzUserID id)
+  {
+    return Math.floorMod(id.hashCode(), GENERATION_STRIPES);
+  }
+
+  /**
+   * Remove a user from the cache. The next lookup of the user will go to
+   * the database.
+   *
+   * @param id The user ID
+   */
+
+  public void invalidate(
+    final AzUserID id)
+  {
+    Objects.requireNonNull(id, "id");
+    this.generations.incrementAndGet(stripeOf(id));
+    this.users.invalidate(id);
+  }
+
+  /**
+   * Discard everything.
+   */
+
+  public void invalidateAll()
+  {
+    for (int index = 0; index < GENERATION_STRIPES; ++index) {
+      this.generations.incrementAndGet(index);
+    }
+    this.users.invalidateAll();
+  }
+
+  @Override
+  public void onListenStarted()
+  {
+    this.invalidateAll();
+  }
+
+  @Override
+  public void onNotification(
+    final String channel,
+    final String payload)
+  {
+    if (!CHANNEL.equals(channel)) {
+      return;
+    }
+
+    try {
+      this.invalidate(new AzUserID(UUID.fromString(payload)));
+    } catch (final IllegalArgumentException e) {
+      LOG.warn("Unparseable user notification: {}", payload);
+      this.invalidateAll();
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "User cache service.";
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzUserCache 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -23,10 +23,12 @@ module com.io7m.azeno.server.service.sessions
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
 
+  requires com.io7m.azeno.database.api;
   requires com.io7m.azeno.model;
   requires com.io7m.azeno.server.service.telemetry.api;
 
   requires com.github.benmanes.caffeine;
+  requires com.io7m.darco.api;
   requires com.io7m.jaffirm.core;
   requires com.io7m.medrina.api;
   requires com.io7m.repetoir.core;
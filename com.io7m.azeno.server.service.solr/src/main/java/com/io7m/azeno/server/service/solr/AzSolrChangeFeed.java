@@ -0,0 +1,284 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.solr;
+
+import com.io7m.azeno.database.api.AzAssetChangePosition;
+import com.io7m.azeno.database.api.AzAssetChanges;
+import com.io7m.azeno.database.api.AzAssetChangesGetType;
+import com.io7m.azeno.database.api.AzAssetIndexPositionGetType;
+import com.io7m.azeno.database.api.AzAssetIndexPositionPutType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationListenerType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.error_codes.AzException;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.repetoir.core.RPServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A service that keeps the search index up to date with the assets in the
+ * database.
+ *
+ * <p>Writes to assets are announced by the database on a notification
+ * channel. Notifications carry no data; they merely wake the feed, so any
+ * number of notifications that arrive whilst a round is in progress are
+ * coalesced into a single subsequent round. Each round fetches a batch of
+ * changed assets after the feed's position, submits them to the index, and
+ * then durably records the new position. After downtime, the feed resumes
+ * from the recorded position and catches up on every change made in the
+ * meantime. A crash between indexing and recording the position causes a
+ * batch to be indexed twice, which is harmless.</p>
+ *
+ * <p>The feed also checks for changes at a low fixed interval, because a
+ * change that is hidden behind a long-running transaction when its
+ * notification arrives can only be fetched once that transaction ends, and
+ * the end of a transaction that did not write assets is not announced.</p>
+ */
+
+public final class AzSolrChangeFeed
+  implements RPServiceType, AutoCloseable, AzDatabaseNotificationHandlerType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzSolrChangeFeed.class);
+
+  private static final Duration RETRY_DELAY =
+    Duration.ofSeconds(5L);
+
+  private final AzDatabaseType database;
+  private final AzSolrServiceType solr;
+  private final AzMetricsServiceType metrics;
+  private final AzSolrChangeFeedConfiguration configuration;
+  private final Semaphore wake;
+  private final AtomicBoolean closed;
+  private final Thread worker;
+  private AzDatabaseNotificationListenerType listener;
+
+  private AzSolrChangeFeed(
+    final AzDatabaseType inDatabase,
+    final AzSolrServiceType inSolr,
+    final AzMetricsServiceType inMetrics,
+    final AzSolrChangeFeedConfiguration inConfiguration)
+  {
+    this.database =
+      Objects.requireNonNull(inDatabase, "database");
+    this.solr =
+      Objects.requireNonNull(inSolr, "solr");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.wake =
+      new Semaphore(0);
+    this.closed =
+      new AtomicBoolean(false);
+    this.worker =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.solr.change-feed")
+        .unstarted(this::run);
+  }
+
+  /**
+   * Create an asset change feed.
+   *
+   * @param database      The database
+   * @param solr          The Solr service
+   * @param metrics       The metrics service
+   * @param configuration The configuration
+   *
+   * @return The feed
+   */
+
+  public static AzSolrChangeFeed create(
+    final AzDatabaseType database,
+    final AzSolrServiceType solr,
+    final AzMetricsServiceType metrics,
+    final AzSolrChangeFeedConfiguration configuration)
+  {
+    final var feed =
+      new AzSolrChangeFeed(database, solr, metrics, configuration);
+
+    feed.listener =
+      database.listen(List.of(AzAssetChangesGetType.CHANNEL), feed);
+    feed.worker.start();
+    return feed;
+  }
+
+  @Override
+  public void onListenStarted()
+  {
+    /*
+     * Notifications may have been missed whilst the listener was not
+     * connected, so check for changes unconditionally.
+     */
+
+    this.wake.release();
+  }
+
+  @Override
+  public void onNotification(
+    final String channel,
+    final String payload)
+  {
+    this.wake.release();
+  }
+
+  private void run()
+  {
+    AzAssetChangePosition position = null;
+
+    while (!this.closed.get()) {
+      try {
+        if (position == null) {
+          position = this.positionLoad();
+        }
+
+        final var timeThen =
+          System.nanoTime();
+        final var changes =
+          this.changesFetch(position);
+        final var assets =
+          changes.assets();
+
+        if (assets.isEmpty()) {
+          this.await(this.configuration.recheckInterval());
+          continue;
+        }
+
+        try {
+          this.solr.assetsIndexDeferred(
+            assets,
+            this.configuration.commitWithin()
+          );
+        } catch (final AzException e) {
+          LOG.error("Failed to index changed assets: ", e);
+          this.metrics.onSolrIndexFailed(assets.size());
+          this.await(RETRY_DELAY);
+          continue;
+        }
+
+        this.positionSave(changes.position());
+        position = changes.position();
+
+        this.metrics.onSolrIndexed(
+          assets.size(),
+          Duration.ofNanos(System.nanoTime() - timeThen)
+        );
+      } catch (final DDatabaseException e) {
+        LOG.error("Failed to read asset changes: ", e);
+        position = null;
+        this.await(RETRY_DELAY);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void await(
+    final Duration duration)
+    throws InterruptedException
+  {
+    if (this.wake.tryAcquire(duration.toMillis(), TimeUnit.MILLISECONDS)) {
+      this.wake.drainPermits();
+    }
+  }
+
+  private AzAssetChangePosition positionLoad()
+    throws DDatabaseException
+  {
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        return transaction.query(AzAssetIndexPositionGetType.class)
+          .execute(this.configuration.indexName());
+      }
+    }
+  }
+
+  private AzAssetChanges changesFetch(
+    final AzAssetChangePosition position)
+    throws DDatabaseException
+  {
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        return transaction.query(AzAssetChangesGetType.class)
+          .execute(new AzAssetChangesGetType.Parameters(
+            position,
+            this.configuration.batchSizeMaximum()
+          ));
+      }
+    }
+  }
+
+  private void positionSave(
+    final AzAssetChangePosition position)
+    throws DDatabaseException
+  {
+    try (var connection =
+           this.database.openConnection()) {
+      try (var transaction =
+             connection.openTransaction()) {
+        transaction.query(AzAssetIndexPositionPutType.class)
+          .execute(new AzAssetIndexPositionPutType.Parameters(
+            this.configuration.indexName(),
+            position
+          ));
+        transaction.commit();
+      }
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Solr asset change feed service.";
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      this.listener.close();
+      this.wake.release();
+
+      try {
+        this.worker.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzSolrChangeFeed 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.solr;
+
+import com.io7m.azeno.error_codes.AzException;
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * An asynchronous pipeline that submits assets to the search index in
+ * batches.
+ *
+ * <p>Assets are placed onto a bounded queue. A single dispatcher thread
+ * drains the queue, groups the assets by collection, and submits one bulk
+ * request per collection. Requests for different collections execute in
+ * parallel on virtual threads; each round completes before the next begins
+ * so that updates to the same asset are applied in order. Visibility is
+ * deferred using Solr's <i>commitWithin</i>, so no request forces a
+ * searcher to be reopened.</p>
+ *
+ * <p>A request that fails for any reason is logged and its assets are
+ * counted as failed; the dispatcher continues with the next batch.</p>
+ */
+
+public final class AzSolrIndexer implements AzSolrIndexerType
+{
+  private static final Logger LOG =
+    LoggerFactory.getLogger(AzSolrIndexer.class);
+
+  private static final Duration POLL_INTERVAL =
+    Duration.ofMillis(100L);
+
+  private final AzSolrServiceType solr;
+  private final AzMetricsServiceType metrics;
+  private final AzSolrIndexerConfiguration configuration;
+  private final LinkedBlockingQueue<Entry> queue;
+  private final ExecutorService executor;
+  private final AtomicBoolean closed;
+  private final Thread dispatcher;
+
+  private record Entry(
+    AzAsset asset,
+    long timeQueued)
+  {
+
+  }
+
+  private AzSolrIndexer(
+    final AzSolrServiceType inSolr,
+    final AzMetricsServiceType inMetrics,
+    final AzSolrIndexerConfiguration inConfiguration)
+  {
+    this.solr =
+      Objects.requireNonNull(inSolr, "solr");
+    this.metrics =
+      Objects.requireNonNull(inMetrics, "metrics");
+    this.configuration =
+      Objects.requireNonNull(inConfiguration, "configuration");
+    this.queue =
+      new LinkedBlockingQueue<>(inConfiguration.queueCapacity());
+    this.executor =
+      Executors.newThreadPerTaskExecutor(
+        Thread.ofVirtual()
+          .name("com.io7m.azeno.solr.indexer-", 0L)
+          .factory()
+      );
+    this.closed =
+      new AtomicBoolean(false);
+    this.dispatcher =
+      Thread.ofVirtual()
+        .name("com.io7m.azeno.solr.dispatcher")
+        .unstarted(this::runDispatcher);
+  }
+
+  /**
+   * Create an indexing pipeline.
+   *
+   * @param solr          The Solr service
+   * @param metrics       The metrics service
+   * @param configuration The configuration
+   *
+   * @return The pipeline
+   */
+
+  public static AzSolrIndexerType create(
+    final AzSolrServiceType solr,
+    final AzMetricsServiceType metrics,
+    final AzSolrIndexerConfiguration configuration)
+  {
+    final var indexer =
+      new AzSolrIndexer(solr, metrics, configuration);
+    indexer.dispatcher.start();
+    return indexer;
+  }
+
+  @Override
+  public void submit(
+    final List<AzAsset> assets)
+    throws InterruptedException
+  {
+    Objects.requireNonNull(assets, "assets");
+
+    if (this.closed.get()) {
+      throw new IllegalStateException("Indexer is closed.");
+    }
+
+    final var timeNow = System.nanoTime();
+    for (final var asset : assets) {
+      this.queue.put(new Entry(asset, timeNow));
+    }
+    this.metrics.onSolrIndexQueueDepth(this.queue.size());
+  }
+
+  @Override
+  public int queueDepth()
+  {
+    return this.queue.size();
+  }
+
+  private void runDispatcher()
+  {
+    final var batchMax =
+      this.configuration.batchSizeMaximum();
+    final var batch =
+      new ArrayList<Entry>(batchMax);
+
+    while (!this.closed.get() || !this.queue.isEmpty()) {
+      try {
+        final var first =
+          this.queue.poll(POLL_INTERVAL.toMillis(), TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+
+        batch.clear();
+        batch.add(first);
+        this.queue.drainTo(batch, batchMax - 1);
+        this.metrics.onSolrIndexQueueDepth(this.queue.size());
+        this.runBatch(batch);
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+        return;
+      }
+    }
+  }
+
+  private void runBatch(
+    final List<Entry> batch)
+    throws InterruptedException
+  {
+    final var byCollection =
+      new LinkedHashMap<AzCollectionID, List<Entry>>();
+
+    for (final var entry : batch) {
+      byCollection.computeIfAbsent(
+        entry.asset().collection(),
+        k -> new ArrayList<>()
+      ).add(entry);
+    }
+
+    final var tasks =
+      new ArrayList<Future<?>>(byCollection.size());
+    final var taskEntries =
+      new ArrayList<List<Entry>>(byCollection.size());
+
+    for (final var entries : byCollection.values()) {
+      tasks.add(this.executor.submit(() -> this.runCollection(entries)));
+      taskEntries.add(entries);
+    }
+
+    for (int index = 0; index < tasks.size(); ++index) {
+      try {
+        tasks.get(index).get();
+      } catch (final ExecutionException e) {
+        final var failed = taskEntries.get(index).size();
+        LOG.error("Failed to index {} assets: ", failed, e.getCause());
+        this.metrics.onSolrIndexFailed(failed);
+      }
+    }
+  }
+
+  private void runCollection(
+    final List<Entry> entries)
+  {
+    final var assets =
+      new ArrayList<AzAsset>(entries.size());
+
+    var oldest = Long.MAX_VALUE;
+    for (final var entry : entries) {
+      assets.add(entry.asset());
+      oldest = Math.min(oldest, entry.timeQueued());
+    }
+
+    try {
+      this.solr.assetsIndexDeferred(assets, this.configuration.commitWithin());
+      this.metrics.onSolrIndexed(
+        assets.size(),
+        Duration.ofNanos(System.nanoTime() - oldest)
+      );
+    } catch (final AzException | RuntimeException e) {
+      LOG.error("Failed to index {} assets: ", assets.size(), e);
+      this.metrics.onSolrIndexFailed(assets.size());
+    }
+  }
+
+  @Override
+  public String description()
+  {
+    return "Solr indexing pipeline service.";
+  }
+
+  @Override
+  public void close()
+  {
+    if (this.closed.compareAndSet(false, true)) {
+      try {
+        this.dispatcher.join();
+      } catch (final InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      this.executor.close();
+    }
+  }
+
+  @Override
+  public String toString()
+  {
+    return "[AzSolrIndexer 0x%s]"
+      .formatted(Long.toUnsignedString(this.hashCode(), 16));
+  }
+}
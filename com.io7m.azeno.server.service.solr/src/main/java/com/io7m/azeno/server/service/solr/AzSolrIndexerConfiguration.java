@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.solr;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Configuration for the asynchronous indexing pipeline.
+ *
+ * @param queueCapacity    The maximum number of assets that may be waiting
+ *                         to be indexed before submitters are blocked
+ * @param batchSizeMaximum The maximum number of assets submitted to the
+ *                         index in a single round
+ * @param commitWithin     The maximum time that may elapse before indexed
+ *                         assets become visible to searches
+ */
+
+public record AzSolrIndexerConfiguration(
+  int queueCapacity,
+  int batchSizeMaximum,
+  Duration commitWithin)
+{
+  /**
+   * Configuration for the asynchronous indexing pipeline.
+   *
+   * @param queueCapacity    The maximum number of assets that may be waiting
+   *                         to be indexed before submitters are blocked
+   * @param batchSizeMaximum The maximum number of assets submitted to the
+   *                         index in a single round
+   * @param commitWithin     The maximum time that may elapse before indexed
+   *                         assets become visible to searches
+   */
+
+  public AzSolrIndexerConfiguration
+  {
+    Objects.requireNonNull(commitWithin, "commitWithin");
+
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("Queue capacity must be positive.");
+    }
+    if (batchSizeMaximum < 1) {
+      throw new IllegalArgumentException("Batch size must be positive.");
+    }
+  }
+
+  /**
+   * @return A sensible default configuration
+   */
+
+  public static AzSolrIndexerConfiguration defaults()
+  {
+    return new AzSolrIndexerConfiguration(
+      10_000,
+      1_000,
+      Duration.ofSeconds(1L)
+    );
+  }
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.server.service.solr;
+
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.repetoir.core.RPServiceType;
+
+import java.util.List;
+
+/**
+ * An asynchronous pipeline that submits assets to the search index in
+ * batches.
+ */
+
+public interface AzSolrIndexerType
+  extends RPServiceType, AutoCloseable
+{
+  /**
+   * Queue a list of assets for indexing. The method returns as soon as the
+   * assets have been queued, blocking only if the queue is full.
+   *
+   * @param assets The assets
+   *
+   * @throws InterruptedException If interrupted whilst waiting for space
+   */
+
+  void submit(List<AzAsset> assets)
+    throws InterruptedException;
+
+  /**
+   * @return The number of assets currently waiting to be indexed
+   */
+
+  int queueDepth();
+
+  @Override
+  void close();
+}
@@ -16,6 +16,8 @@
 
 package com.io7m.azeno.server.service.solr;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.io7m.azeno.error_codes.AzException;
 import com.io7m.azeno.model.AzAsset;
 import com.io7m.azeno.model.AzAssetID;
@@ -31,6 +33,7 @@ import com.io7m.azeno.model.AzValueTimestamp;
 import com.io7m.azeno.model.AzValueType;
 import com.io7m.azeno.model.AzValueURI;
 import com.io7m.azeno.model.AzValueUUID;
+import com.io7m.azeno.server.service.solr.internal.AzSolrSchema;
 import com.io7m.azeno.server.service.solr.internal.AzSolrSchemas;
 import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType;
 import com.io7m.azeno.strings.AzStrings;
@@ -42,9 +45,10 @@ import org.apache.solr.common.SolrInputDocument;
 
 import java.io.IOException;
 import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -69,6 +73,16 @@ public final class AzSolrService
   private final HttpJdkSolrClient client;
   private final AzStrings strings;
 
+  /*
+   * Solr schemas derived from parsed schemas. Schemas are cached by the
+   * database, which hands out the same schema instance for as long as the
+   * schema remains cached, so keying derivations on schema identity derives
+   * each cached schema at most once. A derivation is discarded when the
+   * database evicts or invalidates its schema.
+   */
+
+  private final Cache<AzSchema, AzSolrSchema> solrSchemas;
+
   private AzSolrService(
     final AzServerTelemetryServiceType inTelemetry,
     final HttpJdkSolrClient inClient,
@@ -80,6 +94,10 @@ public final class AzSolrService
       Objects.requireNonNull(inClient, "client");
     this.strings =
       Objects.requireNonNull(inStrings, "strings");
+    this.solrSchemas =
+      Caffeine.newBuilder()
+        .weakKeys()
+        .build();
   }
 
   /**
@@ -159,7 +177,7 @@ public final class AzSolrService
     throws AzException
   {
     final var solrSchema =
-      AzSolrSchemas.toSolrSchema(schema);
+      this.solrSchemas.get(schema, AzSolrSchemas::toSolrSchema);
 
     try {
       this.client.request(AzSolrSchemas.toCommands(solrSchema, collectionId));
@@ -215,7 +233,7 @@ public final class AzSolrService
   }
 
   @Override
-  public synchronized void assetsIndex(
+  public void assetsIndex(
     final List<AzAsset> assets)
     throws AzException
   {
@@ -227,33 +245,53 @@ public final class AzSolrService
         .setParent(Context.current())
         .startSpan();
 
-    final var collections = new HashSet<AzCollectionID>();
     try (final var ignored = span.makeCurrent()) {
-      for (final var asset : assets) {
-        final var properties = asset.properties();
-        final var document = new SolrInputDocument();
-        for (final var entry : properties.values().entrySet()) {
-          final var name =
-            entry.getKey();
-          for (final var value : entry.getValue()) {
-            document.addField(name.value(), fieldValueOf(value));
-          }
-        }
-
-        document.addField("id", asset.id().toString());
-        document.addField("azeno.hash_algorithm", asset.hash().name());
-        document.addField("azeno.hash_value", asset.hash().value());
-
-        collections.add(asset.collection());
-        this.client.add(
-          asset.collection().toString(),
-          document,
-          0
-        );
+      final var byCollection = documentsByCollection(assets);
+      for (final var entry : byCollection.entrySet()) {
+        final var collection = entry.getKey().toString();
+        this.client.add(collection, entry.getValue());
+
+        /*
+         * A soft commit makes the documents visible to searches without
+         * forcing the index to be flushed to stable storage.
+         */
+
+        this.client.commit(collection, true, true, true);
       }
+    } catch (final Exception e) {
+      recordSpanException(e);
+      throw fallbackException(Map.of(), e);
+    } finally {
+      span.end();
+    }
+  }
+
+  @Override
+  public void assetsIndexDeferred(
+    final List<AzAsset> assets,
+    final Duration commitWithin)
+    throws AzException
+  {
+    Objects.requireNonNull(assets, "assets");
+    Objects.requireNonNull(commitWithin, "commitWithin");
 
-      for (final var collection : collections) {
-        this.client.commit(collection.toString(), true, true);
+    final var span =
+      this.telemetry.tracer()
+        .spanBuilder("SolrAssetsIndexDeferred")
+        .setParent(Context.current())
+        .startSpan();
+
+    final var commitWithinMs =
+      (int) Math.clamp(commitWithin.toMillis(), 1L, Integer.MAX_VALUE);
+
+    try (final var ignored = span.makeCurrent()) {
+      final var byCollection = documentsByCollection(assets);
+      for (final var entry : byCollection.entrySet()) {
+        this.client.add(
+          entry.getKey().toString(),
+          entry.getValue(),
+          commitWithinMs
+        );
       }
     } catch (final Exception e) {
       recordSpanException(e);
@@ -263,6 +301,38 @@ public final class AzSolrService
     }
   }
 
+  private static Map<AzCollectionID, List<SolrInputDocument>> documentsByCollection(
+    final List<AzAsset> assets)
+  {
+    final var results =
+      new LinkedHashMap<AzCollectionID, List<SolrInputDocument>>();
+
+    for (final var asset : assets) {
+      results.computeIfAbsent(asset.collection(), k -> new ArrayList<>())
+        .add(documentOf(asset));
+    }
+    return results;
+  }
+
+  private static SolrInputDocument documentOf(
+    final AzAsset asset)
+  {
+    final var properties = asset.properties();
+    final var document = new SolrInputDocument();
+    for (final var entry : properties.values().entrySet()) {
+      final var name =
+        entry.getKey();
+      for (final var value : entry.getValue()) {
+        document.addField(name.value(), fieldValueOf(value));
+      }
+    }
+
+    document.addField("id", asset.id().toString());
+    document.addField("azeno.hash_algorithm", asset.hash().name());
+    document.addField("azeno.hash_value", asset.hash().value());
+    return document;
+  }
+
   @Override
   public synchronized AzSolrPage<AzAssetSummary> assetSearchBegin(
     final AzCollectionID collection,
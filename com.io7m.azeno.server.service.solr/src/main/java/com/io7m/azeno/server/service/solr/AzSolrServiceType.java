@@ -25,6 +25,7 @@ import com.io7m.azeno.model.AzCollectionID;
 import com.io7m.azeno.model.AzSchema;
 import com.io7m.repetoir.core.RPServiceType;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Objects;
 
@@ -77,6 +78,23 @@ public interface AzSolrServiceType
     List<AzAsset> assets)
     throws AzException;
 
+  /**
+   * Index a list of assets without waiting for the assets to become visible
+   * to searches. The search index is instructed to make the assets visible
+   * within the given time, and is free to combine the work with that of
+   * other requests.
+   *
+   * @param assets       The assets
+   * @param commitWithin The maximum time before the assets become visible
+   *
+   * @throws AzException On errors
+   */
+
+  void assetsIndexDeferred(
+    List<AzAsset> assets,
+    Duration commitWithin)
+    throws AzException;
+
   /**
    * Start searching for assets.
    *
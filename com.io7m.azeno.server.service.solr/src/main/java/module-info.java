@@ -23,15 +23,19 @@ module com.io7m.azeno.server.service.solr
   requires static org.osgi.annotation.bundle;
   requires static org.osgi.annotation.versioning;
 
+  requires com.github.benmanes.caffeine;
+  requires com.io7m.azeno.database.api;
   requires com.io7m.azeno.error_codes;
   requires com.io7m.azeno.model;
   requires com.io7m.azeno.server.service.telemetry.api;
   requires com.io7m.azeno.strings;
 
+  requires com.io7m.darco.api;
   requires com.io7m.lanark.core;
   requires com.io7m.repetoir.core;
   requires io.opentelemetry.api;
   requires io.opentelemetry.context;
+  requires org.slf4j;
   requires solr.solrj;
 
   exports com.io7m.azeno.server.service.solr;
@@ -20,11 +20,14 @@ package com.io7m.azeno.server.service.telemetry.api;
 import com.io7m.jmulticlose.core.CloseableCollection;
 import com.io7m.jmulticlose.core.CloseableCollectionType;
 import com.io7m.jmulticlose.core.ClosingResourceFailedException;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.common.Attributes;
 import io.opentelemetry.api.metrics.LongCounter;
+import io.opentelemetry.api.metrics.LongHistogram;
 
 import java.time.Duration;
 import java.util.Objects;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * The metrics service.
@@ -32,6 +35,21 @@ import java.util.concurrent.ConcurrentLinkedQueue;
 
 public final class AzMetricsService implements AzMetricsServiceType
 {
+  private static final AttributeKey<String> ROUTE =
+    AttributeKey.stringKey("route");
+  private static final AttributeKey<String> COMMAND =
+    AttributeKey.stringKey("command");
+  private static final AttributeKey<String> JOB_TYPE =
+    AttributeKey.stringKey("job_type");
+  private static final AttributeKey<String> THROTTLE_SCOPE =
+    AttributeKey.stringKey("scope");
+  private static final AttributeKey<String> THROTTLE_REASON =
+    AttributeKey.stringKey("reason");
+  private static final Attributes IDSTORE_LOGIN_SUCCEEDED =
+    Attributes.of(AttributeKey.stringKey("outcome"), "succeeded");
+  private static final Attributes IDSTORE_LOGIN_FAILED =
+    Attributes.of(AttributeKey.stringKey("outcome"), "failed");
+
   private final CloseableCollectionType<ClosingResourceFailedException> resources;
   private final LongCounter httpCount;
   private final LongCounter http2xx;
@@ -39,8 +57,32 @@ public final class AzMetricsService implements AzMetricsServiceType
   private final LongCounter http5xx;
   private final LongCounter httpSizeRequest;
   private final LongCounter httpSizeResponse;
-  private final ConcurrentLinkedQueue<Long> httpTimeNow;
+  private final LongCounter httpSizeResponseUncompressed;
+  private final LongCounter httpSizeResponseCompressed;
+  private final LongHistogram httpTime;
+  private final LongHistogram commandTime;
+  private final ConcurrentHashMap<String, Attributes> httpTimeAttributes;
+  private final ConcurrentHashMap<Class<?>, Attributes> commandTimeAttributes;
+  private final ConcurrentHashMap<String, Attributes> jobAttributes;
+  private final LongCounter solrIndexed;
+  private final LongCounter solrIndexFailed;
+  private final LongCounter userCacheHits;
+  private final LongCounter userCacheMisses;
+  private final LongCounter jobsClaimed;
+  private final LongCounter jobsSucceeded;
+  private final LongCounter jobsFailed;
+  private final LongCounter jobsRetried;
+  private final LongCounter jobsLeaseLost;
+  private final LongHistogram jobTime;
+  private final LongHistogram idstoreLoginTime;
+  private final LongCounter requestsThrottled;
+  private final LongCounter requestsShed;
+  private final LongHistogram databaseConnectionWait;
   private volatile long loginSessions;
+  private volatile long solrQueueDepth;
+  private volatile long solrIndexLag;
+  private volatile long jobsRunning;
+  private volatile long admissionLimit;
 
   /**
    * The metrics service.
@@ -56,8 +98,12 @@ public final class AzMetricsService implements AzMetricsServiceType
     this.resources =
       CloseableCollection.create();
 
-    this.httpTimeNow =
-      new ConcurrentLinkedQueue<>();
+    this.httpTimeAttributes =
+      new ConcurrentHashMap<>();
+    this.commandTimeAttributes =
+      new ConcurrentHashMap<>();
+    this.jobAttributes =
+      new ConcurrentHashMap<>();
 
     this.resources.add(
       telemetry.meter()
@@ -70,16 +116,23 @@ public final class AzMetricsService implements AzMetricsServiceType
         })
     );
 
-    this.resources.add(
+    this.httpTime =
       telemetry.meter()
-        .gaugeBuilder("azeno_http_time")
+        .histogramBuilder("azeno_http_time")
         .setDescription(
           "The length of time requests are taking to process (nanoseconds).")
+        .setUnit("ns")
         .ofLongs()
-        .buildWithCallback(measurement -> {
-          measurement.record(maxOf(this.httpTimeNow));
-        })
-    );
+        .build();
+
+    this.commandTime =
+      telemetry.meter()
+        .histogramBuilder("azeno_command_time")
+        .setDescription(
+          "The length of time commands are taking to execute (nanoseconds).")
+        .setUnit("ns")
+        .ofLongs()
+        .build();
 
     this.httpCount =
       telemetry.meter()
@@ -99,6 +152,20 @@ public final class AzMetricsService implements AzMetricsServiceType
         .setDescription("The total size of all HTTP responses so far.")
         .build();
 
+    this.httpSizeResponseUncompressed =
+      telemetry.meter()
+        .counterBuilder("azeno_http_responses_size_uncompressed")
+        .setDescription(
+          "The total size of all compressed HTTP responses before compression.")
+        .build();
+
+    this.httpSizeResponseCompressed =
+      telemetry.meter()
+        .counterBuilder("azeno_http_responses_size_compressed")
+        .setDescription(
+          "The total size of all compressed HTTP responses after compression.")
+        .build();
+
     this.http2xx =
       telemetry.meter()
         .counterBuilder("azeno_http_responses_2xx")
@@ -130,16 +197,195 @@ public final class AzMetricsService implements AzMetricsServiceType
           measurement.record(this.loginSessions);
         })
     );
+
+    this.resources.add(
+      telemetry.meter()
+        .gaugeBuilder("azeno_solr_index_queue_depth")
+        .setDescription(
+          "The number of assets waiting to be indexed.")
+        .ofLongs()
+        .buildWithCallback(measurement -> {
+          measurement.record(this.solrQueueDepth);
+        })
+    );
+
+    this.resources.add(
+      telemetry.meter()
+        .gaugeBuilder("azeno_solr_index_lag")
+        .setDescription(
+          "The time between assets being queued and being indexed (nanoseconds).")
+        .ofLongs()
+        .buildWithCallback(measurement -> {
+          measurement.record(this.solrIndexLag);
+        })
+    );
+
+    this.solrIndexed =
+      telemetry.meter()
+        .counterBuilder("azeno_solr_index_documents")
+        .setDescription("The number of assets submitted to the search index.")
+        .build();
+
+    this.solrIndexFailed =
+      telemetry.meter()
+        .counterBuilder("azeno_solr_index_failures")
+        .setDescription(
+          "The number of assets that could not be submitted to the search index.")
+        .build();
+
+    this.userCacheHits =
+      telemetry.meter()
+        .counterBuilder("azeno_user_cache_hits")
+        .setDescription(
+          "The number of authenticated users that were found in the cache.")
+        .build();
+
+    this.userCacheMisses =
+      telemetry.meter()
+        .counterBuilder("azeno_user_cache_misses")
+        .setDescription(
+          "The number of authenticated users that were loaded from the database.")
+        .build();
+
+    this.resources.add(
+      telemetry.meter()
+        .gaugeBuilder("azeno_jobs_running")
+        .setDescription(
+          "The number of background jobs running on this node.")
+        .ofLongs()
+        .buildWithCallback(measurement -> {
+          measurement.record(this.jobsRunning);
+        })
+    );
+
+    this.jobTime =
+      telemetry.meter()
+        .histogramBuilder("azeno_job_time")
+        .setDescription(
+          "The length of time background job attempts are taking (nanoseconds).")
+        .setUnit("ns")
+        .ofLongs()
+        .build();
+
+    this.jobsClaimed =
+      telemetry.meter()
+        .counterBuilder("azeno_jobs_claimed")
+        .setDescription("The number of background jobs claimed by this node.")
+        .build();
+
+    this.jobsSucceeded =
+      telemetry.meter()
+        .counterBuilder("azeno_jobs_succeeded")
+        .setDescription("The number of background job attempts that succeeded.")
+        .build();
+
+    this.jobsFailed =
+      telemetry.meter()
+        .counterBuilder("azeno_jobs_failed")
+        .setDescription(
+          "The number of background jobs that failed with no attempts remaining.")
+        .build();
+
+    this.jobsRetried =
+      telemetry.meter()
+        .counterBuilder("azeno_jobs_retried")
+        .setDescription(
+          "The number of background job attempts that failed and will be retried.")
+        .build();
+
+    this.jobsLeaseLost =
+      telemetry.meter()
+        .counterBuilder("azeno_jobs_lease_lost")
+        .setDescription(
+          "The number of running background jobs taken over by another node.")
+        .build();
+
+    this.idstoreLoginTime =
+      telemetry.meter()
+        .histogramBuilder("azeno_idstore_login_time")
+        .setDescription(
+          "The length of time idstore login requests are taking (nanoseconds).")
+        .setUnit("ns")
+        .ofLongs()
+        .build();
+
+    this.requestsThrottled =
+      telemetry.meter()
+        .counterBuilder("azeno_requests_throttled")
+        .setDescription(
+          "The number of requests rejected by request rate or concurrency limits.")
+        .build();
+
+    this.requestsShed =
+      telemetry.meter()
+        .counterBuilder("azeno_requests_shed")
+        .setDescription(
+          "The number of requests rejected by admission control due to overload.")
+        .build();
+
+    this.resources.add(
+      telemetry.meter()
+        .gaugeBuilder("azeno_admission_limit")
+        .setDescription(
+          "The number of requests admission control currently permits in progress.")
+        .ofLongs()
+        .buildWithCallback(measurement -> {
+          measurement.record(this.admissionLimit);
+        })
+    );
+
+    this.databaseConnectionWait =
+      telemetry.meter()
+        .histogramBuilder("azeno_database_connection_wait_time")
+        .setDescription(
+          "The length of time spent waiting for database connections (nanoseconds).")
+        .setUnit("ns")
+        .ofLongs()
+        .build();
+  }
+
+  /*
+   * The attribute sets are created once per route or command, so recording
+   * a measurement does not allocate.
+   */
+
+  private Attributes httpTimeAttributesFor(
+    final String route)
+  {
+    final var existing = this.httpTimeAttributes.get(route);
+    if (existing != null) {
+      return existing;
+    }
+    return this.httpTimeAttributes.computeIfAbsent(
+      route,
+      r -> Attributes.of(ROUTE, r)
+    );
   }
 
-  private static long maxOf(
-    final ConcurrentLinkedQueue<Long> timeSamples)
+  private Attributes commandTimeAttributesFor(
+    final Class<?> command)
   {
-    var time = 0L;
-    while (!timeSamples.isEmpty()) {
-      time = Math.max(time, timeSamples.poll().longValue());
+    final var existing = this.commandTimeAttributes.get(command);
+    if (existing != null) {
+      return existing;
     }
-    return time;
+    return this.commandTimeAttributes.computeIfAbsent(
+      command,
+      c -> Attributes.of(COMMAND, c.getSimpleName())
+    );
+  }
+
+  private Attributes jobAttributesFor(
+    final String type)
+  {
+    final var existing = this.jobAttributes.get(type);
+    if (existing != null) {
+      return existing;
+    }
+    return this.jobAttributes.computeIfAbsent(
+      type,
+      t -> Attributes.of(JOB_TYPE, t)
+    );
   }
 
   @Override
@@ -206,11 +452,29 @@ public final class AzMetricsService implements AzMetricsServiceType
     this.httpSizeResponse.add(size);
   }
 
+  @Override
+  public void onHttpResponseCompressed(
+    final long sizeUncompressed,
+    final long sizeCompressed)
+  {
+    this.httpSizeResponseUncompressed.add(sizeUncompressed);
+    this.httpSizeResponseCompressed.add(sizeCompressed);
+  }
+
   @Override
   public void onHttpResponseTime(
-    final Duration time)
+    final String route,
+    final long nanos)
+  {
+    this.httpTime.record(nanos, this.httpTimeAttributesFor(route));
+  }
+
+  @Override
+  public void onCommandTime(
+    final Class<?> command,
+    final long nanos)
   {
-    this.httpTimeNow.add(Long.valueOf(time.toNanos()));
+    this.commandTime.record(nanos, this.commandTimeAttributesFor(command));
   }
 
   @Override
@@ -226,4 +490,127 @@ public final class AzMetricsService implements AzMetricsServiceType
   {
     this.loginSessions = sizeNow;
   }
+
+  @Override
+  public void onIdstoreLogin(
+    final long nanos,
+    final boolean succeeded)
+  {
+    this.idstoreLoginTime.record(
+      nanos,
+      succeeded ? IDSTORE_LOGIN_SUCCEEDED : IDSTORE_LOGIN_FAILED
+    );
+  }
+
+  @Override
+  public void onRequestThrottled(
+    final String scope,
+    final String reason)
+  {
+    this.requestsThrottled.add(
+      1L,
+      Attributes.of(THROTTLE_SCOPE, scope, THROTTLE_REASON, reason)
+    );
+  }
+
+  @Override
+  public void onRequestShed()
+  {
+    this.requestsShed.add(1L);
+  }
+
+  @Override
+  public void onAdmissionLimit(
+    final long limit)
+  {
+    this.admissionLimit = limit;
+  }
+
+  @Override
+  public void onDatabaseConnectionWait(
+    final long nanos)
+  {
+    this.databaseConnectionWait.record(nanos);
+  }
+
+  @Override
+  public void onSolrIndexQueueDepth(
+    final long depth)
+  {
+    this.solrQueueDepth = depth;
+  }
+
+  @Override
+  public void onSolrIndexed(
+    final long count,
+    final Duration lag)
+  {
+    this.solrIndexed.add(count);
+    this.solrIndexLag = lag.toNanos();
+  }
+
+  @Override
+  public void onSolrIndexFailed(
+    final long count)
+  {
+    this.solrIndexFailed.add(count);
+  }
+
+  @Override
+  public void onUserCacheHit()
+  {
+    this.userCacheHits.add(1L);
+  }
+
+  @Override
+  public void onUserCacheMiss()
+  {
+    this.userCacheMisses.add(1L);
+  }
+
+  @Override
+  public void onJobClaimed(
+    final String type)
+  {
+    this.jobsClaimed.add(1L, this.jobAttributesFor(type));
+  }
+
+  @Override
+  public void onJobSucceeded(
+    final String type,
+    final long nanos)
+  {
+    final var attributes = this.jobAttributesFor(type);
+    this.jobsSucceeded.add(1L, attributes);
+    this.jobTime.record(nanos, attributes);
+  }
+
+  @Override
+  public void onJobFailed(
+    final String type,
+    final long nanos,
+    final boolean retrying)
+  {
+    final var attributes = this.jobAttributesFor(type);
+    if (retrying) {
+      this.jobsRetried.add(1L, attributes);
+    } else {
+      this.jobsFailed.add(1L, attributes);
+    }
+    this.jobTime.record(nanos, attributes);
+  }
+
+  @Override
+  public void onJobLeaseLost(
+    final String type)
+  {
+    this.jobsLeaseLost.add(1L, this.jobAttributesFor(type));
+  }
+
+  @Override
+  public void onJobsRunning(
+    final long count)
+  {
+    this.jobsRunning = count;
+  }
 }
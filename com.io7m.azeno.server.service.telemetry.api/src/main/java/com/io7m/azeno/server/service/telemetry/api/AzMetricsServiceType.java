@@ -69,13 +69,39 @@ public interface AzMetricsServiceType extends AutoCloseable, RPServiceType
     long size);
 
   /**
-   * An HTTP response was produced in the given time.
+   * An HTTP response was compressed.
    *
-   * @param time The time
+   * @param sizeUncompressed The size before compression
+   * @param sizeCompressed   The size after compression
+   */
+
+  void onHttpResponseCompressed(
+    long sizeUncompressed,
+    long sizeCompressed);
+
+  /**
+   * An HTTP response was produced in the given time. The route must be
+   * drawn from a small, fixed set of names, as each distinct route produces
+   * a distinct time series.
+   *
+   * @param route The route name
+   * @param nanos The time (nanoseconds)
    */
 
   void onHttpResponseTime(
-    Duration time);
+    String route,
+    long nanos);
+
+  /**
+   * A command was executed in the given time.
+   *
+   * @param command The command class
+   * @param nanos   The time (nanoseconds)
+   */
+
+  void onCommandTime(
+    Class<?> command,
+    long nanos);
 
   /**
    * A login session was created.
@@ -92,4 +118,138 @@ public interface AzMetricsServiceType extends AutoCloseable, RPServiceType
    */
 
   void onLoginClosed(long sizeNow);
+
+  /**
+   * A login request to the idstore server completed.
+   *
+   * @param nanos     The time the request took
+   * @param succeeded {@code true} if the idstore server accepted the login
+   */
+
+  void onIdstoreLogin(
+    long nanos,
+    boolean succeeded);
+
+  /**
+   * A request was rejected because a client exceeded a request limit.
+   *
+   * @param scope  The scope of the limit (such as "user" or "address")
+   * @param reason The limit that was exceeded (such as "rate" or "concurrency")
+   */
+
+  void onRequestThrottled(
+    String scope,
+    String reason);
+
+  /**
+   * A request was rejected by admission control because the server is
+   * overloaded.
+   */
+
+  void onRequestShed();
+
+  /**
+   * The admission control concurrency limit changed.
+   *
+   * @param limit The limit now
+   */
+
+  void onAdmissionLimit(long limit);
+
+  /**
+   * A database connection was obtained.
+   *
+   * @param nanos The time spent waiting for the connection
+   */
+
+  void onDatabaseConnectionWait(long nanos);
+
+  /**
+   * The number of assets waiting to be indexed changed.
+   *
+   * @param depth The number of queued assets now
+   */
+
+  void onSolrIndexQueueDepth(long depth);
+
+  /**
+   * A batch of assets was submitted to the search index.
+   *
+   * @param count The number of assets
+   * @param lag   The time elapsed between the oldest asset in the batch
+   *              being queued and the batch being accepted by the index
+   */
+
+  void onSolrIndexed(
+    long count,
+    Duration lag);
+
+  /**
+   * A batch of assets could not be submitted to the search index.
+   *
+   * @param count The number of assets
+   */
+
+  void onSolrIndexFailed(long count);
+
+  /**
+   * An authenticated user was found in the user cache.
+   */
+
+  void onUserCacheHit();
+
+  /**
+   * An authenticated user was not found in the user cache, and had to be
+   * loaded from the database.
+   */
+
+  void onUserCacheMiss();
+
+  /**
+   * A background job was claimed by this node.
+   *
+   * @param type The job type
+   */
+
+  void onJobClaimed(String type);
+
+  /**
+   * A background job attempt succeeded.
+   *
+   * @param type  The job type
+   * @param nanos The time the attempt took
+   */
+
+  void onJobSucceeded(
+    String type,
+    long nanos);
+
+  /**
+   * A background job attempt failed.
+   *
+   * @param type     The job type
+   * @param nanos    The time the attempt took
+   * @param retrying {@code true} if the job will be retried
+   */
+
+  void onJobFailed(
+    String type,
+    long nanos,
+    boolean retrying);
+
+  /**
+   * The lease on a running background job was taken over by another node.
+   *
+   * @param type The job type
+   */
+
+  void onJobLeaseLost(String type);
+
+  /**
+   * The number of background jobs running on this node changed.
+   *
+   * @param count The number of running jobs now
+   */
+
+  void onJobsRunning(long count);
 }
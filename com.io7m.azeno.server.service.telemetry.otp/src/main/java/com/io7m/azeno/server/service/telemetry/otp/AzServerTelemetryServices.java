@@ -35,7 +35,11 @@ import io.opentelemetry.exporter.otlp.trace.OtlpGrpcSpanExporter;
 import io.opentelemetry.sdk.OpenTelemetrySdk;
 import io.opentelemetry.sdk.logs.SdkLoggerProvider;
 import io.opentelemetry.sdk.logs.export.BatchLogRecordProcessor;
+import io.opentelemetry.sdk.metrics.Aggregation;
+import io.opentelemetry.sdk.metrics.InstrumentSelector;
+import io.opentelemetry.sdk.metrics.InstrumentType;
 import io.opentelemetry.sdk.metrics.SdkMeterProvider;
+import io.opentelemetry.sdk.metrics.View;
 import io.opentelemetry.sdk.metrics.export.PeriodicMetricReader;
 import io.opentelemetry.sdk.resources.Resource;
 import io.opentelemetry.sdk.trace.SdkTracerProvider;
@@ -181,8 +185,22 @@ public final class AzServerTelemetryServices
         .setInterval(1L, TimeUnit.SECONDS)
         .build();
 
+    /*
+     * Histograms use base-2 exponential buckets, which bound the relative
+     * error of any quantile (including tail quantiles such as p99.9)
+     * without requiring bucket boundaries to be chosen in advance.
+     */
+
     return SdkMeterProvider.builder()
       .registerMetricReader(periodicMetricReader)
+      .registerView(
+        InstrumentSelector.builder()
+          .setType(InstrumentType.HISTOGRAM)
+          .build(),
+        View.builder()
+          .setAggregation(Aggregation.base2ExponentialBucketHistogram())
+          .build()
+      )
       .setResource(resource)
       .build();
   }
@@ -25,7 +25,7 @@ public final class AzArbCommandAuditSearchNext
   {
     super(
       AzACommandAuditSearchNext.class,
-      () -> Arbitraries.create(AzACommandAuditSearchNext::new)
+      () -> Arbitraries.strings().alpha().map(AzACommandAuditSearchNext::new)
     );
   }
 }
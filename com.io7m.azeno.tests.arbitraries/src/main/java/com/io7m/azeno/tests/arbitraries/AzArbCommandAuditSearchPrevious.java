@@ -25,7 +25,7 @@ public final class AzArbCommandAuditSearchPrevious
   {
     super(
       AzACommandAuditSearchPrevious.class,
-      () -> Arbitraries.create(AzACommandAuditSearchPrevious::new)
+      () -> Arbitraries.strings().alpha().map(AzACommandAuditSearchPrevious::new)
     );
   }
 }
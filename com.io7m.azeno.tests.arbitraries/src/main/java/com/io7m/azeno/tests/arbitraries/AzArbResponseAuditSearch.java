@@ -31,7 +31,9 @@ public final class AzArbResponseAuditSearch extends AzArbAbstract<AzAResponseAud
       AzAResponseAuditSearch.class,
       () -> Combinators.combine(
         Arbitraries.create(UUID::randomUUID),
-        AzArbPage.of(Arbitraries.defaultFor(AzAuditEvent.class))
+        AzArbPage.of(Arbitraries.defaultFor(AzAuditEvent.class)),
+        Arbitraries.strings().alpha().optional(),
+        Arbitraries.strings().alpha().optional()
       ).as(AzAResponseAuditSearch::new)
     );
   }
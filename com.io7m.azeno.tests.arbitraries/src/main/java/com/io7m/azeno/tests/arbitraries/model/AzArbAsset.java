@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.arbitraries.model;
+
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAssetProperties;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.model.AzHashSHA256;
+import com.io7m.azeno.model.AzValueBoolean;
+import com.io7m.azeno.model.AzValueFloating;
+import com.io7m.azeno.model.AzValueInteger;
+import com.io7m.azeno.model.AzValueString;
+import com.io7m.azeno.model.AzValueTimestamp;
+import com.io7m.azeno.model.AzValueType;
+import com.io7m.azeno.model.AzValueURI;
+import com.io7m.azeno.model.AzValueUUID;
+import com.io7m.azeno.tests.arbitraries.AzArbAbstract;
+import com.io7m.lanark.core.RDottedName;
+import net.jqwik.api.Arbitraries;
+import net.jqwik.api.Arbitrary;
+import net.jqwik.api.Combinators;
+
+import java.math.BigInteger;
+import java.net.URI;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+public final class AzArbAsset extends AzArbAbstract<AzAsset>
+{
+  public AzArbAsset()
+  {
+    super(
+      AzAsset.class,
+      () ->
+        Combinators.combine(
+          Arbitraries.create(UUID::randomUUID),
+          Arbitraries.create(UUID::randomUUID),
+          Arbitraries.strings()
+            .withChars("0123456789abcdef")
+            .ofLength(64),
+          values().list().ofMaxSize(8)
+        ).as(AzArbAsset::asset)
+    );
+  }
+
+  private static AzAsset asset(
+    final UUID id,
+    final UUID collection,
+    final String hash,
+    final List<AzValueType> values)
+  {
+    final var properties = AzAssetProperties.builder();
+    values.forEach(properties::put);
+
+    return new AzAsset(
+      new AzAssetID(id),
+      new AzCollectionID(collection),
+      new AzHashSHA256(hash),
+      properties.build()
+    );
+  }
+
+  private static Arbitrary<AzValueType> values()
+  {
+    final var names =
+      Arbitraries.defaultFor(RDottedName.class);
+
+    return Arbitraries.oneOf(
+      Combinators.combine(names, Arbitraries.of(true, false))
+        .as(AzValueBoolean::new),
+      Combinators.combine(names, Arbitraries.doubles())
+        .as(AzValueFloating::new),
+      Combinators.combine(names, Arbitraries.bigIntegers())
+        .as(AzValueInteger::new),
+      Combinators.combine(names, Arbitraries.strings().alpha())
+        .as(AzValueString::new),
+      Combinators.combine(names, Arbitraries.defaultFor(OffsetDateTime.class))
+        .as(AzValueTimestamp::new),
+      Combinators.combine(names, Arbitraries.strings().alpha())
+        .as((n, s) -> new AzValueURI(n, URI.create("urn:" + s + "x"))),
+      Combinators.combine(names, Arbitraries.create(UUID::randomUUID))
+        .as(AzValueUUID::new)
+    );
+  }
+}
@@ -47,11 +47,13 @@ com.io7m.azeno.tests.arbitraries.model.AzArbUserID,
 com.io7m.azeno.tests.arbitraries.model.AzArbAuditSearchParameters,
 com.io7m.azeno.tests.arbitraries.model.AzArbErrorCode,
 com.io7m.azeno.tests.arbitraries.model.AzArbOffsetDateTime,
+com.io7m.azeno.tests.arbitraries.model.AzArbAsset,
 com.io7m.azeno.tests.arbitraries.model.AzArbAuditEvent,
 com.io7m.azeno.tests.arbitraries.model.AzArbVersion,
 com.io7m.azeno.tests.arbitraries.model.AzArbTimeRange,
 com.io7m.azeno.tests.arbitraries.model.AzArbMRoleName,
 com.io7m.azeno.tests.arbitraries.AzArbCommand,
+com.io7m.azeno.tests.arbitraries.AzArbCommandAssetPutMany,
 com.io7m.azeno.tests.arbitraries.AzArbCommandAuditSearchBegin,
 com.io7m.azeno.tests.arbitraries.AzArbCommandAuditSearchNext,
 com.io7m.azeno.tests.arbitraries.AzArbCommandAuditSearchPrevious,
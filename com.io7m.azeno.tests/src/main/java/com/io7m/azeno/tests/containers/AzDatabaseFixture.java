@@ -17,8 +17,10 @@
 
 package com.io7m.azeno.tests.containers;
 
+import com.io7m.azeno.database.api.AzDatabaseAuditMode;
 import com.io7m.azeno.database.api.AzDatabaseConfiguration;
 import com.io7m.azeno.database.api.AzDatabaseConfigurationInfo;
+import com.io7m.azeno.database.api.AzDatabaseReplicaInfo;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.database.postgres.AzDatabaseFactory;
 import com.io7m.azeno.strings.AzStrings;
@@ -68,7 +70,9 @@ public record AzDatabaseFixture(
           "12345678"
         ),
         "12345678",
-        Optional.of("12345678")
+        Optional.of("12345678"),
+        AzDatabaseAuditMode.TRANSACTIONAL,
+        Optional.empty()
       );
 
     final var configuration =
@@ -118,6 +122,92 @@ public record AzDatabaseFixture(
       });
   }
 
+  /**
+   * Create a database from this container and configuration, using the
+   * given audit mode.
+   *
+   * @param auditMode The audit mode
+   *
+   * @return A new database
+   *
+   * @throws Exception On errors
+   */
+
+  public AzDatabaseType createDatabase(
+    final AzDatabaseAuditMode auditMode)
+    throws Exception
+  {
+    final var info =
+      this.configuration.info();
+
+    return DATABASES.open(
+      new AzDatabaseConfiguration(
+        this.configuration.strings(),
+        this.configuration.telemetry(),
+        new AzDatabaseConfigurationInfo(
+          info.create(),
+          info.upgrade(),
+          info.databaseAddress(),
+          info.databasePort(),
+          info.databaseName(),
+          info.databaseUseTLS(),
+          info.ownerRole(),
+          info.workerRolePassword(),
+          info.readerRolePassword(),
+          auditMode,
+          info.readReplica()
+        )
+      ),
+      message -> {
+
+      });
+  }
+
+  /**
+   * Create a database from this container and configuration, routing
+   * read-only work through a separate pool that connects to the same
+   * container using the read-only role. The container is not a real
+   * replica, but the routing, roles, and transaction modes are identical.
+   *
+   * @return A new database
+   *
+   * @throws Exception On errors
+   */
+
+  public AzDatabaseType createDatabaseWithReplica()
+    throws Exception
+  {
+    final var info =
+      this.configuration.info();
+
+    return DATABASES.open(
+      new AzDatabaseConfiguration(
+        this.configuration.strings(),
+        this.configuration.telemetry(),
+        new AzDatabaseConfigurationInfo(
+          info.create(),
+          info.upgrade(),
+          info.databaseAddress(),
+          info.databasePort(),
+          info.databaseName(),
+          info.databaseUseTLS(),
+          info.ownerRole(),
+          info.workerRolePassword(),
+          info.readerRolePassword(),
+          info.auditMode(),
+          Optional.of(
+            new AzDatabaseReplicaInfo(
+              info.databaseAddress(),
+              info.databasePort()
+            )
+          )
+        )
+      ),
+      message -> {
+
+      });
+  }
+
   /**
    * Reset the container by dropping and recreating the database. This
    * is significantly faster than destroying and recreating the container.
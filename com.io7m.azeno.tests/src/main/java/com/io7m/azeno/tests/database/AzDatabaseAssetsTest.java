@@ -16,20 +16,30 @@
 
 package com.io7m.azeno.tests.database;
 
+import com.io7m.azeno.database.api.AzAssetChangePosition;
+import com.io7m.azeno.database.api.AzAssetChangesGetType;
+import com.io7m.azeno.database.api.AzAssetDataMigrateType;
 import com.io7m.azeno.database.api.AzAssetGetType;
+import com.io7m.azeno.database.api.AzAssetIndexPositionGetType;
+import com.io7m.azeno.database.api.AzAssetIndexPositionPutType;
+import com.io7m.azeno.database.api.AzAssetPutManyType;
 import com.io7m.azeno.database.api.AzAssetPutType;
+import com.io7m.azeno.database.api.AzAssetSummaryGetManyType;
+import com.io7m.azeno.database.api.AzAssetSummaryGetType;
 import com.io7m.azeno.database.api.AzCollectionAccessGetType;
 import com.io7m.azeno.database.api.AzCollectionAccessSetType;
 import com.io7m.azeno.database.api.AzCollectionGetType;
 import com.io7m.azeno.database.api.AzCollectionPutType;
 import com.io7m.azeno.database.api.AzCollectionSearchType;
 import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.database.api.AzSchemaPutType;
 import com.io7m.azeno.database.api.AzStoreGetType;
 import com.io7m.azeno.database.api.AzStorePutType;
 import com.io7m.azeno.database.api.AzUserPutType;
+import com.io7m.azeno.database.postgres.internal.AzAssetDataCodec;
 import com.io7m.azeno.model.AzAsset;
 import com.io7m.azeno.model.AzAssetID;
 import com.io7m.azeno.model.AzAssetProperties;
@@ -61,6 +71,7 @@ import com.io7m.lanark.core.RDottedName;
 import com.io7m.medrina.api.MSubject;
 import com.io7m.zelador.test_extension.CloseableResourcesType;
 import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.jooq.DSLContext;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -70,12 +81,17 @@ import java.math.BigInteger;
 import java.net.URI;
 import java.time.OffsetDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
 @ErvillaConfiguration(projectName = "com.io7m.azeno", disabledIfUnsupported = true)
@@ -98,7 +114,11 @@ public final class AzDatabaseAssetsTest
   private AzCollection collection;
   private AzAssetProperties assetProperties;
   private AzAssetPutType assetPut;
+  private AzAssetPutManyType assetPutMany;
   private AzAssetGetType assetGet;
+  private AzAssetSummaryGetType assetSummaryGet;
+  private AzAssetSummaryGetManyType assetSummaryGetMany;
+  private AzAssetDataMigrateType assetDataMigrate;
   private AzSchemaPutType schemaPut;
   private AzSchema schema;
 
@@ -151,8 +171,16 @@ public final class AzDatabaseAssetsTest
       this.transaction.query(AzCollectionAccessGetType.class);
     this.assetPut =
       this.transaction.query(AzAssetPutType.class);
+    this.assetPutMany =
+      this.transaction.query(AzAssetPutManyType.class);
     this.assetGet =
       this.transaction.query(AzAssetGetType.class);
+    this.assetSummaryGet =
+      this.transaction.query(AzAssetSummaryGetType.class);
+    this.assetSummaryGetMany =
+      this.transaction.query(AzAssetSummaryGetManyType.class);
+    this.assetDataMigrate =
+      this.transaction.query(AzAssetDataMigrateType.class);
 
     this.user =
       new AzUser(
@@ -254,4 +282,313 @@ public final class AzDatabaseAssetsTest
       asset,
       this.assetGet.execute(asset.id()).orElseThrow());
   }
+
+  /**
+   * Asset summaries can be retrieved without the asset properties.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetSummary0()
+    throws Exception
+  {
+    final var asset = this.createAsset();
+
+    assertEquals(
+      Optional.of(asset.summary()),
+      this.assetSummaryGet.execute(asset.id())
+    );
+    assertEquals(
+      Optional.empty(),
+      this.assetSummaryGet.execute(AzAssetID.random())
+    );
+  }
+
+  /**
+   * Summaries of many assets can be retrieved at once, and nonexistent
+   * assets are ignored.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetSummaryMany0()
+    throws Exception
+  {
+    final var asset = this.createAsset();
+
+    assertEquals(
+      List.of(asset.summary()),
+      this.assetSummaryGetMany.execute(Set.of(asset.id(), AzAssetID.random()))
+    );
+    assertEquals(
+      List.of(),
+      this.assetSummaryGetMany.execute(Set.of())
+    );
+  }
+
+  /**
+   * Assets stored as XML remain readable, and are migrated to the binary
+   * encoding.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetLegacyMigrate0()
+    throws Exception
+  {
+    final var asset = this.createAsset();
+
+    this.transaction.get(DSLContext.class)
+      .execute(
+        """
+          UPDATE assets
+            SET asset_data_type = ?,
+                asset_data = ?,
+                asset_data_binary = NULL
+            WHERE asset_id = ?
+          """,
+        AzAssetDataCodec.DATA_TYPE_XML,
+        AzAssetDataCodec.encodeXML(asset),
+        asset.id().id()
+      );
+
+    assertEquals(
+      asset,
+      this.assetGet.execute(asset.id()).orElseThrow());
+
+    assertEquals(
+      new AzAssetDataMigrateType.Result(1L, 0L),
+      this.assetDataMigrate.execute(100L));
+    assertEquals(
+      new AzAssetDataMigrateType.Result(0L, 0L),
+      this.assetDataMigrate.execute(100L));
+
+    assertEquals(
+      asset,
+      this.assetGet.execute(asset.id()).orElseThrow());
+  }
+
+  /**
+   * Assets stored as XML that cannot be parsed are skipped by migration,
+   * and do not prevent other assets from being migrated.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetLegacyMigrateUnparseable()
+    throws Exception
+  {
+    final var asset = this.createAsset();
+
+    this.transaction.get(DSLContext.class)
+      .execute(
+        """
+          UPDATE assets
+            SET asset_data_type = ?,
+                asset_data = ?,
+                asset_data_binary = NULL
+            WHERE asset_id = ?
+          """,
+        AzAssetDataCodec.DATA_TYPE_XML,
+        "<not-an-asset",
+        asset.id().id()
+      );
+
+    assertEquals(
+      new AzAssetDataMigrateType.Result(0L, 1L),
+      this.assetDataMigrate.execute(100L));
+    assertEquals(
+      new AzAssetDataMigrateType.Result(0L, 0L),
+      this.assetDataMigrate.execute(100L));
+
+    final var type =
+      this.transaction.get(DSLContext.class)
+        .fetchValue(
+          "SELECT asset_data_type FROM assets WHERE asset_id = ?",
+          asset.id().id()
+        );
+
+    assertEquals(AzAssetDataCodec.DATA_TYPE_XML_UNPARSEABLE, type);
+  }
+
+  /**
+   * Creating assets in batches larger than a single statement works, and
+   * duplicate IDs within a batch resolve to the last asset.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetPutMany0()
+    throws Exception
+  {
+    this.transaction.setUserID(this.user.userId());
+    this.userPut.execute(this.user);
+    this.storePut.execute(this.store);
+    this.schemaPut.execute(this.schema);
+    this.collectionPut.execute(this.collection);
+
+    final var hash =
+      new AzHashSHA256(
+        "5891b5b522d5df086d0ff0b110fbd9d21bb4fc7163af34d08286a2e846f6be03"
+      );
+
+    final var assets = new ArrayList<AzAsset>();
+    for (int index = 0; index < 2500; ++index) {
+      assets.add(
+        new AzAsset(
+          AzAssetID.random(),
+          this.collection.id(),
+          hash,
+          this.assetProperties
+        )
+      );
+    }
+
+    final var replaced =
+      new AzAsset(
+        assets.getFirst().id(),
+        this.collection.id(),
+        hash,
+        AzAssetProperties.builder().build()
+      );
+    assets.add(replaced);
+
+    this.assetPutMany.execute(assets);
+
+    for (final var asset : assets.subList(1, assets.size())) {
+      assertEquals(
+        asset,
+        this.assetGet.execute(asset.id()).orElseThrow());
+    }
+
+    /*
+     * Writing the same batch again updates the existing assets.
+     */
+
+    this.assetPutMany.execute(assets);
+    assertEquals(
+      replaced,
+      this.assetGet.execute(replaced.id()).orElseThrow());
+  }
+
+  /**
+   * Committed asset changes are announced, appear in the change feed exactly
+   * once, and the position of an index is recorded durably.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetChanges0()
+    throws Exception
+  {
+    final var started = new CountDownLatch(1);
+    final var notified = new CountDownLatch(1);
+
+    try (var ignored =
+           this.database.listen(
+             List.of(AzAssetChangesGetType.CHANNEL),
+             new AzDatabaseNotificationHandlerType()
+             {
+               @Override
+               public void onListenStarted()
+               {
+                 started.countDown();
+               }
+
+               @Override
+               public void onNotification(
+                 final String channel,
+                 final String payload)
+               {
+                 notified.countDown();
+               }
+             })) {
+
+      assertTrue(started.await(10L, TimeUnit.SECONDS));
+
+      final var asset = this.createAsset();
+
+      /*
+       * Changes made by transactions that are still in progress are never
+       * returned.
+       */
+
+      final var changesGet =
+        this.transaction.query(AzAssetChangesGetType.class);
+
+      assertEquals(
+        List.of(),
+        changesGet.execute(
+          new AzAssetChangesGetType.Parameters(
+            AzAssetChangePosition.start(), 100)
+        ).assets()
+      );
+
+      this.transaction.commit();
+      assertTrue(notified.await(10L, TimeUnit.SECONDS));
+
+      try (var c = this.database.openConnection()) {
+        try (var t = c.openTransaction()) {
+          final var changes =
+            t.query(AzAssetChangesGetType.class)
+              .execute(new AzAssetChangesGetType.Parameters(
+                AzAssetChangePosition.start(), 100));
+
+          assertEquals(List.of(asset), changes.assets());
+          assertEquals(asset.id(), changes.position().asset());
+
+          assertEquals(
+            AzAssetChangePosition.start(),
+            t.query(AzAssetIndexPositionGetType.class).execute("solr")
+          );
+
+          t.query(AzAssetIndexPositionPutType.class)
+            .execute(new AzAssetIndexPositionPutType.Parameters(
+              "solr", changes.position()));
+
+          assertEquals(
+            changes.position(),
+            t.query(AzAssetIndexPositionGetType.class).execute("solr")
+          );
+
+          assertEquals(
+            List.of(),
+            t.query(AzAssetChangesGetType.class)
+              .execute(new AzAssetChangesGetType.Parameters(
+                changes.position(), 100))
+              .assets()
+          );
+        }
+      }
+    }
+  }
+
+  private AzAsset createAsset()
+    throws Exception
+  {
+    this.transaction.setUserID(this.user.userId());
+    this.userPut.execute(this.user);
+    this.storePut.execute(this.store);
+    this.schemaPut.execute(this.schema);
+    this.collectionPut.execute(this.collection);
+
+    final var asset =
+      new AzAsset(
+        AzAssetID.random(),
+        this.collection.id(),
+        new AzHashSHA256(
+          "5891b5b522d5df086d0ff0b110fbd9d21bb4fc7163af34d08286a2e846f6be03"
+        ),
+        this.assetProperties
+      );
+
+    this.assetPut.execute(asset);
+    return asset;
+  }
 }
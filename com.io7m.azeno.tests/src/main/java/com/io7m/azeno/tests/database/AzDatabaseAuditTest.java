@@ -0,0 +1,465 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.database;
+
+import com.io7m.azeno.database.api.AzAuditPartitionMaintainType;
+import com.io7m.azeno.database.api.AzAuditPartitionMaintenance;
+import com.io7m.azeno.database.api.AzAuditPutType;
+import com.io7m.azeno.database.api.AzAuditSearchPage;
+import com.io7m.azeno.database.api.AzAuditSearchType;
+import com.io7m.azeno.database.api.AzDatabaseAuditMode;
+import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzUserPutType;
+import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzAuditSearchCursor;
+import com.io7m.azeno.model.AzAuditSearchParameters;
+import com.io7m.azeno.model.AzComparisonExactType;
+import com.io7m.azeno.model.AzTimeRange;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.tests.containers.AzDatabaseFixture;
+import com.io7m.azeno.tests.containers.AzFixtures;
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MSubject;
+import com.io7m.zelador.test_extension.CloseableResourcesType;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(projectName = "com.io7m.azeno", disabledIfUnsupported = true)
+public final class AzDatabaseAuditTest
+{
+  private static final OffsetDateTime TIME_BASE =
+    OffsetDateTime.of(2024, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+
+  private static AzDatabaseFixture DATABASE_FIXTURE;
+  private AzDatabaseConnectionType connection;
+  private AzDatabaseTransactionType transaction;
+  private AzDatabaseType database;
+  private AzAuditPutType auditPut;
+  private AzAuditSearchType auditSearch;
+  private AzAuditPartitionMaintainType auditPartitions;
+  private AzUserPutType userPut;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      AzFixtures.database(AzFixtures.pod(containers));
+  }
+
+  @BeforeEach
+  public void setup(
+    final CloseableResourcesType closeables)
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+
+    this.database =
+      closeables.addPerTestResource(DATABASE_FIXTURE.createDatabase());
+    this.connection =
+      closeables.addPerTestResource(this.database.openConnection());
+    this.transaction =
+      closeables.addPerTestResource(this.connection.openTransaction());
+
+    this.auditPut =
+      this.transaction.query(AzAuditPutType.class);
+    this.auditSearch =
+      this.transaction.query(AzAuditSearchType.class);
+    this.userPut =
+      this.transaction.query(AzUserPutType.class);
+    this.auditPartitions =
+      this.transaction.query(AzAuditPartitionMaintainType.class);
+  }
+
+  /**
+   * Searching audit events honours the owner, type, and time range, and
+   * pages through the results in time order.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuditSearch0()
+    throws Exception
+  {
+    final var user0 =
+      new AzUser(AzUserID.random(), new IdName("x"), new MSubject(Set.of()));
+    final var user1 =
+      new AzUser(AzUserID.random(), new IdName("y"), new MSubject(Set.of()));
+
+    this.transaction.setUserID(user0.userId());
+    this.userPut.execute(user0);
+    this.userPut.execute(user1);
+
+    final var expected = new ArrayList<AzAuditEvent>();
+    for (int index = 0; index < 100; ++index) {
+      final var owner =
+        (index % 2 == 0) ? user0 : user1;
+      final var type =
+        (index % 4 < 2) ? "A" : "B";
+      final var time =
+        TIME_BASE.plusSeconds(index);
+
+      this.auditPut.execute(
+        new AzAuditEvent(
+          0L,
+          time,
+          owner.userId(),
+          type,
+          Map.of("Index", Integer.toString(index))
+        )
+      );
+
+      if (owner == user0 && "A".equals(type) && index >= 10 && index <= 90) {
+        expected.add(new AzAuditEvent(0L, time, owner.userId(), type, Map.of()));
+      }
+    }
+
+    final var parameters =
+      new AzAuditSearchParameters(
+        Optional.of(user0.userId()),
+        new AzComparisonExactType.IsEqualTo<>("A"),
+        new AzTimeRange(
+          TIME_BASE.plusSeconds(10L),
+          TIME_BASE.plusSeconds(90L)
+        ),
+        10L
+      );
+
+    final var received = new ArrayList<AzAuditEvent>();
+    final var pages = new ArrayList<AzAuditSearchPage>();
+    var cursor = Optional.of(AzAuditSearchCursor.first(parameters));
+    while (cursor.isPresent()) {
+      final var page = this.auditSearch.execute(cursor.get());
+      for (final var event : page.page().items()) {
+        received.add(
+          new AzAuditEvent(0L, event.time(), event.owner(), event.type(), Map.of())
+        );
+      }
+      pages.add(page);
+      cursor = page.next();
+    }
+
+    assertEquals(expected.size(), received.size());
+    for (int index = 0; index < expected.size(); ++index) {
+      assertEquals(
+        expected.get(index).time().toInstant(),
+        received.get(index).time().toInstant()
+      );
+      assertEquals(expected.get(index).owner(), received.get(index).owner());
+      assertEquals(expected.get(index).type(), received.get(index).type());
+    }
+
+    /*
+     * Walking backwards from the last page yields the same pages.
+     */
+
+    var previous = pages.getLast().previous();
+    for (int index = pages.size() - 2; index >= 0; --index) {
+      final var page = this.auditSearch.execute(previous.orElseThrow());
+      assertEquals(pages.get(index).page(), page.page());
+      previous = page.previous();
+    }
+    assertEquals(Optional.empty(), previous);
+  }
+
+  /**
+   * Audit partitions are created ahead of time, and expired partitions are
+   * removed along with the events they contain.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuditPartitions0()
+    throws Exception
+  {
+    final var user =
+      new AzUser(AzUserID.random(), new IdName("x"), new MSubject(Set.of()));
+
+    this.transaction.setUserID(user.userId());
+    this.userPut.execute(user);
+
+    final var time0 =
+      OffsetDateTime.of(2020, 1, 15, 0, 0, 0, 0, ZoneOffset.UTC);
+
+    /*
+     * An event written before its partition exists lands in the default
+     * partition, and is moved when the partition is created.
+     */
+
+    this.auditPut.execute(
+      new AzAuditEvent(0L, time0.plusMonths(1L), user.userId(), "A", Map.of())
+    );
+
+    final var result0 =
+      this.auditPartitions.execute(
+        new AzAuditPartitionMaintenance(time0, 2, Optional.empty(), true)
+      );
+    assertEquals(3L, result0.created());
+    assertEquals(0L, result0.removed());
+
+    final var result1 =
+      this.auditPartitions.execute(
+        new AzAuditPartitionMaintenance(time0, 2, Optional.empty(), true)
+      );
+    assertEquals(0L, result1.created());
+    assertEquals(0L, result1.removed());
+
+    this.auditPut.execute(
+      new AzAuditEvent(0L, time0, user.userId(), "A", Map.of())
+    );
+    this.auditPut.execute(
+      new AzAuditEvent(0L, time0.plusMonths(2L), user.userId(), "A", Map.of())
+    );
+
+    /*
+     * Expiring everything before March removes the January and February
+     * partitions.
+     */
+
+    final var result2 =
+      this.auditPartitions.execute(
+        new AzAuditPartitionMaintenance(
+          time0.plusMonths(5L),
+          0,
+          Optional.of(OffsetDateTime.of(2020, 3, 1, 0, 0, 0, 0, ZoneOffset.UTC)),
+          true
+        )
+      );
+    assertEquals(1L, result2.created());
+    assertEquals(2L, result2.removed());
+
+    final var parameters =
+      new AzAuditSearchParameters(
+        Optional.of(user.userId()),
+        new AzComparisonExactType.Anything<>(),
+        new AzTimeRange(
+          time0.minusYears(1L),
+          time0.plusYears(1L)
+        ),
+        10L
+      );
+
+    final var page =
+      this.auditSearch.execute(AzAuditSearchCursor.first(parameters));
+
+    assertEquals(1, page.page().items().size());
+    assertEquals(
+      time0.plusMonths(2L).toInstant(),
+      page.page().items().get(0).time().toInstant()
+    );
+  }
+
+  /**
+   * Audit events written behind are visible once the sink has been flushed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuditWriteBehind0()
+    throws Exception
+  {
+    final var owner = AzUserID.random();
+
+    try (var behind =
+           DATABASE_FIXTURE.createDatabase(AzDatabaseAuditMode.WRITE_BEHIND)) {
+      try (var c = behind.openConnection()) {
+        try (var t = c.openTransaction()) {
+          final var put = t.query(AzAuditPutType.class);
+          for (int index = 0; index < 2500; ++index) {
+            put.execute(
+              new AzAuditEvent(
+                0L,
+                TIME_BASE.plusSeconds(index),
+                owner,
+                "A",
+                Map.of("Index", Integer.toString(index), "Quote", "\"\t\\")
+              )
+            );
+          }
+          t.commit();
+        }
+      }
+    }
+
+    final var parameters =
+      new AzAuditSearchParameters(
+        Optional.of(owner),
+        new AzComparisonExactType.Anything<>(),
+        new AzTimeRange(
+          TIME_BASE,
+          TIME_BASE.plusSeconds(2500L)
+        ),
+        1000L
+      );
+
+    var count = 0;
+    var cursor = Optional.of(AzAuditSearchCursor.first(parameters));
+    while (cursor.isPresent()) {
+      final var page = this.auditSearch.execute(cursor.get());
+      for (final var event : page.page().items()) {
+        assertEquals("\"\t\\", event.data().get("Quote"));
+        ++count;
+      }
+      cursor = page.next();
+    }
+
+    assertEquals(2500, count);
+  }
+
+  /**
+   * Audit events left in the queue by a server that stopped before moving
+   * them are moved by the next server to start.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuditWriteBehindQueued()
+    throws Exception
+  {
+    final var owner = AzUserID.random();
+
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        final var context = t.get(DSLContext.class);
+        for (int index = 0; index < 3; ++index) {
+          context.execute(
+            """
+              INSERT INTO audit_queue
+                (queue_user_id, queue_time, queue_type, queue_data)
+                VALUES (?, ?, 'A', ''::hstore)
+              """,
+            owner.id(),
+            TIME_BASE.plusSeconds(index)
+          );
+        }
+        t.commit();
+      }
+    }
+
+    try (var ignored =
+           DATABASE_FIXTURE.createDatabase(AzDatabaseAuditMode.WRITE_BEHIND)) {
+      // The sink moves queued events when it starts, and when it closes.
+    }
+
+    final var parameters =
+      new AzAuditSearchParameters(
+        Optional.of(owner),
+        new AzComparisonExactType.Anything<>(),
+        new AzTimeRange(
+          TIME_BASE,
+          TIME_BASE.plusSeconds(3L)
+        ),
+        1000L
+      );
+
+    final var page =
+      this.auditSearch.execute(AzAuditSearchCursor.first(parameters));
+
+    assertEquals(3, page.page().items().size());
+    assertEquals(
+      0,
+      this.transaction.get(DSLContext.class)
+        .fetchCount(DSL.table("audit_queue"))
+    );
+  }
+
+  /**
+   * Audit events written behind are discarded if their transaction is
+   * rolled back.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAuditWriteBehindRollback()
+    throws Exception
+  {
+    final var owner = AzUserID.random();
+
+    try (var behind =
+           DATABASE_FIXTURE.createDatabase(AzDatabaseAuditMode.WRITE_BEHIND)) {
+      try (var c = behind.openConnection()) {
+        try (var t = c.openTransaction()) {
+          final var put = t.query(AzAuditPutType.class);
+          put.execute(
+            new AzAuditEvent(
+              0L,
+              TIME_BASE,
+              owner,
+              "A",
+              Map.of()
+            )
+          );
+          t.rollback();
+
+          put.execute(
+            new AzAuditEvent(
+              0L,
+              TIME_BASE.plusSeconds(1L),
+              owner,
+              "B",
+              Map.of()
+            )
+          );
+        }
+      }
+    }
+
+    final var parameters =
+      new AzAuditSearchParameters(
+        Optional.of(owner),
+        new AzComparisonExactType.Anything<>(),
+        new AzTimeRange(
+          TIME_BASE,
+          TIME_BASE.plusSeconds(2L)
+        ),
+        1000L
+      );
+
+    final var page =
+      this.auditSearch.execute(AzAuditSearchCursor.first(parameters));
+
+    assertEquals(0, page.page().items().size());
+  }
+}
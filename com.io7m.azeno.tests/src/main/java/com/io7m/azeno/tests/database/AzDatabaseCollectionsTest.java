@@ -62,6 +62,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -515,6 +516,97 @@ public final class AzDatabaseCollectionsTest
     assertEquals(access, this.collectionAccessGet.execute(access.request()));
   }
 
+  /**
+   * Cached access decisions are invalidated by changes made through the same
+   * database, and by changes made through other databases once the change
+   * notification arrives.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCollectionAccessCacheInvalidation0()
+    throws Exception
+  {
+    final var user =
+      new AzUser(
+        AzUserID.random(),
+        new IdName("x"),
+        new MSubject(Set.of())
+      );
+
+    final var store =
+      new AzStoreS3(
+        AzStoreID.random(),
+        "Store 1",
+        "us-east-1",
+        URI.create("https://s3.example.com"),
+        Optional.of(
+          new HClientAccessKeys("abcd", "1234")
+        )
+      );
+
+    final var collection =
+      new AzCollection(
+        AzCollectionID.random(),
+        "Collection 1",
+        store.id(),
+        this.schema.id()
+      );
+
+    this.transaction.setUserID(user.userId());
+    this.userPut.execute(user);
+    this.storePut.execute(store);
+    this.schemaPut.execute(this.schema);
+    this.collectionPut.execute(collection);
+
+    final var readOnly =
+      new AzCollectionAccess(user.userId(), collection.id(), true, false);
+    final var readWrite =
+      new AzCollectionAccess(user.userId(), collection.id(), true, true);
+
+    this.collectionAccessSet.execute(readOnly);
+    this.transaction.commit();
+
+    try (var other = DATABASE_FIXTURE.createDatabase()) {
+      assertEquals(readOnly, accessGet(other, readOnly));
+      assertEquals(readOnly, accessGet(this.database, readOnly));
+
+      try (var c = this.database.openConnection()) {
+        try (var t = c.openTransaction()) {
+          t.setUserID(user.userId());
+          t.query(AzCollectionAccessSetType.class).execute(readWrite);
+          t.commit();
+        }
+      }
+
+      assertEquals(readWrite, accessGet(this.database, readWrite));
+
+      final var deadline =
+        System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+      while (System.nanoTime() < deadline) {
+        if (readWrite.equals(accessGet(other, readWrite))) {
+          break;
+        }
+        Thread.sleep(100L);
+      }
+      assertEquals(readWrite, accessGet(other, readWrite));
+    }
+  }
+
+  private static AzCollectionAccess accessGet(
+    final AzDatabaseType database,
+    final AzCollectionAccess access)
+    throws DDatabaseException
+  {
+    try (var c = database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        return t.query(AzCollectionAccessGetType.class)
+          .execute(access.request());
+      }
+    }
+  }
+
   /**
    * Nonexistent collections or users cannot have their access set.
    *
@@ -0,0 +1,281 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.database;
+
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzJob;
+import com.io7m.azeno.database.api.AzJobClaimType;
+import com.io7m.azeno.database.api.AzJobCompleteType;
+import com.io7m.azeno.database.api.AzJobHeartbeatType;
+import com.io7m.azeno.database.api.AzJobID;
+import com.io7m.azeno.database.api.AzJobPutType;
+import com.io7m.azeno.tests.containers.AzDatabaseFixture;
+import com.io7m.azeno.tests.containers.AzFixtures;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.zelador.test_extension.CloseableResourcesType;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(projectName = "com.io7m.azeno", disabledIfUnsupported = true)
+public final class AzDatabaseJobsTest
+{
+  private static final String TYPE = "com.io7m.azeno.tests.job";
+  private static final Duration LEASE = Duration.ofMinutes(1L);
+
+  private static AzDatabaseFixture DATABASE_FIXTURE;
+  private AzDatabaseType database;
+  private UUID ownerA;
+  private UUID ownerB;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      AzFixtures.database(AzFixtures.pod(containers));
+  }
+
+  @BeforeEach
+  public void setup(
+    final CloseableResourcesType closeables)
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+
+    this.database =
+      closeables.addPerTestResource(DATABASE_FIXTURE.createDatabase());
+    this.ownerA =
+      UUID.randomUUID();
+    this.ownerB =
+      UUID.randomUUID();
+  }
+
+  /**
+   * Each job is claimed by exactly one owner, and no more than the requested
+   * number of jobs are claimed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJobClaim0()
+    throws Exception
+  {
+    final var ids = Set.of(this.put(1), this.put(1), this.put(1));
+
+    final var claimedA = this.claim(this.ownerA, 2, LEASE);
+    assertEquals(2, claimedA.size());
+    final var claimedB = this.claim(this.ownerB, 10, LEASE);
+    assertEquals(1, claimedB.size());
+    assertEquals(List.of(), this.claim(this.ownerB, 10, LEASE));
+
+    final var claimed = new HashSet<AzJobID>();
+    for (final var job : claimedA) {
+      assertEquals(1, job.attempt());
+      claimed.add(job.id());
+    }
+    for (final var job : claimedB) {
+      assertEquals(1, job.attempt());
+      claimed.add(job.id());
+    }
+    assertEquals(ids, claimed);
+  }
+
+  /**
+   * Jobs locked by a claim that has not yet committed are skipped by other
+   * claims, rather than waited for.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJobClaimSkipLocked0()
+    throws Exception
+  {
+    this.put(1);
+    this.put(1);
+
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        final var first =
+          t.query(AzJobClaimType.class)
+            .execute(new AzJobClaimType.Parameters(this.ownerA, TYPE, 1, LEASE));
+        assertEquals(1, first.size());
+
+        final var second = this.claim(this.ownerB, 10, LEASE);
+        assertEquals(1, second.size());
+        assertNotEquals(first.get(0).id(), second.get(0).id());
+      }
+    }
+
+    /*
+     * The first claim was rolled back, so its job is available again.
+     */
+
+    assertEquals(1, this.claim(this.ownerA, 10, LEASE).size());
+  }
+
+  /**
+   * Failed jobs are retried until they run out of attempts, and succeeded
+   * jobs are never claimed again.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJobRetry0()
+    throws Exception
+  {
+    final var retried = this.put(2);
+    final var failure =
+      Optional.of(new AzJobCompleteType.Failure("Failed!", Duration.ZERO));
+
+    var job = this.claim(this.ownerA, 1, LEASE).get(0);
+    assertEquals(retried, job.id());
+    assertEquals(1, job.attempt());
+    this.complete(this.ownerA, job.id(), failure);
+
+    job = this.claim(this.ownerA, 1, LEASE).get(0);
+    assertEquals(retried, job.id());
+    assertEquals(2, job.attempt());
+    this.complete(this.ownerA, job.id(), failure);
+
+    assertEquals(List.of(), this.claim(this.ownerA, 1, LEASE));
+
+    final var succeeded = this.put(2);
+    job = this.claim(this.ownerA, 1, LEASE).get(0);
+    assertEquals(succeeded, job.id());
+    this.complete(this.ownerA, job.id(), Optional.empty());
+
+    assertEquals(List.of(), this.claim(this.ownerA, 1, LEASE));
+  }
+
+  /**
+   * Jobs whose leases expire are taken over by other owners, and the
+   * original owner can no longer extend or complete them.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testJobLeaseExpiry0()
+    throws Exception
+  {
+    final var id = this.put(3);
+
+    final var jobA = this.claim(this.ownerA, 1, Duration.ZERO).get(0);
+    assertEquals(id, jobA.id());
+    Thread.sleep(10L);
+
+    final var jobB = this.claim(this.ownerB, 1, LEASE).get(0);
+    assertEquals(id, jobB.id());
+    assertEquals(2, jobB.attempt());
+
+    assertEquals(Set.of(), this.heartbeat(this.ownerA, id));
+    assertEquals(Set.of(id), this.heartbeat(this.ownerB, id));
+
+    /*
+     * The outcome reported by the original owner is ignored.
+     */
+
+    this.complete(this.ownerA, id, Optional.empty());
+    assertEquals(Set.of(id), this.heartbeat(this.ownerB, id));
+  }
+
+  private AzJobID put(
+    final int attempts)
+    throws DDatabaseException
+  {
+    final var id = AzJobID.random();
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        t.query(AzJobPutType.class)
+          .execute(new AzJobPutType.Parameters(
+            id, TYPE, "", attempts, Duration.ZERO));
+        t.commit();
+      }
+    }
+    return id;
+  }
+
+  private List<AzJob> claim(
+    final UUID owner,
+    final int limit,
+    final Duration lease)
+    throws DDatabaseException
+  {
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        final var jobs =
+          t.query(AzJobClaimType.class)
+            .execute(new AzJobClaimType.Parameters(owner, TYPE, limit, lease));
+        t.commit();
+        return jobs;
+      }
+    }
+  }
+
+  private void complete(
+    final UUID owner,
+    final AzJobID id,
+    final Optional<AzJobCompleteType.Failure> failure)
+    throws DDatabaseException
+  {
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        t.query(AzJobCompleteType.class)
+          .execute(new AzJobCompleteType.Parameters(owner, id, failure));
+        t.commit();
+      }
+    }
+  }
+
+  private Set<AzJobID> heartbeat(
+    final UUID owner,
+    final AzJobID id)
+    throws DDatabaseException
+  {
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        final var held =
+          t.query(AzJobHeartbeatType.class)
+            .execute(new AzJobHeartbeatType.Parameters(owner, List.of(id), LEASE));
+        t.commit();
+        return held;
+      }
+    }
+  }
+}
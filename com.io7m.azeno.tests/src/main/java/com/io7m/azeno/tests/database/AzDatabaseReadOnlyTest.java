@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.database;
+
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzUserGetType;
+import com.io7m.azeno.database.api.AzUserPutType;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.tests.containers.AzDatabaseFixture;
+import com.io7m.azeno.tests.containers.AzFixtures;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MSubject;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(projectName = "com.io7m.azeno", disabledIfUnsupported = true)
+public final class AzDatabaseReadOnlyTest
+{
+  private static AzDatabaseFixture DATABASE_FIXTURE;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      AzFixtures.database(AzFixtures.pod(containers));
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+  }
+
+  /**
+   * Without a replica, read-only work uses the primary, but in read-only
+   * transactions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOnlyWithoutReplica()
+    throws Exception
+  {
+    try (var database = DATABASE_FIXTURE.createDatabase()) {
+      assertNotSame(database, database.readOnly());
+      assertSame(database.readOnly(), database.readOnly().readOnly());
+      checkReadOnly(database);
+    }
+  }
+
+  /**
+   * With a replica, read-only work uses the replica pool and the read-only
+   * role, in read-only transactions.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testReadOnlyWithReplica()
+    throws Exception
+  {
+    try (var database = DATABASE_FIXTURE.createDatabaseWithReplica()) {
+      checkReadOnly(database);
+    }
+  }
+
+  private static void checkReadOnly(
+    final AzDatabaseType database)
+    throws DDatabaseException
+  {
+    final var user =
+      new AzUser(AzUserID.random(), new IdName("x"), new MSubject(Set.of()));
+
+    try (var c = database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        t.setUserID(user.userId());
+        t.query(AzUserPutType.class).execute(user);
+        t.commit();
+      }
+    }
+
+    try (var c = database.readOnly().openConnection()) {
+      try (var t = c.openTransaction()) {
+        assertEquals(
+          user,
+          t.query(AzUserGetType.class).execute(user.userId()).orElseThrow()
+        );
+
+        final var other =
+          new AzUser(AzUserID.random(), new IdName("y"), new MSubject(Set.of()));
+
+        t.setUserID(other.userId());
+        assertThrows(DDatabaseException.class, () -> {
+          t.query(AzUserPutType.class).execute(other);
+        });
+      }
+    }
+  }
+}
@@ -55,6 +55,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.util.List;
 import java.util.Locale;
+import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
@@ -195,6 +196,56 @@ public final class AzDatabaseSchemasTest
     assertEquals(errorDuplicate().id(), ex.errorCode());
   }
 
+  /**
+   * Schemas that are rolled back are not retained by the schema cache.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSchemaCreateRollback()
+    throws Exception
+  {
+    this.transaction.setUserID(this.user.userId());
+
+    this.schemaPut.execute(this.schema1);
+    assertEquals(
+      this.schema1,
+      this.schemaGet.execute(this.schema1.id()).orElseThrow()
+    );
+
+    this.transaction.rollback();
+    assertEquals(
+      Optional.empty(),
+      this.schemaGet.execute(this.schema1.id())
+    );
+  }
+
+  /**
+   * Schemas are retrieved identically when they are cached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSchemaGetCached()
+    throws Exception
+  {
+    this.transaction.setUserID(this.user.userId());
+
+    this.schemaPut.execute(this.schema1);
+    this.transaction.commit();
+
+    try (var c = this.database.openConnection()) {
+      try (var t = c.openTransaction()) {
+        final var get = t.query(AzSchemaGetType.class);
+        assertEquals(this.schema1, get.execute(this.schema1.id()).orElseThrow());
+        assertEquals(this.schema1, get.execute(this.schema1.id()).orElseThrow());
+        assertEquals(Optional.empty(), get.execute(this.schema2.id()));
+      }
+    }
+  }
+
   /**
    * Searching schemas works.
    *
@@ -0,0 +1,246 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.database;
+
+import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseSession;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzSessionDeleteExpiredType;
+import com.io7m.azeno.database.api.AzSessionDeleteType;
+import com.io7m.azeno.database.api.AzSessionExtendType;
+import com.io7m.azeno.database.api.AzSessionGetType;
+import com.io7m.azeno.database.api.AzSessionPutType;
+import com.io7m.azeno.database.api.AzUserPutType;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.tests.containers.AzDatabaseFixture;
+import com.io7m.azeno.tests.containers.AzFixtures;
+import com.io7m.ervilla.api.EContainerSupervisorType;
+import com.io7m.ervilla.test_extension.ErvillaCloseAfterSuite;
+import com.io7m.ervilla.test_extension.ErvillaConfiguration;
+import com.io7m.ervilla.test_extension.ErvillaExtension;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MRoleName;
+import com.io7m.medrina.api.MSubject;
+import com.io7m.zelador.test_extension.CloseableResourcesType;
+import com.io7m.zelador.test_extension.ZeladorExtension;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
+@ErvillaConfiguration(projectName = "com.io7m.azeno", disabledIfUnsupported = true)
+public final class AzDatabaseSessionsTest
+{
+  private static final String HASH_0 =
+    "0".repeat(64);
+  private static final String HASH_1 =
+    "1".repeat(64);
+
+  private static AzDatabaseFixture DATABASE_FIXTURE;
+  private AzDatabaseConnectionType connection;
+  private AzDatabaseTransactionType transaction;
+  private AzDatabaseType database;
+  private AzUserPutType userPut;
+  private AzSessionPutType sessionPut;
+  private AzSessionGetType sessionGet;
+  private AzSessionExtendType sessionExtend;
+  private AzSessionDeleteType sessionDelete;
+  private AzSessionDeleteExpiredType sessionDeleteExpired;
+  private AzUser user;
+  private OffsetDateTime now;
+
+  @BeforeAll
+  public static void setupOnce(
+    final @ErvillaCloseAfterSuite EContainerSupervisorType containers)
+    throws Exception
+  {
+    DATABASE_FIXTURE =
+      AzFixtures.database(AzFixtures.pod(containers));
+  }
+
+  @BeforeEach
+  public void setup(
+    final CloseableResourcesType closeables)
+    throws Exception
+  {
+    DATABASE_FIXTURE.reset();
+
+    this.database =
+      closeables.addPerTestResource(DATABASE_FIXTURE.createDatabase());
+    this.connection =
+      closeables.addPerTestResource(this.database.openConnection());
+    this.transaction =
+      closeables.addPerTestResource(this.connection.openTransaction());
+
+    this.userPut =
+      this.transaction.query(AzUserPutType.class);
+    this.sessionPut =
+      this.transaction.query(AzSessionPutType.class);
+    this.sessionGet =
+      this.transaction.query(AzSessionGetType.class);
+    this.sessionExtend =
+      this.transaction.query(AzSessionExtendType.class);
+    this.sessionDelete =
+      this.transaction.query(AzSessionDeleteType.class);
+    this.sessionDeleteExpired =
+      this.transaction.query(AzSessionDeleteExpiredType.class);
+
+    this.user =
+      new AzUser(
+        AzUserID.random(),
+        new IdName("x"),
+        new MSubject(Set.of(MRoleName.of("role0")))
+      );
+
+    this.transaction.setUserID(this.user.userId());
+    this.userPut.execute(this.user);
+
+    this.now =
+      OffsetDateTime.now(ZoneOffset.UTC).withNano(0);
+  }
+
+  /**
+   * Stored sessions can be retrieved until they expire.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSessionPutGet()
+    throws Exception
+  {
+    final var session =
+      new AzDatabaseSession(HASH_0, this.user, this.now.plusHours(1L));
+
+    this.sessionPut.execute(session);
+
+    assertEquals(
+      Optional.of(session),
+      this.sessionGet.execute(
+        new AzSessionGetType.Parameters(HASH_0, this.now)).map(this::normalize)
+    );
+    assertEquals(
+      Optional.empty(),
+      this.sessionGet.execute(
+        new AzSessionGetType.Parameters(HASH_0, this.now.plusHours(2L)))
+    );
+    assertEquals(
+      Optional.empty(),
+      this.sessionGet.execute(
+        new AzSessionGetType.Parameters(HASH_1, this.now))
+    );
+  }
+
+  /**
+   * Extending sessions works, and reports sessions that do not exist.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSessionExtend()
+    throws Exception
+  {
+    this.sessionPut.execute(
+      new AzDatabaseSession(HASH_0, this.user, this.now.plusHours(1L))
+    );
+
+    assertTrue(
+      this.sessionExtend.execute(
+        new AzSessionExtendType.Parameters(HASH_0, this.now.plusHours(3L)))
+    );
+    assertFalse(
+      this.sessionExtend.execute(
+        new AzSessionExtendType.Parameters(HASH_1, this.now.plusHours(3L)))
+    );
+
+    assertTrue(
+      this.sessionGet.execute(
+        new AzSessionGetType.Parameters(HASH_0, this.now.plusHours(2L)))
+        .isPresent()
+    );
+  }
+
+  /**
+   * Deleting sessions works.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSessionDelete()
+    throws Exception
+  {
+    this.sessionPut.execute(
+      new AzDatabaseSession(HASH_0, this.user, this.now.plusHours(1L))
+    );
+    this.sessionDelete.execute(HASH_0);
+
+    assertEquals(
+      Optional.empty(),
+      this.sessionGet.execute(
+        new AzSessionGetType.Parameters(HASH_0, this.now))
+    );
+  }
+
+  /**
+   * Deleting expired sessions leaves live sessions alone.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSessionDeleteExpired()
+    throws Exception
+  {
+    this.sessionPut.execute(
+      new AzDatabaseSession(HASH_0, this.user, this.now.minusHours(1L))
+    );
+    this.sessionPut.execute(
+      new AzDatabaseSession(HASH_1, this.user, this.now.plusHours(1L))
+    );
+
+    assertEquals(1L, this.sessionDeleteExpired.execute(this.now));
+    assertTrue(
+      this.sessionGet.execute(
+        new AzSessionGetType.Parameters(HASH_1, this.now))
+        .isPresent()
+    );
+  }
+
+  private AzDatabaseSession normalize(
+    final AzDatabaseSession s)
+  {
+    return new AzDatabaseSession(
+      s.hash(),
+      s.user(),
+      s.expires().withOffsetSameInstant(ZoneOffset.UTC)
+    );
+  }
+}
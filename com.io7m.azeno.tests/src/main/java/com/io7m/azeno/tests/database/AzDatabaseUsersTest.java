@@ -17,6 +17,7 @@
 package com.io7m.azeno.tests.database;
 
 import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseNotificationHandlerType;
 import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.database.api.AzDatabaseType;
 import com.io7m.azeno.database.api.AzUserGetType;
@@ -25,6 +26,7 @@ import com.io7m.azeno.database.api.AzUserSearchType;
 import com.io7m.azeno.model.AzUnit;
 import com.io7m.azeno.model.AzUser;
 import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
 import com.io7m.azeno.tests.containers.AzDatabaseFixture;
 import com.io7m.azeno.tests.containers.AzFixtures;
 import com.io7m.ervilla.api.EContainerSupervisorType;
@@ -41,11 +43,17 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @ExtendWith({ErvillaExtension.class, ZeladorExtension.class})
 @ErvillaConfiguration(projectName = "com.io7m.azeno", disabledIfUnsupported = true)
@@ -153,6 +161,127 @@ public final class AzDatabaseUsersTest
     }
   }
 
+  /**
+   * Searching across multiple pages visits every user exactly once, even
+   * when many users share the same name.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUserSearchPages()
+    throws Exception
+  {
+    final var users = new ArrayList<AzUser>();
+    for (int index = 0; index < 2500; ++index) {
+      final var user =
+        new AzUser(
+          AzUserID.random(),
+          new IdName("x" + (index % 3)),
+          new MSubject(Set.of())
+        );
+      this.transaction.setUserID(user.userId());
+      this.userPut.execute(user);
+      users.add(user.withoutRoles());
+    }
+
+    final var s =
+      this.userSearch.execute(AzUnit.UNIT);
+    final var p0 =
+      s.pageCurrent(this.transaction);
+    final var p1 =
+      s.pageNext(this.transaction);
+    final var p2 =
+      s.pageNext(this.transaction);
+    final var p3 =
+      s.pageNext(this.transaction);
+    final var p4 =
+      s.pagePrevious(this.transaction);
+
+    assertEquals(0, p0.pageIndex());
+    assertEquals(1, p1.pageIndex());
+    assertEquals(2, p2.pageIndex());
+    assertEquals(2, p3.pageIndex());
+    assertEquals(1, p4.pageIndex());
+
+    assertEquals(1000, p0.items().size());
+    assertEquals(1000, p1.items().size());
+    assertEquals(500, p2.items().size());
+    assertEquals(3, p2.pageCount());
+    assertEquals(p2.items(), p3.items());
+    assertEquals(p1.items(), p4.items());
+    assertEquals(2000L, p2.pageFirstOffset());
+
+    final var seen = new HashSet<AzUser>();
+    seen.addAll(p0.items());
+    seen.addAll(p1.items());
+    seen.addAll(p2.items());
+    assertEquals(Set.copyOf(users), seen);
+  }
+
+  /**
+   * Committed changes to users are announced, and updates that leave a user
+   * unchanged are not.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testUserChanges0()
+    throws Exception
+  {
+    final var started = new CountDownLatch(1);
+    final var payloads = new LinkedBlockingQueue<String>();
+
+    try (var ignored =
+           this.database.listen(
+             List.of(AzUserCache.CHANNEL),
+             new AzDatabaseNotificationHandlerType()
+             {
+               @Override
+               public void onListenStarted()
+               {
+                 started.countDown();
+               }
+
+               @Override
+               public void onNotification(
+                 final String channel,
+                 final String payload)
+               {
+                 payloads.add(payload);
+               }
+             })) {
+
+      assertTrue(started.await(10L, TimeUnit.SECONDS));
+
+      final var user =
+        new AzUser(
+          AzUserID.random(),
+          new IdName("x"),
+          new MSubject(Set.of())
+        );
+
+      this.transaction.setUserID(user.userId());
+      this.userPut.execute(user);
+      this.userPut.execute(user);
+      this.userPut.execute(
+        new AzUser(
+          user.userId(),
+          user.name(),
+          new MSubject(Set.of(MRoleName.of("role0")))
+        )
+      );
+      this.transaction.commit();
+
+      assertEquals(
+        user.userId().toString(),
+        payloads.poll(10L, TimeUnit.SECONDS)
+      );
+      assertEquals(null, payloads.poll(1L, TimeUnit.SECONDS));
+    }
+  }
+
   /**
    * Nonexistent users are nonexistent.
    *
@@ -0,0 +1,375 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseTransactionType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.database.api.AzUserGetType;
+import com.io7m.azeno.error_codes.AzStandardErrorCodes;
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.protocol.asset.AzACommandRolesGet;
+import com.io7m.azeno.protocol.asset.AzAMessageType;
+import com.io7m.azeno.protocol.asset.AzAResponseError;
+import com.io7m.azeno.protocol.asset.AzAResponseRolesGet;
+import com.io7m.azeno.protocol.asset.cb.AzA1Messages;
+import com.io7m.azeno.server.asset.v1.AzA1TransactionStreamed;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
+import com.io7m.azeno.server.http.AzHTTPRequestInformation;
+import com.io7m.azeno.server.service.clock.AzServerClock;
+import com.io7m.azeno.server.service.reqlimit.AzRequestLimits;
+import com.io7m.azeno.server.service.sessions.AzSession;
+import com.io7m.azeno.server.service.sessions.AzSessionSecretIdentifier;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryNoOp;
+import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryServiceType;
+import com.io7m.azeno.strings.AzStrings;
+import com.io7m.azeno.tests.AzFakeClock;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MSubject;
+import com.io7m.repetoir.core.RPServiceDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Transactions in streaming mode.
+ */
+
+public final class AzA1TransactionStreamedTest
+{
+  private RPServiceDirectory services;
+  private AzA1Messages messages;
+  private AzDatabaseTransactionType transaction;
+  private AzUserGetType userGet;
+  private AzSession session;
+  private AzHTTPRequestInformation information;
+  private CountDownLatch release;
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.services =
+      new RPServiceDirectory();
+    this.messages =
+      new AzA1Messages();
+    this.release =
+      new CountDownLatch(1);
+
+    final var database =
+      mock(AzDatabaseType.class);
+    final var connection =
+      mock(AzDatabaseConnectionType.class);
+
+    this.transaction =
+      mock(AzDatabaseTransactionType.class);
+    this.userGet =
+      mock(AzUserGetType.class);
+
+    when(database.openConnection())
+      .thenReturn(connection);
+    when(connection.openTransaction())
+      .thenReturn(this.transaction);
+    when(this.transaction.query(AzUserGetType.class))
+      .thenReturn(this.userGet);
+
+    this.services.register(
+      AzA1Messages.class,
+      this.messages);
+    this.services.register(
+      AzStrings.class,
+      AzStrings.create(Locale.ROOT));
+    this.services.register(
+      AzServerTelemetryServiceType.class,
+      AzServerTelemetryNoOp.noop());
+    this.services.register(
+      AzServerClock.class,
+      new AzServerClock(new AzFakeClock()));
+    this.services.register(
+      AzDatabaseType.class,
+      database);
+    this.services.register(
+      AzRequestLimits.class,
+      mock(AzRequestLimits.class));
+    this.services.register(
+      AzHTTPAdmissionController.class,
+      new AzHTTPAdmissionController(
+        mock(AzMetricsServiceType.class),
+        System::nanoTime,
+        Optional.empty()
+      ));
+
+    this.session =
+      new AzSession(
+        AzSessionSecretIdentifier.generate(),
+        new AzUser(AzUserID.random(), new IdName("x"), new MSubject(Set.of()))
+      );
+    this.information =
+      new AzHTTPRequestInformation(UUID.randomUUID(), "Tests", "127.0.0.1");
+  }
+
+  @AfterEach
+  public void tearDown()
+    throws Exception
+  {
+    this.release.countDown();
+    this.services.close();
+  }
+
+  private AzUser userExisting()
+    throws Exception
+  {
+    final var user =
+      new AzUser(AzUserID.random(), new IdName("y"), new MSubject(Set.of()));
+
+    when(this.userGet.execute(user.userId()))
+      .thenReturn(Optional.of(user));
+    return user;
+  }
+
+  private AzUserID userMissing()
+    throws Exception
+  {
+    final var user = AzUserID.random();
+    when(this.userGet.execute(user))
+      .thenReturn(Optional.empty());
+    return user;
+  }
+
+  private byte[] frames(
+    final boolean terminated,
+    final AzAMessageType... items)
+    throws Exception
+  {
+    final var bytes = new ByteArrayOutputStream();
+    final var output = new DataOutputStream(bytes);
+    for (final var item : items) {
+      final var data = this.messages.serialize(item);
+      output.writeInt(data.length);
+      output.write(data);
+    }
+    if (terminated) {
+      output.writeInt(0);
+    }
+    output.flush();
+    return bytes.toByteArray();
+  }
+
+  private List<AzAMessageType> execute(
+    final AzA1TransactionStreamed streamed,
+    final InputStream input)
+    throws Exception
+  {
+    final var bytes = new ByteArrayOutputStream();
+    streamed.execute(this.information, this.session, input, bytes, () -> { });
+
+    final var results = new ArrayList<AzAMessageType>();
+    final var responses =
+      new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+
+    while (true) {
+      final var size = responses.readInt();
+      if (size == 0) {
+        return results;
+      }
+      results.add(this.messages.parse(responses.readNBytes(size)));
+    }
+  }
+
+  /**
+   * A stream of successful commands is committed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testSuccess()
+    throws Exception
+  {
+    final var user0 = this.userExisting();
+    final var user1 = this.userExisting();
+
+    final var responses =
+      this.execute(
+        AzA1TransactionStreamed.create(this.services),
+        new ByteArrayInputStream(
+          this.frames(
+            true,
+            new AzACommandRolesGet(user0.userId()),
+            new AzACommandRolesGet(user1.userId())
+          )
+        )
+      );
+
+    assertEquals(2, responses.size());
+    assertInstanceOf(AzAResponseRolesGet.class, responses.get(0));
+    assertInstanceOf(AzAResponseRolesGet.class, responses.get(1));
+
+    verify(this.transaction).commit();
+    verify(this.transaction).close();
+  }
+
+  /**
+   * A command that fails part of the way through the stream ends the stream
+   * with an error, and the transaction is not committed.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testErrorMidStream()
+    throws Exception
+  {
+    final var user0 = this.userExisting();
+    final var user1 = this.userMissing();
+    final var user2 = this.userExisting();
+
+    final var responses =
+      this.execute(
+        AzA1TransactionStreamed.create(this.services),
+        new ByteArrayInputStream(
+          this.frames(
+            true,
+            new AzACommandRolesGet(user0.userId()),
+            new AzACommandRolesGet(user1),
+            new AzACommandRolesGet(user2.userId())
+          )
+        )
+      );
+
+    assertEquals(2, responses.size());
+    assertInstanceOf(AzAResponseRolesGet.class, responses.get(0));
+
+    final var error =
+      assertInstanceOf(AzAResponseError.class, responses.get(1));
+    assertEquals(AzStandardErrorCodes.errorNonexistent(), error.errorCode());
+
+    verify(this.userGet, never()).execute(user2.userId());
+    verify(this.transaction, never()).commit();
+    verify(this.transaction).close();
+  }
+
+  /**
+   * A stream that ends without its terminating frame is rolled back.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTruncatedRollback()
+    throws Exception
+  {
+    final var user0 = this.userExisting();
+
+    final var responses =
+      this.execute(
+        AzA1TransactionStreamed.create(this.services),
+        new ByteArrayInputStream(
+          this.frames(false, new AzACommandRolesGet(user0.userId()))
+        )
+      );
+
+    assertEquals(2, responses.size());
+    assertInstanceOf(AzAResponseRolesGet.class, responses.get(0));
+    assertInstanceOf(AzAResponseError.class, responses.get(1));
+
+    verify(this.transaction, never()).commit();
+    verify(this.transaction).close();
+  }
+
+  /**
+   * A client that stops sending has its transaction rolled back once the
+   * idle timeout elapses, rather than holding the transaction open.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  @Timeout(10L)
+  public void testIdleTimeoutRollback()
+    throws Exception
+  {
+    final var user0 = this.userExisting();
+
+    final var stalled = new InputStream()
+    {
+      @Override
+      public int read()
+        throws IOException
+      {
+        try {
+          AzA1TransactionStreamedTest.this.release.await();
+        } catch (final InterruptedException e) {
+          throw new InterruptedIOException();
+        }
+        return -1;
+      }
+    };
+
+    final var responses =
+      this.execute(
+        new AzA1TransactionStreamed(
+          this.services,
+          Duration.ofMillis(100L),
+          Duration.ofMinutes(1L)
+        ),
+        new SequenceInputStream(
+          new ByteArrayInputStream(
+            this.frames(false, new AzACommandRolesGet(user0.userId()))
+          ),
+          stalled
+        )
+      );
+
+    assertEquals(2, responses.size());
+    assertInstanceOf(AzAResponseRolesGet.class, responses.get(0));
+
+    final var error =
+      assertInstanceOf(AzAResponseError.class, responses.get(1));
+    assertEquals(AzStandardErrorCodes.errorIo(), error.errorCode());
+
+    verify(this.transaction, never()).commit();
+    verify(this.transaction).close();
+  }
+}
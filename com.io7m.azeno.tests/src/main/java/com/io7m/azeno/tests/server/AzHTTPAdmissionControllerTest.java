@@ -0,0 +1,248 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.database.api.AzDatabaseConnectionType;
+import com.io7m.azeno.database.api.AzDatabaseType;
+import com.io7m.azeno.server.api.AzServerAdmissionControlConfiguration;
+import com.io7m.azeno.server.http.AzHTTPAdmissionController;
+import com.io7m.azeno.server.http.AzHTTPAdmissionTicket;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class AzHTTPAdmissionControllerTest
+{
+  private static final long LATENCY =
+    Duration.ofMillis(100L).toNanos();
+  private static final long CONNECTION_WAIT =
+    Duration.ofMillis(50L).toNanos();
+
+  private static final AzServerAdmissionControlConfiguration CONFIGURATION =
+    new AzServerAdmissionControlConfiguration(
+      2,
+      4,
+      8,
+      Duration.ofNanos(LATENCY),
+      Duration.ofNanos(CONNECTION_WAIT)
+    );
+
+  private AtomicLong clock;
+  private AzMetricsServiceType metrics;
+  private AzHTTPAdmissionController controller;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.clock =
+      new AtomicLong(1_000_000_000L);
+    this.metrics =
+      mock(AzMetricsServiceType.class);
+    this.controller =
+      new AzHTTPAdmissionController(
+        this.metrics,
+        this.clock::get,
+        Optional.of(CONFIGURATION)
+      );
+  }
+
+  /**
+   * Requests above the limit are rejected until admitted requests complete.
+   */
+
+  @Test
+  public void testRejectsAboveLimit()
+  {
+    final var tickets = new ArrayList<AzHTTPAdmissionTicket>();
+    for (int index = 0; index < 4; ++index) {
+      tickets.add(this.controller.tryAdmit().orElseThrow());
+    }
+
+    assertEquals(4, this.controller.inFlight());
+    assertTrue(this.controller.tryAdmit().isEmpty());
+    verify(this.metrics, times(1)).onRequestShed();
+
+    tickets.get(0).close();
+    tickets.get(0).close();
+    assertEquals(3, this.controller.inFlight());
+
+    tickets.set(0, this.controller.tryAdmit().orElseThrow());
+    tickets.forEach(AzHTTPAdmissionTicket::close);
+    assertEquals(0, this.controller.inFlight());
+  }
+
+  /**
+   * Slow requests shrink the limit, at most once per latency threshold.
+   */
+
+  @Test
+  public void testSlowRequestsDecrease()
+  {
+    this.clock.addAndGet(LATENCY);
+
+    final var t0 = this.controller.tryAdmit().orElseThrow();
+    final var t1 = this.controller.tryAdmit().orElseThrow();
+    this.clock.addAndGet(LATENCY * 2L);
+    t0.close();
+    assertEquals(3.6, this.controller.limit(), 0.0001);
+    t1.close();
+    assertEquals(3.6, this.controller.limit(), 0.0001);
+
+    for (int index = 0; index < 20; ++index) {
+      final var t = this.controller.tryAdmit().orElseThrow();
+      this.clock.addAndGet(LATENCY * 2L);
+      t.close();
+    }
+    assertEquals(2.0, this.controller.limit(), 0.0001);
+  }
+
+  /**
+   * The time taken to read the request body is not counted as latency.
+   */
+
+  @Test
+  public void testSlowBodyNotLatency()
+  {
+    this.clock.addAndGet(LATENCY);
+
+    final var t0 = this.controller.tryAdmit().orElseThrow();
+    this.clock.addAndGet(LATENCY * 2L);
+    t0.onBodyRead();
+    t0.close();
+    assertEquals(4.0, this.controller.limit(), 0.0001);
+  }
+
+  /**
+   * Prompt requests grow the limit whilst the limit is in use, up to the
+   * maximum.
+   */
+
+  @Test
+  public void testPromptRequestsIncrease()
+  {
+    for (int round = 0; round < 200; ++round) {
+      final var tickets = new ArrayList<AzHTTPAdmissionTicket>();
+      while (true) {
+        final var t = this.controller.tryAdmit();
+        if (t.isEmpty()) {
+          break;
+        }
+        tickets.add(t.get());
+      }
+      tickets.forEach(AzHTTPAdmissionTicket::close);
+    }
+    assertEquals(8.0, this.controller.limit(), 0.0001);
+  }
+
+  /**
+   * Prompt requests do not grow the limit when the limit is not in use.
+   */
+
+  @Test
+  public void testPromptRequestsIdle()
+  {
+    for (int index = 0; index < 100; ++index) {
+      this.controller.tryAdmit().orElseThrow().close();
+    }
+    assertEquals(4.0, this.controller.limit(), 0.0001);
+  }
+
+  /**
+   * Long waits for database connections shrink the limit.
+   */
+
+  @Test
+  public void testConnectionWaitDecrease()
+    throws Exception
+  {
+    final var database =
+      mock(AzDatabaseType.class);
+    final var connection =
+      mock(AzDatabaseConnectionType.class);
+
+    when(database.openConnection()).thenAnswer(invocation -> {
+      this.clock.addAndGet(CONNECTION_WAIT + LATENCY);
+      return connection;
+    });
+
+    assertSame(connection, this.controller.openConnection(database));
+    verify(this.metrics, times(1))
+      .onDatabaseConnectionWait(CONNECTION_WAIT + LATENCY);
+    assertEquals(3.6, this.controller.limit(), 0.0001);
+  }
+
+  /**
+   * Without configuration, every request is admitted.
+   */
+
+  @Test
+  public void testDisabled()
+  {
+    this.controller =
+      new AzHTTPAdmissionController(
+        this.metrics,
+        this.clock::get,
+        Optional.empty()
+      );
+
+    for (int index = 0; index < 1000; ++index) {
+      this.controller.tryAdmit().orElseThrow();
+    }
+    verify(this.metrics, never()).onRequestShed();
+    assertEquals(1L, this.controller.retryAfterSeconds());
+  }
+
+  /**
+   * Invalid configurations are rejected.
+   */
+
+  @Test
+  public void testConfigurationInvalid()
+  {
+    final var second = Duration.ofSeconds(1L);
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerAdmissionControlConfiguration(0, 1, 1, second, second);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerAdmissionControlConfiguration(2, 1, 4, second, second);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerAdmissionControlConfiguration(1, 4, 2, second, second);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerAdmissionControlConfiguration(1, 1, 1, Duration.ZERO, second);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerAdmissionControlConfiguration(1, 1, 1, second, Duration.ZERO);
+    });
+  }
+}
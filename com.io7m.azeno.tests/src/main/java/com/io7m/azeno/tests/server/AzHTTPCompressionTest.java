@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.server.http.AzHTTPCompression;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+import static com.io7m.azeno.server.http.AzHTTPContentEncoding.DEFLATE;
+import static com.io7m.azeno.server.http.AzHTTPContentEncoding.GZIP;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class AzHTTPCompressionTest
+{
+  private static byte[] compressible()
+  {
+    return "azeno ".repeat(1000).getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void testNegotiate()
+  {
+    assertEquals(
+      Optional.empty(),
+      AzHTTPCompression.negotiate(""));
+    assertEquals(
+      Optional.empty(),
+      AzHTTPCompression.negotiate("identity"));
+    assertEquals(
+      Optional.of(GZIP),
+      AzHTTPCompression.negotiate("gzip"));
+    assertEquals(
+      Optional.of(GZIP),
+      AzHTTPCompression.negotiate("deflate, gzip"));
+    assertEquals(
+      Optional.of(DEFLATE),
+      AzHTTPCompression.negotiate("deflate"));
+    assertEquals(
+      Optional.of(DEFLATE),
+      AzHTTPCompression.negotiate("gzip;q=0.5, deflate"));
+    assertEquals(
+      Optional.of(DEFLATE),
+      AzHTTPCompression.negotiate("gzip;q=0, *"));
+    assertEquals(
+      Optional.of(GZIP),
+      AzHTTPCompression.negotiate("*"));
+    assertEquals(
+      Optional.empty(),
+      AzHTTPCompression.negotiate("gzip;q=0, deflate;q=0"));
+  }
+
+  @Test
+  public void testGzipRoundTrip()
+    throws Exception
+  {
+    final var compression = new AzHTTPCompression(1024L, 6, 1);
+    final var data = compressible();
+
+    for (int index = 0; index < 3; ++index) {
+      final var compressed =
+        compression.compress(GZIP, data).orElseThrow();
+
+      try (var input =
+             new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+        assertArrayEquals(data, input.readAllBytes());
+      }
+    }
+  }
+
+  @Test
+  public void testDeflateRoundTrip()
+    throws Exception
+  {
+    final var compression = new AzHTTPCompression(1024L, 6, 1);
+    final var data = compressible();
+
+    for (int index = 0; index < 3; ++index) {
+      final var compressed =
+        compression.compress(DEFLATE, data).orElseThrow();
+
+      try (var input =
+             new InflaterInputStream(new ByteArrayInputStream(compressed))) {
+        assertArrayEquals(data, input.readAllBytes());
+      }
+    }
+  }
+
+  @Test
+  public void testBelowThreshold()
+  {
+    final var compression = new AzHTTPCompression(1024L, 6, 1);
+    final var data = new byte[1023];
+
+    assertEquals(Optional.empty(), compression.compress(GZIP, data));
+  }
+}
@@ -0,0 +1,302 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.server.api.AzServerIdstoreConfiguration;
+import com.io7m.azeno.server.service.idstore.AzIdstoreClients;
+import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryNoOp;
+import com.io7m.idstore.model.IdUser;
+import com.io7m.idstore.protocol.user.IdUResponseLogin;
+import com.io7m.idstore.user_client.api.IdUClientException;
+import com.io7m.idstore.user_client.api.IdUClientFactoryType;
+import com.io7m.idstore.user_client.api.IdUClientType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.net.URI;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public final class AzIdstoreClientsTest
+{
+  private IdUClientFactoryType factory;
+  private IdUClientType client0;
+  private IdUClientType client1;
+  private IdUResponseLogin response;
+  private UUID userId;
+
+  private AzIdstoreClients clients(
+    final Optional<Duration> verificationCacheTTL)
+  {
+    return AzIdstoreClients.create(
+      Locale.ROOT,
+      Clock.systemUTC(),
+      AzServerTelemetryNoOp.noop(),
+      new AzServerIdstoreConfiguration(
+        URI.create("http://localhost:50000/"),
+        URI.create("http://localhost:50001/"),
+        verificationCacheTTL
+      ),
+      this.factory
+    );
+  }
+
+  private static IdUClientException rejected()
+  {
+    return Mockito.mock(IdUClientException.class);
+  }
+
+  @BeforeEach
+  public void setup()
+    throws Exception
+  {
+    this.userId =
+      UUID.randomUUID();
+    this.factory =
+      Mockito.mock(IdUClientFactoryType.class);
+    this.client0 =
+      Mockito.mock(IdUClientType.class);
+    this.client1 =
+      Mockito.mock(IdUClientType.class);
+    this.response =
+      Mockito.mock(IdUResponseLogin.class);
+
+    final var user = Mockito.mock(IdUser.class);
+    when(user.id()).thenReturn(this.userId);
+    when(this.response.user()).thenReturn(user);
+
+    when(this.factory.create(any()))
+      .thenReturn(this.client0)
+      .thenReturn(this.client1);
+  }
+
+  /**
+   * A client is returned to the pool after a successful login, and reused.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClientReusedAfterSuccess()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.empty())) {
+      for (int index = 0; index < 3; ++index) {
+        final var login = clients.login("user", "pass", Map.of());
+        assertEquals(this.userId, login.userId());
+        assertFalse(login.cached());
+      }
+    }
+
+    verify(this.factory, times(1)).create(any());
+    verify(this.client0, times(3)).connectOrThrow(any());
+  }
+
+  /**
+   * A client is returned to the pool after idstore rejects a login, and
+   * reused.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClientReusedAfterRejection()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenThrow(rejected())
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.empty())) {
+      assertThrows(IdUClientException.class, () -> {
+        clients.login("user", "wrong", Map.of());
+      });
+      assertEquals(
+        this.userId,
+        clients.login("user", "pass", Map.of()).userId()
+      );
+    }
+
+    verify(this.factory, times(1)).create(any());
+    verify(this.client0, times(2)).connectOrThrow(any());
+  }
+
+  /**
+   * A client that fails unexpectedly is closed rather than returned to the
+   * pool, and the next login uses a new client.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClientClosedAfterRuntimeException()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenThrow(new IllegalStateException("Broken!"));
+    when(this.client1.connectOrThrow(any()))
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.empty())) {
+      assertThrows(IllegalStateException.class, () -> {
+        clients.login("user", "pass", Map.of());
+      });
+      verify(this.client0, times(1)).close();
+
+      assertEquals(
+        this.userId,
+        clients.login("user", "pass", Map.of()).userId()
+      );
+    }
+
+    verify(this.factory, times(2)).create(any());
+    verify(this.client1, times(1)).connectOrThrow(any());
+  }
+
+  /**
+   * A client whose login is interrupted is closed rather than returned to
+   * the pool, and the next login uses a new client.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testClientClosedAfterInterruption()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenThrow(new InterruptedException());
+    when(this.client1.connectOrThrow(any()))
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.empty())) {
+      assertThrows(InterruptedException.class, () -> {
+        clients.login("user", "pass", Map.of());
+      });
+      verify(this.client0, times(1)).close();
+
+      assertEquals(
+        this.userId,
+        clients.login("user", "pass", Map.of()).userId()
+      );
+    }
+
+    verify(this.factory, times(2)).create(any());
+  }
+
+  /**
+   * Closing the service closes the pooled clients.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCloseClosesPooledClients()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.empty())) {
+      clients.login("user", "pass", Map.of());
+      verify(this.client0, never()).close();
+    }
+
+    verify(this.client0, times(1)).close();
+  }
+
+  /**
+   * A rejected login is never cached.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRejectedLoginNotCached()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenThrow(rejected())
+      .thenThrow(rejected())
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.of(Duration.ofHours(1L)))) {
+      assertThrows(IdUClientException.class, () -> {
+        clients.login("user", "pass", Map.of());
+      });
+      assertThrows(IdUClientException.class, () -> {
+        clients.login("user", "pass", Map.of());
+      });
+
+      final var login = clients.login("user", "pass", Map.of());
+      assertEquals(this.userId, login.userId());
+      assertFalse(login.cached());
+    }
+
+    verify(this.client0, times(3)).connectOrThrow(any());
+  }
+
+  /**
+   * A cached login is served without contacting idstore, only for the same
+   * credentials, and expires after the TTL.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testCachedLoginExpires()
+    throws Exception
+  {
+    when(this.client0.connectOrThrow(any()))
+      .thenReturn(this.response);
+
+    try (var clients = this.clients(Optional.of(Duration.ofMillis(500L)))) {
+      assertFalse(clients.login("user", "pass", Map.of()).cached());
+
+      final var cached = clients.login("user", "pass", Map.of());
+      assertEquals(this.userId, cached.userId());
+      assertTrue(cached.cached());
+      verify(this.client0, times(1)).connectOrThrow(any());
+
+      assertFalse(clients.login("user", "other", Map.of()).cached());
+      verify(this.client0, times(2)).connectOrThrow(any());
+
+      Thread.sleep(1_000L);
+
+      assertFalse(clients.login("user", "pass", Map.of()).cached());
+      verify(this.client0, times(3)).connectOrThrow(any());
+    }
+  }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.server.api.AzServerRequestRateLimitConfiguration;
+import com.io7m.azeno.server.service.reqlimit.AzRequestAdmitted;
+import com.io7m.azeno.server.service.reqlimit.AzRequestLimitScope;
+import com.io7m.azeno.server.service.reqlimit.AzRequestRateLimiter;
+import com.io7m.azeno.server.service.reqlimit.AzRequestThrottleReason;
+import com.io7m.azeno.server.service.reqlimit.AzRequestThrottled;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AzRequestRateLimiterTest
+{
+  private static final long INTERVAL =
+    Duration.ofMillis(100L).toNanos();
+
+  private AtomicLong clock;
+  private AzRequestRateLimiter<String> limiter;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.clock =
+      new AtomicLong(1_000_000_000L);
+    this.limiter =
+      new AzRequestRateLimiter<>(
+        AzRequestLimitScope.ADDRESS,
+        new AzServerRequestRateLimitConfiguration(10.0, 3, 2),
+        this.clock::get
+      );
+  }
+
+  /**
+   * A burst of requests is admitted, and then the sustained rate applies.
+   */
+
+  @Test
+  public void testBurstThenRate()
+  {
+    for (int index = 0; index < 3; ++index) {
+      try (var a = this.limiter.tryAcquire("a")) {
+        assertInstanceOf(AzRequestAdmitted.class, a);
+      }
+    }
+
+    try (var a = this.limiter.tryAcquire("a")) {
+      final var t = assertInstanceOf(AzRequestThrottled.class, a);
+      assertEquals(AzRequestThrottleReason.RATE, t.reason());
+      assertEquals(AzRequestLimitScope.ADDRESS, t.scope());
+      assertEquals(Duration.ofNanos(INTERVAL), t.retryAfter());
+      assertEquals(1L, t.retryAfterSeconds());
+    }
+
+    this.clock.addAndGet(INTERVAL);
+
+    try (var a = this.limiter.tryAcquire("a")) {
+      assertInstanceOf(AzRequestAdmitted.class, a);
+    }
+    try (var a = this.limiter.tryAcquire("a")) {
+      assertInstanceOf(AzRequestThrottled.class, a);
+    }
+  }
+
+  /**
+   * Clients are limited independently.
+   */
+
+  @Test
+  public void testClientsIndependent()
+  {
+    for (int index = 0; index < 3; ++index) {
+      try (var a = this.limiter.tryAcquire("a")) {
+        assertInstanceOf(AzRequestAdmitted.class, a);
+      }
+    }
+
+    try (var a = this.limiter.tryAcquire("a")) {
+      assertInstanceOf(AzRequestThrottled.class, a);
+    }
+    try (var b = this.limiter.tryAcquire("b")) {
+      assertInstanceOf(AzRequestAdmitted.class, b);
+    }
+    assertEquals(2, this.limiter.clientCount());
+  }
+
+  /**
+   * Requests in flight are limited, and closing an admission releases it.
+   */
+
+  @Test
+  public void testConcurrency()
+  {
+    final var a0 = this.limiter.tryAcquire("a");
+    final var a1 = this.limiter.tryAcquire("a");
+    assertInstanceOf(AzRequestAdmitted.class, a0);
+    assertInstanceOf(AzRequestAdmitted.class, a1);
+
+    try (var a = this.limiter.tryAcquire("a")) {
+      final var t = assertInstanceOf(AzRequestThrottled.class, a);
+      assertEquals(AzRequestThrottleReason.CONCURRENCY, t.reason());
+    }
+
+    a0.close();
+    a0.close();
+
+    try (var a = this.limiter.tryAcquire("a")) {
+      assertInstanceOf(AzRequestAdmitted.class, a);
+    }
+
+    a1.close();
+  }
+
+  /**
+   * Idle clients are forgotten, clients with requests in flight are not, and
+   * a request for a client retired by a sweep is admitted against a fresh
+   * client.
+   */
+
+  @Test
+  public void testSweep()
+  {
+    final var held = this.limiter.tryAcquire("held");
+    assertInstanceOf(AzRequestAdmitted.class, held);
+
+    for (int index = 0; index < 1022; ++index) {
+      try (var a = this.limiter.tryAcquire("c" + index)) {
+        assertInstanceOf(AzRequestAdmitted.class, a);
+      }
+    }
+    assertEquals(1023, this.limiter.clientCount());
+
+    this.clock.addAndGet(Duration.ofSeconds(10L).toNanos());
+
+    try (var a = this.limiter.tryAcquire("last")) {
+      assertInstanceOf(AzRequestAdmitted.class, a);
+    }
+    assertEquals(2, this.limiter.clientCount());
+
+    try (var a = this.limiter.tryAcquire("held")) {
+      assertInstanceOf(AzRequestAdmitted.class, a);
+
+      try (var b = this.limiter.tryAcquire("held")) {
+        final var t = assertInstanceOf(AzRequestThrottled.class, b);
+        assertEquals(AzRequestThrottleReason.CONCURRENCY, t.reason());
+      }
+    }
+
+    held.close();
+  }
+
+  /**
+   * Retry delays are rounded up to whole seconds.
+   */
+
+  @Test
+  public void testRetryAfterSeconds()
+  {
+    assertEquals(
+      1L,
+      new AzRequestThrottled(
+        AzRequestLimitScope.USER,
+        AzRequestThrottleReason.RATE,
+        Duration.ofMillis(1L)
+      ).retryAfterSeconds()
+    );
+    assertEquals(
+      3L,
+      new AzRequestThrottled(
+        AzRequestLimitScope.USER,
+        AzRequestThrottleReason.RATE,
+        Duration.ofMillis(2001L)
+      ).retryAfterSeconds()
+    );
+  }
+
+  /**
+   * Invalid configurations are rejected.
+   */
+
+  @Test
+  public void testConfigurationInvalid()
+  {
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerRequestRateLimitConfiguration(0.0, 1, 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerRequestRateLimitConfiguration(1.0, 0, 1);
+    });
+    assertThrows(IllegalArgumentException.class, () -> {
+      new AzServerRequestRateLimitConfiguration(1.0, 1, 0);
+    });
+  }
+}
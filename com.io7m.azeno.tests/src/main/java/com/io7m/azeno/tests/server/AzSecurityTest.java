@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.security.AzSecurity;
+import com.io7m.azeno.security.AzSecurityException;
+import com.io7m.medrina.api.MMatchActionType.MMatchActionWithName;
+import com.io7m.medrina.api.MMatchObjectType.MMatchObjectWithType;
+import com.io7m.medrina.api.MMatchSubjectType.MMatchSubjectWithRolesAny;
+import com.io7m.medrina.api.MPolicy;
+import com.io7m.medrina.api.MRule;
+import com.io7m.medrina.api.MRuleName;
+import com.io7m.medrina.api.MSubject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorSecurityPolicyDenied;
+import static com.io7m.azeno.security.AzSecurityPolicy.AUDIT;
+import static com.io7m.azeno.security.AzSecurityPolicy.READ;
+import static com.io7m.azeno.security.AzSecurityPolicy.ROLE_AUDIT_READER;
+import static com.io7m.azeno.security.AzSecurityPolicy.WRITE;
+import static com.io7m.medrina.api.MRuleConclusion.ALLOW;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class AzSecurityTest
+{
+  private static final UUID USER_ID =
+    new UUID(0L, 1L);
+
+  private static final MPolicy ALLOW_AUDIT_READ =
+    new MPolicy(List.of(
+      new MRule(
+        MRuleName.of("rule0"),
+        "",
+        ALLOW,
+        new MMatchSubjectWithRolesAny(Set.of(ROLE_AUDIT_READER)),
+        new MMatchObjectWithType(AUDIT.type()),
+        new MMatchActionWithName(READ)
+      )
+    ));
+
+  @AfterEach
+  public void tearDown()
+  {
+    AzSecurity.setPolicy(new MPolicy(List.of()));
+  }
+
+  /**
+   * Remembered decisions are discarded when the policy is replaced.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDecisionsFollowPolicy()
+    throws Exception
+  {
+    final var subject =
+      new MSubject(Set.of(ROLE_AUDIT_READER));
+
+    AzSecurity.setPolicy(ALLOW_AUDIT_READ);
+    AzSecurity.check(USER_ID, subject, AUDIT, READ);
+    AzSecurity.check(USER_ID, subject, AUDIT, READ);
+
+    AzSecurity.setPolicy(new MPolicy(List.of()));
+    final var ex =
+      assertThrows(AzSecurityException.class, () -> {
+        AzSecurity.check(USER_ID, subject, AUDIT, READ);
+      });
+    assertEquals(errorSecurityPolicyDenied(), ex.errorCode());
+
+    AzSecurity.setPolicy(ALLOW_AUDIT_READ);
+    AzSecurity.check(USER_ID, subject, AUDIT, READ);
+  }
+
+  /**
+   * Decisions are distinguished by role set and action.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testDecisionsDistinct()
+    throws Exception
+  {
+    AzSecurity.setPolicy(ALLOW_AUDIT_READ);
+
+    final var reader =
+      new MSubject(Set.of(ROLE_AUDIT_READER));
+    final var nobody =
+      new MSubject(Set.of());
+
+    AzSecurity.check(USER_ID, reader, AUDIT, READ);
+
+    assertThrows(AzSecurityException.class, () -> {
+      AzSecurity.check(USER_ID, nobody, AUDIT, READ);
+    });
+    assertThrows(AzSecurityException.class, () -> {
+      AzSecurity.check(USER_ID, reader, AUDIT, WRITE);
+    });
+
+    final var readerAgain =
+      new MSubject(Set.of(ROLE_AUDIT_READER));
+
+    AzSecurity.check(USER_ID, readerAgain, AUDIT, READ);
+  }
+}
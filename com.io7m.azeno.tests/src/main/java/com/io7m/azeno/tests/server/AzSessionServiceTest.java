@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.server.service.sessions.AzSessionSecretIdentifier;
+import com.io7m.azeno.server.service.sessions.AzSessionService;
+import com.io7m.azeno.server.service.sessions.AzSessionStoreType;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.darco.api.DDatabaseException;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MSubject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+
+public final class AzSessionServiceTest
+{
+  private AzSessionStoreType store;
+  private AzSessionService sessions;
+
+  private static DDatabaseException failure()
+  {
+    return new DDatabaseException(
+      "Unreachable!",
+      "error-io",
+      Map.of(),
+      Optional.empty()
+    );
+  }
+
+  @BeforeEach
+  public void setup()
+  {
+    this.store =
+      Mockito.mock(AzSessionStoreType.class);
+    this.sessions =
+      new AzSessionService(
+        Mockito.mock(AzMetricsServiceType.class),
+        this.store,
+        Duration.ofSeconds(2L)
+      );
+  }
+
+  /**
+   * A session held in memory continues to be served if the store cannot be
+   * reached during revalidation, and is dropped only when the store reports
+   * that it does not exist.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRevalidateStoreUnreachable()
+    throws Exception
+  {
+    final var session =
+      this.sessions.createSession(
+        AzUserID.random(),
+        new IdName("x"),
+        new MSubject(Set.of())
+      );
+
+    Thread.sleep(1_100L);
+    doThrow(failure())
+      .when(this.store)
+      .extend(anyString(), any());
+
+    assertEquals(Optional.of(session), this.sessions.findSession(session.id()));
+
+    Thread.sleep(1_100L);
+    doReturn(Boolean.FALSE)
+      .when(this.store)
+      .extend(anyString(), any());
+
+    assertEquals(Optional.empty(), this.sessions.findSession(session.id()));
+  }
+
+  /**
+   * A session that is not held in memory cannot be found if the store
+   * cannot be reached, and the failure is reported.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLoadStoreUnreachable()
+    throws Exception
+  {
+    doThrow(failure())
+      .when(this.store)
+      .find(anyString(), any());
+
+    assertThrows(DDatabaseException.class, () -> {
+      this.sessions.findSession(AzSessionSecretIdentifier.generate());
+    });
+  }
+}
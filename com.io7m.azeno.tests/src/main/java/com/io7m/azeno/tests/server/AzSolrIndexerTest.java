@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAssetProperties;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.model.AzHashSHA256;
+import com.io7m.azeno.server.service.solr.AzSolrIndexer;
+import com.io7m.azeno.server.service.solr.AzSolrIndexerConfiguration;
+import com.io7m.azeno.server.service.solr.AzSolrServiceType;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+public final class AzSolrIndexerTest
+{
+  private static AzAsset asset()
+  {
+    return new AzAsset(
+      AzAssetID.random(),
+      AzCollectionID.random(),
+      new AzHashSHA256("5891b5b522d5df086d0ff0b110fbd9d21bb4fc7163af34d08286a2e846f6be03"),
+      AzAssetProperties.builder().build()
+    );
+  }
+
+  /**
+   * Unexpected exceptions raised by the search service are counted as
+   * failures, and the pipeline continues to index subsequent assets.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRuntimeFailureCounted()
+    throws Exception
+  {
+    final var solr =
+      Mockito.mock(AzSolrServiceType.class);
+    final var metrics =
+      Mockito.mock(AzMetricsServiceType.class);
+
+    doThrow(new IllegalStateException("Broken!"))
+      .doNothing()
+      .when(solr)
+      .assetsIndexDeferred(anyList(), any());
+
+    try (var indexer = AzSolrIndexer.create(
+      solr,
+      metrics,
+      new AzSolrIndexerConfiguration(16, 8, Duration.ofMillis(100L)))) {
+      indexer.submit(List.of(asset()));
+      verify(metrics, timeout(10_000L)).onSolrIndexFailed(1L);
+
+      indexer.submit(List.of(asset()));
+      verify(metrics, timeout(10_000L)).onSolrIndexed(eq(1L), any());
+    }
+  }
+}
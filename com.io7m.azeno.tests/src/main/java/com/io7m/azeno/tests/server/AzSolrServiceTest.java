@@ -38,9 +38,12 @@ import com.io7m.azeno.model.AzSchemaID;
 import com.io7m.azeno.model.AzStoreID;
 import com.io7m.azeno.model.AzValueInteger;
 import com.io7m.azeno.model.AzValueString;
+import com.io7m.azeno.server.service.solr.AzSolrIndexer;
+import com.io7m.azeno.server.service.solr.AzSolrIndexerConfiguration;
 import com.io7m.azeno.server.service.solr.AzSolrService;
 import com.io7m.azeno.server.service.solr.AzSolrServiceType;
 import com.io7m.azeno.server.service.solr.AzSolrSortField;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsService;
 import com.io7m.azeno.server.service.telemetry.api.AzServerTelemetryNoOp;
 import com.io7m.azeno.strings.AzStrings;
 import com.io7m.azeno.tests.containers.AzFixtures;
@@ -60,6 +63,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 
 import java.math.BigInteger;
 import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Locale;
 import java.util.stream.Collectors;
@@ -234,4 +240,59 @@ public final class AzSolrServiceTest
       assertEquals(2, r.items().size());
     }
   }
-}
\ No newline at end of file
+
+  /**
+   * Assets submitted to the indexing pipeline eventually become searchable.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAssetIndexPipeline()
+    throws Exception
+  {
+    this.service.collectionCreate(this.collection, this.schema1);
+
+    final var assets = new ArrayList<AzAsset>();
+    for (int index = 0; index < 100; ++index) {
+      assets.add(
+        new AzAsset(
+          AzAssetID.random(),
+          this.collection.id(),
+          new AzHashSHA256("5891b5b522d5df086d0ff0b110fbd9d21bb4fc7163af34d08286a2e846f6be03"),
+          AzAssetProperties.builder()
+            .put(new AzValueInteger(new RDottedName("azeno.size"), BigInteger.valueOf(index)))
+            .put(new AzValueString(new RDottedName("azeno.content_type"), "text/plain"))
+            .build()
+        )
+      );
+    }
+
+    try (var metrics = new AzMetricsService(AzServerTelemetryNoOp.noop());
+         var indexer = AzSolrIndexer.create(
+           this.service,
+           metrics,
+           new AzSolrIndexerConfiguration(16, 8, Duration.ofMillis(100L)))) {
+      indexer.submit(assets);
+    }
+
+    final var timeEnd =
+      Instant.now().plusSeconds(10L);
+
+    var found = 0;
+    while (Instant.now().isBefore(timeEnd)) {
+      found = this.service.assetSearchBegin(
+        this.collection.id(),
+        "azeno.size:99",
+        new AzSolrSortField("id", true)
+      ).items().size();
+
+      if (found == 1) {
+        break;
+      }
+      Thread.sleep(100L);
+    }
+
+    assertEquals(1, found);
+  }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2024 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server;
+
+import com.io7m.azeno.model.AzUser;
+import com.io7m.azeno.model.AzUserID;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
+import com.io7m.idstore.model.IdName;
+import com.io7m.medrina.api.MSubject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public final class AzUserCacheTest
+{
+  private AzUserCache cache;
+  private AzUser user;
+
+  @BeforeEach
+  public void setup()
+  {
+    this.cache =
+      new AzUserCache(
+        Mockito.mock(AzMetricsServiceType.class),
+        100L,
+        Duration.ofHours(1L)
+      );
+
+    this.user =
+      new AzUser(
+        AzUserID.random(),
+        new IdName("x"),
+        new MSubject(Set.of())
+      );
+  }
+
+  /**
+   * Loaded users are cached, and are not loaded again.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLoadCached()
+    throws Exception
+  {
+    final var id = this.user.userId();
+    assertEquals(
+      Optional.of(this.user),
+      this.cache.findOrLoad(id, x -> Optional.of(this.user))
+    );
+    assertEquals(
+      Optional.of(this.user),
+      this.cache.findOrLoad(id, x -> {
+        throw new IllegalStateException();
+      })
+    );
+  }
+
+  /**
+   * A load that races with an invalidation does not reinstate the user
+   * that the invalidation discarded.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testLoadRacingInvalidation()
+    throws Exception
+  {
+    final var id = this.user.userId();
+    assertEquals(
+      Optional.of(this.user),
+      this.cache.findOrLoad(id, x -> {
+        this.cache.invalidate(id);
+        return Optional.of(this.user);
+      })
+    );
+    assertEquals(Optional.empty(), this.cache.find(id));
+
+    final var generation = this.cache.generation(id);
+    this.cache.onNotification(AzUserCache.CHANNEL, id.toString());
+    this.cache.put(this.user, generation);
+    assertEquals(Optional.empty(), this.cache.find(id));
+  }
+
+  /**
+   * Notifications invalidate the named user, and unparseable notifications
+   * invalidate everything.
+   */
+
+  @Test
+  public void testNotifications()
+  {
+    final var id = this.user.userId();
+    final var other =
+      new AzUser(AzUserID.random(), new IdName("y"), new MSubject(Set.of()));
+
+    this.cache.put(this.user, this.cache.generation(id));
+    this.cache.put(other, this.cache.generation(other.userId()));
+
+    this.cache.onNotification("other", id.toString());
+    assertEquals(Optional.of(this.user), this.cache.find(id));
+
+    this.cache.onNotification(AzUserCache.CHANNEL, id.toString());
+    assertEquals(Optional.empty(), this.cache.find(id));
+    assertEquals(Optional.of(other), this.cache.find(other.userId()));
+
+    this.cache.onNotification(AzUserCache.CHANNEL, "not a UUID");
+    assertEquals(Optional.empty(), this.cache.find(other.userId()));
+  }
+}
@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2023 Mark Raynsford <code@io7m.com> https://www.io7m.com
+ *
+ * Permission to use, copy, modify, and/or distribute this software for any
+ * purpose with or without fee is hereby granted, provided that the above
+ * copyright notice and this permission notice appear in all copies.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS" AND THE AUTHOR DISCLAIMS ALL WARRANTIES
+ * WITH REGARD TO THIS SOFTWARE INCLUDING ALL IMPLIED WARRANTIES OF
+ * MERCHANTABILITY AND FITNESS. IN NO EVENT SHALL THE AUTHOR BE LIABLE FOR ANY
+ * SPECIAL, DIRECT, INDIRECT, OR CONSEQUENTIAL DAMAGES OR ANY DAMAGES
+ * WHATSOEVER RESULTING FROM LOSS OF USE, DATA OR PROFITS, WHETHER IN AN
+ * ACTION OF CONTRACT, NEGLIGENCE OR OTHER TORTIOUS ACTION, ARISING OUT OF OR
+ * IN CONNECTION WITH THE USE OR PERFORMANCE OF THIS SOFTWARE.
+ */
+
+package com.io7m.azeno.tests.server.controller;
+
+import com.io7m.azeno.database.api.AzAssetPutManyType;
+import com.io7m.azeno.database.api.AzAssetSummaryGetManyType;
+import com.io7m.azeno.database.api.AzCollectionAccessGetType;
+import com.io7m.azeno.model.AzAsset;
+import com.io7m.azeno.model.AzAssetID;
+import com.io7m.azeno.model.AzAssetProperties;
+import com.io7m.azeno.model.AzAssetSummary;
+import com.io7m.azeno.model.AzCollectionAccess;
+import com.io7m.azeno.model.AzCollectionAccessRequest;
+import com.io7m.azeno.model.AzCollectionID;
+import com.io7m.azeno.model.AzHashSHA256;
+import com.io7m.azeno.protocol.asset.AzACommandAssetPutMany;
+import com.io7m.azeno.protocol.asset.AzAResponseOK;
+import com.io7m.azeno.security.AzSecurity;
+import com.io7m.azeno.security.AzSecurityPolicy;
+import com.io7m.azeno.server.controller.asset.AzACmdAssetPutMany;
+import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
+import com.io7m.medrina.api.MPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorOperationNotPermitted;
+import static com.io7m.azeno.security.AzSecurityPolicy.ROLE_ASSET_ADMIN;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * @see AzACmdAssetPutMany
+ */
+
+public final class AzACmdAssetPutManyTest
+  extends AzCmdAbstractContract
+{
+  private static AzAsset asset(
+    final AzCollectionID collection)
+  {
+    return new AzAsset(
+      AzAssetID.random(),
+      collection,
+      new AzHashSHA256(
+        "5891b5b522d5df086d0ff0b110fbd9d21bb4fc7163af34d08286a2e846f6be03"
+      ),
+      AzAssetProperties.builder().build()
+    );
+  }
+
+  /**
+   * Writing assets to a collection without write access fails.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testNotPermitted()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var accessGet =
+      mock(AzCollectionAccessGetType.class);
+    final var putMany =
+      mock(AzAssetPutManyType.class);
+    final var summaryGet =
+      mock(AzAssetSummaryGetManyType.class);
+    final var transaction =
+      this.transaction();
+
+    when(transaction.query(AzCollectionAccessGetType.class))
+      .thenReturn(accessGet);
+    when(transaction.query(AzAssetPutManyType.class))
+      .thenReturn(putMany);
+    when(transaction.query(AzAssetSummaryGetManyType.class))
+      .thenReturn(summaryGet);
+    when(summaryGet.execute(any()))
+      .thenReturn(List.of());
+
+    when(accessGet.execute(any()))
+      .thenAnswer(invocation -> {
+        final AzCollectionAccessRequest request = invocation.getArgument(0);
+        return request.noAccess();
+      });
+
+    final var context =
+      this.createContext();
+
+    /* Act. */
+
+    final var handler = new AzACmdAssetPutMany();
+    final var ex =
+      assertThrows(AzCommandExecutionFailure.class, () -> {
+        handler.execute(
+          context,
+          new AzACommandAssetPutMany(List.of(asset(AzCollectionID.random())))
+        );
+      });
+
+    /* Assert. */
+
+    assertEquals(errorOperationNotPermitted(), ex.errorCode());
+    verifyNoMoreInteractions(putMany);
+  }
+
+  /**
+   * Writing assets to collections with write access works, and access is
+   * checked once per collection.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testPermitted()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var accessGet =
+      mock(AzCollectionAccessGetType.class);
+    final var putMany =
+      mock(AzAssetPutManyType.class);
+    final var summaryGet =
+      mock(AzAssetSummaryGetManyType.class);
+    final var transaction =
+      this.transaction();
+
+    when(transaction.query(AzCollectionAccessGetType.class))
+      .thenReturn(accessGet);
+    when(transaction.query(AzAssetPutManyType.class))
+      .thenReturn(putMany);
+    when(transaction.query(AzAssetSummaryGetManyType.class))
+      .thenReturn(summaryGet);
+    when(summaryGet.execute(any()))
+      .thenReturn(List.of());
+
+    when(accessGet.execute(any()))
+      .thenAnswer(invocation -> {
+        final AzCollectionAccessRequest request = invocation.getArgument(0);
+        return new AzCollectionAccess(
+          request.user(),
+          request.collection(),
+          true,
+          true
+        );
+      });
+
+    final var collection =
+      AzCollectionID.random();
+    final var assets =
+      List.of(asset(collection), asset(collection), asset(collection));
+
+    final var context =
+      this.createContext();
+
+    /* Act. */
+
+    final var handler =
+      new AzACmdAssetPutMany();
+    final var result =
+      handler.execute(context, new AzACommandAssetPutMany(assets));
+
+    /* Assert. */
+
+    assertInstanceOf(AzAResponseOK.class, result);
+    verify(accessGet, times(1)).execute(any());
+    verify(putMany, times(1)).execute(assets);
+  }
+
+  /**
+   * Administrators can write assets to any collection.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testAdmin()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var accessGet =
+      mock(AzCollectionAccessGetType.class);
+    final var putMany =
+      mock(AzAssetPutManyType.class);
+    final var summaryGet =
+      mock(AzAssetSummaryGetManyType.class);
+    final var transaction =
+      this.transaction();
+
+    when(transaction.query(AzCollectionAccessGetType.class))
+      .thenReturn(accessGet);
+    when(transaction.query(AzAssetPutManyType.class))
+      .thenReturn(putMany);
+    when(transaction.query(AzAssetSummaryGetManyType.class))
+      .thenReturn(summaryGet);
+    when(summaryGet.execute(any()))
+      .thenReturn(List.of());
+
+    this.setRoles(ROLE_ASSET_ADMIN);
+    AzSecurity.setPolicy(AzSecurityPolicy.open());
+
+    final var assets =
+      List.of(asset(AzCollectionID.random()), asset(AzCollectionID.random()));
+
+    final var context =
+      this.createContext();
+
+    /* Act. */
+
+    final var handler =
+      new AzACmdAssetPutMany();
+    final var result =
+      handler.execute(context, new AzACommandAssetPutMany(assets));
+
+    /* Assert. */
+
+    assertInstanceOf(AzAResponseOK.class, result);
+    verify(putMany, times(1)).execute(assets);
+    verifyNoMoreInteractions(accessGet);
+    verifyNoMoreInteractions(summaryGet);
+  }
+
+  /**
+   * Overwriting an existing asset in a collection without write access
+   * fails, even if the target collection is writable.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testTakeoverNotPermitted()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var accessGet =
+      mock(AzCollectionAccessGetType.class);
+    final var putMany =
+      mock(AzAssetPutManyType.class);
+    final var summaryGet =
+      mock(AzAssetSummaryGetManyType.class);
+    final var transaction =
+      this.transaction();
+
+    final var writable =
+      AzCollectionID.random();
+    final var protectedCollection =
+      AzCollectionID.random();
+    final var target =
+      asset(writable);
+
+    when(transaction.query(AzCollectionAccessGetType.class))
+      .thenReturn(accessGet);
+    when(transaction.query(AzAssetPutManyType.class))
+      .thenReturn(putMany);
+    when(transaction.query(AzAssetSummaryGetManyType.class))
+      .thenReturn(summaryGet);
+
+    when(summaryGet.execute(Set.of(target.id())))
+      .thenReturn(List.of(
+        new AzAssetSummary(target.id(), protectedCollection)
+      ));
+
+    when(accessGet.execute(any()))
+      .thenAnswer(invocation -> {
+        final AzCollectionAccessRequest request = invocation.getArgument(0);
+        if (request.collection().equals(writable)) {
+          return new AzCollectionAccess(
+            request.user(),
+            request.collection(),
+            true,
+            true
+          );
+        }
+        return request.noAccess();
+      });
+
+    final var context =
+      this.createContext();
+
+    /* Act. */
+
+    final var handler = new AzACmdAssetPutMany();
+    final var ex =
+      assertThrows(AzCommandExecutionFailure.class, () -> {
+        handler.execute(context, new AzACommandAssetPutMany(List.of(target)));
+      });
+
+    /* Assert. */
+
+    assertEquals(errorOperationNotPermitted(), ex.errorCode());
+    assertTrue(
+      ex.attributes().containsValue(protectedCollection.toString())
+    );
+    verifyNoMoreInteractions(putMany);
+  }
+
+  @AfterEach
+  public void policyTearDown()
+  {
+    AzSecurity.setPolicy(new MPolicy(List.of()));
+  }
+}
@@ -17,15 +17,18 @@
 
 package com.io7m.azeno.tests.server.controller;
 
+import com.io7m.azeno.database.api.AzAuditSearchPage;
 import com.io7m.azeno.database.api.AzAuditSearchType;
-import com.io7m.azeno.database.api.AzDatabaseAuditSearchType;
 import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzAuditSearchCursor;
 import com.io7m.azeno.model.AzAuditSearchParameters;
+import com.io7m.azeno.model.AzAuditSearchSeekType;
 import com.io7m.azeno.model.AzComparisonExactType;
 import com.io7m.azeno.model.AzPage;
 import com.io7m.azeno.model.AzTimeRange;
 import com.io7m.azeno.model.AzUserID;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchBegin;
+import com.io7m.azeno.protocol.asset.AzAResponseAuditSearch;
 import com.io7m.azeno.security.AzSecurity;
 import com.io7m.azeno.server.controller.asset.AzACmdAuditSearchBegin;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
@@ -38,6 +41,7 @@ import com.io7m.medrina.api.MRuleName;
 import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -119,8 +123,6 @@ public final class AzACmdAuditSearchBeginTest
 
     final var events =
       mock(AzAuditSearchType.class);
-    final var fileSearch =
-      mock(AzDatabaseAuditSearchType.class);
 
     final var transaction =
       this.transaction();
@@ -150,17 +152,29 @@ public final class AzACmdAuditSearchBeginTest
             Map.of()
           )
         ),
-        1,
-        1,
+        0,
+        2,
         0L
       );
 
+    final var cursorNext =
+      new AzAuditSearchCursor(
+        PARAMETERS,
+        1,
+        new AzAuditSearchSeekType.After(
+          OffsetDateTime.now(ZoneOffset.UTC).withNano(0),
+          2L
+        )
+      );
+
     when(transaction.query(AzAuditSearchType.class))
       .thenReturn(events);
     when(events.execute(any()))
-      .thenReturn(fileSearch);
-    when(fileSearch.pageCurrent(any()))
-      .thenReturn(pageMain);
+      .thenReturn(new AzAuditSearchPage(
+        pageMain,
+        Optional.of(cursorNext),
+        Optional.empty()
+      ));
 
     AzSecurity.setPolicy(new MPolicy(List.of(
       new MRule(
@@ -182,18 +196,26 @@ public final class AzACmdAuditSearchBeginTest
 
     final var handler = new AzACmdAuditSearchBegin();
 
-    handler.execute(context, new AzACommandAuditSearchBegin(PARAMETERS));
+    final var response =
+      (AzAResponseAuditSearch) handler.execute(
+        context,
+        new AzACommandAuditSearchBegin(PARAMETERS)
+      );
 
     /* Assert. */
 
     verify(transaction)
       .query(AzAuditSearchType.class);
     verify(events)
-      .execute(PARAMETERS);
-    verify(fileSearch)
-      .pageCurrent(transaction);
+      .execute(AzAuditSearchCursor.first(PARAMETERS));
+
+    assertEquals(pageMain, response.results());
+    assertEquals(Optional.empty(), response.cursorPrevious());
+    assertEquals(
+      Optional.of(cursorNext),
+      this.cursors().decode(response.cursorNext().orElseThrow())
+    );
 
-    verifyNoMoreInteractions(fileSearch);
     verifyNoMoreInteractions(transaction);
     verifyNoMoreInteractions(events);
   }
@@ -18,14 +18,21 @@
 package com.io7m.azeno.tests.server.controller;
 
 
+import com.io7m.azeno.database.api.AzAuditSearchPage;
 import com.io7m.azeno.database.api.AzAuditSearchType;
-import com.io7m.azeno.database.api.AzDatabaseAuditSearchType;
 import com.io7m.azeno.model.AzAuditEvent;
+import com.io7m.azeno.model.AzAuditSearchCursor;
+import com.io7m.azeno.model.AzAuditSearchParameters;
+import com.io7m.azeno.model.AzAuditSearchSeekType;
+import com.io7m.azeno.model.AzComparisonExactType;
 import com.io7m.azeno.model.AzPage;
+import com.io7m.azeno.model.AzTimeRange;
 import com.io7m.azeno.model.AzUserID;
 import com.io7m.azeno.protocol.asset.AzACommandAuditSearchPrevious;
+import com.io7m.azeno.protocol.asset.AzAResponseAuditSearch;
 import com.io7m.azeno.security.AzSecurity;
 import com.io7m.azeno.server.controller.asset.AzACmdAuditSearchPrevious;
+import com.io7m.azeno.server.controller.asset.AzAuditSearchCursors;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
 import com.io7m.medrina.api.MMatchActionType.MMatchActionWithName;
 import com.io7m.medrina.api.MMatchObjectType.MMatchObjectWithType;
@@ -36,8 +43,10 @@ import com.io7m.medrina.api.MRuleName;
 import org.junit.jupiter.api.Test;
 
 import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 
 import static com.io7m.azeno.error_codes.AzStandardErrorCodes.errorApiMisuse;
@@ -61,6 +70,20 @@ import static org.mockito.Mockito.when;
 public final class AzACmdAuditSearchPreviousTest
   extends AzCmdAbstractContract
 {
+  private static final OffsetDateTime TIME_BASE =
+    OffsetDateTime.now(ZoneOffset.UTC).withNano(0);
+
+  private static final AzAuditSearchParameters PARAMETERS =
+    new AzAuditSearchParameters(
+      Optional.empty(),
+      new AzComparisonExactType.Anything<>(),
+      new AzTimeRange(
+        TIME_BASE.minusDays(365L),
+        TIME_BASE.plusDays(356L)
+      ),
+      3L
+    );
+
   /**
    * Searching for audit records requires the permission to READ to AUDIT.
    *
@@ -84,7 +107,7 @@ public final class AzACmdAuditSearchPreviousTest
       assertThrows(AzCommandExecutionFailure.class, () -> {
         handler.execute(
           context,
-          new AzACommandAuditSearchPrevious());
+          new AzACommandAuditSearchPrevious("x"));
       });
 
     /* Assert. */
@@ -93,7 +116,8 @@ public final class AzACmdAuditSearchPreviousTest
   }
 
   /**
-   * Searching for files works.
+   * Searching for audit records works, and the page is retrieved from the
+   * cursor alone.
    *
    * @throws Exception On errors
    */
@@ -104,10 +128,8 @@ public final class AzACmdAuditSearchPreviousTest
   {
     /* Arrange. */
 
-    final var files =
+    final var events =
       mock(AzAuditSearchType.class);
-    final var fileSearch =
-      mock(AzDatabaseAuditSearchType.class);
 
     final var transaction =
       this.transaction();
@@ -116,38 +138,59 @@ public final class AzACmdAuditSearchPreviousTest
       new AzPage<>(
         List.of(
           new AzAuditEvent(
-            0L,
-            OffsetDateTime.now().withNano(0).plusSeconds(1L),
+            3L,
+            TIME_BASE.plusSeconds(4L),
             AzUserID.random(),
             "T",
             Map.of()
           ),
           new AzAuditEvent(
-            1L,
-            OffsetDateTime.now().withNano(0).plusSeconds(2L),
+            4L,
+            TIME_BASE.plusSeconds(5L),
             AzUserID.random(),
             "U",
             Map.of()
           ),
           new AzAuditEvent(
-            2L,
-            OffsetDateTime.now().withNano(0).plusSeconds(3L),
+            5L,
+            TIME_BASE.plusSeconds(6L),
             AzUserID.random(),
             "V",
             Map.of()
           )
         ),
         1,
+        3,
+        3L
+      );
+
+    final var cursor =
+      new AzAuditSearchCursor(
+        PARAMETERS,
         1,
-        0L
+        new AzAuditSearchSeekType.Before(TIME_BASE.plusSeconds(7L), 6L)
+      );
+    final var cursorNext =
+      new AzAuditSearchCursor(
+        PARAMETERS,
+        2,
+        new AzAuditSearchSeekType.After(TIME_BASE.plusSeconds(6L), 5L)
+      );
+    final var cursorPrevious =
+      new AzAuditSearchCursor(
+        PARAMETERS,
+        0,
+        new AzAuditSearchSeekType.Before(TIME_BASE.plusSeconds(4L), 3L)
       );
 
     when(transaction.query(AzAuditSearchType.class))
-      .thenReturn(files);
-    when(files.execute(any()))
-      .thenReturn(fileSearch);
-    when(fileSearch.pagePrevious(any()))
-      .thenReturn(pageMain);
+      .thenReturn(events);
+    when(events.execute(any()))
+      .thenReturn(new AzAuditSearchPage(
+        pageMain,
+        Optional.of(cursorNext),
+        Optional.of(cursorPrevious)
+      ));
 
     AzSecurity.setPolicy(new MPolicy(List.of(
       new MRule(
@@ -164,50 +207,58 @@ public final class AzACmdAuditSearchPreviousTest
 
     final var context =
       this.createContext();
-    final var session =
-      context.session();
-
-    session.setProperty(AzDatabaseAuditSearchType.class, fileSearch);
 
     /* Act. */
 
     final var handler = new AzACmdAuditSearchPrevious();
-    handler.execute(context, new AzACommandAuditSearchPrevious());
+    final var response =
+      (AzAResponseAuditSearch) handler.execute(
+        context,
+        new AzACommandAuditSearchPrevious(this.cursors().encode(cursor))
+      );
 
     /* Assert. */
 
-    verify(fileSearch)
-      .pagePrevious(transaction);
+    verify(transaction)
+      .query(AzAuditSearchType.class);
+    verify(events)
+      .execute(cursor);
+
+    assertEquals(pageMain, response.results());
+    assertEquals(
+      Optional.of(cursorNext),
+      this.cursors().decode(response.cursorNext().orElseThrow())
+    );
+    assertEquals(
+      Optional.of(cursorPrevious),
+      this.cursors().decode(response.cursorPrevious().orElseThrow())
+    );
 
-    verifyNoMoreInteractions(fileSearch);
     verifyNoMoreInteractions(transaction);
-    verifyNoMoreInteractions(files);
+    verifyNoMoreInteractions(events);
   }
 
   /**
-   * Searching for files works.
+   * Cursors that are malformed, or that were signed with a different key,
+   * are rejected.
    *
    * @throws Exception On errors
    */
 
   @Test
-  public void testSearchMustBegin()
+  public void testSearchCursorInvalid()
     throws Exception
   {
     /* Arrange. */
 
-    final var files =
+    final var events =
       mock(AzAuditSearchType.class);
-    final var fileSearch =
-      mock(AzDatabaseAuditSearchType.class);
 
     final var transaction =
       this.transaction();
 
     when(transaction.query(AzAuditSearchType.class))
-      .thenReturn(files);
-    when(files.execute(any()))
-      .thenReturn(fileSearch);
+      .thenReturn(events);
 
     AzSecurity.setPolicy(new MPolicy(List.of(
       new MRule(
@@ -225,17 +276,28 @@ public final class AzACmdAuditSearchPreviousTest
     final var context =
       this.createContext();
 
+    final var otherCursors =
+      new AzAuditSearchCursors(AzAuditSearchCursors.generateKey());
+    final var forged =
+      otherCursors.encode(AzAuditSearchCursor.first(PARAMETERS));
+
     /* Act. */
 
     final var handler = new AzACmdAuditSearchPrevious();
 
-    final var ex =
+    final var ex0 =
+      assertThrows(AzCommandExecutionFailure.class, () -> {
+        handler.execute(context, new AzACommandAuditSearchPrevious("not a cursor"));
+      });
+    final var ex1 =
       assertThrows(AzCommandExecutionFailure.class, () -> {
-        handler.execute(context, new AzACommandAuditSearchPrevious());
+        handler.execute(context, new AzACommandAuditSearchPrevious(forged));
       });
 
     /* Assert. */
 
-    assertEquals(errorApiMisuse(), ex.errorCode());
+    assertEquals(errorApiMisuse(), ex0.errorCode());
+    assertEquals(errorApiMisuse(), ex1.errorCode());
+    verifyNoMoreInteractions(events);
   }
 }
@@ -24,10 +24,14 @@ import com.io7m.azeno.model.AzUserID;
 import com.io7m.azeno.protocol.asset.AzACommandRolesAssign;
 import com.io7m.azeno.server.controller.asset.AzACmdRolesAssign;
 import com.io7m.azeno.server.controller.command_exec.AzCommandExecutionFailure;
+import com.io7m.azeno.server.service.sessions.AzUserCache;
+import com.io7m.azeno.server.service.telemetry.api.AzMetricsServiceType;
 import com.io7m.idstore.model.IdName;
 import com.io7m.medrina.api.MSubject;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 
+import java.time.Duration;
 import java.util.Optional;
 import java.util.Set;
 
@@ -273,4 +277,76 @@ public final class AzACmdRolesAssignTest
     verifyNoMoreInteractions(userGet);
     verifyNoMoreInteractions(userPut);
   }
+
+  /**
+   * Cached copies of the user are discarded once the change commits.
+   *
+   * @throws Exception On errors
+   */
+
+  @Test
+  public void testRoleGiveawayInvalidatesAfterCommit()
+    throws Exception
+  {
+    /* Arrange. */
+
+    final var userGet =
+      mock(AzUserGetType.class);
+    final var userPut =
+      mock(AzUserPutType.class);
+    final var transaction =
+      this.transaction();
+
+    final var userCache =
+      new AzUserCache(mock(AzMetricsServiceType.class), 100L, Duration.ofHours(1L));
+    this.services().register(AzUserCache.class, userCache);
+
+    final var targetUser =
+      new AzUser(
+        AzUserID.random(),
+        new IdName("x"),
+        new MSubject(Set.of())
+      );
+
+    when(transaction.query(AzUserGetType.class))
+      .thenReturn(userGet);
+    when(transaction.query(AzUserPutType.class))
+      .thenReturn(userPut);
+    when(userGet.execute(targetUser.userId()))
+      .thenReturn(Optional.of(targetUser));
+
+    this.setRoles(ROLE_ASSET_ADMIN);
+
+    final var context =
+      this.createContext();
+
+    /* Act. */
+
+    userCache.put(targetUser, userCache.generation(targetUser.userId()));
+
+    final var handler = new AzACmdRolesAssign();
+    handler.execute(
+      context,
+      new AzACommandRolesAssign(targetUser.userId(), Set.of(ROLE_AUDIT_READER))
+    );
+
+    /* Assert. */
+
+    assertEquals(Optional.empty(), userCache.find(targetUser.userId()));
+
+    /*
+     * A concurrent request caches the old roles before the change commits.
+     */
+
+    userCache.put(targetUser, userCache.generation(targetUser.userId()));
+
+    final var actions =
+      ArgumentCaptor.forClass(Runnable.class);
+
+    verify(transaction)
+      .afterCommit(actions.capture());
+
+    actions.getValue().run();
+    assertEquals(Optional.empty(), userCache.find(targetUser.userId()));
+  }
 }
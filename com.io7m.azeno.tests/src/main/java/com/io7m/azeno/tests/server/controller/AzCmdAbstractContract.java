@@ -21,6 +21,7 @@ import com.io7m.azeno.database.api.AzDatabaseTransactionType;
 import com.io7m.azeno.model.AzUser;
 import com.io7m.azeno.model.AzUserID;
 import com.io7m.azeno.server.controller.asset.AzACommandContext;
+import com.io7m.azeno.server.controller.asset.AzAuditSearchCursors;
 import com.io7m.azeno.server.service.clock.AzServerClock;
 import com.io7m.azeno.server.service.sessions.AzSession;
 import com.io7m.azeno.server.service.sessions.AzSessionSecretIdentifier;
@@ -52,12 +53,18 @@ public abstract class AzCmdAbstractContract
   private OffsetDateTime timeStart;
   private AzUser user;
   private AzACommandContext context;
+  private AzAuditSearchCursors cursors;
 
   protected final OffsetDateTime timeStart()
   {
     return this.timeStart;
   }
 
+  protected final AzAuditSearchCursors cursors()
+  {
+    return this.cursors;
+  }
+
   @BeforeEach
   protected final void commandSetup()
     throws Exception
@@ -75,6 +82,8 @@ public abstract class AzCmdAbstractContract
       this.serverClock.now();
     this.strings =
       AzStrings.create(Locale.ROOT);
+    this.cursors =
+      new AzAuditSearchCursors(AzAuditSearchCursors.generateKey());
 
     this.user =
       new AzUser(
@@ -92,6 +101,9 @@ public abstract class AzCmdAbstractContract
     this.services.register(
       AzServerTelemetryServiceType.class,
       AzServerTelemetryNoOp.noop());
+    this.services.register(
+      AzAuditSearchCursors.class,
+      this.cursors);
   }
 
   protected final void setRoles(
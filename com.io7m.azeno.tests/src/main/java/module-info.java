@@ -28,10 +28,17 @@ open module com.io7m.azeno.tests
   requires com.io7m.azeno.database.postgres;
   requires com.io7m.azeno.error_codes;
   requires com.io7m.azeno.model;
+  requires com.io7m.azeno.protocol.api;
+  requires com.io7m.azeno.protocol.asset.cb;
   requires com.io7m.azeno.protocol.asset;
+  requires com.io7m.azeno.server.asset.v1;
   requires com.io7m.azeno.security;
+  requires com.io7m.azeno.server.api;
   requires com.io7m.azeno.server.controller;
+  requires com.io7m.azeno.server.http;
   requires com.io7m.azeno.server.service.clock;
+  requires com.io7m.azeno.server.service.idstore;
+  requires com.io7m.azeno.server.service.reqlimit;
   requires com.io7m.azeno.server.service.sessions;
   requires com.io7m.azeno.server.service.solr;
   requires com.io7m.azeno.server.service.telemetry.api;
@@ -59,9 +66,11 @@ open module com.io7m.azeno.tests
   requires com.io7m.idstore.admin_client.api;
   requires com.io7m.idstore.admin_client;
   requires com.io7m.idstore.protocol.admin;
+  requires com.io7m.idstore.protocol.user;
   requires com.io7m.idstore.server.api;
   requires com.io7m.idstore.server.service.configuration;
   requires com.io7m.idstore.tls;
+  requires com.io7m.idstore.user_client.api;
   requires com.io7m.junreachable.core;
   requires com.io7m.lanark.core;
   requires com.io7m.medrina.api;
@@ -77,6 +86,7 @@ open module com.io7m.azeno.tests
   requires net.bytebuddy.agent;
   requires net.bytebuddy;
   requires net.jqwik.api;
+  requires org.jooq;
   requires org.mockito;
   requires org.postgresql.jdbc;
   requires org.slf4j;